@@ -0,0 +1,70 @@
+-- incident_event 를 type(LIST) -> created_at(RANGE, 월 단위) 2단 파티션 테이블로 바꾼다 (PostgreSQL 13+).
+-- 애플리케이션을 멈추고 한 번 실행한다. 이후 파티션 생성/drop 은 IncidentEventRetention 이 한다.
+-- range 파티션 이름: incident_event_<type>_p<from yyyyMMdd>_<to yyyyMMdd> (UTC). 이 형식만 관리 대상이다
+BEGIN;
+
+ALTER TABLE incident_event RENAME TO incident_event_legacy;
+ALTER INDEX IF EXISTS idx_incident_event_incident_time RENAME TO idx_incident_event_incident_time_legacy;
+ALTER INDEX IF EXISTS idx_incident_event_incident_id RENAME TO idx_incident_event_incident_id_legacy;
+ALTER INDEX IF EXISTS idx_incident_event_type_created RENAME TO idx_incident_event_type_created_legacy;
+ALTER TABLE incident_event_legacy RENAME CONSTRAINT incident_event_pkey TO incident_event_legacy_pkey;
+
+-- 파티션 테이블의 PK 는 파티션 키(type, created_at)를 포함해야 한다. id 는 계속 incident_event_seq 로 발급
+CREATE TABLE incident_event (
+    id          bigint                      NOT NULL,
+    incident_id bigint                      NOT NULL REFERENCES incident (id),
+    type        varchar(255)                NOT NULL,
+    note        varchar(255),
+    occurred_at timestamp(6) with time zone NOT NULL,
+    trace_id    varchar(255),
+    message     varchar(255),
+    created_at  timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (id, type, created_at)
+) PARTITION BY LIST (type);
+
+CREATE TABLE incident_event_incident_created PARTITION OF incident_event
+    FOR VALUES IN ('INCIDENT_CREATED') PARTITION BY RANGE (created_at);
+CREATE TABLE incident_event_event_ingested PARTITION OF incident_event
+    FOR VALUES IN ('EVENT_INGESTED') PARTITION BY RANGE (created_at);
+CREATE TABLE incident_event_status_changed PARTITION OF incident_event
+    FOR VALUES IN ('STATUS_CHANGED') PARTITION BY RANGE (created_at);
+
+-- 미리 만든 파티션 범위를 벗어난 insert 가 실패하지 않게 받아 둔다 (정상이면 비어 있다)
+CREATE TABLE incident_event_incident_created_default PARTITION OF incident_event_incident_created DEFAULT;
+CREATE TABLE incident_event_event_ingested_default PARTITION OF incident_event_event_ingested DEFAULT;
+CREATE TABLE incident_event_status_changed_default PARTITION OF incident_event_status_changed DEFAULT;
+
+-- 기존 데이터가 있는 달부터 다음 달까지 월 파티션
+DO $$
+DECLARE
+    event_type text;
+    month_start date;
+BEGIN
+    FOREACH event_type IN ARRAY ARRAY['INCIDENT_CREATED', 'EVENT_INGESTED', 'STATUS_CHANGED'] LOOP
+        month_start := date_trunc('month',
+                coalesce((SELECT min(created_at) FROM incident_event_legacy WHERE type = event_type), now())
+                        AT TIME ZONE 'UTC')::date;
+        WHILE month_start < (date_trunc('month', now() AT TIME ZONE 'UTC') + interval '2 month')::date LOOP
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                    'incident_event_' || lower(event_type)
+                            || '_p' || to_char(month_start, 'YYYYMMDD')
+                            || '_' || to_char((month_start + interval '1 month')::date, 'YYYYMMDD'),
+                    'incident_event_' || lower(event_type),
+                    month_start::timestamp AT TIME ZONE 'UTC',
+                    (month_start + interval '1 month')::timestamp AT TIME ZONE 'UTC');
+            month_start := (month_start + interval '1 month')::date;
+        END LOOP;
+    END LOOP;
+END $$;
+
+CREATE INDEX idx_incident_event_incident_time ON incident_event (incident_id, occurred_at);
+CREATE INDEX idx_incident_event_incident_id ON incident_event (incident_id, id);
+CREATE INDEX idx_incident_event_type_created ON incident_event (type, created_at);
+
+INSERT INTO incident_event (id, incident_id, type, note, occurred_at, trace_id, message, created_at)
+SELECT id, incident_id, type, note, occurred_at, trace_id, message, created_at
+FROM incident_event_legacy;
+
+COMMIT;
+
+-- 확인 후: DROP TABLE incident_event_legacy;
@@ -0,0 +1,25 @@
+package com.troubleshoot.observability.benchmark;
+
+import com.troubleshoot.observability.ObservabilityApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// DB 를 타는 벤치마크용 애플리케이션 컨텍스트 (H2 in-memory)
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        // SecurityConfig 가 servlet 환경을 전제로 하므로 웹 서버는 임의 포트로 띄운다
+        return SpringApplication.run(ObservabilityApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--logging.level.root=warn",
+                "--logging.level.org.hibernate.SQL=warn");
+    }
+}
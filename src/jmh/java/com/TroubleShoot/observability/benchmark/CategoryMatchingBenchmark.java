@@ -0,0 +1,114 @@
+package com.troubleshoot.observability.benchmark;
+
+import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.analyze.CategoryRule;
+import com.troubleshoot.observability.domain.incident.analyze.RuleBasedIncidentAnalyzer;
+import com.troubleshoot.observability.domain.incident.grouping.ExceptionSignature;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEvent;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventType;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// category 판정: 이전 방식(메시지 reduce 로 corpus 생성 + keyword 마다 contains) vs 컴파일된 keyword 오토마톤.
+// keywords=6 은 기본 규칙, 300 은 규칙이 늘어난 경우. 어느 규칙에도 안 걸리는 이벤트 50건이라 양쪽 다 끝까지 훑는다
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CategoryMatchingBenchmark {
+
+    private static final int EVENTS = 50;
+
+    @Param({"6", "300"})
+    public int keywords;
+
+    private List<CategoryRule> rules;
+    private RuleBasedIncidentAnalyzer analyzer;
+    private Incident incident;
+    private List<IncidentEvent> events;
+
+    @Setup
+    public void setUp() {
+        rules = new ArrayList<>(List.of(
+                CategoryRule.of("DB", "sql", "sqlexception", "database"),
+                CategoryRule.of("NETWORK", "timeout"),
+                CategoryRule.of("APP", "nullpointerexception", "illegalargumentexception")));
+        // 추가 규칙: 10개 category 에 keyword 를 고르게 나눈다
+        int extra = keywords - 6;
+        for (int c = 0; c < 10 && extra > 0; c++) {
+            List<String> categoryKeywords = new ArrayList<>();
+            for (int k = c; k < extra; k += 10) {
+                categoryKeywords.add("custom" + c + "kw" + k + "exception");
+            }
+            rules.add(new CategoryRule("CUSTOM_" + c, categoryKeywords));
+        }
+        analyzer = new RuleBasedIncidentAnalyzer(rules);
+
+        Instant t0 = Instant.parse("2026-02-25T10:00:00Z");
+        incident = new Incident(
+                "checkout",
+                ExceptionSignature.fromStacktrace(StacktraceCorpus.SHORT.stacktrace()).getSignatureHash(),
+                "com.example.checkout.PaymentDeclinedException",
+                t0,
+                "trace-0",
+                "Payment declined by issuer for order 1024");
+        events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(new IncidentEvent(
+                    incident,
+                    IncidentEventType.EVENT_INGESTED,
+                    null,
+                    t0.plusSeconds(i),
+                    "trace-" + i,
+                    "Payment declined by issuer for order " + (1024 + i) + ", card network responded with code 05 after retry"));
+        }
+    }
+
+    @Benchmark
+    public String legacyCorpusScan() {
+        String exceptionClass = safeLower(incident.getExceptionClass());
+        String sampleMessage = safeLower(incident.getSampleMessage());
+        String eventText = safeLower(
+                events.stream()
+                        .filter(Objects::nonNull)
+                        .map(IncidentEvent::getMessage)
+                        .filter(m -> m != null && !m.isBlank())
+                        .reduce((a, b) -> a + " " + b)
+                        .orElse(""));
+        String corpus = String.join(" ", exceptionClass, sampleMessage, eventText);
+        for (CategoryRule rule : rules) {
+            for (String keyword : rule.keywords()) {
+                if (corpus.contains(keyword)) {
+                    return rule.category();
+                }
+            }
+        }
+        return "UNKNOWN";
+    }
+
+    @Benchmark
+    public String compiledMatcher() {
+        return analyzer.categorize(incident, events);
+    }
+
+    private static String safeLower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,47 @@
+package com.troubleshoot.observability.benchmark;
+
+import com.troubleshoot.observability.domain.incident.grouping.ExceptionSignature;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// 수집 경로의 signature 계산: raw stacktrace 파싱과 Throwable 기반 생성
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExceptionSignatureBenchmark {
+
+    @Param({"SHORT", "DEEP_SPRING", "LARGE_64KB"})
+    public StacktraceCorpus corpus;
+
+    private String stacktrace;
+    private Throwable throwable;
+
+    @Setup
+    public void setUp() {
+        stacktrace = corpus.stacktrace();
+        throwable = corpus.throwable();
+    }
+
+    @Benchmark
+    public ExceptionSignature fromStacktrace() {
+        return ExceptionSignature.fromStacktrace(stacktrace);
+    }
+
+    @Benchmark
+    public ExceptionSignature fromThrowable() {
+        return ExceptionSignature.fromThrowable(throwable);
+    }
+}
@@ -0,0 +1,96 @@
+package com.troubleshoot.observability.benchmark;
+
+import com.troubleshoot.observability.domain.incident.grouping.GroupingRule;
+import com.troubleshoot.observability.domain.incident.service.ErrorEvent;
+import com.troubleshoot.observability.domain.incident.service.GroupingResult;
+import com.troubleshoot.observability.domain.incident.service.IncidentGroupingService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// IncidentGroupingService.handle() end-to-end (H2 in-memory, 실제 Spring 컨텍스트)
+// REPEATED: 같은 signature 반복 -> 인덱스 hit + write-behind 카운터 경로
+// DISTINCT: 매번 새 signature -> incident 생성 경로. signature 가 다른 trace 는 @Setup 에서 미리 만들어 두고 돌려 쓰며,
+//           한 바퀴 돌 때마다 occurredAt 을 WINDOW 밖으로 옮겨서 같은 trace 도 다시 생성 경로를 탄다
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IncidentGroupingBenchmark {
+
+    public enum Workload { REPEATED, DISTINCT }
+
+    @Param({"REPEATED", "DISTINCT"})
+    public Workload workload;
+
+    @Param({"DEEP_SPRING"})
+    public StacktraceCorpus corpus;
+
+    // 2 의 거듭제곱 (index 를 mask 로 구한다). DEEP_SPRING 기준 40MB 정도
+    private static final int DISTINCT_POOL_SIZE = 1 << 13;
+    private static final Duration ROUND_SHIFT = GroupingRule.WINDOW.plusMinutes(1);
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private IncidentGroupingService groupingService;
+    private String stacktrace;
+    private String[] distinctStacktraces;
+    private Instant distinctStart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("grouping_benchmark");
+        groupingService = context.getBean(IncidentGroupingService.class);
+        stacktrace = corpus.stacktrace();
+        if (workload == Workload.DISTINCT) {
+            distinctStacktraces = new String[DISTINCT_POOL_SIZE];
+            for (int i = 0; i < DISTINCT_POOL_SIZE; i++) {
+                distinctStacktraces[i] = stacktrace.replace("Step0.execute", "Step0.execute" + i);
+            }
+            distinctStart = Instant.now();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public GroupingResult handle() {
+        long n = sequence.incrementAndGet();
+        String trace;
+        Instant occurredAt;
+        if (workload == Workload.REPEATED) {
+            trace = stacktrace;
+            occurredAt = Instant.now();
+        } else {
+            trace = distinctStacktraces[(int) (n & (DISTINCT_POOL_SIZE - 1))];
+            occurredAt = distinctStart.plus(ROUND_SHIFT.multipliedBy(n / DISTINCT_POOL_SIZE));
+        }
+        return groupingService.handle(new ErrorEvent(
+                "checkout",
+                occurredAt,
+                "trace-" + n,
+                "payment gateway returned 502",
+                "java.lang.IllegalStateException",
+                trace));
+    }
+}
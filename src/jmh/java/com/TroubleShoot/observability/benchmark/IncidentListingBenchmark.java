@@ -0,0 +1,117 @@
+package com.troubleshoot.observability.benchmark;
+
+import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
+import com.troubleshoot.observability.domain.incident.infra.IncidentSearchCondition;
+import com.troubleshoot.observability.domain.incident.infra.IncidentSummaryRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// incident 목록 한 페이지: 엔티티 로딩 후 매핑(이전 방식) vs projection record 직접 조회(현재 방식).
+// 할당량 비교는 ./gradlew jmh -Pjmh.includes=IncidentListingBenchmark -Pjmh.profilers=gc
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IncidentListingBenchmark {
+
+    private static final int INCIDENTS = 10_000;
+    private static final String LONG_TEXT = "x".repeat(2_000);
+
+    @Param({"50", "200"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private IncidentRepository incidentRepository;
+    private EntityManagerFactory entityManagerFactory;
+    private IncidentSearchCondition condition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("listing_benchmark");
+        incidentRepository = context.getBean(IncidentRepository.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        condition = new IncidentSearchCondition("checkout", null, null, null);
+
+        // 목록에는 안 쓰이는 긴 text 컬럼까지 채워 둔다
+        Instant t0 = Instant.parse("2026-02-25T00:00:00Z");
+        List<Incident> incidents = new ArrayList<>(INCIDENTS);
+        for (int i = 0; i < INCIDENTS; i++) {
+            Incident incident = new Incident(
+                    i % 2 == 0 ? "checkout" : "billing",
+                    "hash-" + i,
+                    "java.lang.IllegalStateException",
+                    t0.plusSeconds(i),
+                    "trace-" + i,
+                    LONG_TEXT);
+            incident.transitionTo(IncidentStatus.RESOLVED, LONG_TEXT);
+            incidents.add(incident);
+        }
+        incidentRepository.saveAll(incidents);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Summary> entities() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            List<Incident> incidents = entityManager.createQuery("""
+                            select i from Incident i
+                            where i.serviceName = :serviceName and i.lastSeenAt is not null
+                            order by i.lastSeenAt desc, i.id desc
+                            """, Incident.class)
+                    .setParameter("serviceName", condition.serviceName())
+                    .setMaxResults(pageSize)
+                    .getResultList();
+            List<Summary> result = new ArrayList<>(incidents.size());
+            for (Incident incident : incidents) {
+                result.add(new Summary(incident.getId(), incident.getStatus(), incident.getServiceName(),
+                        incident.getExceptionClass(), incident.getOccurrenceCount(), incident.getLastSeenAt()));
+            }
+            return result;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public List<Summary> projection() {
+        List<IncidentSummaryRow> rows = incidentRepository.search(condition, null, pageSize);
+        List<Summary> result = new ArrayList<>(rows.size());
+        for (IncidentSummaryRow row : rows) {
+            result.add(new Summary(row.id(), row.status(), row.serviceName(),
+                    row.exceptionClass(), row.occurrenceCount(), row.lastSeenAt()));
+        }
+        return result;
+    }
+
+    // 응답 DTO 와 같은 모양 (두 경로의 마지막 매핑 비용을 같게)
+    public record Summary(Long id, IncidentStatus status, String serviceName, String exceptionClass,
+                          int occurrenceCount, Instant lastSeenAt) {
+    }
+}
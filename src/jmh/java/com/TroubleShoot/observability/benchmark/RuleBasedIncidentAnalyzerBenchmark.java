@@ -0,0 +1,67 @@
+package com.troubleshoot.observability.benchmark;
+
+import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.analyze.IncidentAnalysisResult;
+import com.troubleshoot.observability.domain.incident.analyze.RuleBasedIncidentAnalyzer;
+import com.troubleshoot.observability.domain.incident.grouping.ExceptionSignature;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEvent;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventType;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// incident 1건 + 최근 이벤트 50건 분석
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RuleBasedIncidentAnalyzerBenchmark {
+
+    private static final int EVENTS = 50;
+
+    private final RuleBasedIncidentAnalyzer analyzer = new RuleBasedIncidentAnalyzer();
+    private Incident incident;
+    private List<IncidentEvent> events;
+
+    @Setup
+    public void setUp() {
+        Instant t0 = Instant.parse("2026-02-25T10:00:00Z");
+        incident = new Incident(
+                "checkout",
+                ExceptionSignature.fromStacktrace(StacktraceCorpus.SHORT.stacktrace()).getSignatureHash(),
+                "java.sql.SQLTransientConnectionException",
+                t0,
+                "trace-0",
+                "HikariPool-1 - Connection is not available, request timed out after 30000ms");
+        events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(new IncidentEvent(
+                    incident,
+                    IncidentEventType.EVENT_INGESTED,
+                    null,
+                    t0.plusSeconds(i),
+                    "trace-" + i,
+                    i % 3 == 0
+                            ? "HikariPool-1 - Connection is not available, request timed out after 30000ms"
+                            : "could not execute statement; SQL [n/a]; timeout while waiting for lock " + i));
+        }
+    }
+
+    @Benchmark
+    public IncidentAnalysisResult analyze() {
+        return analyzer.analyze(incident, events);
+    }
+}
@@ -0,0 +1,44 @@
+package com.troubleshoot.observability.benchmark;
+
+import com.troubleshoot.observability.domain.incident.grouping.ExceptionSignature;
+import com.troubleshoot.observability.domain.incident.grouping.SignatureHashAlgorithm;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// signatureString -> signature_hash 만 따로 측정 (파싱 제외)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SignatureHashBenchmark {
+
+    @Param({"SHA_256", "MURMUR3_128"})
+    public SignatureHashAlgorithm algorithm;
+
+    @Param({"SHORT", "DEEP_SPRING"})
+    public StacktraceCorpus corpus;
+
+    private String signatureString;
+
+    @Setup
+    public void setUp() {
+        signatureString = ExceptionSignature.fromStacktrace(corpus.stacktrace()).getSignatureString();
+    }
+
+    @Benchmark
+    public String hash() {
+        return algorithm.hash(signatureString);
+    }
+}
@@ -0,0 +1,135 @@
+package com.troubleshoot.observability.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 벤치마크 입력용 stacktrace. 실제 수집되는 모양(짧은 trace / Spring MVC 깊은 trace / 64KB 잘림 직전 trace)을 흉내낸다.
+public enum StacktraceCorpus {
+
+    SHORT {
+        @Override
+        List<StackTraceElement> frames() {
+            return List.of(
+                    new StackTraceElement("com.acme.billing.InvoiceService", "charge", "InvoiceService.java", 88),
+                    new StackTraceElement("com.acme.billing.InvoiceController", "pay", "InvoiceController.java", 41),
+                    frame("java.base/jdk.internal.reflect.DirectMethodHandleAccessor", "invoke",
+                            "DirectMethodHandleAccessor.java", 103)
+            );
+        }
+    },
+
+    DEEP_SPRING {
+        @Override
+        List<StackTraceElement> frames() {
+            List<StackTraceElement> frames = new ArrayList<>(appFrames(6));
+            frames.addAll(SPRING_MVC_FRAMES);
+            return frames;
+        }
+    },
+
+    LARGE_64KB {
+        @Override
+        List<StackTraceElement> frames() {
+            List<StackTraceElement> frames = new ArrayList<>(appFrames(6));
+            int chars = 0;
+            int i = 0;
+            while (chars < 64 * 1024) {
+                StackTraceElement frame = SPRING_MVC_FRAMES.get(i++ % SPRING_MVC_FRAMES.size());
+                frames.add(frame);
+                chars += frame.toString().length() + 5;
+            }
+            return frames;
+        }
+    };
+
+    private static final List<StackTraceElement> SPRING_MVC_FRAMES = springMvcFrames();
+
+    abstract List<StackTraceElement> frames();
+
+    public String stacktrace() {
+        StringBuilder sb = new StringBuilder("java.lang.IllegalStateException: payment gateway returned 502\n");
+        for (StackTraceElement frame : frames()) {
+            sb.append("\tat ").append(frame).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public Throwable throwable() {
+        IllegalStateException throwable = new IllegalStateException("payment gateway returned 502");
+        throwable.setStackTrace(frames().toArray(new StackTraceElement[0]));
+        return new RuntimeException("wrapped", throwable);
+    }
+
+    private static List<StackTraceElement> appFrames(int count) {
+        List<StackTraceElement> frames = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            frames.add(new StackTraceElement("com.acme.checkout.step.Step" + i, "execute", "Step" + i + ".java", 20 + i));
+        }
+        return frames;
+    }
+
+    // "module/class" 형태면 실제 JDK trace 처럼 module 이름을 붙인다
+    private static StackTraceElement frame(String className, String methodName, String fileName, int lineNumber) {
+        int slash = className.indexOf('/');
+        if (slash < 0) {
+            return new StackTraceElement(className, methodName, fileName, lineNumber);
+        }
+        return new StackTraceElement(null, className.substring(0, slash), null,
+                className.substring(slash + 1), methodName, fileName, lineNumber);
+    }
+
+    private static List<StackTraceElement> springMvcFrames() {
+        String[][] frames = {
+                {"java.base/jdk.internal.reflect.DirectMethodHandleAccessor", "invoke", "DirectMethodHandleAccessor.java"},
+                {"java.base/java.lang.reflect.Method", "invoke", "Method.java"},
+                {"org.springframework.aop.support.AopUtils", "invokeJoinpointUsingReflection", "AopUtils.java"},
+                {"org.springframework.aop.framework.ReflectiveMethodInvocation", "invokeJoinpoint", "ReflectiveMethodInvocation.java"},
+                {"org.springframework.aop.framework.ReflectiveMethodInvocation", "proceed", "ReflectiveMethodInvocation.java"},
+                {"org.springframework.transaction.interceptor.TransactionInterceptor$1", "proceedWithInvocation", "TransactionInterceptor.java"},
+                {"org.springframework.transaction.interceptor.TransactionAspectSupport", "invokeWithinTransaction", "TransactionAspectSupport.java"},
+                {"org.springframework.transaction.interceptor.TransactionInterceptor", "invoke", "TransactionInterceptor.java"},
+                {"org.springframework.aop.framework.CglibAopProxy$DynamicAdvisedInterceptor", "intercept", "CglibAopProxy.java"},
+                {"org.springframework.web.method.support.InvocableHandlerMethod", "doInvoke", "InvocableHandlerMethod.java"},
+                {"org.springframework.web.method.support.InvocableHandlerMethod", "invokeForRequest", "InvocableHandlerMethod.java"},
+                {"org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod", "invokeAndHandle", "ServletInvocableHandlerMethod.java"},
+                {"org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter", "invokeHandlerMethod", "RequestMappingHandlerAdapter.java"},
+                {"org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter", "handleInternal", "RequestMappingHandlerAdapter.java"},
+                {"org.springframework.web.servlet.mvc.method.AbstractHandlerMethodAdapter", "handle", "AbstractHandlerMethodAdapter.java"},
+                {"org.springframework.web.servlet.DispatcherServlet", "doDispatch", "DispatcherServlet.java"},
+                {"org.springframework.web.servlet.DispatcherServlet", "doService", "DispatcherServlet.java"},
+                {"org.springframework.web.servlet.FrameworkServlet", "processRequest", "FrameworkServlet.java"},
+                {"org.springframework.web.servlet.FrameworkServlet", "doPost", "FrameworkServlet.java"},
+                {"jakarta.servlet.http.HttpServlet", "service", "HttpServlet.java"},
+                {"org.springframework.web.servlet.FrameworkServlet", "service", "FrameworkServlet.java"},
+                {"org.apache.catalina.core.ApplicationFilterChain", "internalDoFilter", "ApplicationFilterChain.java"},
+                {"org.apache.catalina.core.ApplicationFilterChain", "doFilter", "ApplicationFilterChain.java"},
+                {"org.springframework.security.web.FilterChainProxy$VirtualFilterChain", "doFilter", "FilterChainProxy.java"},
+                {"org.springframework.security.web.access.intercept.AuthorizationFilter", "doFilter", "AuthorizationFilter.java"},
+                {"org.springframework.security.web.FilterChainProxy", "doFilterInternal", "FilterChainProxy.java"},
+                {"org.springframework.web.filter.OncePerRequestFilter", "doFilter", "OncePerRequestFilter.java"},
+                {"org.springframework.web.filter.RequestContextFilter", "doFilterInternal", "RequestContextFilter.java"},
+                {"org.springframework.web.filter.CharacterEncodingFilter", "doFilterInternal", "CharacterEncodingFilter.java"},
+                {"org.apache.catalina.core.StandardWrapperValve", "invoke", "StandardWrapperValve.java"},
+                {"org.apache.catalina.core.StandardContextValve", "invoke", "StandardContextValve.java"},
+                {"org.apache.catalina.authenticator.AuthenticatorBase", "invoke", "AuthenticatorBase.java"},
+                {"org.apache.catalina.core.StandardHostValve", "invoke", "StandardHostValve.java"},
+                {"org.apache.catalina.valves.ErrorReportValve", "invoke", "ErrorReportValve.java"},
+                {"org.apache.catalina.core.StandardEngineValve", "invoke", "StandardEngineValve.java"},
+                {"org.apache.catalina.connector.CoyoteAdapter", "service", "CoyoteAdapter.java"},
+                {"org.apache.coyote.http11.Http11Processor", "service", "Http11Processor.java"},
+                {"org.apache.coyote.AbstractProcessorLight", "process", "AbstractProcessorLight.java"},
+                {"org.apache.coyote.AbstractProtocol$ConnectionHandler", "process", "AbstractProtocol.java"},
+                {"org.apache.tomcat.util.net.NioEndpoint$SocketProcessor", "doRun", "NioEndpoint.java"},
+                {"org.apache.tomcat.util.net.SocketProcessorBase", "run", "SocketProcessorBase.java"},
+                {"org.apache.tomcat.util.threads.ThreadPoolExecutor", "runWorker", "ThreadPoolExecutor.java"},
+                {"org.apache.tomcat.util.threads.ThreadPoolExecutor$Worker", "run", "ThreadPoolExecutor.java"},
+                {"org.apache.tomcat.util.threads.TaskThread$WrappingRunnable", "run", "TaskThread.java"},
+                {"java.base/java.lang.Thread", "run", "Thread.java"}
+        };
+        List<StackTraceElement> result = new ArrayList<>(frames.length);
+        for (int i = 0; i < frames.length; i++) {
+            result.add(frame(frames[i][0], frames[i][1], frames[i][2], 100 + i * 7));
+        }
+        return List.copyOf(result);
+    }
+}
@@ -1,13 +1,35 @@
 package com.troubleshoot.observability.domain.incident;
 
+import com.troubleshoot.observability.domain.incident.grouping.OpenIncidentIndexListener;
 import jakarta.persistence.*;
 import java.time.Instant;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
-@Table(name = "incident")
+@Table(
+        name = "incident",
+        uniqueConstraints = {
+                // grouping 대상 incident 는 (service, signature) 당 하나뿐 (grouping_slot 이 NULL 인 행은 제약 대상 아님)
+                @UniqueConstraint(name = "uk_incident_grouping_slot",
+                        columnNames = {"service_name", "signature_hash", "grouping_slot"})
+        },
+        indexes = {
+                // 목록 조회: 필터 조합별 등호 컬럼 + (last_seen_at, id) keyset 정렬
+                @Index(name = "idx_incident_last_seen", columnList = "last_seen_at, id"),
+                @Index(name = "idx_incident_service_last_seen", columnList = "service_name, last_seen_at, id"),
+                @Index(name = "idx_incident_status_last_seen", columnList = "status, last_seen_at, id"),
+                @Index(name = "idx_incident_service_status_last_seen",
+                        columnList = "service_name, status, last_seen_at, id")
+        }
+)
+@DynamicUpdate // occurrence 카운터는 bulk UPDATE 로 갱신되므로 상태 변경 시 덮어쓰지 않게 변경된 컬럼만 UPDATE
+@EntityListeners(OpenIncidentIndexListener.class)
 public class Incident {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // grouping 은 native upsert 가 nextval('incident_seq') 로 id 를 직접 받으므로 pooled 블록 없이 1씩 증가
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "incident_seq")
+    @SequenceGenerator(name = "incident_seq", sequenceName = "incident_seq", allocationSize = 1)
     private Long id;
 
     @Column(nullable = true, length = 64)
@@ -49,6 +71,10 @@ public class Incident {
     @Column(name = "occurrence_count")
     private int occurrenceCount;
 
+    // grouping 대상(OPEN)이면 TRUE, 아니면 NULL
+    @Column(name = "grouping_slot")
+    private Boolean groupingSlot;
+
     @Column(name = "primary_trace_id", length = 64)
     private String primaryTraceId;
 
@@ -106,6 +132,7 @@ public class Incident {
         this.firstSeenAt = occurredAt;
         this.lastSeenAt = occurredAt;
         this.occurrenceCount = 1;
+        this.groupingSlot = Boolean.TRUE;
         this.primaryTraceId = primaryTraceId;
         this.sampleMessage = sampleMessage;
         this.status = IncidentStatus.OPEN;
@@ -124,6 +151,9 @@ public class Incident {
 
         this.status = next;
         this.updatedAt = Instant.now();
+        if (!next.isGroupable()) {
+            this.groupingSlot = null; // 이후 같은 signature 는 새 incident 로 생성
+        }
 
         if (next == IncidentStatus.ACKNOWLEDGED) {
             this.acknowledgedAt = Instant.now();
@@ -162,9 +192,15 @@ public class Incident {
     }
 
     public void recordOccurrence(Instant occurredAt) {
-        this.occurrenceCount = this.occurrenceCount + 1;
-        if (this.lastSeenAt == null || occurredAt.isAfter(this.lastSeenAt)) {
-            this.lastSeenAt = occurredAt;
+        recordOccurrences(1, occurredAt);
+    }
+
+    // 배치 수집 시 같은 incident의 발생 건수를 한 번에 반영
+    public void recordOccurrences(int count, Instant lastOccurredAt) {
+        if (count <= 0) throw new IllegalArgumentException("count must be positive");
+        this.occurrenceCount = this.occurrenceCount + count;
+        if (this.lastSeenAt == null || lastOccurredAt.isAfter(this.lastSeenAt)) {
+            this.lastSeenAt = lastOccurredAt;
         }
         this.updatedAt = Instant.now();
     }
@@ -174,6 +210,7 @@ public class Incident {
     public IncidentStatus getStatus() { return status; }
     public String getTraceId() { return traceId; }
     public Instant getCreatedAt() { return createdAt; }
+    public Instant getUpdatedAt() { return updatedAt; }
     public String getServiceName() { return serviceName; }
     public String getSignatureHash() { return signatureHash; }
     public String getExceptionClass() { return exceptionClass; }
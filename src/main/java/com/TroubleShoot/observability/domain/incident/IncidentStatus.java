@@ -1,10 +1,25 @@
 package com.troubleshoot.observability.domain.incident;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum IncidentStatus {
     OPEN,          // 생성됨(미처리)
     ANALYZING,     // AI 분석 중
     ANALYZED,      // AI 분석 완료
     ACKNOWLEDGED,  // 운영자 확인
     RESOLVED,      // 해결됨
-    IGNORED        // 무시/오탐
+    IGNORED;       // 무시/오탐
+
+    private static final Set<IncidentStatus> GROUPABLE = EnumSet.of(OPEN, ANALYZING, ANALYZED);
+
+    // 새 발생을 계속 이어 붙이는 상태. 분석(자동 포함)만으로는 grouping 이 끊기지 않고,
+    // 운영자가 확인/종결하면 이후 같은 signature 는 새 incident 가 된다
+    public boolean isGroupable() {
+        return GROUPABLE.contains(this);
+    }
+
+    public static Set<IncidentStatus> groupable() {
+        return GROUPABLE;
+    }
 }
@@ -0,0 +1,15 @@
+package com.troubleshoot.observability.domain.incident.analyze;
+
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRow;
+import java.util.List;
+import java.util.function.Consumer;
+
+// incremental analyzer 가 필요한 만큼만 이벤트를 읽어 가는 통로
+public interface AnalysisEventSource {
+
+    // 이전 상태가 없을 때 시작점으로 쓸 최근 이벤트 (id desc, 개수 제한)
+    List<IncidentEventRow> latest();
+
+    // afterEventId 이후 이벤트를 id 순서대로 chunk 단위로 넘긴다
+    void forEachAfter(long afterEventId, Consumer<List<IncidentEventRow>> chunkConsumer);
+}
@@ -0,0 +1,179 @@
+package com.troubleshoot.observability.domain.incident.analyze;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+// RuleBasedIncidentAnalyzer 가 쓰는 규칙 한 벌을 컴파일한 불변 객체.
+// category keyword 는 KeywordMatcher 하나로 묶어 두고, version 은 analyzerVersion 으로 결과에 남는다
+// (파일에서 읽었으면 내용 SHA-256 앞 12자리라 같은 파일이면 어느 인스턴스에서나 같은 값).
+public final class AnalysisRuleSet {
+
+    public static final String BUILT_IN_VERSION = "rule-v1";
+
+    private static final ObjectMapper RULE_FILE_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+
+    private final String version;
+    private final List<CategoryRule> categories;
+    private final List<SeverityRule> severities;
+    private final String defaultSeverity;
+    private final CategoryRule fallback;
+    private final KeywordMatcher matcher;
+
+    public AnalysisRuleSet(String version,
+                           List<CategoryRule> categories,
+                           List<SeverityRule> severities,
+                           String defaultSeverity,
+                           List<String> fallbackRootCauses,
+                           List<String> fallbackNextActions) {
+        if (version == null || version.isBlank()) {
+            throw new IllegalArgumentException("rule set version must not be blank");
+        }
+        this.version = version;
+        this.categories = List.copyOf(categories);
+        Set<String> names = new HashSet<>();
+        for (CategoryRule category : this.categories) {
+            if (!names.add(category.category())) {
+                throw new IllegalArgumentException("duplicate category rule: " + category.category());
+            }
+        }
+        this.severities = severities.stream()
+                .sorted(Comparator.comparingLong(SeverityRule::minOccurrences).reversed())
+                .toList();
+        this.defaultSeverity = defaultSeverity == null || defaultSeverity.isBlank() ? "LOW" : defaultSeverity;
+        this.fallback = new CategoryRule("UNKNOWN", List.of(), fallbackRootCauses, fallbackNextActions);
+
+        // 규칙 index 가 keyword group 이 된다
+        KeywordMatcher.Builder builder = KeywordMatcher.builder();
+        for (int i = 0; i < this.categories.size(); i++) {
+            for (String keyword : this.categories.get(i).keywords()) {
+                builder.add(i, keyword);
+            }
+        }
+        this.matcher = builder.build();
+    }
+
+    // 코드에 들어 있는 기본 규칙 (규칙 파일을 지정하지 않았을 때)
+    public static AnalysisRuleSet builtIn() {
+        return withCategories(BUILT_IN_VERSION, List.of(
+                new CategoryRule("DB",
+                        List.of("sql", "sqlexception", "database"),
+                        List.of("Database latency", "Connection pool exhaustion", "Query slowdown"),
+                        List.of("Check DB latency", "Inspect connection pool", "Review slow queries")),
+                new CategoryRule("NETWORK",
+                        List.of("timeout"),
+                        List.of("Upstream timeout", "Network instability", "Downstream dependency slowness"),
+                        List.of("Inspect downstream response times", "Check timeout settings", "Verify network path")),
+                new CategoryRule("APP",
+                        List.of("nullpointerexception", "illegalargumentexception"),
+                        List.of("Application bug", "Invalid input handling", "Null/state handling issue"),
+                        List.of("Inspect stack trace", "Reproduce request flow", "Check recent code changes"))
+        ));
+    }
+
+    // 기본 severity/fallback 에 category 만 바꾼 규칙
+    public static AnalysisRuleSet withCategories(String version, List<CategoryRule> categories) {
+        return new AnalysisRuleSet(
+                version,
+                categories,
+                List.of(new SeverityRule(100, "HIGH"), new SeverityRule(20, "MEDIUM")),
+                "LOW",
+                List.of("Requires manual investigation"),
+                List.of("Inspect logs", "Review recent deploys", "Gather more evidence"));
+    }
+
+    // 규칙 파일 내용. 확장자가 .json 이면 JSON, 그 외는 YAML 로 읽는다
+    public static AnalysisRuleSet parse(byte[] content, String fileName) {
+        RuleFile file;
+        try {
+            if (fileName.toLowerCase(Locale.ROOT).endsWith(".json")) {
+                file = RULE_FILE_MAPPER.readValue(content, RuleFile.class);
+            } else {
+                Object tree = new Yaml(new SafeConstructor(new LoaderOptions()))
+                        .load(new String(content, StandardCharsets.UTF_8));
+                file = RULE_FILE_MAPPER.convertValue(tree, RuleFile.class);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("invalid analysis rule file " + fileName, e);
+        }
+        if (file == null || file.categories() == null || file.categories().isEmpty()) {
+            throw new IllegalArgumentException("analysis rule file " + fileName + " has no categories");
+        }
+        return new AnalysisRuleSet(
+                "rules-" + sha256Prefix(content),
+                file.categories().stream()
+                        .map(c -> new CategoryRule(c.name(), c.keywords(), c.rootCauses(), c.nextActions()))
+                        .toList(),
+                file.severities() == null
+                        ? List.of()
+                        : file.severities().stream().map(s -> new SeverityRule(s.minOccurrences(), s.level())).toList(),
+                file.defaultSeverity(),
+                file.fallback() == null ? List.of() : file.fallback().rootCauses(),
+                file.fallback() == null ? List.of() : file.fallback().nextActions());
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public List<CategoryRule> categories() {
+        return categories;
+    }
+
+    public KeywordMatcher matcher() {
+        return matcher;
+    }
+
+    // matcher 가 돌려준 group 의 규칙. 맞은 게 없으면 UNKNOWN fallback
+    public CategoryRule categoryFor(int group) {
+        return group == KeywordMatcher.NO_MATCH ? fallback : categories.get(group);
+    }
+
+    public String severity(long occurrenceCount) {
+        for (SeverityRule rule : severities) {
+            if (occurrenceCount >= rule.minOccurrences()) {
+                return rule.severity();
+            }
+        }
+        return defaultSeverity;
+    }
+
+    private static String sha256Prefix(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record RuleFile(List<CategoryDefinition> categories,
+                            List<SeverityDefinition> severities,
+                            String defaultSeverity,
+                            FallbackDefinition fallback) {
+    }
+
+    private record CategoryDefinition(String name, List<String> keywords, List<String> rootCauses,
+                                      List<String> nextActions) {
+    }
+
+    private record SeverityDefinition(long minOccurrences, String level) {
+    }
+
+    private record FallbackDefinition(List<String> rootCauses, List<String> nextActions) {
+    }
+}
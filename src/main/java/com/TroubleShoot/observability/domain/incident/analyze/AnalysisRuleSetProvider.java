@@ -0,0 +1,95 @@
+package com.troubleshoot.observability.domain.incident.analyze;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// 분석 규칙 파일(YAML/JSON)을 읽어 컴파일한 AnalysisRuleSet 을 들고 있다.
+// 파일이 바뀌면 주기적으로 다시 읽어 통째로 교체한다 (재시작 없음). 분석 중인 작업은 시작할 때 잡은 규칙으로 끝난다.
+// 바뀐 파일이 잘못됐으면 이전 규칙을 그대로 쓴다. 시작 시점의 잘못된 파일은 기동 실패로 알린다
+@Component
+public class AnalysisRuleSetProvider implements Supplier<AnalysisRuleSet> {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisRuleSetProvider.class);
+
+    private final Path location;
+    private final Counter reloadSuccess;
+    private final Counter reloadFailure;
+
+    private volatile AnalysisRuleSet current;
+    // 마지막으로 읽은 파일 상태. 바뀌지 않았으면 내용을 다시 읽지 않는다
+    private long loadedModifiedMillis = Long.MIN_VALUE;
+    private long loadedSize = -1;
+
+    public AnalysisRuleSetProvider(@Value("${observability.analysis.rules.location:}") String location,
+                                   MeterRegistry meterRegistry) {
+        this.location = location == null || location.isBlank() ? null : Path.of(location.trim());
+        this.reloadSuccess = Counter.builder("analysis.rules.reloads")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.reloadFailure = Counter.builder("analysis.rules.reloads")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+
+        if (this.location == null) {
+            this.current = AnalysisRuleSet.builtIn();
+            return;
+        }
+        if (!reload()) {
+            throw new IllegalStateException("could not load analysis rules from " + this.location);
+        }
+    }
+
+    @Override
+    public AnalysisRuleSet get() {
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${observability.analysis.rules.reload-interval:PT10S}")
+    public void reloadIfChanged() {
+        if (location != null) {
+            reload();
+        }
+    }
+
+    // 새 규칙으로 바꿨거나 바꿀 필요가 없으면 true
+    synchronized boolean reload() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(location, BasicFileAttributes.class);
+            long modifiedMillis = attributes.lastModifiedTime().toMillis();
+            if (current != null && modifiedMillis == loadedModifiedMillis && attributes.size() == loadedSize) {
+                return true;
+            }
+            // 잘못된 파일도 한 번만 읽고 경고한다. 다시 저장되면 그때 다시 읽는다
+            loadedModifiedMillis = modifiedMillis;
+            loadedSize = attributes.size();
+            byte[] content = Files.readAllBytes(location);
+            AnalysisRuleSet loaded = AnalysisRuleSet.parse(content, location.getFileName().toString());
+            if (current != null && current.version().equals(loaded.version())) {
+                // 수정 시각만 바뀌었고 내용은 같다
+                return true;
+            }
+            AnalysisRuleSet previous = current;
+            current = loaded;
+            reloadSuccess.increment();
+            log.info("loaded analysis rules {} ({} categories) from {}, previous={}",
+                    loaded.version(), loaded.categories().size(), location,
+                    previous == null ? "none" : previous.version());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            reloadFailure.increment();
+            log.warn("failed to load analysis rules from {}, keeping {}", location,
+                    current == null ? "none" : current.version(), e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.troubleshoot.observability.domain.incident.analyze;
+
+import java.util.List;
+
+// keyword 중 하나라도 나오면 category 로 분류한다. 규칙 목록에서 앞에 있을수록 우선
+public record CategoryRule(String category,
+                           List<String> keywords,
+                           List<String> suspectedRootCauses,
+                           List<String> nextActions) {
+
+    public CategoryRule {
+        if (category == null || category.isBlank()) {
+            throw new IllegalArgumentException("category must not be blank");
+        }
+        keywords = keywords == null ? List.of() : List.copyOf(keywords);
+        suspectedRootCauses = suspectedRootCauses == null ? List.of() : List.copyOf(suspectedRootCauses);
+        nextActions = nextActions == null ? List.of() : List.copyOf(nextActions);
+    }
+
+    public CategoryRule(String category, List<String> keywords) {
+        this(category, keywords, List.of(), List.of());
+    }
+
+    public static CategoryRule of(String category, String... keywords) {
+        return new CategoryRule(category, List.of(keywords));
+    }
+}
@@ -0,0 +1,24 @@
+package com.troubleshoot.observability.domain.incident.analyze;
+
+import java.util.List;
+import java.util.Map;
+
+// incremental 분석이 incident 별로 남겨 두는 요약 상태 (IncidentAnalysis 에 JSON 으로 저장).
+// lastEventId 이후에 저장된 이벤트만 더 읽어서 갱신한다. 만든 규칙 version 이 바뀌면 버리고 새로 만든다
+public record IncidentAnalysisState(
+        String ruleSetVersion,
+        long lastEventId,
+        long eventsProcessed,
+        // 이벤트 메시지에서 category 별로 맞은 건수
+        Map<String, Long> categoryHits,
+        // 최신순 evidence 후보 (occurredAt desc)
+        List<Evidence> evidence
+) {
+    public IncidentAnalysisState {
+        categoryHits = categoryHits == null ? Map.of() : Map.copyOf(categoryHits);
+        evidence = evidence == null ? List.of() : List.copyOf(evidence);
+    }
+
+    public record Evidence(long eventId, long occurredAtMillis, String message) {
+    }
+}
@@ -7,4 +7,14 @@ import java.util.List;
 public interface IncidentAnalyzer {
 
     IncidentAnalysisResult analyze(Incident incident, List<IncidentEvent> events);
+
+    // 지금 analyze 하면 결과에 붙을 analyzerVersion. null 이면 결과를 다른 incident 와 나눠 쓰지 않는다
+    default String currentVersion() {
+        return null;
+    }
+
+    // 같은 signature 의 다른 incident 에서 나온 결과를 이 incident 에 맞춘다. 쓸 수 없으면 null
+    default IncidentAnalysisResult reuse(IncidentAnalysisResult cached, Incident incident) {
+        return null;
+    }
 }
@@ -0,0 +1,4 @@
+package com.troubleshoot.observability.domain.incident.analyze;
+
+public record IncrementalAnalysis(IncidentAnalysisResult result, IncidentAnalysisState state) {
+}
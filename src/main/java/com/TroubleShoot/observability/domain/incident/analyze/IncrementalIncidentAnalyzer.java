@@ -0,0 +1,10 @@
+package com.troubleshoot.observability.domain.incident.analyze;
+
+import com.troubleshoot.observability.domain.incident.Incident;
+
+// 이전 분석 상태에 새 이벤트만 더해서 다시 분석할 수 있는 analyzer.
+// previous 가 null 이거나 쓸 수 없으면 events.latest() 부터 새로 만든다
+public interface IncrementalIncidentAnalyzer extends IncidentAnalyzer {
+
+    IncrementalAnalysis analyze(Incident incident, IncidentAnalysisState previous, AnalysisEventSource events);
+}
@@ -0,0 +1,224 @@
+package com.troubleshoot.observability.domain.incident.analyze;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+// 여러 keyword 를 한 번에 찾는 Aho-Corasick 오토마톤 (대소문자 무시).
+// keyword 마다 group(작을수록 우선)을 붙이고, 입력을 한 글자씩 흘려 넣으면서 지금까지 맞은 가장 우선인 group 을 기억한다.
+// 빌드 시 실패 링크까지 펼친 DFA 표를 만들어 두므로 글자당 비용은 keyword 수와 무관하게 표 조회 1번이다.
+public final class KeywordMatcher {
+
+    public static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private static final int ASCII = 128;
+
+    // 글자 -> 알파벳 class. keyword 에 없는 글자는 class 0 (항상 root 쪽으로 돌아감)
+    private final int[] asciiClasses;
+    private final Map<Character, Integer> otherClasses;
+    private final int classCount;
+
+    // state * classCount + class -> 다음 state
+    private final int[] transitions;
+    // state 에서 끝나는 keyword(실패 링크로 이어진 suffix 포함) 중 가장 우선인 group
+    private final int[] bestGroups;
+
+    private KeywordMatcher(int[] asciiClasses, Map<Character, Integer> otherClasses, int classCount,
+                           int[] transitions, int[] bestGroups) {
+        this.asciiClasses = asciiClasses;
+        this.otherClasses = otherClasses;
+        this.classCount = classCount;
+        this.transitions = transitions;
+        this.bestGroups = bestGroups;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Scan scan() {
+        return new Scan();
+    }
+
+    // text 안에서 맞은 가장 우선인 group, 없으면 NO_MATCH
+    public int bestGroup(CharSequence text) {
+        return scan().feed(text).bestGroup();
+    }
+
+    public int stateCount() {
+        return bestGroups.length;
+    }
+
+    private int classOf(char c) {
+        char lower = Character.toLowerCase(c);
+        if (lower < ASCII) {
+            return asciiClasses[lower];
+        }
+        Integer cls = otherClasses.get(lower);
+        return cls == null ? 0 : cls;
+    }
+
+    // 입력 여러 조각을 이어서 흘려 넣는 상태. 조각 사이에서 상태가 끊기지 않는다 (스레드 하나에서만 사용)
+    public final class Scan {
+        private int state;
+        private int best = NO_MATCH;
+
+        private Scan() {
+        }
+
+        public Scan feed(CharSequence text) {
+            if (text == null) {
+                return this;
+            }
+            int current = state;
+            int found = best;
+            for (int i = 0, n = text.length(); i < n; i++) {
+                current = transitions[current * classCount + classOf(text.charAt(i))];
+                int group = bestGroups[current];
+                if (group < found) {
+                    found = group;
+                }
+            }
+            state = current;
+            best = found;
+            return this;
+        }
+
+        public Scan feed(char c) {
+            state = transitions[state * classCount + classOf(c)];
+            int group = bestGroups[state];
+            if (group < best) {
+                best = group;
+            }
+            return this;
+        }
+
+        public int bestGroup() {
+            return best;
+        }
+
+        // 더 우선인 group 이 없으니 남은 입력은 볼 필요가 없다
+        public boolean isSettled() {
+            return best == 0;
+        }
+    }
+
+    public static final class Builder {
+        private final List<String> keywords = new ArrayList<>();
+        private final List<Integer> groups = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder add(int group, String keyword) {
+            if (group < 0 || group == NO_MATCH) {
+                throw new IllegalArgumentException("group must be a non-negative int: " + group);
+            }
+            if (keyword == null || keyword.isEmpty()) {
+                throw new IllegalArgumentException("keyword must not be empty");
+            }
+            keywords.add(lower(keyword));
+            groups.add(group);
+            return this;
+        }
+
+        public KeywordMatcher build() {
+            // 알파벳 class
+            int[] asciiClasses = new int[ASCII];
+            Map<Character, Integer> otherClasses = new HashMap<>();
+            int classCount = 1;
+            for (String keyword : keywords) {
+                for (int i = 0; i < keyword.length(); i++) {
+                    char c = keyword.charAt(i);
+                    if (c < ASCII) {
+                        if (asciiClasses[c] == 0) {
+                            asciiClasses[c] = classCount++;
+                        }
+                    } else if (!otherClasses.containsKey(c)) {
+                        otherClasses.put(c, classCount++);
+                    }
+                }
+            }
+
+            // trie. 아직 없는 전이는 -1
+            List<int[]> children = new ArrayList<>();
+            List<Integer> bestGroups = new ArrayList<>();
+            children.add(newRow(classCount));
+            bestGroups.add(NO_MATCH);
+            for (int k = 0; k < keywords.size(); k++) {
+                String keyword = keywords.get(k);
+                int state = 0;
+                for (int i = 0; i < keyword.length(); i++) {
+                    char c = keyword.charAt(i);
+                    int cls = c < ASCII ? asciiClasses[c] : otherClasses.get(c);
+                    int next = children.get(state)[cls];
+                    if (next < 0) {
+                        next = children.size();
+                        children.get(state)[cls] = next;
+                        children.add(newRow(classCount));
+                        bestGroups.add(NO_MATCH);
+                    }
+                    state = next;
+                }
+                bestGroups.set(state, Math.min(bestGroups.get(state), groups.get(k)));
+            }
+
+            // BFS 로 실패 링크를 따라 빈 전이를 채우고 suffix keyword 의 group 을 물려받는다
+            int stateCount = children.size();
+            int[] transitions = new int[stateCount * classCount];
+            int[] best = new int[stateCount];
+            int[] fail = new int[stateCount];
+            for (int s = 0; s < stateCount; s++) {
+                best[s] = bestGroups.get(s);
+            }
+
+            Queue<Integer> queue = new ArrayDeque<>();
+            int[] root = children.get(0);
+            for (int cls = 0; cls < classCount; cls++) {
+                int next = root[cls];
+                if (next < 0) {
+                    transitions[cls] = 0;
+                } else {
+                    transitions[cls] = next;
+                    fail[next] = 0;
+                    queue.add(next);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                best[state] = Math.min(best[state], best[fail[state]]);
+                int[] row = children.get(state);
+                for (int cls = 0; cls < classCount; cls++) {
+                    int next = row[cls];
+                    int viaFail = transitions[fail[state] * classCount + cls];
+                    if (next < 0) {
+                        transitions[state * classCount + cls] = viaFail;
+                    } else {
+                        transitions[state * classCount + cls] = next;
+                        fail[next] = viaFail;
+                        queue.add(next);
+                    }
+                }
+            }
+            return new KeywordMatcher(asciiClasses, Map.copyOf(otherClasses), classCount, transitions, best);
+        }
+
+        private static int[] newRow(int classCount) {
+            int[] row = new int[classCount];
+            Arrays.fill(row, -1);
+            return row;
+        }
+
+        private static String lower(String keyword) {
+            char[] chars = keyword.toCharArray();
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = Character.toLowerCase(chars[i]);
+            }
+            return new String(chars);
+        }
+    }
+}
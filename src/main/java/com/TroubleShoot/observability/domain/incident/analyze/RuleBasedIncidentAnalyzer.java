@@ -2,82 +2,161 @@ package com.troubleshoot.observability.domain.incident.analyze;
 
 import com.troubleshoot.observability.domain.incident.Incident;
 import com.troubleshoot.observability.domain.incident.persistence.IncidentEvent;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRow;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
-import java.util.Objects;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
-public class RuleBasedIncidentAnalyzer implements IncidentAnalyzer {
+public class RuleBasedIncidentAnalyzer implements IncrementalIncidentAnalyzer {
 
-    private static final String ANALYZER_VERSION = "rule-v1";
     private static final int MAX_EVIDENCE = 5;
 
+    private final Supplier<AnalysisRuleSet> ruleSets;
+
+    public RuleBasedIncidentAnalyzer() {
+        this(AnalysisRuleSet.builtIn());
+    }
+
+    public RuleBasedIncidentAnalyzer(List<CategoryRule> categoryRules) {
+        this(AnalysisRuleSet.withCategories(AnalysisRuleSet.BUILT_IN_VERSION, categoryRules));
+    }
+
+    public RuleBasedIncidentAnalyzer(AnalysisRuleSet ruleSet) {
+        this(() -> ruleSet);
+    }
+
+    // 규칙 파일이 바뀌면 다음 analyze 부터 새 규칙을 쓴다
+    @Autowired
+    public RuleBasedIncidentAnalyzer(AnalysisRuleSetProvider ruleSetProvider) {
+        this((Supplier<AnalysisRuleSet>) ruleSetProvider);
+    }
+
+    private RuleBasedIncidentAnalyzer(Supplier<AnalysisRuleSet> ruleSets) {
+        this.ruleSets = ruleSets;
+    }
+
     @Override
     public IncidentAnalysisResult analyze(Incident incident, List<IncidentEvent> events) {
         if (incident == null) {
             throw new IllegalArgumentException("incident must not be null");
         }
 
-        List<IncidentEvent> safeEvents = events == null ? List.of() : events;
-        String category = deriveCategory(incident, safeEvents);
-        String severity = deriveSeverity(incident.getOccurrenceCount());
-        String title = buildTitle(incident, category);
-        String summary = buildSummary(incident);
-        List<String> keyEvidence = buildKeyEvidence(incident, safeEvents);
-        List<String> suspectedRootCauses = buildRootCauses(category);
-        List<String> nextActions = buildNextActions(category);
+        // 분석 한 건은 처음 잡은 규칙으로 끝낸다 (도중에 교체돼도 섞이지 않게)
+        Accumulator accumulator = new Accumulator(ruleSets.get(), null);
+        if (events != null) {
+            for (IncidentEvent event : events) {
+                if (event != null) {
+                    accumulator.add(event.getId(), event.getOccurredAt(), event.getMessage());
+                }
+            }
+        }
+        return result(incident, accumulator);
+    }
+
+    @Override
+    public IncrementalAnalysis analyze(Incident incident, IncidentAnalysisState previous, AnalysisEventSource events) {
+        if (incident == null) {
+            throw new IllegalArgumentException("incident must not be null");
+        }
+
+        AnalysisRuleSet ruleSet = ruleSets.get();
+        Accumulator accumulator;
+        if (previous != null && ruleSet.version().equals(previous.ruleSetVersion())) {
+            accumulator = new Accumulator(ruleSet, previous);
+            events.forEachAfter(previous.lastEventId(), accumulator::addAll);
+        } else {
+            // 처음이거나 규칙이 바뀌었으면 최근 이벤트로 새로 시작한다
+            accumulator = new Accumulator(ruleSet, null);
+            accumulator.addAll(events.latest());
+        }
+        return new IncrementalAnalysis(result(incident, accumulator), accumulator.toState());
+    }
 
+    @Override
+    public String currentVersion() {
+        return ruleSets.get().version();
+    }
+
+    // category 와 원인/조치는 그대로 두고, incident 마다 다른 severity/title/summary/evidence 만 다시 만든다
+    @Override
+    public IncidentAnalysisResult reuse(IncidentAnalysisResult cached, Incident incident) {
+        if (cached == null || incident == null) {
+            return null;
+        }
+        AnalysisRuleSet ruleSet = ruleSets.get();
+        if (!ruleSet.version().equals(cached.analyzerVersion())) {
+            return null;
+        }
+        List<String> keyEvidence = hasText(incident.getSampleMessage())
+                ? List.of(incident.getSampleMessage().trim())
+                : cached.keyEvidence();
         return new IncidentAnalysisResult(
-                category,
-                severity,
-                title,
-                summary,
+                cached.category(),
+                ruleSet.severity(incident.getOccurrenceCount()),
+                buildTitle(incident, cached.category()),
+                buildSummary(incident),
                 keyEvidence,
-                suspectedRootCauses,
-                nextActions,
+                cached.suspectedRootCauses(),
+                cached.nextActions(),
                 Instant.now(),
-                ANALYZER_VERSION
+                ruleSet.version()
         );
     }
 
-    private String deriveCategory(Incident incident, List<IncidentEvent> events) {
-        String exceptionClass = safeLower(incident.getExceptionClass());
-        String sampleMessage = safeLower(incident.getSampleMessage());
-        String eventText = safeLower(
-                events.stream()
-                        .filter(Objects::nonNull)
-                        .map(IncidentEvent::getMessage)
-                        .filter(this::hasText)
-                        .reduce((a, b) -> a + " " + b)
-                        .orElse("")
-        );
+    public String categorize(Incident incident, List<IncidentEvent> events) {
+        AnalysisRuleSet ruleSet = ruleSets.get();
+        int best = incidentGroup(ruleSet, incident);
+        for (IncidentEvent event : events == null ? List.<IncidentEvent>of() : events) {
+            if (best == 0) {
+                // 최우선 규칙이 이미 맞았으니 남은 이벤트는 보지 않는다
+                break;
+            }
+            if (event != null && hasText(event.getMessage())) {
+                best = Math.min(best, ruleSet.matcher().bestGroup(event.getMessage()));
+            }
+        }
+        return ruleSet.categoryFor(best).category();
+    }
 
-        String corpus = String.join(" ", exceptionClass, sampleMessage, eventText);
+    private IncidentAnalysisResult result(Incident incident, Accumulator accumulator) {
+        AnalysisRuleSet ruleSet = accumulator.ruleSet;
+        CategoryRule category = ruleSet.categoryFor(Math.min(incidentGroup(ruleSet, incident), accumulator.bestGroup()));
+        String severity = ruleSet.severity(incident.getOccurrenceCount());
 
-        boolean hasDbKeyword = containsAny(corpus, "sql", "sqlexception", "database");
-        if (hasDbKeyword) {
-            return "DB";
-        }
-        if (corpus.contains("timeout")) {
-            return "NETWORK";
-        }
-        if (containsAny(corpus, "nullpointerexception", "illegalargumentexception")) {
-            return "APP";
+        List<String> keyEvidence = accumulator.evidence.stream()
+                .map(IncidentAnalysisState.Evidence::message)
+                .toList();
+        if (keyEvidence.isEmpty() && hasText(incident.getSampleMessage())) {
+            keyEvidence = List.of(incident.getSampleMessage().trim());
         }
-        return "UNKNOWN";
+
+        return new IncidentAnalysisResult(
+                category.category(),
+                severity,
+                buildTitle(incident, category.category()),
+                buildSummary(incident),
+                keyEvidence,
+                category.suspectedRootCauses(),
+                category.nextActions(),
+                Instant.now(),
+                ruleSet.version()
+        );
     }
 
-    private String deriveSeverity(int occurrenceCount) {
-        if (occurrenceCount >= 100) {
-            return "HIGH";
-        }
-        if (occurrenceCount >= 20) {
-            return "MEDIUM";
-        }
-        return "LOW";
+    // exception class + sample message 에서 맞은 규칙. 이벤트와 달리 상태에 남기지 않고 매번 본다
+    private int incidentGroup(AnalysisRuleSet ruleSet, Incident incident) {
+        return ruleSet.matcher().scan()
+                .feed(incident.getExceptionClass())
+                .feed(' ')
+                .feed(incident.getSampleMessage())
+                .bestGroup();
     }
 
     private String buildTitle(Incident incident, String category) {
@@ -95,85 +174,87 @@ public class RuleBasedIncidentAnalyzer implements IncidentAnalyzer {
                 + firstSeenAt + " and " + lastSeenAt + ".";
     }
 
-    private List<String> buildKeyEvidence(Incident incident, List<IncidentEvent> events) {
-        List<String> evidence = events.stream()
-                .filter(Objects::nonNull)
-                .sorted(Comparator.comparing(IncidentEvent::getOccurredAt, Comparator.nullsLast(Comparator.naturalOrder())).reversed())
-                .map(IncidentEvent::getMessage)
-                .filter(this::hasText)
-                .map(String::trim)
-                .limit(MAX_EVIDENCE)
-                .toList();
+    private boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    // 메시지마다 한 번씩만 훑어서 category 별 건수와 최신 evidence 후보만 남긴다
+    private static final class Accumulator {
+        private static final Comparator<IncidentAnalysisState.Evidence> NEWEST_FIRST = Comparator
+                .comparingLong(IncidentAnalysisState.Evidence::occurredAtMillis)
+                .thenComparingLong(IncidentAnalysisState.Evidence::eventId)
+                .reversed();
+
+        private final AnalysisRuleSet ruleSet;
+        private final long[] hits;
+        private final List<IncidentAnalysisState.Evidence> evidence;
+        private long lastEventId;
+        private long eventsProcessed;
 
-        if (!evidence.isEmpty()) {
-            return evidence;
+        private Accumulator(AnalysisRuleSet ruleSet, IncidentAnalysisState previous) {
+            this.ruleSet = ruleSet;
+            List<CategoryRule> categories = ruleSet.categories();
+            this.hits = new long[categories.size()];
+            this.evidence = new ArrayList<>(MAX_EVIDENCE + 1);
+            if (previous != null) {
+                for (int i = 0; i < categories.size(); i++) {
+                    hits[i] = previous.categoryHits().getOrDefault(categories.get(i).category(), 0L);
+                }
+                evidence.addAll(previous.evidence());
+                lastEventId = previous.lastEventId();
+                eventsProcessed = previous.eventsProcessed();
+            }
         }
-        if (hasText(incident.getSampleMessage())) {
-            return List.of(incident.getSampleMessage().trim());
+
+        private void addAll(List<IncidentEventRow> rows) {
+            for (IncidentEventRow row : rows) {
+                add(row.id(), row.occurredAt(), row.message());
+            }
         }
-        return List.of();
-    }
-
-    private List<String> buildRootCauses(String category) {
-        return switch (category) {
-            case "DB" -> List.of(
-                    "Database latency",
-                    "Connection pool exhaustion",
-                    "Query slowdown"
-            );
-            case "NETWORK" -> List.of(
-                    "Upstream timeout",
-                    "Network instability",
-                    "Downstream dependency slowness"
-            );
-            case "APP" -> List.of(
-                    "Application bug",
-                    "Invalid input handling",
-                    "Null/state handling issue"
-            );
-            default -> List.of("Requires manual investigation");
-        };
-    }
-
-    private List<String> buildNextActions(String category) {
-        return switch (category) {
-            case "DB" -> List.of(
-                    "Check DB latency",
-                    "Inspect connection pool",
-                    "Review slow queries"
-            );
-            case "NETWORK" -> List.of(
-                    "Inspect downstream response times",
-                    "Check timeout settings",
-                    "Verify network path"
-            );
-            case "APP" -> List.of(
-                    "Inspect stack trace",
-                    "Reproduce request flow",
-                    "Check recent code changes"
-            );
-            default -> List.of(
-                    "Inspect logs",
-                    "Review recent deploys",
-                    "Gather more evidence"
-            );
-        };
-    }
-
-    private boolean containsAny(String text, String... keywords) {
-        for (String keyword : keywords) {
-            if (text.contains(keyword)) {
-                return true;
+
+        private void add(Long eventId, Instant occurredAt, String message) {
+            long id = eventId == null ? 0 : eventId;
+            lastEventId = Math.max(lastEventId, id);
+            if (message == null || message.isBlank()) {
+                return;
+            }
+            eventsProcessed++;
+            int group = ruleSet.matcher().bestGroup(message);
+            if (group != KeywordMatcher.NO_MATCH) {
+                hits[group]++;
+            }
+
+            // occurredAt 이 없으면 가장 오래된 것으로 본다
+            long occurredAtMillis = occurredAt == null ? Long.MIN_VALUE : occurredAt.toEpochMilli();
+            IncidentAnalysisState.Evidence candidate = new IncidentAnalysisState.Evidence(id, occurredAtMillis, message.trim());
+            if (evidence.size() == MAX_EVIDENCE
+                    && NEWEST_FIRST.compare(candidate, evidence.get(MAX_EVIDENCE - 1)) >= 0) {
+                return;
+            }
+            evidence.add(candidate);
+            evidence.sort(NEWEST_FIRST);
+            if (evidence.size() > MAX_EVIDENCE) {
+                evidence.remove(MAX_EVIDENCE);
             }
         }
-        return false;
-    }
 
-    private String safeLower(String value) {
-        return value == null ? "" : value.toLowerCase(Locale.ROOT);
-    }
+        private int bestGroup() {
+            for (int i = 0; i < hits.length; i++) {
+                if (hits[i] > 0) {
+                    return i;
+                }
+            }
+            return KeywordMatcher.NO_MATCH;
+        }
 
-    private boolean hasText(String value) {
-        return value != null && !value.isBlank();
+        private IncidentAnalysisState toState() {
+            Map<String, Long> categoryHits = new HashMap<>();
+            for (int i = 0; i < hits.length; i++) {
+                if (hits[i] > 0) {
+                    categoryHits.put(ruleSet.categories().get(i).category(), hits[i]);
+                }
+            }
+            return new IncidentAnalysisState(ruleSet.version(), lastEventId, eventsProcessed, categoryHits, evidence);
+        }
     }
 }
@@ -0,0 +1,11 @@
+package com.troubleshoot.observability.domain.incident.analyze;
+
+// occurrence_count 가 minOccurrences 이상이면 severity
+public record SeverityRule(long minOccurrences, String severity) {
+
+    public SeverityRule {
+        if (minOccurrences < 0 || severity == null || severity.isBlank()) {
+            throw new IllegalArgumentException("severity rule needs a non-negative minOccurrences and a severity");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.troubleshoot.observability.domain.incident.api;
+
+import com.troubleshoot.observability.domain.incident.service.AnalysisJob;
+import java.time.Instant;
+
+public record AnalysisJobResponse(
+        String jobId,
+        Long incidentId,
+        AnalysisJob.Status status,
+        boolean force,
+        Instant enqueuedAt,
+        Instant startedAt,
+        Instant finishedAt,
+        String error
+) {
+}
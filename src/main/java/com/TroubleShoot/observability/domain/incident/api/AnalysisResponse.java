@@ -1,8 +1,9 @@
 package com.troubleshoot.observability.domain.incident.api;
 
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import java.time.Instant;
-import java.util.List;
 
+// 목록 필드는 저장된 JSON 배열을 그대로 쓴다 (서버가 직접 직렬화해 저장한 값만 들어간다)
 public record AnalysisResponse(
         Long incidentId,
         String status,
@@ -10,9 +11,9 @@ public record AnalysisResponse(
         String severity,
         String title,
         String summary,
-        List<String> keyEvidence,
-        List<String> suspectedRootCauses,
-        List<String> nextActions,
+        @JsonRawValue String keyEvidence,
+        @JsonRawValue String suspectedRootCauses,
+        @JsonRawValue String nextActions,
         Instant analyzedAt,
         String analyzerVersion
 ) {
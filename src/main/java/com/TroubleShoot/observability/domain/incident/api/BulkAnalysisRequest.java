@@ -0,0 +1,9 @@
+package com.troubleshoot.observability.domain.incident.api;
+
+import java.util.List;
+
+public record BulkAnalysisRequest(
+        List<Long> incidentIds,
+        boolean force
+) {
+}
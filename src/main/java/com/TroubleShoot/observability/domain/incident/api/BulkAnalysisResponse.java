@@ -0,0 +1,18 @@
+package com.troubleshoot.observability.domain.incident.api;
+
+import java.util.List;
+
+public record BulkAnalysisResponse(
+        int requested,
+        int analyzed,
+        List<Item> results
+) {
+    // result: ANALYZED / SKIPPED / NOT_FOUND / CONFLICT / FAILED
+    public record Item(
+            long incidentId,
+            String result,
+            String status,
+            String message
+    ) {
+    }
+}
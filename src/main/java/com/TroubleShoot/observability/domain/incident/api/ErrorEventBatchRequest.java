@@ -0,0 +1,11 @@
+package com.troubleshoot.observability.domain.incident.api;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record ErrorEventBatchRequest(
+        @NotEmpty @Size(max = 1000) List<@Valid ErrorEventRequest> events
+) {
+}
@@ -0,0 +1,10 @@
+package com.troubleshoot.observability.domain.incident.api;
+
+import java.util.List;
+
+public record ErrorEventBatchResponse(
+        int accepted,
+        int incidentCount,
+        List<ErrorEventResponse> results
+) {
+}
@@ -1,91 +1,141 @@
 package com.troubleshoot.observability.domain.incident.api;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.troubleshoot.observability.domain.incident.persistence.IncidentAnalysis;
+import com.troubleshoot.observability.domain.incident.infra.IncidentDetailRow;
+import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
 import com.troubleshoot.observability.domain.incident.persistence.IncidentAnalysisRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentAnalysisRow;
+import com.troubleshoot.observability.domain.incident.service.AnalysisJob;
+import com.troubleshoot.observability.domain.incident.service.AnalysisJobQueue;
+import com.troubleshoot.observability.domain.incident.service.BulkAnalysisOutcome;
+import com.troubleshoot.observability.domain.incident.service.BulkIncidentAnalysisService;
 import com.troubleshoot.observability.domain.incident.service.IncidentAnalysisService;
-import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.IOException;
 import java.util.List;
-import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/incidents")
 public class IncidentAnalysisController {
 
-    private static final TypeReference<List<String>> STRING_LIST_TYPE = new TypeReference<>() {
-    };
+    private static final String EMPTY_LIST = "[]";
 
-    private final IncidentAnalysisService incidentAnalysisService;
+    private final AnalysisJobQueue analysisJobQueue;
+    private final BulkIncidentAnalysisService bulkAnalysisService;
+    private final IncidentRepository incidentRepository;
     private final IncidentAnalysisRepository incidentAnalysisRepository;
-    private final ObjectMapper objectMapper;
 
     public IncidentAnalysisController(
-            IncidentAnalysisService incidentAnalysisService,
-            IncidentAnalysisRepository incidentAnalysisRepository,
-            ObjectMapper objectMapper
+            AnalysisJobQueue analysisJobQueue,
+            BulkIncidentAnalysisService bulkAnalysisService,
+            IncidentRepository incidentRepository,
+            IncidentAnalysisRepository incidentAnalysisRepository
     ) {
-        this.incidentAnalysisService = incidentAnalysisService;
+        this.analysisJobQueue = analysisJobQueue;
+        this.bulkAnalysisService = bulkAnalysisService;
+        this.incidentRepository = incidentRepository;
         this.incidentAnalysisRepository = incidentAnalysisRepository;
-        this.objectMapper = objectMapper;
     }
 
+    // 분석은 워커가 실행한다. 202 + job, 진행 상태는 Location 의 job 조회로 확인
     @PostMapping("/{id}/analyze")
-    public AnalysisResponse analyzeIncident(
+    public ResponseEntity<AnalysisJobResponse> analyzeIncident(
             @PathVariable Long id,
             @RequestParam(defaultValue = "false") boolean force
     ) {
-        try {
-            return toResponse(incidentAnalysisService.analyzeIncident(id, force));
-        } catch (EntityNotFoundException | NoSuchElementException ex) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Incident not found: " + id, ex);
-        } catch (IllegalStateException ex) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, ex.getMessage(), ex);
+        IncidentDetailRow incident = incidentRepository.findDetailRow(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Incident not found: " + id));
+        if (!IncidentAnalysisService.isAnalyzable(incident.status())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Cannot analyze incident in status " + incident.status());
         }
+
+        AnalysisJob job = analysisJobQueue.submit(id, force)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "analysis queue is full"));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/incidents/" + id + "/analysis-jobs/" + job.getId())
+                .body(toJobResponse(job));
+    }
+
+    // 여러 incident 를 요청 스레드에서 바로 분석하고 incident 별 결과를 돌려준다 (일부 실패해도 200)
+    @PostMapping("/analyze")
+    public BulkAnalysisResponse analyzeIncidents(@RequestBody BulkAnalysisRequest request) {
+        List<Long> ids = request.incidentIds() == null ? List.of() : request.incidentIds();
+        if (ids.isEmpty() || ids.contains(null) || ids.size() > bulkAnalysisService.maxIncidents()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "incidentIds must contain 1.." + bulkAnalysisService.maxIncidents() + " ids");
+        }
+
+        List<BulkAnalysisOutcome> outcomes = bulkAnalysisService.analyze(ids, request.force());
+        List<BulkAnalysisResponse.Item> items = outcomes.stream()
+                .map(outcome -> new BulkAnalysisResponse.Item(
+                        outcome.incidentId(),
+                        outcome.result().name(),
+                        outcome.status() == null ? null : outcome.status().name(),
+                        outcome.message()))
+                .toList();
+        int analyzed = (int) outcomes.stream()
+                .filter(outcome -> outcome.result() == BulkAnalysisOutcome.Result.ANALYZED)
+                .count();
+        return new BulkAnalysisResponse(items.size(), analyzed, items);
+    }
+
+    @GetMapping("/{id}/analysis-jobs/{jobId}")
+    public AnalysisJobResponse getAnalysisJob(@PathVariable Long id, @PathVariable String jobId) {
+        AnalysisJob job = analysisJobQueue.find(jobId)
+                .filter(it -> it.getIncidentId() == id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Analysis job not found: " + jobId));
+        return toJobResponse(job);
     }
 
     @GetMapping("/{id}/analysis")
     public AnalysisResponse getIncidentAnalysis(@PathVariable Long id) {
-        IncidentAnalysis analysis = incidentAnalysisRepository.findByIncident_Id(id)
+        IncidentAnalysisRow analysis = incidentAnalysisRepository.findRowByIncidentId(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Analysis not found for incident: " + id));
         return toResponse(analysis);
     }
 
-    private AnalysisResponse toResponse(IncidentAnalysis analysis) {
-        return new AnalysisResponse(
-                analysis.getIncident().getId(),
-                analysis.getIncident().getStatus() != null ? analysis.getIncident().getStatus().name() : null,
-                analysis.getCategory(),
-                analysis.getSeverity(),
-                analysis.getTitle(),
-                analysis.getSummary(),
-                readStringList(analysis.getKeyEvidenceJson()),
-                readStringList(analysis.getSuspectedRootCausesJson()),
-                readStringList(analysis.getNextActionsJson()),
-                analysis.getAnalyzedAt(),
-                analysis.getAnalyzerVersion()
+    private AnalysisJobResponse toJobResponse(AnalysisJob job) {
+        return new AnalysisJobResponse(
+                job.getId(),
+                job.getIncidentId(),
+                job.getStatus(),
+                job.isForce(),
+                job.getEnqueuedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getError()
         );
     }
 
-    private List<String> readStringList(String json) {
-        if (json == null || json.isBlank()) {
-            return List.of();
-        }
+    // 목록 필드는 저장된 JSON 텍스트를 파싱하지 않고 응답에 그대로 싣는다
+    private AnalysisResponse toResponse(IncidentAnalysisRow analysis) {
+        return new AnalysisResponse(
+                analysis.incidentId(),
+                analysis.status() != null ? analysis.status().name() : null,
+                analysis.category(),
+                analysis.severity(),
+                analysis.title(),
+                analysis.summary(),
+                rawList(analysis.keyEvidenceJson()),
+                rawList(analysis.suspectedRootCausesJson()),
+                rawList(analysis.nextActionsJson()),
+                analysis.analyzedAt(),
+                analysis.analyzerVersion()
+        );
+    }
 
-        try {
-            return objectMapper.readValue(json, STRING_LIST_TYPE);
-        } catch (IOException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to read analysis payload", ex);
-        }
+    private String rawList(String json) {
+        return json == null || json.isBlank() ? EMPTY_LIST : json;
     }
 }
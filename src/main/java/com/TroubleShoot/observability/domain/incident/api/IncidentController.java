@@ -2,18 +2,39 @@ package com.troubleshoot.observability.domain.incident.api;
 
 import com.troubleshoot.observability.domain.incident.Incident;
 import com.troubleshoot.observability.domain.incident.IncidentStatus;
+import com.troubleshoot.observability.domain.incident.archive.ArchivedIncident;
+import com.troubleshoot.observability.domain.incident.archive.IncidentArchive;
+import com.troubleshoot.observability.domain.incident.infra.IncidentCursor;
+import com.troubleshoot.observability.domain.incident.infra.IncidentDetailRow;
 import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
-import com.troubleshoot.observability.domain.incident.persistence.IncidentEvent;
-import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRepository;
+import com.troubleshoot.observability.domain.incident.infra.IncidentSearchCondition;
+import com.troubleshoot.observability.domain.incident.infra.IncidentSummaryRow;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventCursor;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRow;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventType;
+import com.troubleshoot.observability.domain.incident.service.AsyncIngestionPipeline;
 import com.troubleshoot.observability.domain.incident.service.ErrorEvent;
+import com.troubleshoot.observability.domain.incident.service.GroupingResult;
 import com.troubleshoot.observability.domain.incident.service.IncidentGroupingService;
 import com.troubleshoot.observability.domain.incident.service.IncidentService;
+import com.troubleshoot.observability.domain.incident.service.IncidentTimelineService;
+import com.troubleshoot.observability.domain.incident.service.IngestionWal;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceCounterBuffer;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceCounterBuffer.PendingOccurrences;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -24,21 +45,43 @@ import static org.springframework.http.HttpStatus.NOT_FOUND;
 @RestController
 public class IncidentController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String ARCHIVED_HEADER = "X-Incident-Archived";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int DEFAULT_RECENT_EVENTS = 20;
+    private static final String NDJSON = "application/x-ndjson";
+
     private final IncidentService service;
     private final IncidentGroupingService groupingService;
     private final IncidentRepository incidentRepository;
-    private final IncidentEventRepository incidentEventRepository;
+    private final IncidentTimelineService timelineService;
+    private final AsyncIngestionPipeline ingestionPipeline;
+    private final IngestionWal ingestionWal;
+    private final OccurrenceCounterBuffer occurrenceCounterBuffer;
+    private final ObjectMapper objectMapper;
+    private final IncidentArchive incidentArchive;
 
 
 
     public IncidentController(IncidentService service,
                               IncidentGroupingService groupingService,
                               IncidentRepository incidentRepository,
-                              IncidentEventRepository incidentEventRepository) {
+                              IncidentTimelineService timelineService,
+                              AsyncIngestionPipeline ingestionPipeline,
+                              IngestionWal ingestionWal,
+                              OccurrenceCounterBuffer occurrenceCounterBuffer,
+                              ObjectMapper objectMapper,
+                              IncidentArchive incidentArchive) {
         this.service = service;
         this.groupingService = groupingService;
         this.incidentRepository = incidentRepository;
-        this.incidentEventRepository = incidentEventRepository;
+        this.timelineService = timelineService;
+        this.ingestionPipeline = ingestionPipeline;
+        this.ingestionWal = ingestionWal;
+        this.occurrenceCounterBuffer = occurrenceCounterBuffer;
+        this.objectMapper = objectMapper;
+        this.incidentArchive = incidentArchive;
     }
 
     public static record ChangeStatusRequest(IncidentStatus status, String note) {}
@@ -51,154 +94,306 @@ public class IncidentController {
     }
 
     @PostMapping("/api/error-events")
-    public ResponseEntity<ErrorEventResponse> ingest(@Valid @RequestBody ErrorEventRequest req) {
-        ErrorEvent event = new ErrorEvent(
-                req.serviceName(),
-                req.occurredAt(),
-                req.traceId(),
-                req.message(),
-                req.exceptionClass(),
-                req.stacktrace()
-        );
+    public ResponseEntity<?> ingest(@Valid @RequestBody ErrorEventRequest req) {
+        ErrorEvent event = toErrorEvent(req);
+
+        if (ingestionWal.isEnabled()) {
+            int accepted = ingestionWal.append(List.of(event));
+            return accepted(accepted, 1 - accepted, ingestionWal.backlog());
+        }
+        if (ingestionPipeline.isEnabled()) {
+            boolean accepted = ingestionPipeline.submit(event);
+            return accepted(accepted ? 1 : 0, accepted ? 0 : 1, ingestionPipeline.queueDepth());
+        }
 
-        Incident incident = groupingService.handle(event);
-        boolean grouped = incident.getOccurrenceCount() > 1; // occurrenceCount == 1 means newly created
+        GroupingResult result = groupingService.handle(event);
 
         return ResponseEntity.ok(new ErrorEventResponse(
-                incident.getId(),
-                incident.getStatus(),
-                grouped
+                result.incidentId(),
+                result.status(),
+                result.grouped()
         ));
     }
 
+    @PostMapping("/api/error-events/batch")
+    public ResponseEntity<?> ingestBatch(@Valid @RequestBody ErrorEventBatchRequest req) {
+        List<ErrorEvent> events = req.events().stream()
+                .map(this::toErrorEvent)
+                .collect(Collectors.toList());
+
+        if (ingestionWal.isEnabled()) {
+            int accepted = ingestionWal.append(events);
+            return accepted(accepted, events.size() - accepted, ingestionWal.backlog());
+        }
+        if (ingestionPipeline.isEnabled()) {
+            int accepted = ingestionPipeline.submitAll(events);
+            return accepted(accepted, events.size() - accepted, ingestionPipeline.queueDepth());
+        }
+
+        List<GroupingResult> results = groupingService.handleBatch(events);
+        List<ErrorEventResponse> responses = results.stream()
+                .map(result -> new ErrorEventResponse(result.incidentId(), result.status(), result.grouped()))
+                .collect(Collectors.toList());
+        int incidentCount = (int) results.stream().map(GroupingResult::incidentId).distinct().count();
+
+        return ResponseEntity.ok(new ErrorEventBatchResponse(responses.size(), incidentCount, responses));
+    }
+
+    // lastSeenAt desc 로 limit 건씩. 다음 페이지가 있으면 X-Next-Cursor 헤더로 cursor 를 준다
     @GetMapping("/api/incidents")
     public ResponseEntity<List<IncidentSummaryResponse>> listIncidents(
             @RequestParam(required = false) String serviceName,
             @RequestParam(required = false) IncidentStatus status,
             @RequestParam(required = false) Instant from,
-            @RequestParam(required = false) Instant to) {
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
 
-        List<Incident> incidents = findIncidents(serviceName, status, from, to);
-        List<IncidentSummaryResponse> response = incidents.stream()
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        IncidentCursor after = decodeCursor(cursor);
+
+        // 한 건 더 읽어서 다음 페이지 유무를 판단
+        List<IncidentSummaryRow> rows = incidentRepository.search(
+                new IncidentSearchCondition(serviceName, status, from, to), after, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<IncidentSummaryRow> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        List<IncidentSummaryResponse> response = page.stream()
                 .map(this::toSummary)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (hasNext) {
+            ok.header(NEXT_CURSOR_HEADER, IncidentCursor.after(page.get(page.size() - 1)).encode());
+        }
+        return ok.body(response);
     }
 
     @GetMapping("/api/incidents/{id}")
-    public ResponseEntity<IncidentDetailResponse> getIncident(@PathVariable long id) {
-        Incident incident = incidentRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "incident not found: " + id));
-
-        List<IncidentEvent> events = incidentEventRepository.findByIncidentIdOrderByOccurredAtAsc(id);
-
-        List<IncidentEventSummary> eventResponses = events.stream()
-                .map(event -> new IncidentEventSummary(
-                        event.getId(),
-                        event.getType(),
-                        event.getOccurredAt(),
-                        event.getTraceId(),
-                        event.getMessage(),
-                        event.getNote()
-                ))
-                .collect(Collectors.toList());
+    public ResponseEntity<IncidentDetailResponse> getIncident(
+            @PathVariable long id,
+            @RequestParam(defaultValue = "" + DEFAULT_RECENT_EVENTS) int recentEvents) {
+        int eventLimit = Math.min(Math.max(recentEvents, 0), MAX_PAGE_SIZE);
+        Optional<IncidentDetailRow> row = incidentRepository.findDetailRow(id);
+        if (row.isEmpty()) {
+            // DB 에 없으면 보관본에서 읽는다 (읽기 전용, DB 로 되돌리지 않음)
+            return incidentArchive.find(id)
+                    .map(archived -> ResponseEntity.ok()
+                            .header(ARCHIVED_HEADER, "true")
+                            .body(toDetail(archived, eventLimit)))
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "incident not found: " + id));
+        }
+        IncidentDetailRow incident = row.get();
+
+        // 전체 timeline 은 /events 로 나눠 받는다
+        List<IncidentEventSummary> eventResponses =
+                timelineService.recentEvents(id, eventLimit).stream()
+                        .map(this::toEventSummary)
+                        .collect(Collectors.toList());
 
+        // 아직 flush 되지 않은 발생 건수까지 합쳐서 보여준다
+        PendingOccurrences pending = occurrenceCounterBuffer.pendingFor(incident.id());
         IncidentDetailResponse detail = new IncidentDetailResponse(
-                incident.getId(),
-                incident.getStatus(),
-                incident.getServiceName(),
-                incident.getExceptionClass(),
-                incident.getOccurrenceCount(),
-                incident.getFirstSeenAt(),
-                incident.getLastSeenAt(),
+                incident.id(),
+                incident.status(),
+                incident.serviceName(),
+                incident.exceptionClass(),
+                (int) pending.mergeCount(incident.occurrenceCount()),
+                incident.firstSeenAt(),
+                pending.mergeLastSeenAt(incident.lastSeenAt()),
                 eventResponses
         );
 
         return ResponseEntity.ok(detail);
     }
 
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Void> handleValidationFailure(MethodArgumentNotValidException ex) {
-        return ResponseEntity.badRequest().build();
-    }
+    // (occurredAt, id) 오름차순으로 limit 건씩. 다음 페이지가 있으면 X-Next-Cursor
+    @GetMapping("/api/incidents/{id}/events")
+    public ResponseEntity<List<IncidentEventSummary>> listEvents(
+            @PathVariable long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
 
-    private IncidentSummaryResponse toSummary(Incident incident) {
-        return new IncidentSummaryResponse(
-                incident.getId(),
-                incident.getStatus(),
-                incident.getServiceName(),
-                incident.getExceptionClass(),
-                incident.getOccurrenceCount(),
-                incident.getLastSeenAt()
-        );
-    }
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        IncidentEventCursor after = decodeEventCursor(cursor);
 
-    private List<Incident> findIncidents(String serviceName,
-                                         IncidentStatus status,
-                                         Instant from,
-                                         Instant to) {
-        if (serviceName != null && status != null) {
-            if (from != null && to != null) {
-                return incidentRepository
-                        .findByServiceNameAndStatusAndLastSeenAtBetweenOrderByLastSeenAtDesc(
-                                serviceName, status, from, to);
+        if (!incidentRepository.existsById(id)) {
+            // 보관된 incident 는 보관본의 timeline 을 같은 순서/cursor 로, 페이지 + 1 건까지만 읽는다
+            List<IncidentEventSummary> events = new ArrayList<>(pageSize + 1);
+            boolean archived = incidentArchive.readEvents(id, after, event -> {
+                events.add(toEventSummary(event));
+                return events.size() <= pageSize;
+            });
+            if (!archived) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "incident not found: " + id);
             }
-            if (from != null) {
-                return incidentRepository
-                        .findByServiceNameAndStatusAndLastSeenAtAfterOrderByLastSeenAtDesc(
-                                serviceName, status, from);
+            boolean hasNext = events.size() > pageSize;
+            List<IncidentEventSummary> page = hasNext ? events.subList(0, pageSize) : events;
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok().header(ARCHIVED_HEADER, "true");
+            if (hasNext) {
+                IncidentEventSummary last = page.get(page.size() - 1);
+                ok.header(NEXT_CURSOR_HEADER, new IncidentEventCursor(last.occurredAt(), last.id()).encode());
             }
-            if (to != null) {
-                return incidentRepository
-                        .findByServiceNameAndStatusAndLastSeenAtBeforeOrderByLastSeenAtDesc(
-                                serviceName, status, to);
-            }
-            return incidentRepository.findByServiceNameAndStatusOrderByLastSeenAtDesc(
-                    serviceName, status);
+            return ok.body(List.copyOf(page));
         }
 
-        if (serviceName != null) {
-            if (from != null && to != null) {
-                return incidentRepository
-                        .findByServiceNameAndLastSeenAtBetweenOrderByLastSeenAtDesc(
-                                serviceName, from, to);
-            }
-            if (from != null) {
-                return incidentRepository
-                        .findByServiceNameAndLastSeenAtAfterOrderByLastSeenAtDesc(serviceName, from);
-            }
-            if (to != null) {
-                return incidentRepository
-                        .findByServiceNameAndLastSeenAtBeforeOrderByLastSeenAtDesc(serviceName, to);
-            }
-            return incidentRepository.findByServiceNameOrderByLastSeenAtDesc(serviceName);
+        List<IncidentEventRow> rows = timelineService.page(id, after, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<IncidentEventRow> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (hasNext) {
+            ok.header(NEXT_CURSOR_HEADER, IncidentEventCursor.after(page.get(page.size() - 1)).encode());
         }
+        return ok.body(page.stream().map(this::toEventSummary).collect(Collectors.toList()));
+    }
 
-        if (status != null) {
-            if (from != null && to != null) {
-                return incidentRepository
-                        .findByStatusAndLastSeenAtBetweenOrderByLastSeenAtDesc(status, from, to);
-            }
-            if (from != null) {
-                return incidentRepository
-                        .findByStatusAndLastSeenAtAfterOrderByLastSeenAtDesc(status, from);
-            }
-            if (to != null) {
-                return incidentRepository
-                        .findByStatusAndLastSeenAtBeforeOrderByLastSeenAtDesc(status, to);
+    // cursor 이후 전체 timeline 을 NDJSON 으로 한 줄씩 흘려보낸다 (목록을 메모리에 만들지 않음)
+    @GetMapping(value = "/api/incidents/{id}/events/stream", produces = NDJSON)
+    public void streamEvents(@PathVariable long id,
+                             @RequestParam(required = false) String cursor,
+                             HttpServletResponse response) throws IOException {
+        IncidentEventCursor after = decodeEventCursor(cursor);
+        boolean archived = !incidentRepository.existsById(id);
+        if (archived && !incidentArchive.contains(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "incident not found: " + id);
+        }
+
+        response.setContentType(NDJSON);
+        OutputStream out = response.getOutputStream();
+        if (archived) {
+            response.setHeader(ARCHIVED_HEADER, "true");
+            incidentArchive.readEvents(id, after, event -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(toEventSummary(event)));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return true;
+            });
+            out.flush();
+            return;
+        }
+        timelineService.stream(id, after, row -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(toEventSummary(row)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-            return incidentRepository.findByStatusOrderByLastSeenAtDesc(status);
+        });
+        out.flush();
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Void> handleValidationFailure(MethodArgumentNotValidException ex) {
+        return ResponseEntity.badRequest().build();
+    }
+
+    // async/wal 모드: 큐(wal 은 fsync)에 넣자마자 202, 하나도 못 넣었으면 503 으로 재시도 유도
+    private ResponseEntity<IngestionAcceptedResponse> accepted(int accepted, int dropped, long queueDepth) {
+        IngestionAcceptedResponse body =
+                new IngestionAcceptedResponse(accepted, dropped, (int) Math.min(queueDepth, Integer.MAX_VALUE));
+        if (accepted == 0) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(body);
         }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(body);
+    }
+
+    private ErrorEvent toErrorEvent(ErrorEventRequest req) {
+        return new ErrorEvent(
+                req.serviceName(),
+                req.occurredAt(),
+                req.traceId(),
+                req.message(),
+                req.exceptionClass(),
+                req.stacktrace()
+        );
+    }
 
-        if (from != null && to != null) {
-            return incidentRepository.findByLastSeenAtBetweenOrderByLastSeenAtDesc(from, to);
+    private IncidentEventCursor decodeEventCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
         }
-        if (from != null) {
-            return incidentRepository.findByLastSeenAtAfterOrderByLastSeenAtDesc(from);
+        try {
+            return IncidentEventCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+        }
+    }
+
+    private IncidentEventSummary toEventSummary(IncidentEventRow row) {
+        return new IncidentEventSummary(
+                row.id(),
+                row.type(),
+                row.occurredAt(),
+                row.traceId(),
+                row.message(),
+                row.note()
+        );
+    }
+
+    // 보관 당시 행으로 만든 상세. 보관본의 events 는 이미 (occurredAt, id) 오름차순이라 끝의 eventLimit 건을 쓴다
+    private IncidentDetailResponse toDetail(ArchivedIncident archived, int eventLimit) {
+        List<Map<String, Object>> events = archived.events();
+        List<IncidentEventSummary> recent = events.subList(Math.max(events.size() - eventLimit, 0), events.size())
+                .stream()
+                .map(this::toEventSummary)
+                .toList();
+
+        Map<String, Object> incident = archived.incident();
+        Number occurrenceCount = ArchivedIncident.number(incident, "occurrence_count");
+        return new IncidentDetailResponse(
+                archived.id(),
+                IncidentStatus.valueOf(ArchivedIncident.string(incident, "status")),
+                ArchivedIncident.string(incident, "service_name"),
+                ArchivedIncident.string(incident, "exception_class"),
+                occurrenceCount == null ? 0 : occurrenceCount.intValue(),
+                ArchivedIncident.instant(incident, "first_seen_at"),
+                ArchivedIncident.instant(incident, "last_seen_at"),
+                recent
+        );
+    }
+
+    private IncidentEventSummary toEventSummary(Map<String, Object> event) {
+        return new IncidentEventSummary(
+                ArchivedIncident.number(event, "id").longValue(),
+                IncidentEventType.valueOf(ArchivedIncident.string(event, "type")),
+                ArchivedIncident.instant(event, "occurred_at"),
+                ArchivedIncident.string(event, "trace_id"),
+                ArchivedIncident.string(event, "message"),
+                ArchivedIncident.string(event, "note")
+        );
+    }
+
+    private IncidentCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
         }
-        if (to != null) {
-            return incidentRepository.findByLastSeenAtBeforeOrderByLastSeenAtDesc(to);
+        try {
+            return IncidentCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
         }
-        return incidentRepository.findAllByOrderByLastSeenAtDesc();
+    }
+
+    private IncidentSummaryResponse toSummary(IncidentSummaryRow row) {
+        PendingOccurrences pending = occurrenceCounterBuffer.pendingFor(row.id());
+        return new IncidentSummaryResponse(
+                row.id(),
+                row.status(),
+                row.serviceName(),
+                row.exceptionClass(),
+                (int) pending.mergeCount(row.occurrenceCount()),
+                pending.mergeLastSeenAt(row.lastSeenAt())
+        );
     }
 }
@@ -0,0 +1,8 @@
+package com.troubleshoot.observability.domain.incident.api;
+
+public record IngestionAcceptedResponse(
+        int accepted,
+        int dropped,
+        int queueDepth
+) {
+}
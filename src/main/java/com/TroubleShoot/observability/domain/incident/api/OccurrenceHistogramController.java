@@ -0,0 +1,79 @@
+package com.troubleshoot.observability.domain.incident.api;
+
+import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
+import com.troubleshoot.observability.domain.incident.persistence.RollupGranularity;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceHistogramService;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceHistogramService.Histogram;
+import java.time.Instant;
+import java.util.Locale;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+// 분/시/일 발생 건수 히스토그램 (incident 단위, service 단위)
+@RestController
+public class OccurrenceHistogramController {
+
+    private final OccurrenceHistogramService histogramService;
+    private final IncidentRepository incidentRepository;
+
+    public OccurrenceHistogramController(OccurrenceHistogramService histogramService,
+                                         IncidentRepository incidentRepository) {
+        this.histogramService = histogramService;
+        this.incidentRepository = incidentRepository;
+    }
+
+    @GetMapping("/api/incidents/{id}/histogram")
+    public ResponseEntity<OccurrenceHistogramResponse> incidentHistogram(
+            @PathVariable long id,
+            @RequestParam(defaultValue = "minute") String granularity,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to) {
+        if (!incidentRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "incident not found: " + id);
+        }
+        RollupGranularity unit = parseGranularity(granularity);
+        try {
+            return ResponseEntity.ok(toResponse(histogramService.forIncident(id, unit, from, to)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping("/api/services/{serviceName}/histogram")
+    public ResponseEntity<OccurrenceHistogramResponse> serviceHistogram(
+            @PathVariable String serviceName,
+            @RequestParam(defaultValue = "minute") String granularity,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to) {
+        RollupGranularity unit = parseGranularity(granularity);
+        try {
+            return ResponseEntity.ok(toResponse(histogramService.forService(serviceName, unit, from, to)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private RollupGranularity parseGranularity(String granularity) {
+        try {
+            return RollupGranularity.valueOf(granularity.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "granularity must be minute, hour or day");
+        }
+    }
+
+    private OccurrenceHistogramResponse toResponse(Histogram histogram) {
+        return new OccurrenceHistogramResponse(
+                histogram.granularity(),
+                histogram.from(),
+                histogram.to(),
+                histogram.buckets().stream()
+                        .map(row -> new OccurrenceHistogramResponse.Bucket(row.bucketStart(), row.count()))
+                        .toList()
+        );
+    }
+}
@@ -0,0 +1,16 @@
+package com.troubleshoot.observability.domain.incident.api;
+
+import com.troubleshoot.observability.domain.incident.persistence.RollupGranularity;
+import java.time.Instant;
+import java.util.List;
+
+public record OccurrenceHistogramResponse(
+        RollupGranularity granularity,
+        Instant from,
+        Instant to,
+        List<Bucket> buckets
+) {
+
+    public record Bucket(Instant bucketStart, long count) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.troubleshoot.observability.domain.incident.archive;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+// archive segment 의 한 줄. incident / incident_event / incident_analysis 행을 컬럼명(소문자) -> 값 그대로 담는다.
+// 시각은 ISO-8601 문자열, JSON 컬럼은 JSON 텍스트. 스키마가 바뀌어도 그때의 행을 잃지 않는다.
+// events 는 timeline 순서((occurred_at, id) 오름차순)이고, incident 가 events 보다 앞에 쓰인다 (IncidentArchive.readEvents)
+@JsonPropertyOrder({"archivedAt", "incident", "events", "analysis"})
+public record ArchivedIncident(
+        Instant archivedAt,
+        Map<String, Object> incident,
+        List<Map<String, Object>> events,
+        Map<String, Object> analysis
+) {
+
+    public long id() {
+        return number(incident, "id").longValue();
+    }
+
+    public static String string(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        return value == null ? null : value.toString();
+    }
+
+    public static Number number(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        if (value instanceof Number number) {
+            return number;
+        }
+        return value == null ? null : Long.valueOf(value.toString());
+    }
+
+    public static Instant instant(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        return value == null ? null : Instant.parse(value.toString());
+    }
+}
@@ -0,0 +1,381 @@
+package com.troubleshoot.observability.domain.incident.archive;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventCursor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// 보관된 incident 를 담는 로컬 디스크 segment 묶음. segment 는 한 번 쓰면 바뀌지 않는다 (append-only: 새 segment 만 추가).
+// segment-<n>.ndjson.gz: incident 한 줄(NDJSON)씩 BLOCK_SIZE 줄마다 gzip member 하나 (이어 붙인 그대로 zcat 으로 읽힌다)
+// segment-<n>.idx: incident id 순으로 (id, block offset, block length) 고정 20 byte 항목. 메모리에 배열로 올려 이진 탐색한다.
+// idx 가 있어야 완성된 segment 다 (data -> idx 순으로 fsync 후 rename). idx 없는 data 는 기동 시 지운다
+@Component
+public class IncidentArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(IncidentArchive.class);
+
+    private static final int BLOCK_SIZE = 32;
+    private static final int INDEX_MAGIC = 0x49414958; // "IAIX"
+    private static final int INDEX_VERSION = 1;
+    private static final String DATA_SUFFIX = ".ndjson.gz";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.idx");
+    private static final TypeReference<Map<String, Object>> ROW = new TypeReference<>() {
+    };
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    // 오래된 segment 부터. 같은 incident 가 두 번 보관되면 나중 segment 가 이긴다
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private long nextSequence;
+
+    private final Counter bytesWritten;
+    private final Counter rehydrations;
+
+    public IncidentArchive(ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${observability.archive.directory:./data/incident-archive}") Path directory) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        try {
+            Files.createDirectories(directory);
+            load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open incident archive at " + directory, e);
+        }
+
+        this.bytesWritten = Counter.builder("archive.bytes.written")
+                .register(meterRegistry);
+        this.rehydrations = Counter.builder("archive.rehydrations")
+                .description("Incident reads served from archive segments")
+                .register(meterRegistry);
+        Gauge.builder("archive.segments", segments, List::size)
+                .register(meterRegistry);
+    }
+
+    // incidents 를 새 segment 하나로 쓴다. 반환 후에는 디스크에 남아 있다 (DB 에서 지워도 된다)
+    public synchronized void append(List<ArchivedIncident> incidents) {
+        if (incidents.isEmpty()) {
+            return;
+        }
+        List<ArchivedIncident> sorted = new ArrayList<>(incidents);
+        sorted.sort(Comparator.comparingLong(ArchivedIncident::id));
+
+        long sequence = nextSequence;
+        Path data = directory.resolve(name(sequence) + DATA_SUFFIX);
+        Path index = directory.resolve(name(sequence) + INDEX_SUFFIX);
+        Path dataTmp = directory.resolve(name(sequence) + DATA_SUFFIX + ".tmp");
+        Path indexTmp = directory.resolve(name(sequence) + INDEX_SUFFIX + ".tmp");
+
+        long[] ids = new long[sorted.size()];
+        long[] offsets = new long[sorted.size()];
+        int[] lengths = new int[sorted.size()];
+        try {
+            long offset = 0;
+            try (FileChannel channel = FileChannel.open(dataTmp,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                for (int from = 0; from < sorted.size(); from += BLOCK_SIZE) {
+                    int to = Math.min(from + BLOCK_SIZE, sorted.size());
+                    byte[] block = compress(sorted.subList(from, to));
+                    writeFully(channel, block);
+                    for (int i = from; i < to; i++) {
+                        ids[i] = sorted.get(i).id();
+                        offsets[i] = offset;
+                        lengths[i] = block.length;
+                    }
+                    offset += block.length;
+                }
+                channel.force(true);
+            }
+            try (FileChannel channel = FileChannel.open(indexTmp,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                writeFully(channel, encodeIndex(ids, offsets, lengths));
+                channel.force(true);
+            }
+            Files.move(dataTmp, data, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(indexTmp, index, StandardCopyOption.ATOMIC_MOVE);
+            bytesWritten.increment(offset);
+        } catch (IOException e) {
+            deleteQuietly(dataTmp);
+            deleteQuietly(indexTmp);
+            deleteQuietly(data);
+            throw new UncheckedIOException("Failed to write archive segment " + data, e);
+        }
+        segments.add(new Segment(data, ids, offsets, lengths));
+        nextSequence = sequence + 1;
+    }
+
+    public Optional<ArchivedIncident> find(long incidentId) {
+        for (int s = segments.size() - 1; s >= 0; s--) {
+            Segment segment = segments.get(s);
+            int position = Arrays.binarySearch(segment.ids, incidentId);
+            if (position < 0) {
+                continue;
+            }
+            try {
+                Optional<ArchivedIncident> found = readBlock(segment, position, incidentId);
+                if (found.isPresent()) {
+                    rehydrations.increment();
+                    return found;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read archive segment " + segment.data, e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // idx 만 본다 (파일을 읽지 않음)
+    public boolean contains(long incidentId) {
+        for (Segment segment : segments) {
+            if (Arrays.binarySearch(segment.ids, incidentId) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 보관된 이벤트 중 after 이후를 timeline 순서로 consumer 에 넘기고, consumer 가 false 를 돌려주면 거기서 멈춘다.
+    // 줄 전체를 ArchivedIncident 로 올리지 않고 events 배열을 한 건씩 읽는다. 보관된 incident 가 아니면 false
+    public boolean readEvents(long incidentId, IncidentEventCursor after, Predicate<Map<String, Object>> consumer) {
+        for (int s = segments.size() - 1; s >= 0; s--) {
+            Segment segment = segments.get(s);
+            int position = Arrays.binarySearch(segment.ids, incidentId);
+            if (position < 0) {
+                continue;
+            }
+            try (BufferedReader reader = openBlock(segment, position)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    try (JsonParser parser = objectMapper.createParser(line)) {
+                        if (readEvents(parser, incidentId, after, consumer)) {
+                            rehydrations.increment();
+                            return true;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read archive segment " + segment.data, e);
+            }
+        }
+        return false;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    private byte[] compress(List<ArchivedIncident> block) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            for (ArchivedIncident incident : block) {
+                gzip.write(objectMapper.writeValueAsBytes(incident));
+                gzip.write('\n');
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private Optional<ArchivedIncident> readBlock(Segment segment, int position, long incidentId) throws IOException {
+        try (BufferedReader reader = openBlock(segment, position)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                ArchivedIncident incident = objectMapper.readValue(line, ArchivedIncident.class);
+                if (incident.id() == incidentId) {
+                    return Optional.of(incident);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    // 한 줄에서 incident id 를 먼저 확인하고, 맞으면 events 배열을 after 이후부터 읽는다. 다른 incident 의 줄이면 false
+    private static boolean readEvents(JsonParser parser, long incidentId, IncidentEventCursor after,
+                                      Predicate<Map<String, Object>> consumer) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Malformed archive line");
+        }
+        Long id = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("incident".equals(field)) {
+                id = ArchivedIncident.number(parser.readValueAs(ROW), "id").longValue();
+                if (id != incidentId) {
+                    return false;
+                }
+            } else if ("events".equals(field) && value == JsonToken.START_ARRAY) {
+                if (id == null) {
+                    throw new IOException("Archive line has events before incident");
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    Map<String, Object> event = parser.readValueAs(ROW);
+                    if ((after == null || isAfter(event, after)) && !consumer.test(event)) {
+                        break;
+                    }
+                }
+                return true;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return id != null;
+    }
+
+    private static boolean isAfter(Map<String, Object> event, IncidentEventCursor after) {
+        Instant occurredAt = ArchivedIncident.instant(event, "occurred_at");
+        int compared = occurredAt.compareTo(after.occurredAt());
+        return compared > 0 || (compared == 0 && ArchivedIncident.number(event, "id").longValue() > after.id());
+    }
+
+    private static BufferedReader openBlock(Segment segment, int position) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(segment.lengths[position]);
+        try (FileChannel channel = FileChannel.open(segment.data, StandardOpenOption.READ)) {
+            while (block.hasRemaining()) {
+                if (channel.read(block, segment.offsets[position] + block.position()) < 0) {
+                    throw new IOException("Truncated archive block at " + segment.offsets[position]);
+                }
+            }
+        }
+        return new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(block.array())), StandardCharsets.UTF_8));
+    }
+
+    private void load() throws IOException {
+        List<Path> indexes = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(".tmp")) {
+                    deleteQuietly(file);
+                } else if (SEGMENT_NAME.matcher(fileName).matches()) {
+                    indexes.add(file);
+                }
+            }
+        }
+        indexes.sort(Comparator.comparingLong(IncidentArchive::sequenceOf));
+
+        long next = 0;
+        for (Path index : indexes) {
+            long sequence = sequenceOf(index);
+            Path data = directory.resolve(name(sequence) + DATA_SUFFIX);
+            if (!Files.exists(data)) {
+                log.warn("archive index {} has no data file, skipping", index);
+                continue;
+            }
+            segments.add(decodeIndex(data, Files.readAllBytes(index)));
+            next = sequence + 1;
+        }
+        // idx 가 없는 data 는 DB 삭제 전에 멈춘 segment 다 (행은 아직 DB 에 있다)
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(DATA_SUFFIX)
+                        && !Files.exists(directory.resolve(fileName.replace(DATA_SUFFIX, INDEX_SUFFIX)))) {
+                    log.warn("discarding unsealed archive segment {}", file);
+                    deleteQuietly(file);
+                }
+            }
+        }
+        nextSequence = next;
+    }
+
+    private static byte[] encodeIndex(long[] ids, long[] offsets, int[] lengths) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(12 + ids.length * 20);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(INDEX_MAGIC);
+        out.writeInt(INDEX_VERSION);
+        out.writeInt(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            out.writeLong(ids[i]);
+            out.writeLong(offsets[i]);
+            out.writeInt(lengths[i]);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Segment decodeIndex(Path data, byte[] index) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(index));
+        if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION) {
+            throw new IOException("Unsupported archive index for " + data);
+        }
+        int count = in.readInt();
+        long[] ids = new long[count];
+        long[] offsets = new long[count];
+        int[] lengths = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = in.readLong();
+            offsets[i] = in.readLong();
+            lengths[i] = in.readInt();
+        }
+        return new Segment(data, ids, offsets, lengths);
+    }
+
+    private static void writeFully(FileChannel channel, byte[] bytes) throws IOException {
+        Channels.newOutputStream(channel).write(bytes);
+    }
+
+    private static String name(long sequence) {
+        return "segment-%08d".formatted(sequence);
+    }
+
+    private static long sequenceOf(Path index) {
+        Matcher matcher = SEGMENT_NAME.matcher(index.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not an archive index: " + index);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("failed to delete {}", file, e);
+        }
+    }
+
+    private record Segment(Path data, long[] ids, long[] offsets, int[] lengths) {
+    }
+}
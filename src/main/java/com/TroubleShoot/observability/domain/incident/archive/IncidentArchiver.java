@@ -0,0 +1,265 @@
+package com.troubleshoot.observability.domain.incident.archive;
+
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 종결(RESOLVED/IGNORED) 후 after 이상 지난 incident 를 이벤트/분석과 함께 archive segment 로 옮기고 DB 에서 지운다.
+// batch 하나 = segment 하나: 1) 행 읽기(읽기 트랜잭션) 2) segment 쓰기(fsync) 3) 쓰기 트랜잭션에서 행을 잠그고
+// 그 사이 바뀌지 않은 incident 만 삭제. 3) 전에 멈추면 행은 DB 에 남고 segment 는 다음 보관 때 새 것으로 대체된다
+// 발생 추이 rollup 은 보관하지 않고 삭제할 때 같이 지운다
+@Component
+public class IncidentArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(IncidentArchiver.class);
+
+    private static final List<String> TERMINAL_STATUSES =
+            List.of(IncidentStatus.RESOLVED.name(), IncidentStatus.IGNORED.name());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IncidentArchive archive;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration after;
+    private final int batchSize;
+    private final int maxIncidentsPerRun;
+
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Counter archivedIncidents;
+    private final Counter archivedEvents;
+
+    @Autowired
+    public IncidentArchiver(JdbcTemplate jdbcTemplate,
+                            IncidentArchive archive,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${observability.archive.enabled:false}") boolean enabled,
+                            @Value("${observability.archive.after:P30D}") Duration after,
+                            @Value("${observability.archive.batch-size:500}") int batchSize,
+                            @Value("${observability.archive.max-incidents-per-run:10000}") int maxIncidentsPerRun) {
+        this(jdbcTemplate, archive, transactionManager, meterRegistry, enabled, after, batchSize, maxIncidentsPerRun,
+                Clock.systemUTC());
+    }
+
+    public IncidentArchiver(JdbcTemplate jdbcTemplate,
+                            IncidentArchive archive,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            boolean enabled,
+                            Duration after,
+                            int batchSize,
+                            int maxIncidentsPerRun,
+                            Clock clock) {
+        if (after.isNegative() || batchSize <= 0 || maxIncidentsPerRun <= 0) {
+            throw new IllegalArgumentException("archive after must not be negative, batch-size and max-incidents-per-run must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.archive = archive;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.enabled = enabled;
+        this.after = after;
+        this.batchSize = batchSize;
+        this.maxIncidentsPerRun = maxIncidentsPerRun;
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "incident-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.archivedIncidents = Counter.builder("archive.incidents.archived")
+                .register(meterRegistry);
+        this.archivedEvents = Counter.builder("archive.events.archived")
+                .register(meterRegistry);
+    }
+
+    // 스케줄러 스레드는 넘기기만 한다. 이전 실행이 아직 돌고 있으면 건너뛴다
+    @Scheduled(fixedDelayString = "${observability.archive.interval:PT1H}",
+            initialDelayString = "${observability.archive.initial-delay:PT10M}")
+    public void schedule() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                archive();
+            } catch (RuntimeException e) {
+                log.warn("incident archive run failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    // 이번 실행에서 DB 에서 옮긴 incident 수
+    public int archive() {
+        Instant cutoff = clock.instant().minus(after);
+        int archived = 0;
+        long afterId = 0;
+        while (archived < maxIncidentsPerRun) {
+            int limit = Math.min(batchSize, maxIncidentsPerRun - archived);
+            long cursor = afterId;
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM incident WHERE status IN (?, ?) AND updated_at < ? AND id > ? ORDER BY id LIMIT ?",
+                    Long.class, TERMINAL_STATUSES.get(0), TERMINAL_STATUSES.get(1), Timestamp.from(cutoff), cursor, limit);
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+
+            List<ArchivedIncident> snapshot = readTransaction.execute(status -> snapshot(ids));
+            archive.append(snapshot);
+            Integer deleted = writeTransaction.execute(status -> delete(snapshot, cutoff));
+            archived += deleted == null ? 0 : deleted;
+            if (ids.size() < limit) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("archived {} incidents older than {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private List<ArchivedIncident> snapshot(List<Long> ids) {
+        String in = placeholders(ids.size());
+        Object[] args = ids.toArray();
+        Instant archivedAt = clock.instant();
+
+        Map<Long, List<Map<String, Object>>> events = new HashMap<>();
+        for (Map<String, Object> row : rows("SELECT * FROM incident_event WHERE incident_id IN (" + in + ") ORDER BY incident_id, occurred_at, id", args)) {
+            events.computeIfAbsent(ArchivedIncident.number(row, "incident_id").longValue(), id -> new ArrayList<>()).add(row);
+        }
+        Map<Long, Map<String, Object>> analyses = new HashMap<>();
+        for (Map<String, Object> row : rows("SELECT * FROM incident_analysis WHERE incident_id IN (" + in + ")", args)) {
+            analyses.put(ArchivedIncident.number(row, "incident_id").longValue(), row);
+        }
+
+        List<ArchivedIncident> snapshot = new ArrayList<>(ids.size());
+        for (Map<String, Object> incident : rows("SELECT * FROM incident WHERE id IN (" + in + ")", args)) {
+            long id = ArchivedIncident.number(incident, "id").longValue();
+            snapshot.add(new ArchivedIncident(archivedAt, incident,
+                    events.getOrDefault(id, List.of()), analyses.get(id)));
+        }
+        return snapshot;
+    }
+
+    // 보관본을 읽은 뒤 바뀐(updated_at 이 달라진) incident 는 지우지 않는다. 다음 실행에서 다시 보관된다
+    private int delete(List<ArchivedIncident> snapshot, Instant cutoff) {
+        if (snapshot.isEmpty()) {
+            return 0;
+        }
+        Map<Long, String> archivedUpdatedAt = new HashMap<>();
+        snapshot.forEach(incident -> archivedUpdatedAt.put(incident.id(), ArchivedIncident.string(incident.incident(), "updated_at")));
+        List<Long> ids = new ArrayList<>(archivedUpdatedAt.keySet());
+
+        List<Long> unchanged = new ArrayList<>();
+        for (Map<String, Object> row : rows("SELECT id, updated_at FROM incident WHERE id IN (" + placeholders(ids.size()) + ")"
+                + " AND status IN (?, ?) AND updated_at < ? FOR UPDATE", concat(ids.toArray(),
+                TERMINAL_STATUSES.get(0), TERMINAL_STATUSES.get(1), Timestamp.from(cutoff)))) {
+            long id = ArchivedIncident.number(row, "id").longValue();
+            if (Objects.equals(archivedUpdatedAt.get(id), ArchivedIncident.string(row, "updated_at"))) {
+                unchanged.add(id);
+            }
+        }
+        if (unchanged.isEmpty()) {
+            return 0;
+        }
+
+        String in = placeholders(unchanged.size());
+        Object[] args = unchanged.toArray();
+        jdbcTemplate.update("DELETE FROM incident_analysis WHERE incident_id IN (" + in + ")", args);
+        jdbcTemplate.update("DELETE FROM incident_occurrence_rollup WHERE incident_id IN (" + in + ")", args);
+        int events = jdbcTemplate.update("DELETE FROM incident_event WHERE incident_id IN (" + in + ")", args);
+        int incidents = jdbcTemplate.update("DELETE FROM incident WHERE id IN (" + in + ")", args);
+        archivedIncidents.increment(incidents);
+        archivedEvents.increment(events);
+        return incidents;
+    }
+
+    private List<Map<String, Object>> rows(String sql, Object[] args) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(sql, args)) {
+            Map<String, Object> normalized = new LinkedHashMap<>();
+            row.forEach((column, value) -> normalized.put(column.toLowerCase(Locale.ROOT), normalize(value)));
+            rows.add(normalized);
+        }
+        return rows;
+    }
+
+    // JSON 으로 그대로 남길 수 있는 값으로 (DB/드라이버마다 다른 타입을 맞춘다)
+    private static Object normalize(Object value) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant().toString();
+        }
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant().toString();
+        }
+        if (value instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        if (value instanceof Clob clob) {
+            try {
+                return clob.getSubString(1, (int) clob.length());
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to read text column for archive", e);
+            }
+        }
+        // PostgreSQL jsonb(PGobject) 등은 문자열 표현이 값이다
+        return value.toString();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static Object[] concat(Object[] head, Object... tail) {
+        Object[] all = new Object[head.length + tail.length];
+        System.arraycopy(head, 0, all, 0, head.length);
+        System.arraycopy(tail, 0, all, head.length, tail.length);
+        return all;
+    }
+}
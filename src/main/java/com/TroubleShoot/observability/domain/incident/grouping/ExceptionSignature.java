@@ -1,14 +1,9 @@
 package com.troubleshoot.observability.domain.incident.grouping;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public final class ExceptionSignature {
 
@@ -16,27 +11,27 @@ public final class ExceptionSignature {
     private static final boolean DEFAULT_INCLUDE_LINE_NUMBER = false;
     private static final boolean DEFAULT_FILTER_JDK = true;
     private static final boolean DEFAULT_FILTER_SPRING = false;
-
-    private static final Pattern STACKTRACE_LINE =
-            Pattern.compile("^\\s*at\\s+(.+)\\((.+)\\)$");
+    private static final SignatureHashAlgorithm DEFAULT_HASH_ALGORITHM = SignatureHashAlgorithm.SHA_256;
 
     private final String exceptionClassName;
     private final List<String> frames;
     private final String signatureString;
+    private final SignatureHashAlgorithm hashAlgorithm;
     private final String signatureHash;
 
-    private ExceptionSignature(String exceptionClassName, List<String> frames) {
+    private ExceptionSignature(String exceptionClassName, List<String> frames, SignatureHashAlgorithm hashAlgorithm) {
         this.exceptionClassName = exceptionClassName;
         this.frames = Collections.unmodifiableList(frames);
         this.signatureString = exceptionClassName + "\n" + String.join("\n", frames);
-        this.signatureHash = sha256Hex(this.signatureString);
+        this.hashAlgorithm = hashAlgorithm;
+        this.signatureHash = hashAlgorithm.hash(this.signatureString);
     }
 
     public static ExceptionSignature fromThrowable(Throwable throwable) {
         return builder().fromThrowable(throwable);
     }
 
-    public static ExceptionSignature fromStacktrace(String stacktrace) {
+    public static ExceptionSignature fromStacktrace(CharSequence stacktrace) {
         return builder().fromStacktrace(stacktrace);
     }
 
@@ -60,11 +55,21 @@ public final class ExceptionSignature {
         return signatureHash;
     }
 
+    public SignatureHashAlgorithm getHashAlgorithm() {
+        return hashAlgorithm;
+    }
+
+    // 같은 signature 를 다른 알고리즘으로 해시 (알고리즘 전환 중 예전 hash 로 열린 incident 를 찾을 때)
+    public String hashWith(SignatureHashAlgorithm algorithm) {
+        return algorithm == hashAlgorithm ? signatureHash : algorithm.hash(signatureString);
+    }
+
     public static final class Builder {
         private int topFrames = DEFAULT_TOP_FRAMES;
         private boolean includeLineNumber = DEFAULT_INCLUDE_LINE_NUMBER;
         private boolean filterJdk = DEFAULT_FILTER_JDK;
         private boolean filterSpring = DEFAULT_FILTER_SPRING;
+        private SignatureHashAlgorithm hashAlgorithm = DEFAULT_HASH_ALGORITHM;
 
         public Builder topFrames(int topFrames) {
             if (topFrames <= 0) {
@@ -89,22 +94,126 @@ public final class ExceptionSignature {
             return this;
         }
 
+        public Builder hashAlgorithm(SignatureHashAlgorithm hashAlgorithm) {
+            this.hashAlgorithm = Objects.requireNonNull(hashAlgorithm, "hashAlgorithm");
+            return this;
+        }
+
         public ExceptionSignature fromThrowable(Throwable throwable) {
             Objects.requireNonNull(throwable, "throwable");
             Throwable root = rootCauseOf(throwable);
             String exceptionClassName = root.getClass().getName();
             StackTraceElement[] stackTrace = root.getStackTrace();
             List<String> frames = normalizeFrames(toFrames(stackTrace));
-            return new ExceptionSignature(exceptionClassName, frames);
+            return new ExceptionSignature(exceptionClassName, frames, hashAlgorithm);
         }
 
-        public ExceptionSignature fromStacktrace(String stacktrace) {
+        // 한 번의 index 스캔으로 파싱하고, topFrames 만큼 필터를 통과한 frame 이 모이면 바로 멈춘다.
+        // 결과는 예전 정규식 파서(^\s*at\s+(.+)\((.+)\)$ 를 줄마다 적용)와 동일해야 한다.
+        public ExceptionSignature fromStacktrace(CharSequence stacktrace) {
             Objects.requireNonNull(stacktrace, "stacktrace");
-            List<String> lines = splitLines(stacktrace);
-            String exceptionClassName = extractExceptionClassName(lines);
-            List<Frame> frames = parseFrames(lines);
-            List<String> normalized = normalizeFrames(frames);
-            return new ExceptionSignature(exceptionClassName, normalized);
+            int length = stacktrace.length();
+            String exceptionClassName = "UnknownException";
+            List<String> frames = new ArrayList<>(topFrames);
+            StringBuilder frame = new StringBuilder(128);
+            boolean headerFound = false;
+
+            int lineStart = 0;
+            while (lineStart < length && frames.size() < topFrames) {
+                int newline = indexOf(stacktrace, '\n', lineStart, length);
+                int lineEnd = newline;
+                // 구분자는 "\n" / "\r\n". 마지막 줄 끝의 단독 '\r' 은 줄에 남는다 (split("\\r?\\n") 과 동일)
+                if (newline < length && lineEnd > lineStart && stacktrace.charAt(lineEnd - 1) == '\r') {
+                    lineEnd--;
+                }
+
+                if (!headerFound) {
+                    if (!isBlank(stacktrace, lineStart, lineEnd)) {
+                        exceptionClassName = extractExceptionClassName(
+                                stacktrace.subSequence(lineStart, lineEnd).toString());
+                        headerFound = true;
+                    }
+                } else if (parseFrame(stacktrace, lineStart, lineEnd, frame)) {
+                    frames.add(frame.toString());
+                }
+                lineStart = newline + 1;
+            }
+            return new ExceptionSignature(exceptionClassName, frames, hashAlgorithm);
+        }
+
+        // "at class.method(file:line)" 한 줄. 필터를 통과하면 포맷된 frame 을 out 에 채우고 true.
+        private boolean parseFrame(CharSequence cs, int start, int end, StringBuilder out) {
+            int i = start;
+            while (i < end && isRegexSpace(cs.charAt(i))) {
+                i++;
+            }
+            if (i + 1 >= end || cs.charAt(i) != 'a' || cs.charAt(i + 1) != 't') {
+                return false;
+            }
+            int afterAt = i + 2;
+            int bodyStart = afterAt;
+            while (bodyStart < end && isRegexSpace(cs.charAt(bodyStart))) {
+                bodyStart++;
+            }
+            if (bodyStart == afterAt || cs.charAt(end - 1) != ')') {
+                return false;
+            }
+            for (int x = bodyStart; x < end - 1; x++) {
+                if (isLineTerminator(cs.charAt(x))) {
+                    return false;
+                }
+            }
+
+            // 정규식의 greedy (.+) 와 같이 가장 마지막 '(' 를 고른다 (양쪽 그룹 모두 1글자 이상)
+            int open = -1;
+            for (int x = end - 3; x > bodyStart; x--) {
+                if (cs.charAt(x) == '(') {
+                    open = x;
+                    break;
+                }
+            }
+            if (open < 0) {
+                // \s+ 가 공백 하나를 양보해서 "at  (x)" 처럼 그룹1이 공백 한 글자가 되는 경우
+                if (bodyStart - 1 > afterAt && cs.charAt(bodyStart - 1) != '\r'
+                        && bodyStart <= end - 3 && cs.charAt(bodyStart) == '(') {
+                    open = bodyStart;
+                    bodyStart--;
+                } else {
+                    return false;
+                }
+            }
+
+            int methodStart = trimStart(cs, bodyStart, open);
+            int methodEnd = trimEnd(cs, methodStart, open);
+            int lastDot = lastIndexOf(cs, '.', methodStart, methodEnd);
+            int classEnd = lastDot > methodStart ? lastDot : methodEnd;
+            if (shouldFilter(cs, methodStart, classEnd)) {
+                return false;
+            }
+
+            int fileStart = trimStart(cs, open + 1, end - 1);
+            int fileEnd = trimEnd(cs, fileStart, end - 1);
+            int colon = lastIndexOf(cs, ':', fileStart, fileEnd);
+            int fileNameEnd = colon > fileStart ? colon : fileEnd;
+
+            out.setLength(0);
+            out.append(cs, methodStart, classEnd).append('#');
+            if (lastDot > methodStart) {
+                out.append(cs, lastDot + 1, methodEnd);
+            } else {
+                out.append("unknown");
+            }
+            out.append('(').append(cs, fileStart, fileNameEnd);
+            if (includeLineNumber) {
+                int lineNumber = colon > fileStart ? parseLineNumber(cs, colon + 1, fileEnd) : -1;
+                if (lineNumber >= 0) {
+                    out.append(':').append(lineNumber);
+                } else {
+                    out.append(":?");
+                }
+            }
+            out.append(')');
+            return true;
         }
 
         private List<String> normalizeFrames(List<Frame> frames) {
@@ -125,12 +234,16 @@ public final class ExceptionSignature {
             if (className == null) {
                 return false;
             }
-            if (filterJdk && (className.startsWith("java.")
-                    || className.startsWith("jdk.")
-                    || className.startsWith("sun."))) {
+            return shouldFilter(className, 0, className.length());
+        }
+
+        private boolean shouldFilter(CharSequence cs, int start, int end) {
+            if (filterJdk && (startsWith(cs, start, end, "java.")
+                    || startsWith(cs, start, end, "jdk.")
+                    || startsWith(cs, start, end, "sun."))) {
                 return true;
             }
-            return filterSpring && className.startsWith("org.springframework.");
+            return filterSpring && startsWith(cs, start, end, "org.springframework.");
         }
 
         private String formatFrame(Frame frame) {
@@ -157,22 +270,8 @@ public final class ExceptionSignature {
         return frames;
     }
 
-    private static List<String> splitLines(String stacktrace) {
-        String[] raw = stacktrace.split("\\r?\\n");
-        List<String> lines = new ArrayList<>(raw.length);
-        for (String line : raw) {
-            if (!line.isBlank()) {
-                lines.add(line);
-            }
-        }
-        return lines;
-    }
-
-    private static String extractExceptionClassName(List<String> lines) {
-        if (lines.isEmpty()) {
-            return "UnknownException";
-        }
-        String first = lines.get(0).trim();
+    private static String extractExceptionClassName(String firstLine) {
+        String first = firstLine.trim();
         if (first.startsWith("Exception in thread")) {
             int lastSpace = first.lastIndexOf(' ');
             if (lastSpace > 0 && lastSpace < first.length() - 1) {
@@ -186,42 +285,77 @@ public final class ExceptionSignature {
         return first;
     }
 
-    private static List<Frame> parseFrames(List<String> lines) {
-        List<Frame> frames = new ArrayList<>();
-        for (int i = 1; i < lines.size(); i++) {
-            String line = lines.get(i);
-            Matcher matcher = STACKTRACE_LINE.matcher(line);
-            if (!matcher.matches()) {
-                continue;
+    private static int parseLineNumber(CharSequence cs, int start, int end) {
+        try {
+            return Integer.parseInt(cs, start, end, 10);
+        } catch (NumberFormatException ignored) {
+            return -1;
+        }
+    }
+
+    // java.util.regex 의 \s (UNICODE_CHARACTER_CLASS 없이)
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    // java.util.regex 의 '.' 이 매칭하지 않는 문자
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    // String.isBlank 와 동일
+    private static boolean isBlank(CharSequence cs, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(cs.charAt(i))) {
+                return false;
             }
-            String methodFull = matcher.group(1).trim();
-            String filePart = matcher.group(2).trim();
-            int lastDot = methodFull.lastIndexOf('.');
-            String className;
-            String methodName;
-            if (lastDot > 0) {
-                className = methodFull.substring(0, lastDot);
-                methodName = methodFull.substring(lastDot + 1);
-            } else {
-                className = methodFull;
-                methodName = "unknown";
+        }
+        return true;
+    }
+
+    // String.trim 과 동일 (<= ' ' 제거)
+    private static int trimStart(CharSequence cs, int start, int end) {
+        while (start < end && cs.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(CharSequence cs, int start, int end) {
+        while (end > start && cs.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static int indexOf(CharSequence cs, char c, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (cs.charAt(i) == c) {
+                return i;
             }
+        }
+        return end;
+    }
 
-            String fileName = filePart;
-            int lineNumber = -1;
-            int colon = filePart.lastIndexOf(':');
-            if (colon > 0) {
-                fileName = filePart.substring(0, colon);
-                String lineText = filePart.substring(colon + 1);
-                try {
-                    lineNumber = Integer.parseInt(lineText);
-                } catch (NumberFormatException ignored) {
-                    lineNumber = -1;
-                }
+    private static int lastIndexOf(CharSequence cs, char c, int start, int end) {
+        for (int i = end - 1; i >= start; i--) {
+            if (cs.charAt(i) == c) {
+                return i;
             }
-            frames.add(new Frame(className, methodName, fileName, lineNumber));
         }
-        return frames;
+        return -1;
+    }
+
+    private static boolean startsWith(CharSequence cs, int start, int end, String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (cs.charAt(start + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private static Throwable rootCauseOf(Throwable throwable) {
@@ -232,20 +366,6 @@ public final class ExceptionSignature {
         return current;
     }
 
-    private static String sha256Hex(String input) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hex = new StringBuilder(hash.length * 2);
-            for (byte b : hash) {
-                hex.append(String.format("%02x", b));
-            }
-            return hex.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("SHA-256 not available", e);
-        }
-    }
-
     private static final class Frame {
         private final String className;
         private final String methodName;
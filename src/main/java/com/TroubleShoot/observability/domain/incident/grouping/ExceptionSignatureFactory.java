@@ -0,0 +1,39 @@
+package com.troubleshoot.observability.domain.incident.grouping;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// 설정된 해시 알고리즘으로 ExceptionSignature 를 만든다.
+// compat 알고리즘이 있으면 grouping 이 그 hash 로 이미 열려 있는 incident 도 찾아서 이어 붙인다 (알고리즘 전환 중).
+@Component
+public class ExceptionSignatureFactory {
+
+    private final SignatureHashAlgorithm hashAlgorithm;
+    private final SignatureHashAlgorithm compatHashAlgorithm;
+
+    @Autowired
+    public ExceptionSignatureFactory(@Value("${observability.grouping.hash-algorithm:sha256}") String hashAlgorithm,
+                                     @Value("${observability.grouping.compat-hash-algorithm:}") String compatHashAlgorithm) {
+        this(SignatureHashAlgorithm.fromConfigName(hashAlgorithm),
+                compatHashAlgorithm == null || compatHashAlgorithm.isBlank()
+                        ? null
+                        : SignatureHashAlgorithm.fromConfigName(compatHashAlgorithm));
+    }
+
+    public ExceptionSignatureFactory(SignatureHashAlgorithm hashAlgorithm, SignatureHashAlgorithm compatHashAlgorithm) {
+        this.hashAlgorithm = hashAlgorithm;
+        this.compatHashAlgorithm = compatHashAlgorithm == hashAlgorithm ? null : compatHashAlgorithm;
+    }
+
+    public ExceptionSignature fromStacktrace(CharSequence stacktrace) {
+        return ExceptionSignature.builder()
+                .hashAlgorithm(hashAlgorithm)
+                .fromStacktrace(stacktrace);
+    }
+
+    // 전환 전 알고리즘으로 계산한 hash. compat 설정이 없으면 null
+    public String compatHash(ExceptionSignature signature) {
+        return compatHashAlgorithm == null ? null : signature.hashWith(compatHashAlgorithm);
+    }
+}
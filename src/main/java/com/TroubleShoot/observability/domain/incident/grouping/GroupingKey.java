@@ -0,0 +1,11 @@
+package com.troubleshoot.observability.domain.incident.grouping;
+
+import java.util.Objects;
+
+public record GroupingKey(String serviceName, String signatureHash) {
+
+    public GroupingKey {
+        Objects.requireNonNull(serviceName, "serviceName");
+        Objects.requireNonNull(signatureHash, "signatureHash");
+    }
+}
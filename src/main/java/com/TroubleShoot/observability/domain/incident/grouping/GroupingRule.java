@@ -0,0 +1,21 @@
+package com.troubleshoot.observability.domain.incident.grouping;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// DESIGN.md 4.3: 같은 key 의 OPEN incident 이고 lastSeenAt 이 WINDOW 안이면 묶는다
+public final class GroupingRule {
+
+    public static final Duration WINDOW = Duration.ofMinutes(5);
+
+    private GroupingRule() {
+    }
+
+    public static Instant threshold(Instant occurredAt) {
+        return occurredAt.minus(WINDOW);
+    }
+
+    public static boolean isWithinWindow(Instant lastSeenAt, Instant occurredAt) {
+        return lastSeenAt != null && lastSeenAt.isAfter(threshold(occurredAt));
+    }
+}
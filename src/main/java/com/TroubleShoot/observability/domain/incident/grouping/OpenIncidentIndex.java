@@ -0,0 +1,194 @@
+package com.troubleshoot.observability.domain.incident.grouping;
+
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
+import com.troubleshoot.observability.domain.incident.infra.OpenIncidentRef;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// (serviceName, signatureHash) -> OPEN incident 메모리 인덱스.
+// 반복 이벤트는 grouping 조회 쿼리 없이 incident id 를 바로 얻는다.
+// 만료는 hashed timing wheel 로 처리: touch 는 시각만 갱신하고, slot 이 돌아올 때 만료/재등록을 판단한다.
+@Component
+public class OpenIncidentIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenIncidentIndex.class);
+
+    private static final Duration TICK = Duration.ofSeconds(5);
+
+    private final IncidentRepository incidentRepository;
+    private final Clock clock;
+    private final long windowMillis;
+    private final long tickMillis;
+
+    private final Map<GroupingKey, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, GroupingKey> keysByIncidentId = new ConcurrentHashMap<>();
+    // grouping 대상에서 빠진 incident id -> 빠진 시각. 빠지기 전에 읽은 배치의 커밋 후 put 이 되살리지 못하게 WINDOW 동안 기억한다
+    private final Map<Long, Long> closedIncidents = new ConcurrentHashMap<>();
+    private final Queue<GroupingKey>[] wheel;
+    private volatile long lastExpiredTick;
+
+    @Autowired
+    public OpenIncidentIndex(IncidentRepository incidentRepository) {
+        this(incidentRepository, Clock.systemUTC(), GroupingRule.WINDOW, TICK);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public OpenIncidentIndex(IncidentRepository incidentRepository, Clock clock, Duration window, Duration tick) {
+        this.incidentRepository = incidentRepository;
+        this.clock = clock;
+        this.windowMillis = window.toMillis();
+        this.tickMillis = tick.toMillis();
+        int slots = (int) (windowMillis / tickMillis) + 2;
+        this.wheel = new Queue[slots];
+        for (int i = 0; i < slots; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.lastExpiredTick = clock.millis() / tickMillis;
+    }
+
+    // 이벤트 시각 기준으로 WINDOW 안에 있는 OPEN incident 가 있으면 돌려준다
+    public IndexedIncident find(GroupingKey key, Instant occurredAt) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        Instant lastSeenAt = entry.lastSeenAt.get();
+        if (!GroupingRule.isWithinWindow(lastSeenAt, occurredAt)) {
+            return null;
+        }
+        return new IndexedIncident(entry.incidentId, lastSeenAt);
+    }
+
+    public void put(GroupingKey key, long incidentId, Instant lastSeenAt) {
+        if (closedIncidents.containsKey(incidentId)) {
+            return;
+        }
+        long now = clock.millis();
+        Entry entry = entries.compute(key, (k, current) -> {
+            if (current != null && current.incidentId == incidentId) {
+                current.touch(lastSeenAt, now);
+                return current;
+            }
+            if (current != null) {
+                keysByIncidentId.remove(current.incidentId, k);
+            }
+            return new Entry(incidentId, lastSeenAt, now);
+        });
+        GroupingKey previous = keysByIncidentId.put(incidentId, key);
+        if (previous == null || !previous.equals(key)) {
+            schedule(key, entry.lastTouchedMillis + windowMillis);
+        }
+        // 확인과 등록 사이에 invalidate 됐으면 되돌린다
+        if (closedIncidents.containsKey(incidentId)) {
+            remove(incidentId);
+        }
+    }
+
+    public void touch(GroupingKey key, Instant lastSeenAt) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.touch(lastSeenAt, clock.millis());
+        }
+    }
+
+    public void invalidate(long incidentId) {
+        closedIncidents.put(incidentId, clock.millis());
+        remove(incidentId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelayString = "PT5S")
+    public void expireEntries() {
+        long now = clock.millis();
+        long currentTick = now / tickMillis;
+        long fromTick = Math.max(lastExpiredTick + 1, currentTick - wheel.length + 1);
+        for (long tick = fromTick; tick <= currentTick; tick++) {
+            Queue<GroupingKey> slot = wheel[(int) (tick % wheel.length)];
+            for (int pending = slot.size(); pending > 0; pending--) {
+                GroupingKey key = slot.poll();
+                if (key == null) {
+                    break;
+                }
+                Entry entry = entries.get(key);
+                if (entry == null) {
+                    continue;
+                }
+                long deadline = entry.lastTouchedMillis + windowMillis;
+                if (deadline <= now) {
+                    if (entries.remove(key, entry)) {
+                        keysByIncidentId.remove(entry.incidentId, key);
+                    }
+                } else {
+                    schedule(key, deadline);
+                }
+            }
+        }
+        lastExpiredTick = currentTick;
+        closedIncidents.values().removeIf(closedAt -> closedAt + windowMillis <= now);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Instant threshold = clock.instant().minus(Duration.ofMillis(windowMillis));
+        List<OpenIncidentRef> open = incidentRepository.findOpenIncidentRefs(IncidentStatus.groupable(), threshold);
+        for (OpenIncidentRef ref : open) {
+            if (ref.serviceName() != null && ref.signatureHash() != null) {
+                put(new GroupingKey(ref.serviceName(), ref.signatureHash()), ref.id(), ref.lastSeenAt());
+            }
+        }
+        log.info("open incident index warmed up with {} entries", open.size());
+    }
+
+    private void remove(long incidentId) {
+        GroupingKey key = keysByIncidentId.remove(incidentId);
+        if (key != null) {
+            entries.computeIfPresent(key, (k, entry) -> entry.incidentId == incidentId ? null : entry);
+        }
+    }
+
+    private void schedule(GroupingKey key, long deadlineMillis) {
+        long tick = Math.max(deadlineMillis / tickMillis, lastExpiredTick + 1);
+        wheel[(int) (tick % wheel.length)].add(key);
+    }
+
+    public record IndexedIncident(long incidentId, Instant lastSeenAt) {
+    }
+
+    private static final class Entry {
+        private final long incidentId;
+        private final AtomicReference<Instant> lastSeenAt;
+        private volatile long lastTouchedMillis;
+
+        private Entry(long incidentId, Instant lastSeenAt, long touchedMillis) {
+            this.incidentId = incidentId;
+            this.lastSeenAt = new AtomicReference<>(lastSeenAt);
+            this.lastTouchedMillis = touchedMillis;
+        }
+
+        private void touch(Instant seenAt, long touchedMillis) {
+            if (seenAt != null) {
+                lastSeenAt.accumulateAndGet(seenAt, (current, next) ->
+                        current == null || next.isAfter(current) ? next : current);
+            }
+            lastTouchedMillis = touchedMillis;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.troubleshoot.observability.domain.incident.grouping;
+
+import com.troubleshoot.observability.domain.incident.Incident;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+// Incident.transitionTo 로 grouping 대상 상태를 벗어나면 인덱스에서 제거 (Hibernate SpringBeanContainer 가 생성)
+public class OpenIncidentIndexListener {
+
+    private final ObjectProvider<OpenIncidentIndex> openIncidentIndex;
+
+    public OpenIncidentIndexListener(ObjectProvider<OpenIncidentIndex> openIncidentIndex) {
+        this.openIncidentIndex = openIncidentIndex;
+    }
+
+    @PostUpdate
+    void onUpdate(Incident incident) {
+        if (!incident.getStatus().isGroupable()) {
+            evict(incident);
+        }
+    }
+
+    @PostRemove
+    void onRemove(Incident incident) {
+        evict(incident);
+    }
+
+    private void evict(Incident incident) {
+        if (incident.getId() != null) {
+            openIncidentIndex.ifAvailable(index -> index.invalidate(incident.getId()));
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.troubleshoot.observability.domain.incident.grouping;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+// signature_hash 생성 알고리즘. 저장값의 prefix 로 어떤 알고리즘인지 구분한다.
+// SHA-256 은 기존 데이터와 호환되도록 prefix 없이 64자 hex.
+public enum SignatureHashAlgorithm {
+
+    SHA_256("sha256", "") {
+        @Override
+        protected String digestHex(String input) {
+            MessageDigest digest = SHA_256_DIGEST.get();
+            digest.reset();
+            return toHex(digest.digest(input.getBytes(StandardCharsets.UTF_8)));
+        }
+    },
+
+    // MurmurHash3 x64 128bit (seed 0), 문자열의 UTF-16LE 바이트를 byte[] 변환 없이 char 단위로 읽는다
+    MURMUR3_128("murmur3", "m3:") {
+        @Override
+        protected String digestHex(String input) {
+            long[] hash = Murmur3.hash128(input);
+            char[] hex = new char[32];
+            writeHex(hash[0], hex, 0);
+            writeHex(hash[1], hex, 16);
+            return new String(hex);
+        }
+    };
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<MessageDigest> SHA_256_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final String configName;
+    private final String prefix;
+
+    SignatureHashAlgorithm(String configName, String prefix) {
+        this.configName = configName;
+        this.prefix = prefix;
+    }
+
+    public String hash(String signatureString) {
+        return prefix + digestHex(signatureString);
+    }
+
+    protected abstract String digestHex(String input);
+
+    public String configName() {
+        return configName;
+    }
+
+    // 저장된 signature_hash 가 어떤 알고리즘으로 만들어졌는지
+    public static SignatureHashAlgorithm of(String signatureHash) {
+        if (signatureHash != null && signatureHash.startsWith(MURMUR3_128.prefix)) {
+            return MURMUR3_128;
+        }
+        return SHA_256;
+    }
+
+    // 설정값(sha256 / murmur3) -> 알고리즘
+    public static SignatureHashAlgorithm fromConfigName(String name) {
+        for (SignatureHashAlgorithm algorithm : values()) {
+            if (algorithm.configName.equalsIgnoreCase(name.trim())) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("unknown signature hash algorithm: " + name);
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX[(bytes[i] >> 4) & 0x0f];
+            hex[i * 2 + 1] = HEX[bytes[i] & 0x0f];
+        }
+        return new String(hex);
+    }
+
+    private static void writeHex(long value, char[] out, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            out[offset + i] = HEX[(int) (value & 0x0f)];
+            value >>>= 4;
+        }
+    }
+
+    private static final class Murmur3 {
+        private static final long C1 = 0x87c37b91114253d5L;
+        private static final long C2 = 0x4cf5ad432745937fL;
+
+        private static long[] hash128(String input) {
+            int chars = input.length();
+            long h1 = 0;
+            long h2 = 0;
+
+            // 16바이트 블록 = char 8개
+            int blocks = chars / 8;
+            for (int b = 0; b < blocks; b++) {
+                int i = b * 8;
+                long k1 = charsToLong(input, i);
+                long k2 = charsToLong(input, i + 4);
+
+                h1 ^= mixK1(k1);
+                h1 = Long.rotateLeft(h1, 27);
+                h1 += h2;
+                h1 = h1 * 5 + 0x52dce729;
+
+                h2 ^= mixK2(k2);
+                h2 = Long.rotateLeft(h2, 31);
+                h2 += h1;
+                h2 = h2 * 5 + 0x38495ab5;
+            }
+
+            // 나머지 char 0~7개 (= 0~14 바이트, 항상 짝수)
+            int tail = blocks * 8;
+            int remaining = chars - tail;
+            long k1 = 0;
+            long k2 = 0;
+            for (int i = remaining - 1; i >= 4; i--) {
+                k2 ^= (long) input.charAt(tail + i) << ((i - 4) * 16);
+            }
+            for (int i = Math.min(remaining, 4) - 1; i >= 0; i--) {
+                k1 ^= (long) input.charAt(tail + i) << (i * 16);
+            }
+            if (remaining > 4) {
+                h2 ^= mixK2(k2);
+            }
+            if (remaining > 0) {
+                h1 ^= mixK1(k1);
+            }
+
+            long length = (long) chars * 2;
+            h1 ^= length;
+            h2 ^= length;
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix64(h1);
+            h2 = fmix64(h2);
+            h1 += h2;
+            h2 += h1;
+            return new long[] {h1, h2};
+        }
+
+        // little-endian 으로 char 4개 = 8바이트
+        private static long charsToLong(String input, int i) {
+            return (long) input.charAt(i)
+                    | (long) input.charAt(i + 1) << 16
+                    | (long) input.charAt(i + 2) << 32
+                    | (long) input.charAt(i + 3) << 48;
+        }
+
+        private static long mixK1(long k1) {
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            return k1;
+        }
+
+        private static long mixK2(long k2) {
+            k2 *= C2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= C1;
+            return k2;
+        }
+
+        private static long fmix64(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9fe1a85ec53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.troubleshoot.observability.domain.incident.infra;
+
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+
+// 인덱스 hit 확인 결과: 아직 grouping 대상인 incident 의 현재 상태와 DB 의 발생 건수 (write-behind 미반영분 제외)
+public record GroupableIncident(IncidentStatus status, long occurrenceCount) {
+}
@@ -0,0 +1,34 @@
+package com.troubleshoot.observability.domain.incident.infra;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// keyset 페이지 위치: 직전 페이지 마지막 행의 (lastSeenAt, id). 클라이언트에는 불투명한 문자열로 준다.
+// lastSeenAt 이 null 이면 grouping 되지 않은 행(목록 끝에 id 순으로 붙는다) 구간의 위치다.
+public record IncidentCursor(Instant lastSeenAt, long id) {
+
+    public static IncidentCursor after(IncidentSummaryRow row) {
+        return new IncidentCursor(row.lastSeenAt(), row.id());
+    }
+
+    public String encode() {
+        String raw = (lastSeenAt == null ? "" : lastSeenAt.toString()) + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static IncidentCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int comma = raw.indexOf(',');
+            if (comma < 0) {
+                throw new IllegalArgumentException("invalid cursor: " + cursor);
+            }
+            Instant lastSeenAt = comma == 0 ? null : Instant.parse(raw.substring(0, comma));
+            return new IncidentCursor(lastSeenAt, Long.parseLong(raw.substring(comma + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.troubleshoot.observability.domain.incident.infra;
+
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+import java.time.Instant;
+
+// 상세 조회 projection
+public record IncidentDetailRow(
+        Long id,
+        IncidentStatus status,
+        String serviceName,
+        String exceptionClass,
+        int occurrenceCount,
+        Instant firstSeenAt,
+        Instant lastSeenAt
+) {
+}
@@ -3,70 +3,40 @@ package com.troubleshoot.observability.domain.incident.infra;
 import com.troubleshoot.observability.domain.incident.Incident;
 import com.troubleshoot.observability.domain.incident.IncidentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface IncidentRepository extends JpaRepository<Incident, Long> {
+public interface IncidentRepository
+        extends JpaRepository<Incident, Long>, IncidentUpsertRepository, IncidentSearchRepository {
     List<Incident> findByStatusOrderByCreatedAtDesc(IncidentStatus status);
 
-    java.util.Optional<Incident> findFirstByServiceNameAndSignatureHashAndStatusAndLastSeenAtAfter(
-            String serviceName,
-            String signatureHash,
-            IncidentStatus status,
-            java.time.Instant threshold
-    );
-
-    List<Incident> findAllByOrderByLastSeenAtDesc();
-
-    List<Incident> findByServiceNameOrderByLastSeenAtDesc(String serviceName);
-
-    List<Incident> findByStatusOrderByLastSeenAtDesc(IncidentStatus status);
-
-    List<Incident> findByServiceNameAndStatusOrderByLastSeenAtDesc(String serviceName, IncidentStatus status);
-
-    List<Incident> findByLastSeenAtBetweenOrderByLastSeenAtDesc(Instant from, Instant to);
-
-    List<Incident> findByLastSeenAtAfterOrderByLastSeenAtDesc(Instant from);
-
-    List<Incident> findByLastSeenAtBeforeOrderByLastSeenAtDesc(Instant to);
-
-    List<Incident> findByServiceNameAndLastSeenAtBetweenOrderByLastSeenAtDesc(
-            String serviceName,
-            Instant from,
-            Instant to
-    );
-
-    List<Incident> findByServiceNameAndLastSeenAtAfterOrderByLastSeenAtDesc(String serviceName, Instant from);
-
-    List<Incident> findByServiceNameAndLastSeenAtBeforeOrderByLastSeenAtDesc(String serviceName, Instant to);
-
-    List<Incident> findByStatusAndLastSeenAtBetweenOrderByLastSeenAtDesc(
-            IncidentStatus status,
-            Instant from,
-            Instant to
-    );
-
-    List<Incident> findByStatusAndLastSeenAtAfterOrderByLastSeenAtDesc(IncidentStatus status, Instant from);
-
-    List<Incident> findByStatusAndLastSeenAtBeforeOrderByLastSeenAtDesc(IncidentStatus status, Instant to);
-
-    List<Incident> findByServiceNameAndStatusAndLastSeenAtBetweenOrderByLastSeenAtDesc(
-            String serviceName,
-            IncidentStatus status,
-            Instant from,
-            Instant to
-    );
-
-    List<Incident> findByServiceNameAndStatusAndLastSeenAtAfterOrderByLastSeenAtDesc(
-            String serviceName,
-            IncidentStatus status,
-            Instant from
-    );
-
-    List<Incident> findByServiceNameAndStatusAndLastSeenAtBeforeOrderByLastSeenAtDesc(
-            String serviceName,
-            IncidentStatus status,
-            Instant to
-    );
+    @Query("""
+            select new com.troubleshoot.observability.domain.incident.infra.OpenIncidentRef(
+                i.id, i.serviceName, i.signatureHash, i.lastSeenAt)
+            from Incident i
+            where i.status in :statuses and i.lastSeenAt > :threshold
+            """)
+    List<OpenIncidentRef> findOpenIncidentRefs(@Param("statuses") Collection<IncidentStatus> statuses,
+                                               @Param("threshold") Instant threshold);
+
+    @Query("""
+            select new com.troubleshoot.observability.domain.incident.infra.IncidentDetailRow(
+                i.id, i.status, i.serviceName, i.exceptionClass, i.occurrenceCount, i.firstSeenAt, i.lastSeenAt)
+            from Incident i
+            where i.id = :id
+            """)
+    Optional<IncidentDetailRow> findDetailRow(@Param("id") Long id);
+
+    @Query("""
+            select new com.troubleshoot.observability.domain.incident.infra.IncidentTriggerRow(
+                i.id, i.status, i.occurrenceCount)
+            from Incident i
+            where i.id in :ids
+            """)
+    List<IncidentTriggerRow> findTriggerRows(@Param("ids") Collection<Long> ids);
 }
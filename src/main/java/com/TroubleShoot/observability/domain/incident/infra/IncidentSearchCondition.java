@@ -0,0 +1,13 @@
+package com.troubleshoot.observability.domain.incident.infra;
+
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+import java.time.Instant;
+
+// incident 목록 필터. null 인 항목은 조건에서 빠진다. lastSeenAt 기준 [from, to] (양끝 포함)
+public record IncidentSearchCondition(
+        String serviceName,
+        IncidentStatus status,
+        Instant from,
+        Instant to
+) {
+}
@@ -0,0 +1,10 @@
+package com.troubleshoot.observability.domain.incident.infra;
+
+import java.util.List;
+
+public interface IncidentSearchRepository {
+
+    // 조건에 맞는 incident 를 (lastSeenAt desc, id desc) 로 최대 limit 건. after 가 있으면 그 다음 행부터.
+    // 기간 조건이 없으면 lastSeenAt 이 없는 행(grouping 되지 않은 요청 실패 incident)도 맨 뒤에 id desc 로 이어 붙인다
+    List<IncidentSummaryRow> search(IncidentSearchCondition condition, IncidentCursor after, int limit);
+}
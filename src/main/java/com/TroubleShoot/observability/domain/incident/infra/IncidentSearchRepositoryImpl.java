@@ -0,0 +1,85 @@
+package com.troubleshoot.observability.domain.incident.infra;
+
+import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// 필터 조합마다 derived query 를 두지 않고 조건을 그때그때 붙인다.
+// seek 조건 (lastSeenAt, id) < (cursor) 과 정렬이 idx_incident_*_last_seen 인덱스 순서와 같아서 깊은 페이지도 인덱스 범위 스캔으로 끝난다.
+// lastSeenAt 이 없는 행은 같은 정렬에 NULLS 위치를 섞지 않고, grouping 된 행을 다 읽은 뒤 별도 seek (lastSeenAt IS NULL, id < cursor) 로 붙인다.
+class IncidentSearchRepositoryImpl implements IncidentSearchRepository {
+
+    private final EntityManager entityManager;
+
+    IncidentSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<IncidentSummaryRow> search(IncidentSearchCondition condition, IncidentCursor after, int limit) {
+        List<IncidentSummaryRow> rows = new ArrayList<>(limit);
+        if (after == null || after.lastSeenAt() != null) {
+            rows.addAll(seek(condition, after, false, limit));
+        }
+        // 기간 조건이 있으면 lastSeenAt 이 없는 행은 해당되지 않는다
+        boolean includeUngrouped = condition.from() == null && condition.to() == null;
+        if (rows.size() < limit && includeUngrouped) {
+            IncidentCursor ungroupedAfter = after != null && after.lastSeenAt() == null ? after : null;
+            rows.addAll(seek(condition, ungroupedAfter, true, limit - rows.size()));
+        }
+        return rows;
+    }
+
+    private List<IncidentSummaryRow> seek(IncidentSearchCondition condition, IncidentCursor after,
+                                          boolean ungrouped, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<IncidentSummaryRow> query = cb.createQuery(IncidentSummaryRow.class);
+        Root<Incident> incident = query.from(Incident.class);
+        Path<Instant> lastSeenAt = incident.get("lastSeenAt");
+        Path<Long> id = incident.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(ungrouped ? cb.isNull(lastSeenAt) : cb.isNotNull(lastSeenAt));
+        if (condition.serviceName() != null) {
+            predicates.add(cb.equal(incident.<String>get("serviceName"), condition.serviceName()));
+        }
+        if (condition.status() != null) {
+            predicates.add(cb.equal(incident.<IncidentStatus>get("status"), condition.status()));
+        }
+        if (condition.from() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(lastSeenAt, condition.from()));
+        }
+        if (condition.to() != null) {
+            predicates.add(cb.lessThanOrEqualTo(lastSeenAt, condition.to()));
+        }
+        if (after != null && ungrouped) {
+            predicates.add(cb.lessThan(id, after.id()));
+        } else if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(lastSeenAt, after.lastSeenAt()),
+                    cb.and(cb.equal(lastSeenAt, after.lastSeenAt()), cb.lessThan(id, after.id()))));
+        }
+
+        // 엔티티 대신 필요한 컬럼만 record 로 (persistence context 에 올라가지 않음)
+        query.select(cb.construct(IncidentSummaryRow.class,
+                        id,
+                        incident.get("status"),
+                        incident.get("serviceName"),
+                        incident.get("exceptionClass"),
+                        incident.get("occurrenceCount"),
+                        lastSeenAt))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(ungrouped ? List.of(cb.desc(id)) : List.of(cb.desc(lastSeenAt), cb.desc(id)));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,15 @@
+package com.troubleshoot.observability.domain.incident.infra;
+
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+import java.time.Instant;
+
+// 목록 조회 projection. 긴 text 컬럼(message, sample_message, resolution_note)은 읽지 않는다
+public record IncidentSummaryRow(
+        Long id,
+        IncidentStatus status,
+        String serviceName,
+        String exceptionClass,
+        int occurrenceCount,
+        Instant lastSeenAt
+) {
+}
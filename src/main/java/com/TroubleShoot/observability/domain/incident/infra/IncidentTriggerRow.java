@@ -0,0 +1,11 @@
+package com.troubleshoot.observability.domain.incident.infra;
+
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+
+// 자동 분석 trigger 판정용 projection
+public record IncidentTriggerRow(
+        Long id,
+        IncidentStatus status,
+        int occurrenceCount
+) {
+}
@@ -0,0 +1,18 @@
+package com.troubleshoot.observability.domain.incident.infra;
+
+import com.troubleshoot.observability.domain.incident.Incident;
+import java.time.Instant;
+
+public interface IncidentUpsertRepository {
+
+    // (serviceName, signatureHash) 의 grouping 대상 incident 가 threshold 이후에 발생했으면 +1, 아니면 candidate 로 새로 생성
+    OpenIncidentUpsert upsertOpenIncident(Incident candidate, Instant threshold);
+
+    // 생성 없이 +1 만. threshold 이후에 발생한 grouping 대상 incident 가 없으면 null
+    OpenIncidentUpsert incrementOpenIncident(String serviceName, String signatureHash,
+                                             Instant occurredAt, Instant threshold);
+
+    // 인덱스 hit 확인: 아직 grouping 대상이면 행을 잠그고 현재 상태와 발생 건수를, 종결/삭제됐으면 null.
+    // 잠금으로 동시에 진행 중인 종결과 순서가 정해진다 (종결이 먼저 커밋되면 null)
+    GroupableIncident lockGroupableIncident(long incidentId);
+}
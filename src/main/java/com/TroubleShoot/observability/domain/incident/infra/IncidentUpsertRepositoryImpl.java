@@ -0,0 +1,191 @@
+package com.troubleshoot.observability.domain.incident.infra;
+
+import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+import com.troubleshoot.observability.global.jdbc.DatabaseDialect;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// uk_incident_grouping_slot 을 이용한 create-or-increment.
+// PostgreSQL 은 INSERT ... ON CONFLICT DO UPDATE 한 번, 그 외(H2)는 UPDATE -> INSERT 후 중복 키면 재시도.
+class IncidentUpsertRepositoryImpl implements IncidentUpsertRepository {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private static final String INSERT_OPEN = """
+            INSERT INTO incident (id, service_name, signature_hash, exception_class, first_seen_at, last_seen_at,
+                                  occurrence_count, primary_trace_id, sample_message, grouping_slot,
+                                  status, status_code, created_at, updated_at, version)
+            VALUES (nextval('incident_seq'), ?, ?, ?, ?, ?, 1, ?, ?, TRUE, 'OPEN', 0, ?, ?, 0)
+            """;
+
+    private static final String POSTGRES_UPSERT = INSERT_OPEN + """
+            ON CONFLICT (service_name, signature_hash, grouping_slot) DO UPDATE
+            SET occurrence_count = incident.occurrence_count + 1,
+                last_seen_at = GREATEST(incident.last_seen_at, EXCLUDED.last_seen_at),
+                updated_at = EXCLUDED.updated_at
+            WHERE incident.last_seen_at > ?
+            RETURNING id, (xmax = 0) AS created, last_seen_at, status, occurrence_count
+            """;
+
+    private static final String INCREMENT_OPEN_UPDATE = """
+            UPDATE incident
+            SET occurrence_count = occurrence_count + 1,
+                last_seen_at = CASE WHEN last_seen_at < ? THEN ? ELSE last_seen_at END,
+                updated_at = ?
+            WHERE service_name = ? AND signature_hash = ? AND grouping_slot = TRUE AND last_seen_at > ?
+            """;
+
+    private static final String INCREMENT_OPEN =
+            "SELECT id, FALSE AS created, last_seen_at, status, occurrence_count FROM FINAL TABLE (" + INCREMENT_OPEN_UPDATE + ")";
+
+    private static final String POSTGRES_INCREMENT_OPEN =
+            INCREMENT_OPEN_UPDATE + "RETURNING id, FALSE AS created, last_seen_at, status, occurrence_count";
+
+    private static final String INSERT_OPEN_RETURNING =
+            "SELECT id, TRUE AS created, last_seen_at, status, occurrence_count FROM FINAL TABLE (" + INSERT_OPEN + ")";
+
+    // WINDOW 밖으로 밀려난 grouping 대상은 slot 만 반납 (상태는 OPEN 그대로)
+    private static final String RETIRE_STALE_SLOT = """
+            UPDATE incident SET grouping_slot = NULL
+            WHERE service_name = ? AND signature_hash = ? AND grouping_slot = TRUE AND last_seen_at <= ?
+            """;
+
+    // 행을 고치지 않고 lock 만 잡아서 확인한다 (no-op UPDATE 는 새 tuple 버전과 WAL 을 남긴다).
+    // PostgreSQL 은 FOR SHARE 로 커밋까지 상태 변경(UPDATE)만 막고, FOR SHARE 가 없는 H2 는 FOR UPDATE
+    private static final String SELECT_GROUPABLE = "SELECT status, occurrence_count FROM incident WHERE id = ? AND status IN ("
+            + IncidentStatus.groupable().stream().map(status -> "'" + status.name() + "'").collect(Collectors.joining(", "))
+            + ")";
+
+    private static final String LOCK_GROUPABLE = SELECT_GROUPABLE + " FOR UPDATE";
+
+    private static final String POSTGRES_LOCK_GROUPABLE = SELECT_GROUPABLE + " FOR SHARE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect dialect;
+
+    IncidentUpsertRepositoryImpl(JdbcTemplate jdbcTemplate, DatabaseDialect dialect) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = dialect;
+    }
+
+    @Override
+    public OpenIncidentUpsert upsertOpenIncident(Incident candidate, Instant threshold) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            OpenIncidentUpsert result = dialect.isPostgres()
+                    ? upsertPostgres(candidate, threshold)
+                    : upsertPortable(candidate, threshold);
+            if (result != null) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("could not upsert open incident for "
+                + candidate.getServiceName() + "/" + candidate.getSignatureHash());
+    }
+
+    private OpenIncidentUpsert upsertPostgres(Incident candidate, Instant threshold) {
+        Object[] args = append(insertArgs(candidate), Timestamp.from(threshold));
+        OpenIncidentUpsert result = first(jdbcTemplate.query(POSTGRES_UPSERT, this::mapRow, args));
+        if (result == null) {
+            // 충돌했지만 기존 incident 가 WINDOW 밖 -> slot 반납 후 재시도
+            retireStaleSlot(candidate, threshold);
+        }
+        return result;
+    }
+
+    @Override
+    public OpenIncidentUpsert incrementOpenIncident(String serviceName, String signatureHash,
+                                                    Instant occurredAt, Instant threshold) {
+        return increment(dialect.isPostgres() ? POSTGRES_INCREMENT_OPEN : INCREMENT_OPEN,
+                serviceName, signatureHash, occurredAt, Instant.now(), threshold);
+    }
+
+    @Override
+    public GroupableIncident lockGroupableIncident(long incidentId) {
+        List<GroupableIncident> rows = jdbcTemplate.query(dialect.isPostgres() ? POSTGRES_LOCK_GROUPABLE : LOCK_GROUPABLE,
+                (rs, rowNum) -> new GroupableIncident(
+                        IncidentStatus.valueOf(rs.getString("status")), rs.getLong("occurrence_count")),
+                incidentId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private OpenIncidentUpsert upsertPortable(Incident candidate, Instant threshold) {
+        OpenIncidentUpsert incremented = increment(INCREMENT_OPEN,
+                candidate.getServiceName(),
+                candidate.getSignatureHash(),
+                candidate.getLastSeenAt(),
+                candidate.getUpdatedAt(),
+                threshold);
+        if (incremented != null) {
+            return incremented;
+        }
+
+        retireStaleSlot(candidate, threshold);
+        try {
+            return first(jdbcTemplate.query(INSERT_OPEN_RETURNING, this::mapRow, insertArgs(candidate)));
+        } catch (DuplicateKeyException e) {
+            // 다른 트랜잭션이 먼저 생성함 -> 다음 시도에서 increment
+            return null;
+        }
+    }
+
+    private OpenIncidentUpsert increment(String sql, String serviceName, String signatureHash,
+                                         Instant occurredAt, Instant updatedAt, Instant threshold) {
+        Timestamp lastSeenAt = Timestamp.from(occurredAt);
+        return first(jdbcTemplate.query(sql, this::mapRow,
+                lastSeenAt,
+                lastSeenAt,
+                Timestamp.from(updatedAt),
+                serviceName,
+                signatureHash,
+                Timestamp.from(threshold)));
+    }
+
+    private void retireStaleSlot(Incident candidate, Instant threshold) {
+        jdbcTemplate.update(RETIRE_STALE_SLOT,
+                candidate.getServiceName(),
+                candidate.getSignatureHash(),
+                Timestamp.from(threshold));
+    }
+
+    private Object[] insertArgs(Incident candidate) {
+        return new Object[] {
+                candidate.getServiceName(),
+                candidate.getSignatureHash(),
+                candidate.getExceptionClass(),
+                Timestamp.from(candidate.getFirstSeenAt()),
+                Timestamp.from(candidate.getLastSeenAt()),
+                candidate.getPrimaryTraceId(),
+                candidate.getSampleMessage(),
+                Timestamp.from(candidate.getCreatedAt()),
+                Timestamp.from(candidate.getUpdatedAt())
+        };
+    }
+
+    private OpenIncidentUpsert mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new OpenIncidentUpsert(
+                rs.getLong("id"),
+                rs.getBoolean("created"),
+                rs.getTimestamp("last_seen_at").toInstant(),
+                IncidentStatus.valueOf(rs.getString("status")),
+                rs.getLong("occurrence_count")
+        );
+    }
+
+    private static OpenIncidentUpsert first(List<OpenIncidentUpsert> rows) {
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static Object[] append(Object[] args, Object last) {
+        Object[] result = Arrays.copyOf(args, args.length + 1);
+        result[args.length] = last;
+        return result;
+    }
+}
@@ -0,0 +1,11 @@
+package com.troubleshoot.observability.domain.incident.infra;
+
+import java.time.Instant;
+
+public record OpenIncidentRef(
+        Long id,
+        String serviceName,
+        String signatureHash,
+        Instant lastSeenAt
+) {
+}
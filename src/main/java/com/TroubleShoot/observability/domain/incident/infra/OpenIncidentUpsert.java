@@ -0,0 +1,10 @@
+package com.troubleshoot.observability.domain.incident.infra;
+
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+import java.time.Instant;
+
+// create-or-increment 결과. created=false 면 기존 grouping 대상 incident 의 occurrence 가 1 증가한 것 (status 는 그 incident 의 현재 상태).
+// occurrenceCount 는 이번 증가까지 반영된 DB 값 (write-behind 미반영분 제외)
+public record OpenIncidentUpsert(Long incidentId, boolean created, Instant lastSeenAt, IncidentStatus status,
+                                 long occurrenceCount) {
+}
@@ -11,7 +11,10 @@ import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
 
@@ -25,7 +28,9 @@ import java.time.Instant;
 public class IncidentAnalysis {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence (50개 단위로 id 확보)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "incident_analysis_seq")
+    @SequenceGenerator(name = "incident_analysis_seq", sequenceName = "incident_analysis_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -44,13 +49,17 @@ public class IncidentAnalysis {
     @Column(name = "summary", columnDefinition = "text")
     private String summary;
 
-    @Column(name = "key_evidence", columnDefinition = "text")
+    // 문자열 목록(JSON 배열). PostgreSQL 은 jsonb, H2 는 json 컬럼. 조회 API 는 저장된 JSON 을 파싱하지 않고 그대로 내보낸다
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "key_evidence")
     private String keyEvidenceJson;
 
-    @Column(name = "suspected_root_causes", columnDefinition = "text")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "suspected_root_causes")
     private String suspectedRootCausesJson;
 
-    @Column(name = "next_actions", columnDefinition = "text")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "next_actions")
     private String nextActionsJson;
 
     @Column(name = "analyzer_version", nullable = false, length = 32)
@@ -59,6 +68,10 @@ public class IncidentAnalysis {
     @Column(name = "analyzed_at")
     private Instant analyzedAt;
 
+    // incremental analyzer 상태 (JSON). 없으면 다음 분석이 최근 이벤트부터 새로 만든다
+    @Column(name = "analysis_state", columnDefinition = "text")
+    private String analysisStateJson;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
@@ -149,6 +162,10 @@ public class IncidentAnalysis {
         return analyzedAt;
     }
 
+    public String getAnalysisStateJson() {
+        return analysisStateJson;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -177,4 +194,8 @@ public class IncidentAnalysis {
         this.analyzerVersion = (analyzerVersion == null || analyzerVersion.isBlank()) ? "rule-v1" : analyzerVersion;
         this.updatedAt = Instant.now();
     }
+
+    public void updateAnalysisState(String analysisStateJson) {
+        this.analysisStateJson = analysisStateJson;
+    }
 }
@@ -2,11 +2,28 @@ package com.troubleshoot.observability.domain.incident.persistence;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface IncidentAnalysisRepository extends JpaRepository<IncidentAnalysis, Long> {
 
     @EntityGraph(attributePaths = "incident")
     Optional<IncidentAnalysis> findByIncident_Id(Long incidentId);
+
+    List<IncidentAnalysis> findByIncident_IdIn(Collection<Long> incidentIds);
+
+    // GET /analysis 용. entity 를 만들지 않고 incident 상태까지 한 번에 읽는다
+    @Query("""
+            select new com.troubleshoot.observability.domain.incident.persistence.IncidentAnalysisRow(
+                i.id, i.status, a.category, a.severity, a.title, a.summary,
+                a.keyEvidenceJson, a.suspectedRootCausesJson, a.nextActionsJson, a.analyzedAt, a.analyzerVersion)
+            from IncidentAnalysis a
+            join a.incident i
+            where i.id = :incidentId
+            """)
+    Optional<IncidentAnalysisRow> findRowByIncidentId(@Param("incidentId") Long incidentId);
 }
@@ -0,0 +1,20 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+import java.time.Instant;
+
+// 분석 조회 projection. *Json 은 저장된 JSON 배열 텍스트 그대로
+public record IncidentAnalysisRow(
+        Long incidentId,
+        IncidentStatus status,
+        String category,
+        String severity,
+        String title,
+        String summary,
+        String keyEvidenceJson,
+        String suspectedRootCausesJson,
+        String nextActionsJson,
+        Instant analyzedAt,
+        String analyzerVersion
+) {
+}
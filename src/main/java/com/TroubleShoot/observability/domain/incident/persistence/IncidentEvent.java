@@ -13,6 +13,7 @@ import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.Instant;
 
@@ -20,13 +21,19 @@ import java.time.Instant;
 @Table(
         name = "incident_event",
         indexes = {
-                @Index(name = "idx_incident_event_incident_time", columnList = "incident_id, occurred_at")
+                @Index(name = "idx_incident_event_incident_time", columnList = "incident_id, occurred_at"),
+                // incremental 분석이 마지막으로 본 id 이후만 읽는다
+                @Index(name = "idx_incident_event_incident_id", columnList = "incident_id, id"),
+                // 보존 기간 정리가 type 별로 오래된 것부터 지운다
+                @Index(name = "idx_incident_event_type_created", columnList = "type, created_at")
         }
 )
 public class IncidentEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // IDENTITY 는 insert 배치가 꺼지므로 pooled sequence 사용 (50개 단위로 id 확보)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "incident_event_seq")
+    @SequenceGenerator(name = "incident_event_seq", sequenceName = "incident_event_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
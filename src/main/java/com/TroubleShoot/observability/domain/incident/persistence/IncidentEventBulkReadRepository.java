@@ -0,0 +1,19 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// 여러 incident 의 분석 대상 이벤트를 incident 마다 쿼리하지 않고 한 번에 읽는다 (bulk 분석)
+public interface IncidentEventBulkReadRepository {
+
+    // incident 별 최근 perIncident 건 (incident_id, id desc 순)
+    List<IncidentScopedEventRow> findLatestRows(Collection<Long> incidentIds,
+                                                Collection<IncidentEventType> types,
+                                                int perIncident);
+
+    // incident 별로 지정한 id 이후 처음 perIncident 건 (incident_id, id 순)
+    List<IncidentScopedEventRow> findRowsAfter(Map<Long, Long> afterIdByIncident,
+                                               Collection<IncidentEventType> types,
+                                               int perIncident);
+}
@@ -0,0 +1,172 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+import com.troubleshoot.observability.global.jdbc.DatabaseDialect;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// 최근 N 건: PostgreSQL 은 incident 마다 LATERAL + LIMIT 으로 (incident_id, id) 인덱스 끝에서 N 건만 읽는다.
+// 그 외(H2)는 row_number() 윈도 함수. id 이후 조회도 같은 방식으로 incident 마다 perIncident 건까지만 읽는다.
+class IncidentEventBulkReadRepositoryImpl implements IncidentEventBulkReadRepository {
+
+    // 한 쿼리에 넣는 incident 수 (바인드 변수 개수 제한)
+    private static final int CHUNK_SIZE = 100;
+
+    private static final String COLUMNS = "incident_id, id, type, occurred_at, trace_id, message, note";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect dialect;
+
+    IncidentEventBulkReadRepositoryImpl(JdbcTemplate jdbcTemplate, DatabaseDialect dialect) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = dialect;
+    }
+
+    @Override
+    public List<IncidentScopedEventRow> findLatestRows(Collection<Long> incidentIds,
+                                                       Collection<IncidentEventType> types,
+                                                       int perIncident) {
+        if (incidentIds.isEmpty() || types.isEmpty() || perIncident <= 0) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(incidentIds);
+        List<IncidentScopedEventRow> rows = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            rows.addAll(dialect.isPostgres()
+                    ? latestWithLateral(chunk, types, perIncident)
+                    : latestWithWindow(chunk, types, perIncident));
+        }
+        return rows;
+    }
+
+    @Override
+    public List<IncidentScopedEventRow> findRowsAfter(Map<Long, Long> afterIdByIncident,
+                                                      Collection<IncidentEventType> types,
+                                                      int perIncident) {
+        if (afterIdByIncident.isEmpty() || types.isEmpty() || perIncident <= 0) {
+            return List.of();
+        }
+        List<Map.Entry<Long, Long>> cursors = new ArrayList<>(afterIdByIncident.entrySet());
+        List<IncidentScopedEventRow> rows = new ArrayList<>();
+        for (int from = 0; from < cursors.size(); from += CHUNK_SIZE) {
+            List<Map.Entry<Long, Long>> chunk = cursors.subList(from, Math.min(from + CHUNK_SIZE, cursors.size()));
+            rows.addAll(dialect.isPostgres()
+                    ? afterWithLateral(chunk, types, perIncident)
+                    : afterWithWindow(chunk, types, perIncident));
+        }
+        return rows;
+    }
+
+    private List<IncidentScopedEventRow> afterWithLateral(List<Map.Entry<Long, Long>> cursors,
+                                                          Collection<IncidentEventType> types,
+                                                          int perIncident) {
+        String sql = "SELECT r.incident_id, r.id, r.type, r.occurred_at, r.trace_id, r.message, r.note"
+                + " FROM unnest(?, ?) AS c(incident_id, after_id)"
+                + " CROSS JOIN LATERAL ("
+                + "   SELECT " + COLUMNS + " FROM incident_event e"
+                + "   WHERE e.incident_id = c.incident_id AND e.id > c.after_id"
+                + "   AND e.type IN (" + placeholders(types.size()) + ")"
+                + "   ORDER BY e.id LIMIT ?) r"
+                + " ORDER BY r.incident_id, r.id";
+        return jdbcTemplate.query(sql, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint",
+                    cursors.stream().map(Map.Entry::getKey).toArray()));
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint",
+                    cursors.stream().map(Map.Entry::getValue).toArray()));
+            int index = bindTypes(ps, 3, types);
+            ps.setInt(index, perIncident);
+        }, this::mapRow);
+    }
+
+    private List<IncidentScopedEventRow> afterWithWindow(List<Map.Entry<Long, Long>> cursors,
+                                                         Collection<IncidentEventType> types,
+                                                         int perIncident) {
+        String sql = "SELECT " + COLUMNS + " FROM ("
+                + "   SELECT " + COLUMNS + ", ROW_NUMBER() OVER (PARTITION BY incident_id ORDER BY id) AS rn"
+                + "   FROM incident_event"
+                + "   WHERE type IN (" + placeholders(types.size()) + ")"
+                + "   AND (" + String.join(" OR ", Collections.nCopies(cursors.size(), "(incident_id = ? AND id > ?)")) + ")) ranked"
+                + " WHERE rn <= ?"
+                + " ORDER BY incident_id, id";
+        return jdbcTemplate.query(sql, ps -> {
+            int index = bindTypes(ps, 1, types);
+            for (Map.Entry<Long, Long> cursor : cursors) {
+                ps.setLong(index++, cursor.getKey());
+                ps.setLong(index++, cursor.getValue());
+            }
+            ps.setInt(index, perIncident);
+        }, this::mapRow);
+    }
+
+    private List<IncidentScopedEventRow> latestWithLateral(List<Long> incidentIds,
+                                                           Collection<IncidentEventType> types,
+                                                           int perIncident) {
+        String sql = "SELECT r.incident_id, r.id, r.type, r.occurred_at, r.trace_id, r.message, r.note"
+                + " FROM unnest(?) AS i(incident_id)"
+                + " CROSS JOIN LATERAL ("
+                + "   SELECT " + COLUMNS + " FROM incident_event e"
+                + "   WHERE e.incident_id = i.incident_id AND e.type IN (" + placeholders(types.size()) + ")"
+                + "   ORDER BY e.id DESC LIMIT ?) r"
+                + " ORDER BY r.incident_id, r.id DESC";
+        return jdbcTemplate.query(sql, ps -> {
+            Array ids = ps.getConnection().createArrayOf("bigint", incidentIds.toArray());
+            ps.setArray(1, ids);
+            int index = bindTypes(ps, 2, types);
+            ps.setInt(index, perIncident);
+        }, this::mapRow);
+    }
+
+    private List<IncidentScopedEventRow> latestWithWindow(List<Long> incidentIds,
+                                                          Collection<IncidentEventType> types,
+                                                          int perIncident) {
+        String sql = "SELECT " + COLUMNS + " FROM ("
+                + "   SELECT " + COLUMNS + ", ROW_NUMBER() OVER (PARTITION BY incident_id ORDER BY id DESC) AS rn"
+                + "   FROM incident_event"
+                + "   WHERE incident_id IN (" + placeholders(incidentIds.size()) + ")"
+                + "   AND type IN (" + placeholders(types.size()) + ")) ranked"
+                + " WHERE rn <= ?"
+                + " ORDER BY incident_id, id DESC";
+        return jdbcTemplate.query(sql, ps -> {
+            int index = 1;
+            for (Long incidentId : incidentIds) {
+                ps.setLong(index++, incidentId);
+            }
+            index = bindTypes(ps, index, types);
+            ps.setInt(index, perIncident);
+        }, this::mapRow);
+    }
+
+    private IncidentScopedEventRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp occurredAt = rs.getTimestamp("occurred_at");
+        return new IncidentScopedEventRow(
+                rs.getLong("incident_id"),
+                new IncidentEventRow(
+                        rs.getLong("id"),
+                        IncidentEventType.valueOf(rs.getString("type")),
+                        occurredAt == null ? null : occurredAt.toInstant(),
+                        rs.getString("trace_id"),
+                        rs.getString("message"),
+                        rs.getString("note")));
+    }
+
+    private static int bindTypes(PreparedStatement ps, int index, Collection<IncidentEventType> types)
+            throws SQLException {
+        for (IncidentEventType type : types) {
+            ps.setString(index++, type.name());
+        }
+        return index;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
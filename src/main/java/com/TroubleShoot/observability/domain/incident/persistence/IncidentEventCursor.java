@@ -0,0 +1,35 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// timeline 페이지 위치: 직전 페이지 마지막 이벤트의 (occurredAt, id). 클라이언트에는 불투명한 문자열로 준다.
+public record IncidentEventCursor(Instant occurredAt, long id) {
+
+    // 첫 페이지 (모든 이벤트가 이 위치 뒤에 있다)
+    public static final IncidentEventCursor START = new IncidentEventCursor(Instant.EPOCH, 0L);
+
+    public static IncidentEventCursor after(IncidentEventRow row) {
+        return new IncidentEventCursor(row.occurredAt(), row.id());
+    }
+
+    public String encode() {
+        String raw = occurredAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static IncidentEventCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int comma = raw.indexOf(',');
+            if (comma < 0) {
+                throw new IllegalArgumentException("invalid cursor: " + cursor);
+            }
+            return new IncidentEventCursor(Instant.parse(raw.substring(0, comma)), Long.parseLong(raw.substring(comma + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// PostgreSQL incident_event 의 created_at range 파티션 하나 (UTC 날짜 경계).
+// 이름에 범위를 담는다: incident_event_<type>_p<from yyyyMMdd>_<to yyyyMMdd>. 그 외 이름(default 파티션 등)은 관리하지 않는다
+public record IncidentEventPartition(
+        IncidentEventType type,
+        String name,
+        LocalDate from,
+        LocalDate to,
+        long bytes
+) {
+
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Pattern RANGE = Pattern.compile("_p(\\d{8})_(\\d{8})$");
+
+    public static IncidentEventPartition of(IncidentEventType type, LocalDate from, LocalDate to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("partition range must not be empty: " + from + ".." + to);
+        }
+        return new IncidentEventPartition(type, parentName(type) + "_p" + BOUND.format(from) + "_" + BOUND.format(to),
+                from, to, 0);
+    }
+
+    static Optional<IncidentEventPartition> parse(IncidentEventType type, String name, long bytes) {
+        if (!name.startsWith(parentName(type) + "_p")) {
+            return Optional.empty();
+        }
+        Matcher matcher = RANGE.matcher(name);
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        return Optional.of(new IncidentEventPartition(type, name,
+                LocalDate.parse(matcher.group(1), BOUND), LocalDate.parse(matcher.group(2), BOUND), bytes));
+    }
+
+    // type 별 LIST 파티션. 그 아래에 created_at range 파티션이 달린다
+    static String parentName(IncidentEventType type) {
+        return "incident_event_" + type.name().toLowerCase(Locale.ROOT);
+    }
+
+    public Instant fromInstant() {
+        return from.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    public Instant toInstant() {
+        return to.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    public boolean overlaps(LocalDate otherFrom, LocalDate otherTo) {
+        return from.isBefore(otherTo) && otherFrom.isBefore(to);
+    }
+}
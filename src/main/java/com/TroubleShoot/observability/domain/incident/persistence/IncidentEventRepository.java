@@ -1,9 +1,73 @@
 package com.troubleshoot.observability.domain.incident.persistence;
 
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+public interface IncidentEventRepository extends JpaRepository<IncidentEvent, Long>, IncidentEventBulkReadRepository,
+        IncidentEventRetentionRepository {
+
+    String EVENT_ROW = """
+            select new com.troubleshoot.observability.domain.incident.persistence.IncidentEventRow(
+                e.id, e.type, e.occurredAt, e.traceId, e.message, e.note)
+            from IncidentEvent e
+            """;
+
+    // (occurredAt, id) > cursor. occurredAt >= 조건을 따로 두어 idx_incident_event_incident_time 범위 스캔으로 시작한다
+    String AFTER_CURSOR = """
+            where e.incident.id = :incidentId
+              and e.occurredAt >= :occurredAt
+              and (e.occurredAt > :occurredAt or e.id > :id)
+            order by e.occurredAt asc, e.id asc
+            """;
 
-public interface IncidentEventRepository extends JpaRepository<IncidentEvent, Long> {
     List<IncidentEvent> findTop50ByIncidentIdOrderByOccurredAtDesc(Long incidentId);
-    List<IncidentEvent> findByIncidentIdOrderByOccurredAtAsc(Long incidentId);
+
+    @Query(EVENT_ROW + """
+            where e.incident.id = :incidentId
+            order by e.occurredAt desc, e.id desc
+            """)
+    List<IncidentEventRow> findRecentRows(@Param("incidentId") Long incidentId, Limit limit);
+
+    @Query(EVENT_ROW + AFTER_CURSOR)
+    List<IncidentEventRow> findRowsAfter(@Param("incidentId") Long incidentId,
+                                         @Param("occurredAt") Instant occurredAt,
+                                         @Param("id") long id,
+                                         Limit limit);
+
+    // incremental 분석용. id 순서로 afterId 이후 (idx_incident_event_incident_id)
+    @Query(EVENT_ROW + """
+            where e.incident.id = :incidentId
+              and e.type in :types
+              and e.id > :afterId
+            order by e.id asc
+            """)
+    List<IncidentEventRow> findRowsAfterId(@Param("incidentId") Long incidentId,
+                                           @Param("types") Collection<IncidentEventType> types,
+                                           @Param("afterId") long afterId,
+                                           Limit limit);
+
+    @Query(EVENT_ROW + """
+            where e.incident.id = :incidentId
+              and e.type in :types
+            order by e.id desc
+            """)
+    List<IncidentEventRow> findLatestRowsById(@Param("incidentId") Long incidentId,
+                                              @Param("types") Collection<IncidentEventType> types,
+                                              Limit limit);
+
+    // 호출 측 트랜잭션 안에서 소비해야 한다. fetch size 만큼씩 DB 커서로 읽는다
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(EVENT_ROW + AFTER_CURSOR)
+    Stream<IncidentEventRow> streamRowsAfter(@Param("incidentId") Long incidentId,
+                                             @Param("occurredAt") Instant occurredAt,
+                                             @Param("id") long id);
 }
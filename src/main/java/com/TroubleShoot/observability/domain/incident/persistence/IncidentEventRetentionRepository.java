@@ -0,0 +1,25 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// incident_event 보존 기간 정리. 파티션 DDL 은 lockTimeout 안에 lock 을 못 잡으면 포기한다 (insert 가 뒤에 줄 서지 않게)
+public interface IncidentEventRetentionRepository {
+
+    // type -> created_at 2단 파티션으로 바뀐 type. PostgreSQL 이 아니거나 파티션 테이블이 아니면 빈 set
+    Set<IncidentEventType> findPartitionedTypes();
+
+    List<IncidentEventPartition> findPartitions(IncidentEventType type);
+
+    // 이미 있으면 true. lock 을 못 잡으면 false
+    boolean createPartition(IncidentEventPartition partition, Duration lockTimeout);
+
+    // lock 을 못 잡으면 empty
+    Optional<ReclaimedEvents> dropPartition(IncidentEventPartition partition, Duration lockTimeout);
+
+    // createdBefore 이전 type 이벤트를 오래된 것부터 최대 limit 건 삭제 (짧은 트랜잭션 하나)
+    ReclaimedEvents deleteOldest(IncidentEventType type, Instant createdBefore, int limit);
+}
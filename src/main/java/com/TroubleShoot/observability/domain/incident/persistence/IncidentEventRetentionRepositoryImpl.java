@@ -0,0 +1,170 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+import com.troubleshoot.observability.global.jdbc.DatabaseDialect;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// PostgreSQL: 파티션 목록/생성/drop 은 카탈로그 + DDL, 행 단위 삭제는 DELETE ... RETURNING 한 번.
+// 그 외(H2): 파티션 없음. 지울 id 와 크기를 읽은 뒤 id 로 삭제한다
+class IncidentEventRetentionRepositoryImpl implements IncidentEventRetentionRepository {
+
+    // lock_timeout 초과
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect dialect;
+
+    IncidentEventRetentionRepositoryImpl(JdbcTemplate jdbcTemplate, DatabaseDialect dialect) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = dialect;
+    }
+
+    @Override
+    public Set<IncidentEventType> findPartitionedTypes() {
+        if (!dialect.isPostgres()) {
+            return Set.of();
+        }
+        Set<String> partitioned = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid"
+                        + " WHERE c.relname LIKE 'incident\\_event%' AND pg_table_is_visible(c.oid)",
+                String.class));
+        if (!partitioned.contains("incident_event")) {
+            return Set.of();
+        }
+        Set<IncidentEventType> types = EnumSet.noneOf(IncidentEventType.class);
+        for (IncidentEventType type : IncidentEventType.values()) {
+            if (partitioned.contains(IncidentEventPartition.parentName(type))) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    @Override
+    public List<IncidentEventPartition> findPartitions(IncidentEventType type) {
+        if (!dialect.isPostgres()) {
+            return List.of();
+        }
+        List<IncidentEventPartition> partitions = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT c.relname, pg_total_relation_size(c.oid) AS bytes"
+                        + " FROM pg_inherits i"
+                        + " JOIN pg_class c ON c.oid = i.inhrelid"
+                        + " JOIN pg_class p ON p.oid = i.inhparent"
+                        + " WHERE p.relname = ? AND pg_table_is_visible(p.oid)",
+                rs -> {
+                    IncidentEventPartition.parse(type, rs.getString("relname"), rs.getLong("bytes"))
+                            .ifPresent(partitions::add);
+                },
+                IncidentEventPartition.parentName(type));
+        partitions.sort((a, b) -> a.from().compareTo(b.from()));
+        return partitions;
+    }
+
+    @Override
+    public boolean createPartition(IncidentEventPartition partition, Duration lockTimeout) {
+        // 이름/범위는 IncidentEventPartition 이 만든 값만 들어온다 (영문 소문자, 숫자, _ / ISO-8601)
+        return executeWithLockTimeout(lockTimeout,
+                "CREATE TABLE IF NOT EXISTS " + partition.name()
+                        + " PARTITION OF " + IncidentEventPartition.parentName(partition.type())
+                        + " FOR VALUES FROM ('" + partition.fromInstant() + "') TO ('" + partition.toInstant() + "')");
+    }
+
+    @Override
+    public Optional<ReclaimedEvents> dropPartition(IncidentEventPartition partition, Duration lockTimeout) {
+        // 보존 기간이 지난 파티션에는 insert 가 없으므로 세는 동안 ingestion 을 막지 않는다
+        Long rows = jdbcTemplate.queryForObject("SELECT count(*) FROM " + partition.name(), Long.class);
+        if (!executeWithLockTimeout(lockTimeout, "DROP TABLE IF EXISTS " + partition.name())) {
+            return Optional.empty();
+        }
+        return Optional.of(new ReclaimedEvents(rows == null ? 0 : rows, partition.bytes()));
+    }
+
+    @Override
+    public ReclaimedEvents deleteOldest(IncidentEventType type, Instant createdBefore, int limit) {
+        if (limit <= 0) {
+            return ReclaimedEvents.NONE;
+        }
+        return dialect.isPostgres()
+                ? deleteReturning(type, createdBefore, limit)
+                : selectThenDelete(type, createdBefore, limit);
+    }
+
+    private ReclaimedEvents deleteReturning(IncidentEventType type, Instant createdBefore, int limit) {
+        String sql = "WITH doomed AS ("
+                + "   SELECT id FROM incident_event WHERE type = ? AND created_at < ? ORDER BY created_at LIMIT ?"
+                + " ), deleted AS ("
+                + "   DELETE FROM incident_event e USING doomed d WHERE e.type = ? AND e.id = d.id"
+                + "   RETURNING pg_column_size(e.*) AS bytes"
+                + " )"
+                + " SELECT count(*) AS row_count, COALESCE(sum(bytes), 0) AS byte_count FROM deleted";
+        return jdbcTemplate.queryForObject(sql,
+                (rs, rowNum) -> new ReclaimedEvents(rs.getLong("row_count"), rs.getLong("byte_count")),
+                type.name(), Timestamp.from(createdBefore), limit, type.name());
+    }
+
+    private ReclaimedEvents selectThenDelete(IncidentEventType type, Instant createdBefore, int limit) {
+        List<Long> ids = new ArrayList<>();
+        long[] bytes = new long[1];
+        jdbcTemplate.query(
+                "SELECT id, COALESCE(OCTET_LENGTH(message), 0) + COALESCE(OCTET_LENGTH(note), 0)"
+                        + " + COALESCE(OCTET_LENGTH(trace_id), 0) AS bytes"
+                        + " FROM incident_event WHERE type = ? AND created_at < ? ORDER BY created_at LIMIT ?",
+                rs -> {
+                    ids.add(rs.getLong("id"));
+                    bytes[0] += rs.getLong("bytes");
+                },
+                type.name(), Timestamp.from(createdBefore), limit);
+        if (ids.isEmpty()) {
+            return ReclaimedEvents.NONE;
+        }
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM incident_event WHERE id IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")",
+                ids.toArray());
+        return new ReclaimedEvents(deleted, bytes[0]);
+    }
+
+    // 별도 트랜잭션에서 lock_timeout 을 걸고 실행. lock 을 못 잡으면 롤백하고 false
+    private boolean executeWithLockTimeout(Duration lockTimeout, String ddl) {
+        Boolean executed = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL lock_timeout = '" + lockTimeout.toMillis() + "ms'");
+                statement.execute(ddl);
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                rollbackQuietly(connection);
+                if (LOCK_NOT_AVAILABLE.equals(e.getSQLState())) {
+                    return false;
+                }
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        });
+        return Boolean.TRUE.equals(executed);
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException ignored) {
+            // 원래 예외를 던진다
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+import java.time.Instant;
+
+// timeline 조회용 projection. 엔티티가 아니므로 persistence context 에 쌓이지 않는다
+public record IncidentEventRow(
+        Long id,
+        IncidentEventType type,
+        Instant occurredAt,
+        String traceId,
+        String message,
+        String note
+) {
+}
@@ -0,0 +1,103 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+// incident 별 시간 bucket 발생 건수 (분/시/일).
+// 행은 OccurrenceRollupBuffer 가 JDBC upsert 로만 증가시키고, 엔티티는 스키마와 조회용이다.
+// incident 와 FK 를 두지 않아 incident 정리와 순서를 맞출 필요가 없다.
+// 오래된 bucket 은 OccurrenceRollupRetention 이, 보관된 incident 의 행은 IncidentArchiver 가 지운다.
+@Entity
+@Table(
+        name = "incident_occurrence_rollup",
+        indexes = {
+                @Index(name = "idx_rollup_service_bucket", columnList = "service_name, granularity, bucket_start"),
+                // 보존 기간 정리 (OccurrenceRollupRetention)
+                @Index(name = "idx_rollup_granularity_bucket", columnList = "granularity, bucket_start")
+        }
+)
+public class IncidentOccurrenceRollup {
+
+    @EmbeddedId
+    private Key key;
+
+    @Column(name = "service_name", nullable = false)
+    private String serviceName;
+
+    @Column(name = "occurrence_count", nullable = false)
+    private long occurrenceCount;
+
+    protected IncidentOccurrenceRollup() {
+    }
+
+    public Key getKey() {
+        return key;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public long getOccurrenceCount() {
+        return occurrenceCount;
+    }
+
+    // PK 순서 (incident_id, granularity, bucket_start) 가 incident 단위 조회의 범위 스캔이 된다
+    @Embeddable
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Column(name = "incident_id", nullable = false)
+        private Long incidentId;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "granularity", nullable = false, length = 8)
+        private RollupGranularity granularity;
+
+        @Column(name = "bucket_start", nullable = false)
+        private Instant bucketStart;
+
+        protected Key() {
+        }
+
+        public Long getIncidentId() {
+            return incidentId;
+        }
+
+        public RollupGranularity getGranularity() {
+            return granularity;
+        }
+
+        public Instant getBucketStart() {
+            return bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Objects.equals(incidentId, other.incidentId)
+                    && granularity == other.granularity
+                    && Objects.equals(bucketStart, other.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(incidentId, granularity, bucketStart);
+        }
+    }
+}
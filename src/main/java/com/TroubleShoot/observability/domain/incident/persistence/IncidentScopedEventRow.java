@@ -0,0 +1,5 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+// 여러 incident 의 이벤트를 한 번에 읽을 때 어느 incident 것인지 같이 돌려준다
+public record IncidentScopedEventRow(long incidentId, IncidentEventRow row) {
+}
@@ -0,0 +1,9 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+import java.time.Instant;
+
+public record OccurrenceBucketRow(
+        Instant bucketStart,
+        long count
+) {
+}
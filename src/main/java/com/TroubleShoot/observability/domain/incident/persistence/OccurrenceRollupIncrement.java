@@ -0,0 +1,12 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+import java.time.Instant;
+
+public record OccurrenceRollupIncrement(
+        long incidentId,
+        String serviceName,
+        RollupGranularity granularity,
+        Instant bucketStart,
+        long count
+) {
+}
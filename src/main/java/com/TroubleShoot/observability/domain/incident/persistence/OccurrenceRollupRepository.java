@@ -0,0 +1,41 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OccurrenceRollupRepository
+        extends JpaRepository<IncidentOccurrenceRollup, IncidentOccurrenceRollup.Key>, OccurrenceRollupUpsertRepository {
+
+    @Query("""
+            select new com.troubleshoot.observability.domain.incident.persistence.OccurrenceBucketRow(
+                r.key.bucketStart, r.occurrenceCount)
+            from IncidentOccurrenceRollup r
+            where r.key.incidentId = :incidentId
+              and r.key.granularity = :granularity
+              and r.key.bucketStart >= :from and r.key.bucketStart < :to
+            order by r.key.bucketStart asc
+            """)
+    List<OccurrenceBucketRow> findIncidentBuckets(@Param("incidentId") Long incidentId,
+                                                  @Param("granularity") RollupGranularity granularity,
+                                                  @Param("from") Instant from,
+                                                  @Param("to") Instant to);
+
+    // idx_rollup_service_bucket 범위 안에서 incident 들을 bucket 별로 합친다
+    @Query("""
+            select new com.troubleshoot.observability.domain.incident.persistence.OccurrenceBucketRow(
+                r.key.bucketStart, sum(r.occurrenceCount))
+            from IncidentOccurrenceRollup r
+            where r.serviceName = :serviceName
+              and r.key.granularity = :granularity
+              and r.key.bucketStart >= :from and r.key.bucketStart < :to
+            group by r.key.bucketStart
+            order by r.key.bucketStart asc
+            """)
+    List<OccurrenceBucketRow> findServiceBuckets(@Param("serviceName") String serviceName,
+                                                 @Param("granularity") RollupGranularity granularity,
+                                                 @Param("from") Instant from,
+                                                 @Param("to") Instant to);
+}
@@ -0,0 +1,13 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OccurrenceRollupUpsertRepository {
+
+    // bucket 행이 없으면 만들고 있으면 count 를 더한다
+    void incrementAll(List<OccurrenceRollupIncrement> increments);
+
+    // bucketBefore 이전 bucket 을 최대 limit 행 지우고 지운 행 수를 돌려준다 (idx_rollup_granularity_bucket)
+    int deleteOlderThan(RollupGranularity granularity, Instant bucketBefore, int limit);
+}
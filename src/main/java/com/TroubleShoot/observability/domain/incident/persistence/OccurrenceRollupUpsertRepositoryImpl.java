@@ -0,0 +1,98 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+import com.troubleshoot.observability.global.jdbc.DatabaseDialect;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// PostgreSQL 은 INSERT ... ON CONFLICT DO UPDATE 배치 한 번.
+// 그 외(H2)는 UPDATE 배치 후 갱신되지 않은 행만 INSERT, 그 사이 다른 쪽이 만들었으면 UPDATE 로 다시 더한다.
+class OccurrenceRollupUpsertRepositoryImpl implements OccurrenceRollupUpsertRepository {
+
+    private static final String POSTGRES_UPSERT = """
+            INSERT INTO incident_occurrence_rollup (incident_id, granularity, bucket_start, service_name, occurrence_count)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (incident_id, granularity, bucket_start) DO UPDATE
+            SET occurrence_count = incident_occurrence_rollup.occurrence_count + EXCLUDED.occurrence_count
+            """;
+
+    private static final String INCREMENT = """
+            UPDATE incident_occurrence_rollup
+            SET occurrence_count = occurrence_count + ?
+            WHERE incident_id = ? AND granularity = ? AND bucket_start = ?
+            """;
+
+    private static final String INSERT = """
+            INSERT INTO incident_occurrence_rollup (incident_id, granularity, bucket_start, service_name, occurrence_count)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    // DELETE 에 LIMIT 을 못 붙이므로 key 로 한 chunk 를 골라서 지운다 (PostgreSQL, H2 공통)
+    private static final String DELETE_OLDER_THAN = """
+            DELETE FROM incident_occurrence_rollup
+            WHERE (incident_id, granularity, bucket_start) IN (
+                SELECT incident_id, granularity, bucket_start FROM incident_occurrence_rollup
+                WHERE granularity = ? AND bucket_start < ?
+                LIMIT ?
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect dialect;
+
+    OccurrenceRollupUpsertRepositoryImpl(JdbcTemplate jdbcTemplate, DatabaseDialect dialect) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = dialect;
+    }
+
+    @Override
+    public void incrementAll(List<OccurrenceRollupIncrement> increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        if (dialect.isPostgres()) {
+            jdbcTemplate.batchUpdate(POSTGRES_UPSERT, increments, increments.size(), this::setInsert);
+            return;
+        }
+
+        int[][] updated = jdbcTemplate.batchUpdate(INCREMENT, increments, increments.size(), this::setIncrement);
+        List<OccurrenceRollupIncrement> missing = new ArrayList<>();
+        for (int i = 0; i < increments.size(); i++) {
+            if (updated[0][i] == 0) {
+                missing.add(increments.get(i));
+            }
+        }
+        for (OccurrenceRollupIncrement increment : missing) {
+            try {
+                jdbcTemplate.update(INSERT, ps -> setInsert(ps, increment));
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.update(INCREMENT, ps -> setIncrement(ps, increment));
+            }
+        }
+    }
+
+    @Override
+    public int deleteOlderThan(RollupGranularity granularity, Instant bucketBefore, int limit) {
+        return jdbcTemplate.update(DELETE_OLDER_THAN, granularity.name(), Timestamp.from(bucketBefore), limit);
+    }
+
+    private void setInsert(PreparedStatement ps, OccurrenceRollupIncrement increment) throws SQLException {
+        ps.setLong(1, increment.incidentId());
+        ps.setString(2, increment.granularity().name());
+        ps.setTimestamp(3, Timestamp.from(increment.bucketStart()));
+        ps.setString(4, increment.serviceName());
+        ps.setLong(5, increment.count());
+    }
+
+    private void setIncrement(PreparedStatement ps, OccurrenceRollupIncrement increment) throws SQLException {
+        ps.setLong(1, increment.count());
+        ps.setLong(2, increment.incidentId());
+        ps.setString(3, increment.granularity().name());
+        ps.setTimestamp(4, Timestamp.from(increment.bucketStart()));
+    }
+}
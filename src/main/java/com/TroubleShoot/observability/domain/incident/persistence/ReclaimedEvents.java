@@ -0,0 +1,12 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+// 보존 기간 정리로 지운 incident_event 행 수와 크기.
+// 파티션 drop 은 테이블+인덱스 크기, 행 단위 삭제는 PostgreSQL 은 행 크기(pg_column_size), H2 는 텍스트 컬럼 byte 수
+public record ReclaimedEvents(long rows, long bytes) {
+
+    public static final ReclaimedEvents NONE = new ReclaimedEvents(0, 0);
+
+    public ReclaimedEvents plus(ReclaimedEvents other) {
+        return new ReclaimedEvents(rows + other.rows, bytes + other.bytes);
+    }
+}
@@ -0,0 +1,27 @@
+package com.troubleshoot.observability.domain.incident.persistence;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+// occurrence rollup 의 시간 단위. bucket 시작 시각은 UTC 기준으로 자른다
+public enum RollupGranularity {
+
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public Instant bucketStart(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    public Duration bucketSize() {
+        return unit.getDuration();
+    }
+}
@@ -0,0 +1,108 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import java.time.Instant;
+
+// POST /analyze 로 만들어지는 분석 작업. 상태는 AnalysisJobQueue 워커만 바꾼다
+public final class AnalysisJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+
+    private final String id;
+    private final long incidentId;
+    private final Instant enqueuedAt;
+    private final long enqueuedNanos;
+
+    private volatile boolean force;
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    // 실행 중에 들어온 force 요청을 받은 후속 작업. 이 작업이 끝나면 AnalysisJobQueue 가 이어서 큐에 넣는다
+    private volatile AnalysisJob followUp;
+
+    AnalysisJob(String id, long incidentId, boolean force, Instant enqueuedAt, long enqueuedNanos) {
+        this.id = id;
+        this.incidentId = incidentId;
+        this.force = force;
+        this.enqueuedAt = enqueuedAt;
+        this.enqueuedNanos = enqueuedNanos;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getIncidentId() {
+        return incidentId;
+    }
+
+    public boolean isForce() {
+        return force;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getEnqueuedAt() {
+        return enqueuedAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    long enqueuedNanos() {
+        return enqueuedNanos;
+    }
+
+    AnalysisJob followUp() {
+        return followUp;
+    }
+
+    void followUp(AnalysisJob next) {
+        followUp = next;
+    }
+
+    // 아직 대기 중인 작업에 합쳐진 force 요청은 실행 시 반영된다. 이미 워커가 가져갔으면 false.
+    // QUEUED 확인과 force 기록을 start 와 같은 lock 으로 묶어서, 실행에 반영되지 않은 force 를 true 로 보이지 않는다
+    synchronized boolean requestForce() {
+        if (status != Status.QUEUED) {
+            return false;
+        }
+        force = true;
+        return true;
+    }
+
+    // QUEUED -> RUNNING 으로 바꾸고 실행할 force 값을 돌려준다
+    synchronized boolean start(Instant now) {
+        startedAt = now;
+        status = Status.RUNNING;
+        return force;
+    }
+
+    void markSucceeded(Instant now) {
+        finishedAt = now;
+        status = Status.SUCCEEDED;
+    }
+
+    void markFailed(Instant now, String message) {
+        finishedAt = now;
+        error = message;
+        status = Status.FAILED;
+    }
+}
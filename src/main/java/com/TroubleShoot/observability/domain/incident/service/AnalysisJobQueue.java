@@ -0,0 +1,237 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// 분석 작업 큐. HTTP 스레드는 작업만 넣고 고정 크기 워커가 IncidentAnalysisService 를 실행한다.
+// 같은 incident 에 대기/실행 중인 작업이 있으면 새 작업을 만들지 않고 그 작업을 돌려준다.
+// 단, 실행 중인 작업에 들어온 force 요청은 그 작업이 끝난 뒤 실행할 후속 작업이 된다 (같은 incident 를 동시에 분석하지 않게).
+// 작업 상태는 메모리에만 두고 끝난 작업은 job-retention 이 지나면 정리한다 (재시작하면 사라짐)
+@Component
+public class AnalysisJobQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisJobQueue.class);
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final IncidentAnalysisService analysisService;
+    private final Clock clock;
+    private final int workerCount;
+    private final Duration jobRetention;
+    private final BlockingQueue<AnalysisJob> queue;
+
+    private final Map<String, AnalysisJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, AnalysisJob> inFlight = new ConcurrentHashMap<>();
+
+    private final Timer queueWaitTimer;
+    private final Timer succeededTimer;
+    private final Timer failedTimer;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Autowired
+    public AnalysisJobQueue(IncidentAnalysisService analysisService,
+                            MeterRegistry meterRegistry,
+                            @Value("${observability.analysis.workers:2}") int workerCount,
+                            @Value("${observability.analysis.queue-capacity:1000}") int queueCapacity,
+                            @Value("${observability.analysis.job-retention:PT1H}") Duration jobRetention) {
+        this(analysisService, meterRegistry, workerCount, queueCapacity, jobRetention, Clock.systemUTC());
+    }
+
+    public AnalysisJobQueue(IncidentAnalysisService analysisService,
+                            MeterRegistry meterRegistry,
+                            int workerCount,
+                            int queueCapacity,
+                            Duration jobRetention,
+                            Clock clock) {
+        if (workerCount <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("analysis workers and queue-capacity must be positive");
+        }
+        this.analysisService = analysisService;
+        this.clock = clock;
+        this.workerCount = workerCount;
+        this.jobRetention = jobRetention;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("analysis.jobs.queue.depth", queue, BlockingQueue::size)
+                .description("Analysis jobs waiting for a worker")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("analysis.jobs.queue.wait")
+                .description("Time from enqueue until a worker picks the job up")
+                .register(meterRegistry);
+        this.succeededTimer = Timer.builder("analysis.jobs.execution")
+                .tag("outcome", "succeeded")
+                .register(meterRegistry);
+        this.failedTimer = Timer.builder("analysis.jobs.execution")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+    }
+
+    // 큐가 가득 차면 empty. 이미 대기/실행 중인 작업이 있으면 그 작업 (실행 중인데 force 면 후속 작업)
+    public Optional<AnalysisJob> submit(long incidentId, boolean force) {
+        AnalysisJob job = inFlight.compute(incidentId, (id, existing) -> {
+            if (existing != null) {
+                if (!force || existing.requestForce()) {
+                    return existing;
+                }
+                // 이미 실행 중이라 force 를 반영할 수 없다. 끝나면 이어서 돌 force 작업을 in-flight 로 두고,
+                // 그 사이 같은 incident 요청은 이 후속 작업에 합쳐진다
+                AnalysisJob followUp = newJob(id, true);
+                existing.followUp(followUp);
+                jobs.put(followUp.getId(), followUp);
+                return followUp;
+            }
+            AnalysisJob next = newJob(id, force);
+            if (!running || !queue.offer(next)) {
+                return null;
+            }
+            jobs.put(next.getId(), next);
+            return next;
+        });
+        return Optional.ofNullable(job);
+    }
+
+    private AnalysisJob newJob(long incidentId, boolean force) {
+        return new AnalysisJob(UUID.randomUUID().toString(), incidentId, force, clock.instant(), System.nanoTime());
+    }
+
+    public Optional<AnalysisJob> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    @Scheduled(fixedDelayString = "${observability.analysis.job-cleanup-interval:PT1M}")
+    public void evictFinishedJobs() {
+        Instant cutoff = clock.instant().minus(jobRetention);
+        jobs.values().removeIf(job -> job.getStatus().isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::workLoop, "analysis-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("analysis job queue started: workers={}, capacity={}", workerCount, queue.remainingCapacity());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MILLIS;
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+        if (!queue.isEmpty()) {
+            log.warn("analysis job queue stopped with {} jobs still queued", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void workLoop() {
+        // stop() 이후에도 큐에 남은 작업은 끝까지 처리한다
+        while (running || !queue.isEmpty()) {
+            try {
+                AnalysisJob job = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (job != null) {
+                    run(job);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void run(AnalysisJob job) {
+        long startedNanos = System.nanoTime();
+        queueWaitTimer.record(startedNanos - job.enqueuedNanos(), TimeUnit.NANOSECONDS);
+        boolean force = job.start(clock.instant());
+
+        Throwable failure = null;
+        try {
+            analysisService.analyzeIncident(job.getIncidentId(), force);
+        } catch (Throwable e) {
+            failure = e;
+            log.warn("analysis job {} for incident {} failed", job.getId(), job.getIncidentId(), e);
+            if (e instanceof Error error) {
+                throw error;
+            }
+        } finally {
+            // Error 로 워커가 죽어도 in-flight 로 남아서 이후 요청이 모두 이 작업에 묶이지 않게 한다
+            finish(job, failure, startedNanos);
+        }
+    }
+
+    private void finish(AnalysisJob job, Throwable failure, long startedNanos) {
+        (failure == null ? succeededTimer : failedTimer)
+                .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+
+        // 상태를 바꾸기 전에 빼 두어서, 끝난 상태를 본 뒤의 요청은 새 작업이 된다.
+        // 실행 중에 force 후속 작업이 생겼으면 그 작업을 큐에 넣는다 (in-flight 는 이미 후속 작업)
+        inFlight.compute(job.getIncidentId(), (id, current) -> {
+            if (current == job) {
+                return null;
+            }
+            if (current != null && current == job.followUp()) {
+                if (queue.offer(current)) {
+                    return current;
+                }
+                current.markFailed(clock.instant(), "analysis queue is full");
+                return null;
+            }
+            return current;
+        });
+        if (failure == null) {
+            job.markSucceeded(clock.instant());
+        } else {
+            job.markFailed(clock.instant(), failure.getMessage() != null
+                    ? failure.getMessage()
+                    : failure.getClass().getName());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.analyze.IncidentAnalysisResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// signature 단위 분석 결과 캐시. WINDOW 가 지나 같은 signature 로 새 incident 가 열리면 analyzer 를 다시 돌리지 않고 이 결과를 쓴다.
+// key 는 (signatureHash, analyzerVersion, exception class + sample message 지문). 규칙이 바뀌면 version 이 달라져 자연히 빗나간다.
+// 크기 상한을 넘으면 가장 오래 안 쓴 것부터, ttl 이 지나면 저장 시각 기준으로 버린다
+@Component
+public class AnalysisResultCache {
+
+    // 지문에 쓰는 메시지 길이 상한 (긴 stacktrace 메시지로 key 가 커지지 않게)
+    private static final int FINGERPRINT_MAX_LENGTH = 512;
+
+    private final Clock clock;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    // access-order: 맨 앞이 가장 오래 안 쓴 entry
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    @Autowired
+    public AnalysisResultCache(MeterRegistry meterRegistry,
+                               @Value("${observability.analysis.cache.enabled:true}") boolean enabled,
+                               @Value("${observability.analysis.cache.max-size:10000}") int maxSize,
+                               @Value("${observability.analysis.cache.ttl:PT6H}") Duration ttl) {
+        this(meterRegistry, enabled, maxSize, ttl, Clock.systemUTC());
+    }
+
+    public AnalysisResultCache(MeterRegistry meterRegistry, boolean enabled, int maxSize, Duration ttl, Clock clock) {
+        if (maxSize <= 0 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("analysis cache max-size and ttl must be positive");
+        }
+        this.clock = clock;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+
+        this.hits = Counter.builder("analysis.cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("analysis.cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("analysis.cache.evictions")
+                .tag("cause", "size")
+                .register(meterRegistry);
+        this.expiredEvictions = Counter.builder("analysis.cache.evictions")
+                .tag("cause", "expired")
+                .register(meterRegistry);
+        Gauge.builder("analysis.cache.size", this, AnalysisResultCache::size)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // analyzerVersion 이 null 이면 (버전을 밝히지 않는 analyzer) 캐시하지 않는다
+    public Optional<Key> keyFor(Incident incident, String analyzerVersion) {
+        if (!enabled || analyzerVersion == null || incident.getSignatureHash() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Key(incident.getSignatureHash(), analyzerVersion,
+                fingerprint(incident.getExceptionClass(), incident.getSampleMessage())));
+    }
+
+    public synchronized Optional<IncidentAnalysisResult> get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && isExpired(entry, clock.millis())) {
+            entries.remove(key);
+            expiredEvictions.increment();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.result());
+    }
+
+    public synchronized void put(Key key, IncidentAnalysisResult result) {
+        entries.put(key, new Entry(result, clock.millis()));
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxSize) {
+            eldest.next();
+            eldest.remove();
+            sizeEvictions.increment();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    // 조회되지 않는 만료 entry 가 크기를 차지하지 않도록 주기적으로 걷어낸다
+    @Scheduled(fixedDelayString = "${observability.analysis.cache.cleanup-interval:PT1M}")
+    public synchronized void evictExpired() {
+        long now = clock.millis();
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            if (isExpired(it.next(), now)) {
+                it.remove();
+                expiredEvictions.increment();
+            }
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.storedAtMillis() >= ttlMillis;
+    }
+
+    // 대소문자/공백과 숫자(id, 시간, 포트 등)만 다른 메시지는 같은 지문이 된다
+    static String fingerprint(String exceptionClass, String sampleMessage) {
+        StringBuilder sb = new StringBuilder(exceptionClass == null ? "" : exceptionClass).append('|');
+        if (sampleMessage != null) {
+            boolean lastDigit = false;
+            boolean lastSpace = false;
+            for (int i = 0, n = sampleMessage.length(); i < n && sb.length() < FINGERPRINT_MAX_LENGTH; i++) {
+                char c = sampleMessage.charAt(i);
+                if (Character.isDigit(c)) {
+                    if (!lastDigit) {
+                        sb.append('0');
+                    }
+                    lastDigit = true;
+                    lastSpace = false;
+                } else if (Character.isWhitespace(c)) {
+                    if (!lastSpace) {
+                        sb.append(' ');
+                    }
+                    lastDigit = false;
+                    lastSpace = true;
+                } else {
+                    sb.append(Character.toLowerCase(c));
+                    lastDigit = false;
+                    lastSpace = false;
+                }
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    public record Key(String signatureHash, String analyzerVersion, String evidenceFingerprint) {
+    }
+
+    private record Entry(IncidentAnalysisResult result, long storedAtMillis) {
+    }
+}
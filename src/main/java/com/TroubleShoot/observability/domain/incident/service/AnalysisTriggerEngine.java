@@ -0,0 +1,234 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
+import com.troubleshoot.observability.domain.incident.infra.IncidentTriggerRow;
+import com.troubleshoot.observability.global.transaction.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// 발생 건수/발생률 기준을 넘은 incident 를 모아 주기적으로 분석 작업을 건다.
+// grouping 트랜잭션에서는 커밋 이후 메모리 카운터만 올리고, 판정(DB 조회 포함)과 작업 등록은 스케줄러 스레드에서 한다.
+// 같은 incident 는 cooldown 안에 다시 분석하지 않는다. cooldown 중에 넘은 건수 기준은 끝난 뒤 한 번만 건다
+@Component
+public class AnalysisTriggerEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisTriggerEngine.class);
+
+    // 이 시간 동안 발생이 없고 걸어 둘 trigger 도 없으면 상태를 정리한다
+    private static final long IDLE_EVICT_MILLIS = Duration.ofHours(1).toMillis();
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+    private static final long RATE_WINDOW_MILLIS = 60_000;
+
+    private final IncidentRepository incidentRepository;
+    private final OccurrenceCounterBuffer occurrenceCounterBuffer;
+    private final AnalysisJobQueue analysisJobQueue;
+    private final Clock clock;
+    private final boolean enabled;
+    private final int[] countThresholds;
+    private final long ratePerMinute;
+    private final long cooldownMillis;
+    private final int maxPerRun;
+
+    private final Map<Long, TriggerState> states = new ConcurrentHashMap<>();
+
+    private final Counter countTriggers;
+    private final Counter rateTriggers;
+    private final Counter suppressedTriggers;
+
+    @Autowired
+    public AnalysisTriggerEngine(IncidentRepository incidentRepository,
+                                 OccurrenceCounterBuffer occurrenceCounterBuffer,
+                                 AnalysisJobQueue analysisJobQueue,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${observability.analysis.trigger.enabled:true}") boolean enabled,
+                                 @Value("${observability.analysis.trigger.count-thresholds:20,100}") int[] countThresholds,
+                                 @Value("${observability.analysis.trigger.rate-per-minute:60}") long ratePerMinute,
+                                 @Value("${observability.analysis.trigger.cooldown:PT15M}") Duration cooldown,
+                                 @Value("${observability.analysis.trigger.max-per-run:50}") int maxPerRun) {
+        this(incidentRepository, occurrenceCounterBuffer, analysisJobQueue, meterRegistry,
+                enabled, countThresholds, ratePerMinute, cooldown, maxPerRun, Clock.systemUTC());
+    }
+
+    public AnalysisTriggerEngine(IncidentRepository incidentRepository,
+                                 OccurrenceCounterBuffer occurrenceCounterBuffer,
+                                 AnalysisJobQueue analysisJobQueue,
+                                 MeterRegistry meterRegistry,
+                                 boolean enabled,
+                                 int[] countThresholds,
+                                 long ratePerMinute,
+                                 Duration cooldown,
+                                 int maxPerRun,
+                                 Clock clock) {
+        if (ratePerMinute < 0 || cooldown.isNegative() || maxPerRun <= 0) {
+            throw new IllegalArgumentException("analysis trigger rate-per-minute, cooldown and max-per-run must not be negative");
+        }
+        this.incidentRepository = incidentRepository;
+        this.occurrenceCounterBuffer = occurrenceCounterBuffer;
+        this.analysisJobQueue = analysisJobQueue;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.countThresholds = Arrays.stream(countThresholds).filter(t -> t > 0).sorted().distinct().toArray();
+        this.ratePerMinute = ratePerMinute;
+        this.cooldownMillis = cooldown.toMillis();
+        this.maxPerRun = maxPerRun;
+
+        this.countTriggers = Counter.builder("analysis.triggers.fired")
+                .tag("reason", "count")
+                .register(meterRegistry);
+        this.rateTriggers = Counter.builder("analysis.triggers.fired")
+                .tag("reason", "rate")
+                .register(meterRegistry);
+        this.suppressedTriggers = Counter.builder("analysis.triggers.suppressed")
+                .description("Triggers held back by the per-incident cooldown or the per-run limit")
+                .register(meterRegistry);
+    }
+
+    // grouping 배치의 incident 별 발생 건수. 트랜잭션 안이면 커밋 이후에 반영된다
+    public void record(Map<Long, Integer> occurrences) {
+        if (!enabled || occurrences.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            long now = clock.millis();
+            occurrences.forEach((incidentId, count) ->
+                    states.computeIfAbsent(incidentId, id -> new TriggerState(now)).add(count, now));
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${observability.analysis.trigger.interval:PT10S}")
+    public void evaluate() {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.millis();
+        Map<Long, Candidate> candidates = new HashMap<>();
+        for (Iterator<Map.Entry<Long, TriggerState>> it = states.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, TriggerState> entry = it.next();
+            TriggerState state = entry.getValue();
+            long delta = state.drain();
+            if (delta > 0 || state.deferred) {
+                candidates.put(entry.getKey(), new Candidate(state, delta));
+            } else if (now - state.lastRecordedMillis > IDLE_EVICT_MILLIS) {
+                it.remove();
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        int fired = 0;
+        List<Long> ids = new ArrayList<>(candidates.keySet());
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, ids.size()));
+            for (IncidentTriggerRow row : incidentRepository.findTriggerRows(chunk)) {
+                Candidate candidate = candidates.remove(row.id());
+                if (!IncidentAnalysisService.isAnalyzable(row.status())) {
+                    states.remove(row.id(), candidate.state());
+                    continue;
+                }
+                long total = occurrenceCounterBuffer.pendingFor(row.id()).mergeCount(row.occurrenceCount());
+                if (evaluate(row.id(), candidate, total, now, fired < maxPerRun)) {
+                    fired++;
+                }
+            }
+        }
+        // 조회되지 않은 incident 는 삭제된 것
+        candidates.forEach((id, candidate) -> states.remove(id, candidate.state()));
+        if (fired > 0) {
+            log.info("triggered automatic analysis for {} incidents", fired);
+        }
+    }
+
+    // 작업을 새로 걸었으면 true
+    private boolean evaluate(long incidentId, Candidate candidate, long total, long now, boolean budgetLeft) {
+        TriggerState state = candidate.state();
+        state.observed += candidate.delta();
+        if (state.lastLevel < 0) {
+            // 이 프로세스가 보기 전의 건수 기준 단계부터 시작 (새 incident 면 0)
+            state.lastLevel = level(Math.max(0, total - state.observed));
+        }
+        // 발생률은 최소 1분 구간으로 나눠서 본다 (막 생긴 상태의 짧은 구간이 과대평가되지 않게)
+        long elapsedMillis = Math.max(RATE_WINDOW_MILLIS, now - state.lastEvaluatedMillis);
+        state.lastEvaluatedMillis = now;
+
+        int level = level(total);
+        boolean countCrossed = level > state.lastLevel;
+        boolean rateHot = ratePerMinute > 0 && candidate.delta() * RATE_WINDOW_MILLIS / elapsedMillis >= ratePerMinute;
+        if (!countCrossed && !rateHot) {
+            state.deferred = false;
+            return false;
+        }
+
+        if (now - state.lastTriggeredMillis < cooldownMillis || !budgetLeft) {
+            // 건수 기준은 놓치지 않도록 걸어 두고, 발생률은 다음 판정에서 다시 본다
+            state.deferred = countCrossed;
+            suppressedTriggers.increment();
+            return false;
+        }
+        if (analysisJobQueue.submit(incidentId, true).isEmpty()) {
+            state.deferred = true;
+            return false;
+        }
+        state.lastLevel = level;
+        state.lastTriggeredMillis = now;
+        state.deferred = false;
+        (countCrossed ? countTriggers : rateTriggers).increment();
+        return true;
+    }
+
+    // 넘어선 count-threshold 개수
+    private int level(long occurrenceCount) {
+        int level = 0;
+        while (level < countThresholds.length && occurrenceCount >= countThresholds[level]) {
+            level++;
+        }
+        return level;
+    }
+
+    private record Candidate(TriggerState state, long delta) {
+    }
+
+    // 발생 카운터만 여러 스레드가 올리고, 나머지 필드는 판정 스레드만 쓴다
+    private static final class TriggerState {
+        private final LongAdder sinceEvaluation = new LongAdder();
+        private volatile long lastRecordedMillis;
+
+        private long observed;
+        private int lastLevel = -1;
+        private long lastEvaluatedMillis;
+        private long lastTriggeredMillis = Long.MIN_VALUE / 2;
+        private boolean deferred;
+
+        private TriggerState(long nowMillis) {
+            this.lastEvaluatedMillis = nowMillis;
+        }
+
+        private void add(long count, long nowMillis) {
+            sinceEvaluation.add(count);
+            lastRecordedMillis = nowMillis;
+        }
+
+        // sum 만큼만 빼므로 그 사이 들어온 증가분은 다음 판정으로 넘어간다
+        private long drain() {
+            long count = sinceEvaluation.sum();
+            sinceEvaluation.add(-count);
+            return count;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AsyncIngestionPipeline implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncIngestionPipeline.class);
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final IncidentGroupingService groupingService;
+    private final boolean enabled;
+    private final int workerCount;
+    private final int maxBatchSize;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final BlockingQueue<ErrorEvent> queue;
+
+    private final Counter acceptedCounter;
+    private final Counter drainedCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Counter retryCounter;
+    private final Timer batchTimer;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public AsyncIngestionPipeline(IncidentGroupingService groupingService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${observability.ingestion.mode:sync}") String mode,
+                                  @Value("${observability.ingestion.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${observability.ingestion.workers:2}") int workerCount,
+                                  @Value("${observability.ingestion.max-batch-size:500}") int maxBatchSize,
+                                  @Value("${observability.ingestion.max-retries:3}") int maxRetries,
+                                  @Value("${observability.ingestion.retry-backoff:PT0.2S}") Duration retryBackoff) {
+        if (queueCapacity <= 0 || workerCount <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("ingestion queue-capacity, workers and max-batch-size must be positive");
+        }
+        if (maxRetries < 0 || retryBackoff.isNegative()) {
+            throw new IllegalArgumentException("ingestion max-retries and retry-backoff must not be negative");
+        }
+        this.groupingService = groupingService;
+        this.enabled = "async".equalsIgnoreCase(mode);
+        this.workerCount = workerCount;
+        this.maxBatchSize = maxBatchSize;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("ingestion.queue.depth", queue, BlockingQueue::size)
+                .description("Error events waiting to be grouped")
+                .register(meterRegistry);
+        Gauge.builder("ingestion.queue.capacity", () -> queueCapacity)
+                .register(meterRegistry);
+        this.acceptedCounter = Counter.builder("ingestion.events.accepted").register(meterRegistry);
+        this.drainedCounter = Counter.builder("ingestion.events.drained")
+                .description("Error events grouped by the async workers")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("ingestion.events.dropped")
+                .description("Error events rejected because the queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("ingestion.events.failed").register(meterRegistry);
+        this.retryCounter = Counter.builder("ingestion.batch.retries")
+                .description("Grouping attempts retried because the database was unavailable")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("ingestion.batch.duration").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean submit(ErrorEvent event) {
+        Objects.requireNonNull(event, "event");
+        if (!running || !queue.offer(event)) {
+            droppedCounter.increment();
+            return false;
+        }
+        acceptedCounter.increment();
+        return true;
+    }
+
+    // 큐가 가득 차면 나머지는 버리고 실제로 받아들인 개수를 돌려준다
+    public int submitAll(List<ErrorEvent> events) {
+        int accepted = 0;
+        for (ErrorEvent event : events) {
+            if (submit(event)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::drainLoop, "ingestion-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("async ingestion started: workers={}, capacity={}", workerCount, queue.remainingCapacity());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MILLIS;
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+        if (!queue.isEmpty()) {
+            log.warn("async ingestion stopped with {} events still queued", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop() {
+        List<ErrorEvent> batch = new ArrayList<>(maxBatchSize);
+        // stop() 이후에도 큐에 남은 이벤트는 끝까지 비운다
+        while (running || !queue.isEmpty()) {
+            try {
+                ErrorEvent first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                // Error 로 워커가 끝나면 큐가 조용히 쌓이기만 하므로 batch 만 버리고 계속 비운다
+                failedCounter.increment(batch.size());
+                log.error("ingestion worker failed on {} error events, dropping them", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // 일시적인 DB 오류는 backoff 하며 max-retries 번까지 다시 시도하고, 그 밖의 오류는 한 건씩 다시 넘겨서 거부된 이벤트만 버린다
+    private void process(List<ErrorEvent> batch) {
+        try {
+            batchTimer.record(() -> groupWithRetry(batch));
+            drainedCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            if (batch.size() > 1 && !IngestionWalReplayer.isTransient(e)) {
+                log.warn("grouping rejected {} queued error events, retrying them one by one", batch.size(), e);
+                for (ErrorEvent event : batch) {
+                    process(List.of(event));
+                }
+                return;
+            }
+            failedCounter.increment(batch.size());
+            if (batch.size() == 1) {
+                ErrorEvent event = batch.get(0);
+                log.error("failed to group queued error event: service={} traceId={} occurredAt={} exceptionClass={}",
+                        event.getServiceName(), event.getTraceId(), event.getOccurredAt(), event.getExceptionClass(), e);
+            } else {
+                log.error("failed to group {} queued error events", batch.size(), e);
+            }
+        }
+    }
+
+    private void groupWithRetry(List<ErrorEvent> batch) {
+        long backoffMillis = retryBackoff.toMillis();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                groupingService.handleBatch(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxRetries || !IngestionWalReplayer.isTransient(e)) {
+                    throw e;
+                }
+                retryCounter.increment();
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                backoffMillis *= 2;
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+
+// bulk 분석에서 incident 하나의 결과. status 는 결과를 낸 시점의 incident 상태 (없으면 null)
+public record BulkAnalysisOutcome(long incidentId, Result result, IncidentStatus status, String message) {
+
+    public enum Result {
+        ANALYZED,
+        // 이미 분석 결과가 있고 force 가 아님
+        SKIPPED,
+        NOT_FOUND,
+        // 분석할 수 없는 상태 (RESOLVED / IGNORED)
+        CONFLICT,
+        FAILED
+    }
+
+    static BulkAnalysisOutcome of(long incidentId, Result result, IncidentStatus status, String message) {
+        return new BulkAnalysisOutcome(incidentId, result, status, message);
+    }
+}
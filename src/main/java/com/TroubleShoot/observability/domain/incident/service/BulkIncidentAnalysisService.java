@@ -0,0 +1,274 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.analyze.AnalysisEventSource;
+import com.troubleshoot.observability.domain.incident.analyze.IncidentAnalysisState;
+import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentAnalysis;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentAnalysisRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRow;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentScopedEventRow;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 여러 incident 를 한 번에 분석한다 (장애 직후 수십~수백 건).
+// 1) incident / 기존 분석 / 분석할 이벤트를 incident 마다가 아니라 묶음 쿼리 몇 번으로 읽고
+// 2) analyzer 는 고정 크기 풀에서 병렬로 돌리고 (DB 접근 없음)
+// 3) 결과는 batch-size 건씩 트랜잭션 하나로 저장한다. 실패는 그 incident(저장 실패면 그 batch) 결과로만 남는다
+@Service
+public class BulkIncidentAnalysisService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkIncidentAnalysisService.class);
+
+    private final IncidentRepository incidentRepository;
+    private final IncidentAnalysisRepository incidentAnalysisRepository;
+    private final IncidentEventRepository incidentEventRepository;
+    private final IncidentAnalysisService analysisService;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final int maxIncidents;
+    private final int batchSize;
+    private final ThreadPoolExecutor executor;
+
+    public BulkIncidentAnalysisService(IncidentRepository incidentRepository,
+                                       IncidentAnalysisRepository incidentAnalysisRepository,
+                                       IncidentEventRepository incidentEventRepository,
+                                       IncidentAnalysisService analysisService,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${observability.analysis.bulk.parallelism:4}") int parallelism,
+                                       @Value("${observability.analysis.bulk.max-incidents:500}") int maxIncidents,
+                                       @Value("${observability.analysis.bulk.batch-size:50}") int batchSize) {
+        if (parallelism <= 0 || maxIncidents <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("analysis bulk parallelism, max-incidents and batch-size must be positive");
+        }
+        this.incidentRepository = incidentRepository;
+        this.incidentAnalysisRepository = incidentAnalysisRepository;
+        this.incidentEventRepository = incidentEventRepository;
+        this.analysisService = analysisService;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.maxIncidents = maxIncidents;
+        this.batchSize = batchSize;
+
+        // 큐가 차면 요청 스레드가 직접 실행한다 (요청 여러 개가 겹쳐도 스레드/메모리가 늘지 않게)
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxIncidents),
+                task -> {
+                    Thread thread = new Thread(task, "analysis-bulk-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public int maxIncidents() {
+        return maxIncidents;
+    }
+
+    // 요청 순서대로 incident 별 결과 (중복 id 는 한 번만)
+    public List<BulkAnalysisOutcome> analyze(Collection<Long> incidentIds, boolean force) {
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(incidentIds);
+        if (ids.isEmpty() || ids.size() > maxIncidents) {
+            throw new IllegalArgumentException("bulk analysis needs 1.." + maxIncidents + " incident ids");
+        }
+
+        Map<Long, BulkAnalysisOutcome> outcomes = new LinkedHashMap<>();
+        ids.forEach(id -> outcomes.put(id, null));
+
+        List<Target> targets = readTransaction.execute(status -> load(ids, force, outcomes));
+        Map<Long, IncidentAnalysisService.AnalyzerOutput> results = runAnalyzers(targets, outcomes);
+        persist(results, outcomes);
+        return new ArrayList<>(outcomes.values());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // 분석할 incident 를 고르고 이벤트까지 미리 읽는다. 나머지는 outcomes 에 바로 결과를 남긴다
+    private List<Target> load(Collection<Long> ids, boolean force, Map<Long, BulkAnalysisOutcome> outcomes) {
+        Map<Long, Incident> incidents = incidentRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Incident::getId, Function.identity()));
+        Map<Long, IncidentAnalysis> analyses = incidentAnalysisRepository.findByIncident_IdIn(ids).stream()
+                .collect(Collectors.toMap(analysis -> analysis.getIncident().getId(), Function.identity()));
+
+        List<IncidentAnalysis> candidateAnalyses = new ArrayList<>();
+        List<Incident> candidateIncidents = new ArrayList<>();
+        Map<Long, Long> resumeAfter = new HashMap<>();
+        Set<Long> bootstrap = new HashSet<>();
+        for (Long id : ids) {
+            Incident incident = incidents.get(id);
+            if (incident == null) {
+                outcomes.put(id, BulkAnalysisOutcome.of(id, BulkAnalysisOutcome.Result.NOT_FOUND, null, "Incident not found"));
+                continue;
+            }
+            IncidentAnalysis existing = analyses.get(id);
+            if (existing != null && !force) {
+                outcomes.put(id, BulkAnalysisOutcome.of(id, BulkAnalysisOutcome.Result.SKIPPED, incident.getStatus(),
+                        "Already analyzed"));
+                continue;
+            }
+            if (!IncidentAnalysisService.isAnalyzable(incident.getStatus())) {
+                outcomes.put(id, BulkAnalysisOutcome.of(id, BulkAnalysisOutcome.Result.CONFLICT, incident.getStatus(),
+                        "Cannot analyze incident in status " + incident.getStatus()));
+                continue;
+            }
+
+            IncidentAnalysisState previous = existing == null || existing.getAnalysisStateJson() == null
+                    ? null
+                    : analysisService.readState(existing.getAnalysisStateJson());
+            if (previous != null) {
+                resumeAfter.put(id, previous.lastEventId());
+            } else {
+                bootstrap.add(id);
+            }
+            candidateIncidents.add(incident);
+            candidateAnalyses.add(existing);
+        }
+
+        Map<Long, List<IncidentEventRow>> after = group(
+                incidentEventRepository.findRowsAfter(resumeAfter, IncidentAnalysisService.OCCURRENCE_EVENT_TYPES,
+                        IncidentAnalysisService.INCREMENTAL_CHUNK_SIZE));
+        Map<Long, List<IncidentEventRow>> latest = group(incidentEventRepository.findLatestRows(
+                bootstrap, IncidentAnalysisService.OCCURRENCE_EVENT_TYPES, analysisService.bootstrapEvents()));
+        List<Target> targets = new ArrayList<>(candidateIncidents.size());
+        for (int i = 0; i < candidateIncidents.size(); i++) {
+            Incident incident = candidateIncidents.get(i);
+            long id = incident.getId();
+            targets.add(new Target(incident, candidateAnalyses.get(i), new PrefetchedEventSource(
+                    resumeAfter.get(id),
+                    after.getOrDefault(id, List.of()),
+                    bootstrap.contains(id) ? latest.getOrDefault(id, List.of()) : null,
+                    analysisService.eventSource(id))));
+        }
+        return targets;
+    }
+
+    private Map<Long, IncidentAnalysisService.AnalyzerOutput> runAnalyzers(List<Target> targets,
+                                                                          Map<Long, BulkAnalysisOutcome> outcomes) {
+        Map<Long, CompletableFuture<IncidentAnalysisService.AnalyzerOutput>> futures = new LinkedHashMap<>();
+        for (Target target : targets) {
+            futures.put(target.incident().getId(), CompletableFuture.supplyAsync(
+                    () -> analysisService.runAnalyzer(target.incident(), target.existing(), target.events()),
+                    executor));
+        }
+
+        Map<Long, IncidentAnalysisService.AnalyzerOutput> results = new LinkedHashMap<>();
+        futures.forEach((id, future) -> {
+            try {
+                results.put(id, future.join());
+            } catch (RuntimeException e) {
+                Throwable cause = e.getCause() == null ? e : e.getCause();
+                log.warn("bulk analysis failed for incident {}", id, cause);
+                outcomes.put(id, BulkAnalysisOutcome.of(id, BulkAnalysisOutcome.Result.FAILED, null, cause.getMessage()));
+            }
+        });
+        return results;
+    }
+
+    private void persist(Map<Long, IncidentAnalysisService.AnalyzerOutput> results,
+                         Map<Long, BulkAnalysisOutcome> outcomes) {
+        List<Long> ids = new ArrayList<>(results.keySet());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            try {
+                Map<Long, BulkAnalysisOutcome> stored = writeTransaction.execute(status -> store(batch, results));
+                outcomes.putAll(stored);
+            } catch (RuntimeException e) {
+                log.warn("failed to store bulk analysis results for {} incidents", batch.size(), e);
+                batch.forEach(id -> outcomes.put(id,
+                        BulkAnalysisOutcome.of(id, BulkAnalysisOutcome.Result.FAILED, null, e.getMessage())));
+            }
+        }
+    }
+
+    // 분석하는 사이 상태가 바뀌었을 수 있으니 저장 직전에 다시 읽어서 판단한다
+    private Map<Long, BulkAnalysisOutcome> store(List<Long> batch,
+                                                 Map<Long, IncidentAnalysisService.AnalyzerOutput> results) {
+        Map<Long, Incident> incidents = incidentRepository.findAllById(batch).stream()
+                .collect(Collectors.toMap(Incident::getId, Function.identity()));
+        Map<Long, IncidentAnalysis> analyses = incidentAnalysisRepository.findByIncident_IdIn(batch).stream()
+                .collect(Collectors.toMap(analysis -> analysis.getIncident().getId(), Function.identity()));
+
+        Map<Long, BulkAnalysisOutcome> stored = new HashMap<>();
+        for (Long id : batch) {
+            Incident incident = incidents.get(id);
+            if (incident == null) {
+                stored.put(id, BulkAnalysisOutcome.of(id, BulkAnalysisOutcome.Result.NOT_FOUND, null, "Incident not found"));
+                continue;
+            }
+            try {
+                analysisService.store(incident, analyses.get(id), results.get(id));
+                stored.put(id, BulkAnalysisOutcome.of(id, BulkAnalysisOutcome.Result.ANALYZED, incident.getStatus(), null));
+            } catch (IllegalStateException e) {
+                stored.put(id, BulkAnalysisOutcome.of(id, BulkAnalysisOutcome.Result.CONFLICT, incident.getStatus(),
+                        e.getMessage()));
+            }
+        }
+        return stored;
+    }
+
+    private static Map<Long, List<IncidentEventRow>> group(List<IncidentScopedEventRow> rows) {
+        Map<Long, List<IncidentEventRow>> grouped = new HashMap<>();
+        for (IncidentScopedEventRow row : rows) {
+            grouped.computeIfAbsent(row.incidentId(), id -> new ArrayList<>()).add(row.row());
+        }
+        return grouped;
+    }
+
+    private record Target(Incident incident, IncidentAnalysis existing, AnalysisEventSource events) {
+    }
+
+    // 미리 읽어 둔 이벤트를 넘긴다. analyzer 가 다른 범위를 원하면(그 사이 규칙이 바뀐 경우 등) 개별 조회로 넘어간다.
+    // id 이후 이벤트는 incident 마다 한 chunk 만 미리 읽으므로, chunk 가 가득 찼으면 그 뒤는 개별 조회로 이어간다
+    private record PrefetchedEventSource(Long prefetchedAfterId,
+                                         List<IncidentEventRow> after,
+                                         List<IncidentEventRow> latest,
+                                         AnalysisEventSource fallback) implements AnalysisEventSource {
+
+        @Override
+        public List<IncidentEventRow> latest() {
+            return latest != null ? latest : fallback.latest();
+        }
+
+        @Override
+        public void forEachAfter(long afterEventId, Consumer<List<IncidentEventRow>> chunkConsumer) {
+            if (prefetchedAfterId == null || prefetchedAfterId != afterEventId) {
+                fallback.forEachAfter(afterEventId, chunkConsumer);
+                return;
+            }
+            if (!after.isEmpty()) {
+                chunkConsumer.accept(after);
+            }
+            if (after.size() >= IncidentAnalysisService.INCREMENTAL_CHUNK_SIZE) {
+                fallback.forEachAfter(after.get(after.size() - 1).id(), chunkConsumer);
+            }
+        }
+    }
+}
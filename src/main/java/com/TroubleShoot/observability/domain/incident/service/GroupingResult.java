@@ -0,0 +1,10 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+
+public record GroupingResult(
+        Long incidentId,
+        IncidentStatus status,
+        boolean grouped
+) {
+}
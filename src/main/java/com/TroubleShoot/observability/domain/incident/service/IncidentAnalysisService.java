@@ -4,42 +4,71 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.troubleshoot.observability.domain.incident.Incident;
 import com.troubleshoot.observability.domain.incident.IncidentStatus;
+import com.troubleshoot.observability.domain.incident.analyze.AnalysisEventSource;
 import com.troubleshoot.observability.domain.incident.analyze.IncidentAnalysisResult;
+import com.troubleshoot.observability.domain.incident.analyze.IncidentAnalysisState;
 import com.troubleshoot.observability.domain.incident.analyze.IncidentAnalyzer;
+import com.troubleshoot.observability.domain.incident.analyze.IncrementalAnalysis;
+import com.troubleshoot.observability.domain.incident.analyze.IncrementalIncidentAnalyzer;
 import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
 import com.troubleshoot.observability.domain.incident.persistence.IncidentAnalysis;
 import com.troubleshoot.observability.domain.incident.persistence.IncidentAnalysisRepository;
 import com.troubleshoot.observability.domain.incident.persistence.IncidentEvent;
 import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRow;
 import com.troubleshoot.observability.domain.incident.persistence.IncidentEventType;
+import com.troubleshoot.observability.global.transaction.AfterCommit;
 import java.time.Instant;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class IncidentAnalysisService {
 
+    private static final Logger log = LoggerFactory.getLogger(IncidentAnalysisService.class);
+
+    static final int INCREMENTAL_CHUNK_SIZE = 500;
+    // 발생 메시지를 담은 이벤트 (상태 변경 등은 분석 대상이 아니다)
+    static final Set<IncidentEventType> OCCURRENCE_EVENT_TYPES =
+            EnumSet.of(IncidentEventType.INCIDENT_CREATED, IncidentEventType.EVENT_INGESTED);
+
     private final IncidentRepository incidentRepository;
     private final IncidentEventRepository incidentEventRepository;
     private final IncidentAnalysisRepository incidentAnalysisRepository;
     private final IncidentAnalyzer incidentAnalyzer;
     private final ObjectMapper objectMapper;
+    private final AnalysisResultCache analysisResultCache;
+    private final int bootstrapEvents;
 
     public IncidentAnalysisService(
             IncidentRepository incidentRepository,
             IncidentEventRepository incidentEventRepository,
             IncidentAnalysisRepository incidentAnalysisRepository,
             IncidentAnalyzer incidentAnalyzer,
-            ObjectMapper objectMapper
+            ObjectMapper objectMapper,
+            AnalysisResultCache analysisResultCache,
+            @Value("${observability.analysis.incremental.bootstrap-events:1000}") int bootstrapEvents
     ) {
+        if (bootstrapEvents <= 0) {
+            throw new IllegalArgumentException("analysis incremental bootstrap-events must be positive");
+        }
         this.incidentRepository = incidentRepository;
         this.incidentEventRepository = incidentEventRepository;
         this.incidentAnalysisRepository = incidentAnalysisRepository;
         this.incidentAnalyzer = incidentAnalyzer;
         this.objectMapper = objectMapper;
+        this.analysisResultCache = analysisResultCache;
+        this.bootstrapEvents = bootstrapEvents;
     }
 
     @Transactional
@@ -59,49 +88,96 @@ public class IncidentAnalysisService {
         assertAnalyzableStatus(incident);
         transitionIfNeeded(incident, IncidentStatus.ANALYZING);
 
-        List<IncidentEvent> recentEvents = incidentEventRepository.findTop50ByIncidentIdOrderByOccurredAtDesc(incidentId);
-        IncidentAnalysisResult result = incidentAnalyzer.analyze(incident, recentEvents);
+        AnalyzerOutput output = runAnalyzer(incident, existingAnalysis.orElse(null), eventSource(incidentId));
+        return store(incident, existingAnalysis.orElse(null), output);
+    }
+
+    // analyzer 실행. 트랜잭션 밖(bulk 분석 워커)에서도 호출된다
+    AnalyzerOutput runAnalyzer(Incident incident, IncidentAnalysis existingAnalysis, AnalysisEventSource events) {
+        Optional<AnalysisResultCache.Key> cacheKey = analysisResultCache.keyFor(incident, incidentAnalyzer.currentVersion());
+        if (existingAnalysis == null && cacheKey.isPresent()) {
+            // 첫 분석이면 같은 signature 의 이전 결과를 이 incident 에 맞춰 쓴다.
+            // incremental 상태는 남기지 않으므로 다음 분석은 이 incident 의 이벤트로 새로 시작한다
+            IncidentAnalysisResult reused = analysisResultCache.get(cacheKey.get())
+                    .map(cached -> incidentAnalyzer.reuse(cached, incident))
+                    .orElse(null);
+            if (reused != null) {
+                return new AnalyzerOutput(reused, null, null);
+            }
+        }
+
+        if (incidentAnalyzer instanceof IncrementalIncidentAnalyzer incremental) {
+            // 이전 분석 상태에 그 뒤로 저장된 이벤트만 더한다
+            IncidentAnalysisState previous = existingAnalysis == null || existingAnalysis.getAnalysisStateJson() == null
+                    ? null
+                    : readState(existingAnalysis.getAnalysisStateJson());
+            IncrementalAnalysis outcome = incremental.analyze(incident, previous, events);
+            return new AnalyzerOutput(outcome.result(), writeState(outcome.state()), cacheKey.orElse(null));
+        }
+        List<IncidentEvent> recentEvents = incidentEventRepository.findTop50ByIncidentIdOrderByOccurredAtDesc(incident.getId());
+        return new AnalyzerOutput(incidentAnalyzer.analyze(incident, recentEvents), null, cacheKey.orElse(null));
+    }
 
+    // 분석 결과 저장 + ANALYZED 전환. 호출 측 트랜잭션 안에서 incident 는 managed 여야 한다
+    IncidentAnalysis store(Incident incident, IncidentAnalysis existingAnalysis, AnalyzerOutput output) {
+        assertAnalyzableStatus(incident);
+        transitionIfNeeded(incident, IncidentStatus.ANALYZING);
+
+        IncidentAnalysisResult result = output.result();
         String keyEvidenceJson = toJson(result.keyEvidence());
         String suspectedRootCausesJson = toJson(result.suspectedRootCauses());
         String nextActionsJson = toJson(result.nextActions());
 
-        IncidentAnalysis analysis = existingAnalysis
-                .map(it -> {
-                    it.updateFrom(
-                            normalizeBlank(result.category()),
-                            normalizeBlank(result.severity()),
-                            normalizeBlank(result.title()),
-                            normalizeBlank(result.summary()),
-                            keyEvidenceJson,
-                            suspectedRootCausesJson,
-                            nextActionsJson,
-                            result.analyzedAt(),
-                            normalizeBlank(result.analyzerVersion())
-                    );
-                    return it;
-                })
-                .orElseGet(() -> new IncidentAnalysis(
-                        incident,
-                        normalizeBlank(result.category()),
-                        normalizeBlank(result.severity()),
-                        normalizeBlank(result.title()),
-                        normalizeBlank(result.summary()),
-                        keyEvidenceJson,
-                        suspectedRootCausesJson,
-                        nextActionsJson,
-                        result.analyzedAt(),
-                        normalizeBlank(result.analyzerVersion())
-                ));
+        IncidentAnalysis analysis;
+        if (existingAnalysis != null) {
+            analysis = existingAnalysis;
+            analysis.updateFrom(
+                    normalizeBlank(result.category()),
+                    normalizeBlank(result.severity()),
+                    normalizeBlank(result.title()),
+                    normalizeBlank(result.summary()),
+                    keyEvidenceJson,
+                    suspectedRootCausesJson,
+                    nextActionsJson,
+                    result.analyzedAt(),
+                    normalizeBlank(result.analyzerVersion())
+            );
+        } else {
+            analysis = new IncidentAnalysis(
+                    incident,
+                    normalizeBlank(result.category()),
+                    normalizeBlank(result.severity()),
+                    normalizeBlank(result.title()),
+                    normalizeBlank(result.summary()),
+                    keyEvidenceJson,
+                    suspectedRootCausesJson,
+                    nextActionsJson,
+                    result.analyzedAt(),
+                    normalizeBlank(result.analyzerVersion())
+            );
+        }
 
+        analysis.updateAnalysisState(output.analysisStateJson());
         IncidentAnalysis saved = incidentAnalysisRepository.save(analysis);
         transitionIfNeeded(incident, IncidentStatus.ANALYZED);
+        if (output.cacheKey() != null) {
+            // 롤백된 결과는 다른 incident 에 퍼뜨리지 않는다
+            AfterCommit.run(() -> analysisResultCache.put(output.cacheKey(), result));
+        }
         return saved;
     }
 
+    public static boolean isAnalyzable(IncidentStatus status) {
+        return status != IncidentStatus.RESOLVED && status != IncidentStatus.IGNORED;
+    }
+
+    // cacheKey: analyzer 가 새로 만든 결과를 저장 후 캐시에 올릴 key (캐시에서 가져왔거나 캐시하지 않으면 null)
+    record AnalyzerOutput(IncidentAnalysisResult result, String analysisStateJson, AnalysisResultCache.Key cacheKey) {
+    }
+
     private void assertAnalyzableStatus(Incident incident) {
         IncidentStatus status = incident.getStatus();
-        if (status == IncidentStatus.RESOLVED || status == IncidentStatus.IGNORED) {
+        if (!isAnalyzable(status)) {
             throw new IllegalStateException("Cannot analyze incident in status " + status);
         }
     }
@@ -129,6 +205,55 @@ public class IncidentAnalysisService {
         ));
     }
 
+    int bootstrapEvents() {
+        return bootstrapEvents;
+    }
+
+    AnalysisEventSource eventSource(long incidentId) {
+        return new AnalysisEventSource() {
+            @Override
+            public List<IncidentEventRow> latest() {
+                return incidentEventRepository.findLatestRowsById(
+                        incidentId, OCCURRENCE_EVENT_TYPES, Limit.of(bootstrapEvents));
+            }
+
+            @Override
+            public void forEachAfter(long afterEventId, Consumer<List<IncidentEventRow>> chunkConsumer) {
+                long cursor = afterEventId;
+                while (true) {
+                    List<IncidentEventRow> chunk = incidentEventRepository.findRowsAfterId(
+                            incidentId, OCCURRENCE_EVENT_TYPES, cursor, Limit.of(INCREMENTAL_CHUNK_SIZE));
+                    if (chunk.isEmpty()) {
+                        return;
+                    }
+                    chunkConsumer.accept(chunk);
+                    if (chunk.size() < INCREMENTAL_CHUNK_SIZE) {
+                        return;
+                    }
+                    cursor = chunk.get(chunk.size() - 1).id();
+                }
+            }
+        };
+    }
+
+    // 읽을 수 없는 상태는 버리고 새로 만든다
+    IncidentAnalysisState readState(String json) {
+        try {
+            return objectMapper.readValue(json, IncidentAnalysisState.class);
+        } catch (JsonProcessingException e) {
+            log.warn("discarding unreadable incident analysis state", e);
+            return null;
+        }
+    }
+
+    private String writeState(IncidentAnalysisState state) {
+        try {
+            return objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize incident analysis state", e);
+        }
+    }
+
     private String toJson(List<String> values) {
         try {
             return objectMapper.writeValueAsString(Objects.requireNonNullElse(values, List.of()));
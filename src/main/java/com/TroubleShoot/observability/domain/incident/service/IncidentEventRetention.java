@@ -0,0 +1,288 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventPartition;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRetentionRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventType;
+import com.troubleshoot.observability.domain.incident.persistence.ReclaimedEvents;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// incident_event 보존 기간 정리. type 별 ttl 이 지난 이벤트(created_at 기준)를 지운다.
+// PostgreSQL 에서 type -> created_at 파티션으로 바꾼 type 은 파티션을 미리 만들어 두고, 기간이 지난 파티션을 통째로 drop 한다
+// (lock_timeout 안에 lock 을 못 잡으면 다음 실행으로 미룬다). 파티션이 없으면(H2, 변환 전 테이블) 오래된 것부터
+// chunk 단위 짧은 DELETE 를 초당 행 수 상한에 맞춰 나눠 실행한다. 정리는 스케줄러 스레드가 아니라 전용 스레드에서 돈다
+@Component
+public class IncidentEventRetention {
+
+    private static final Logger log = LoggerFactory.getLogger(IncidentEventRetention.class);
+
+    private final IncidentEventRetentionRepository retentionRepository;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Map<IncidentEventType, Duration> ttls;
+    private final ChronoUnit partitionPeriod;
+    private final int partitionsAhead;
+    private final Duration lockTimeout;
+    private final int chunkSize;
+    private final long rowsPerSecond;
+    private final long maxRowsPerRun;
+
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Counter droppedRows;
+    private final Counter droppedBytes;
+    private final Counter deletedRows;
+    private final Counter deletedBytes;
+    private final Counter lockTimeouts;
+
+    @Autowired
+    public IncidentEventRetention(IncidentEventRepository retentionRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${observability.retention.enabled:false}") boolean enabled,
+                                  @Value("${observability.retention.ttl:EVENT_INGESTED=P30D,INCIDENT_CREATED=P365D,STATUS_CHANGED=P365D}") String[] ttls,
+                                  @Value("${observability.retention.partition.period:MONTHS}") ChronoUnit partitionPeriod,
+                                  @Value("${observability.retention.partition.create-ahead:2}") int partitionsAhead,
+                                  @Value("${observability.retention.partition.lock-timeout:PT0.5S}") Duration lockTimeout,
+                                  @Value("${observability.retention.delete.chunk-size:1000}") int chunkSize,
+                                  @Value("${observability.retention.delete.rows-per-second:5000}") long rowsPerSecond,
+                                  @Value("${observability.retention.delete.max-rows-per-run:1000000}") long maxRowsPerRun) {
+        this(retentionRepository, meterRegistry, enabled, parseTtls(ttls), partitionPeriod, partitionsAhead, lockTimeout,
+                chunkSize, rowsPerSecond, maxRowsPerRun, Clock.systemUTC());
+    }
+
+    public IncidentEventRetention(IncidentEventRetentionRepository retentionRepository,
+                                  MeterRegistry meterRegistry,
+                                  boolean enabled,
+                                  Map<IncidentEventType, Duration> ttls,
+                                  ChronoUnit partitionPeriod,
+                                  int partitionsAhead,
+                                  Duration lockTimeout,
+                                  int chunkSize,
+                                  long rowsPerSecond,
+                                  long maxRowsPerRun,
+                                  Clock clock) {
+        if (partitionPeriod != ChronoUnit.DAYS && partitionPeriod != ChronoUnit.MONTHS) {
+            throw new IllegalArgumentException("retention partition period must be DAYS or MONTHS: " + partitionPeriod);
+        }
+        if (partitionsAhead < 0 || lockTimeout.isNegative() || lockTimeout.isZero()
+                || chunkSize <= 0 || rowsPerSecond <= 0 || maxRowsPerRun <= 0) {
+            throw new IllegalArgumentException(
+                    "retention create-ahead, lock-timeout, chunk-size, rows-per-second and max-rows-per-run must be positive");
+        }
+        ttls.forEach((type, ttl) -> {
+            if (ttl.isNegative() || ttl.isZero()) {
+                throw new IllegalArgumentException("retention ttl must be positive: " + type + "=" + ttl);
+            }
+        });
+        this.retentionRepository = retentionRepository;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.ttls = ttls.isEmpty() ? Map.of() : new EnumMap<>(ttls);
+        this.partitionPeriod = partitionPeriod;
+        this.partitionsAhead = partitionsAhead;
+        this.lockTimeout = lockTimeout;
+        this.chunkSize = chunkSize;
+        this.rowsPerSecond = rowsPerSecond;
+        this.maxRowsPerRun = maxRowsPerRun;
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "event-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.droppedRows = reclaimed("retention.events.reclaimed.rows", "partition", meterRegistry);
+        this.droppedBytes = reclaimed("retention.events.reclaimed.bytes", "partition", meterRegistry);
+        this.deletedRows = reclaimed("retention.events.reclaimed.rows", "delete", meterRegistry);
+        this.deletedBytes = reclaimed("retention.events.reclaimed.bytes", "delete", meterRegistry);
+        this.lockTimeouts = Counter.builder("retention.partitions.lock.timeouts")
+                .description("Partition DDL given up because the lock was not granted within lock-timeout")
+                .register(meterRegistry);
+    }
+
+    // 스케줄러 스레드는 넘기기만 한다. 이전 실행이 아직 돌고 있으면 건너뛴다
+    @Scheduled(fixedDelayString = "${observability.retention.interval:PT1H}",
+            initialDelayString = "${observability.retention.initial-delay:PT5M}")
+    public void schedule() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                purge();
+            } catch (RuntimeException e) {
+                log.warn("incident_event retention run failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    public RetentionReport purge() {
+        Instant now = clock.instant();
+        Set<IncidentEventType> partitionedTypes = retentionRepository.findPartitionedTypes();
+
+        int created = 0;
+        int droppedCount = 0;
+        ReclaimedEvents dropped = ReclaimedEvents.NONE;
+        for (IncidentEventType type : partitionedTypes) {
+            List<IncidentEventPartition> partitions = new ArrayList<>(retentionRepository.findPartitions(type));
+            created += createAhead(type, partitions, now);
+
+            Duration ttl = ttls.get(type);
+            if (ttl == null) {
+                continue;
+            }
+            Instant cutoff = now.minus(ttl);
+            for (IncidentEventPartition partition : partitions) {
+                // 파티션 안의 가장 새 이벤트까지 기간이 지나야 drop 한다 (ttl + 파티션 기간까지 남을 수 있다)
+                if (partition.toInstant().isAfter(cutoff)) {
+                    continue;
+                }
+                ReclaimedEvents reclaimed = retentionRepository.dropPartition(partition, lockTimeout).orElse(null);
+                if (reclaimed == null) {
+                    lockTimeouts.increment();
+                    log.info("incident_event partition {} busy, retrying next run", partition.name());
+                    continue;
+                }
+                droppedCount++;
+                dropped = dropped.plus(reclaimed);
+                droppedRows.increment(reclaimed.rows());
+                droppedBytes.increment(reclaimed.bytes());
+            }
+        }
+
+        ReclaimedEvents deleted = ReclaimedEvents.NONE;
+        boolean backlog = false;
+        for (Map.Entry<IncidentEventType, Duration> entry : ttls.entrySet()) {
+            if (partitionedTypes.contains(entry.getKey())) {
+                continue;
+            }
+            long budget = maxRowsPerRun - deleted.rows();
+            if (budget <= 0) {
+                backlog = true;
+                break;
+            }
+            DeleteRun run = deleteExpired(entry.getKey(), now.minus(entry.getValue()), budget);
+            deleted = deleted.plus(run.reclaimed());
+            backlog |= run.backlog();
+            if (run.interrupted()) {
+                break;
+            }
+        }
+
+        RetentionReport report = new RetentionReport(created, droppedCount, dropped, deleted, backlog);
+        if (report.rowsReclaimed() > 0 || created > 0) {
+            log.info("incident_event retention: reclaimed {} rows / {} bytes ({} partitions dropped, {} rows deleted), "
+                            + "{} partitions created{}",
+                    report.rowsReclaimed(), report.bytesReclaimed(), droppedCount, deleted.rows(), created,
+                    backlog ? ", delete backlog left for next run" : "");
+        }
+        return report;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // 현재 기간 + partitionsAhead 기간 파티션. 범위가 겹치는 파티션이 이미 있으면(기간 설정 변경 등) 만들지 않는다
+    private int createAhead(IncidentEventType type, List<IncidentEventPartition> partitions, Instant now) {
+        LocalDate today = LocalDate.ofInstant(now, ZoneOffset.UTC);
+        LocalDate start = partitionPeriod == ChronoUnit.MONTHS ? today.withDayOfMonth(1) : today;
+        int created = 0;
+        for (int i = 0; i <= partitionsAhead; i++) {
+            LocalDate from = start.plus(i, partitionPeriod);
+            LocalDate to = from.plus(1, partitionPeriod);
+            if (partitions.stream().anyMatch(partition -> partition.overlaps(from, to))) {
+                continue;
+            }
+            IncidentEventPartition partition = IncidentEventPartition.of(type, from, to);
+            if (retentionRepository.createPartition(partition, lockTimeout)) {
+                partitions.add(partition);
+                created++;
+            } else {
+                lockTimeouts.increment();
+                log.info("incident_event partition {} not created (lock busy), retrying next run", partition.name());
+            }
+        }
+        return created;
+    }
+
+    // chunk 하나가 짧은 트랜잭션 하나. chunk 사이에 rowsPerSecond 에 맞춰 쉰다
+    private DeleteRun deleteExpired(IncidentEventType type, Instant cutoff, long budget) {
+        ReclaimedEvents total = ReclaimedEvents.NONE;
+        while (true) {
+            int limit = (int) Math.min(chunkSize, budget - total.rows());
+            if (limit <= 0) {
+                return new DeleteRun(total, true, false);
+            }
+            long started = System.nanoTime();
+            ReclaimedEvents chunk = retentionRepository.deleteOldest(type, cutoff, limit);
+            total = total.plus(chunk);
+            deletedRows.increment(chunk.rows());
+            deletedBytes.increment(chunk.bytes());
+            if (chunk.rows() < limit) {
+                return new DeleteRun(total, false, false);
+            }
+
+            long pauseMillis = chunk.rows() * 1000 / rowsPerSecond - (System.nanoTime() - started) / 1_000_000;
+            if (pauseMillis > 0) {
+                try {
+                    Thread.sleep(pauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return new DeleteRun(total, true, true);
+                }
+            }
+        }
+    }
+
+    // "EVENT_INGESTED=P30D" 형식. 없는 type 은 지우지 않는다
+    static Map<IncidentEventType, Duration> parseTtls(String[] entries) {
+        Map<IncidentEventType, Duration> ttls = new EnumMap<>(IncidentEventType.class);
+        for (String entry : entries) {
+            if (entry == null || entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("retention ttl must look like TYPE=Duration: " + entry);
+            }
+            IncidentEventType type = IncidentEventType.valueOf(entry.substring(0, separator).trim());
+            ttls.put(type, Duration.parse(entry.substring(separator + 1).trim()));
+        }
+        return ttls;
+    }
+
+    private static Counter reclaimed(String name, String method, MeterRegistry meterRegistry) {
+        return Counter.builder(name)
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+
+    private record DeleteRun(ReclaimedEvents reclaimed, boolean backlog, boolean interrupted) {
+    }
+}
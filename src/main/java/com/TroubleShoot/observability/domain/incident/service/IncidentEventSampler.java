@@ -0,0 +1,263 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEvent;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventType;
+import com.troubleshoot.observability.global.transaction.AfterCommit;
+import com.troubleshoot.observability.global.transaction.AfterRollback;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// incident 별 EVENT_INGESTED 저장 정책.
+// full-threshold 건까지는 전부 저장하고, 그 이후에는 시간 bucket 마다 첫/마지막 이벤트 + 크기 고정 reservoir 표본만 남긴다.
+// 나머지 발생은 incident 의 occurrence_count 로만 센다.
+// 이미 저장된 건수는 호출 측이 넘겨주는 발생 건수로 맞추므로, 재시작/idle 정리/다른 노드 처리 후에도 threshold 를 다시 채우지 않는다.
+// bucket 이 닫힐 때(다음 bucket 이벤트가 오거나 일정 시간 조용할 때) 표본을 한 번에 저장한다.
+@Component
+public class IncidentEventSampler {
+
+    private static final Logger log = LoggerFactory.getLogger(IncidentEventSampler.class);
+
+    // 이 시간 동안 새 이벤트가 없으면 incident 상태를 정리한다 (다시 오면 발생 건수로 저장 건수를 다시 맞춘다)
+    private static final long IDLE_EVICT_MILLIS = Duration.ofMinutes(30).toMillis();
+
+    private final IncidentRepository incidentRepository;
+    private final IncidentEventRepository incidentEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final long fullThreshold;
+    private final int reservoirSize;
+    private final long bucketMillis;
+
+    private final Map<Long, IncidentSampling> states = new ConcurrentHashMap<>();
+    private final Queue<SampledEvent> closed = new ConcurrentLinkedQueue<>();
+    private final Counter sampledOutCounter;
+
+    @Autowired
+    public IncidentEventSampler(IncidentRepository incidentRepository,
+                                IncidentEventRepository incidentEventRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${observability.events.sampling.full-threshold:1000}") long fullThreshold,
+                                @Value("${observability.events.sampling.reservoir-size:20}") int reservoirSize,
+                                @Value("${observability.events.sampling.bucket:PT1M}") Duration bucket) {
+        this(incidentRepository, incidentEventRepository, transactionManager, meterRegistry,
+                fullThreshold, reservoirSize, bucket, Clock.systemUTC());
+    }
+
+    public IncidentEventSampler(IncidentRepository incidentRepository,
+                                IncidentEventRepository incidentEventRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                long fullThreshold,
+                                int reservoirSize,
+                                Duration bucket,
+                                Clock clock) {
+        if (fullThreshold < 0 || reservoirSize < 0 || bucket.isNegative() || bucket.isZero()) {
+            throw new IllegalArgumentException("event sampling full-threshold, reservoir-size and bucket must be positive");
+        }
+        this.incidentRepository = incidentRepository;
+        this.incidentEventRepository = incidentEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.fullThreshold = fullThreshold;
+        this.reservoirSize = reservoirSize;
+        this.bucketMillis = bucket.toMillis();
+        this.sampledOutCounter = Counter.builder("incident.events.sampled_out")
+                .description("Grouped occurrences counted on the incident but not stored as events")
+                .register(meterRegistry);
+    }
+
+    // true 면 호출 측이 바로 저장한다. false 면 표본 후보로 넘어갔다 (커밋 이후 bucket 에 반영).
+    // occurrenceCount 는 이번 발생까지 포함한 incident 의 발생 건수
+    public boolean offer(long incidentId, long occurrenceCount, ErrorEvent errorEvent) {
+        IncidentSampling state = states.computeIfAbsent(incidentId, id -> new IncidentSampling());
+        if (state.admitFull(fullThreshold, occurrenceCount, clock.millis())) {
+            // 저장이 롤백되면 threshold 자리도 돌려준다
+            AfterRollback.run(state::releaseFull);
+            return true;
+        }
+        SampledEvent sampled = new SampledEvent(incidentId, errorEvent.getOccurredAt(),
+                errorEvent.getTraceId(), errorEvent.getMessage());
+        AfterCommit.run(() -> sample(sampled));
+        return false;
+    }
+
+    // 커밋을 기다리는 사이 flush 가 상태를 정리했으면 새 상태에 넣는다 (정리된 상태에 넣으면 다시 닫히지 않는다)
+    private void sample(SampledEvent sampled) {
+        while (!states.computeIfAbsent(sampled.incidentId(), id -> new IncidentSampling())
+                .sample(sampled, bucketMillis, reservoirSize, closed, sampledOutCounter)) {
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${observability.events.sampling.flush-interval:PT5S}")
+    public void flush() {
+        long now = clock.millis();
+        for (Iterator<Map.Entry<Long, IncidentSampling>> it = states.entrySet().iterator(); it.hasNext(); ) {
+            IncidentSampling state = it.next().getValue();
+            // 한 bucket 길이 이상 조용하면 열린 bucket 을 닫는다
+            if (now - state.lastOfferedMillis() >= bucketMillis) {
+                state.closeBucket(closed);
+            }
+            if (now - state.lastOfferedMillis() >= IDLE_EVICT_MILLIS) {
+                it.remove();
+                state.retire(closed);
+            }
+        }
+        write();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        states.values().forEach(state -> state.closeBucket(closed));
+        write();
+    }
+
+    private void write() {
+        List<SampledEvent> batch = new ArrayList<>();
+        SampledEvent next;
+        while ((next = closed.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> incidentEventRepository.saveAll(
+                    batch.stream()
+                            .map(sampled -> new IncidentEvent(
+                                    incidentRepository.getReferenceById(sampled.incidentId()),
+                                    IncidentEventType.EVENT_INGESTED,
+                                    null,
+                                    sampled.occurredAt(),
+                                    sampled.traceId(),
+                                    sampled.message()))
+                            .toList()));
+        } catch (RuntimeException e) {
+            // 표본은 다시 만들 수 없는 보조 데이터라 재시도하지 않는다 (발생 건수는 카운터에 이미 반영됨)
+            log.warn("failed to store {} sampled incident events", batch.size(), e);
+        }
+    }
+
+    private record SampledEvent(long incidentId, Instant occurredAt, String traceId, String message) {
+    }
+
+    // incident 하나의 저장 건수와 현재 bucket. bucket 갱신은 상태 객체 단위로 직렬화한다
+    private static final class IncidentSampling {
+        private long admitted;
+        private volatile long lastOfferedMillis;
+        private boolean retired;
+
+        private long bucketStart = Long.MIN_VALUE;
+        private SampledEvent first;
+        private SampledEvent last;
+        private SampledEvent[] reservoir;
+        private long seenInBucket;
+
+        private synchronized boolean admitFull(long fullThreshold, long occurrenceCount, long now) {
+            lastOfferedMillis = now;
+            // 이번 발생과 항상 저장되는 생성 이벤트를 뺀 이전 발생은 이미 threshold 자리를 쓴 것으로 본다
+            admitted = Math.max(admitted, occurrenceCount - 2);
+            if (admitted < fullThreshold) {
+                admitted++;
+                return true;
+            }
+            return false;
+        }
+
+        private synchronized void releaseFull() {
+            admitted--;
+        }
+
+        private long lastOfferedMillis() {
+            return lastOfferedMillis;
+        }
+
+        // 이미 정리된 상태면 false
+        private synchronized boolean sample(SampledEvent event, long bucketMillis, int reservoirSize,
+                                            Queue<SampledEvent> closed, Counter sampledOut) {
+            if (retired) {
+                return false;
+            }
+            long start = Math.floorDiv(event.occurredAt().toEpochMilli(), bucketMillis) * bucketMillis;
+            // 늦게 도착한 이전 bucket 이벤트는 현재 bucket 표본 후보로 본다
+            if (start > bucketStart) {
+                closeBucket(closed);
+                bucketStart = start;
+            }
+            if (reservoir == null) {
+                reservoir = new SampledEvent[reservoirSize];
+            }
+
+            if (first == null) {
+                first = event;
+                return true;
+            }
+            // last 자리를 넘겨받은 이전 last 는 reservoir 후보가 된다
+            SampledEvent candidate = last;
+            last = event;
+            if (candidate == null) {
+                return true;
+            }
+            // Algorithm R: 후보 k 번째는 size/k 확률로 reservoir 에 남는다
+            seenInBucket++;
+            if (seenInBucket <= reservoir.length) {
+                reservoir[(int) seenInBucket - 1] = candidate;
+                return true;
+            }
+            long slot = ThreadLocalRandom.current().nextLong(seenInBucket);
+            if (slot < reservoir.length) {
+                reservoir[(int) slot] = candidate;
+            }
+            sampledOut.increment();
+            return true;
+        }
+
+        private synchronized void retire(Queue<SampledEvent> closed) {
+            retired = true;
+            closeBucket(closed);
+        }
+
+        private synchronized void closeBucket(Queue<SampledEvent> closed) {
+            if (first == null) {
+                return;
+            }
+            closed.add(first);
+            if (reservoir != null) {
+                for (SampledEvent sampled : reservoir) {
+                    if (sampled != null) {
+                        closed.add(sampled);
+                    }
+                }
+            }
+            if (last != null) {
+                closed.add(last);
+            }
+            first = null;
+            last = null;
+            reservoir = null;
+            seenInBucket = 0;
+        }
+    }
+}
@@ -3,86 +3,218 @@ package com.troubleshoot.observability.domain.incident.service;
 import com.troubleshoot.observability.domain.incident.Incident;
 import com.troubleshoot.observability.domain.incident.IncidentStatus;
 import com.troubleshoot.observability.domain.incident.grouping.ExceptionSignature;
+import com.troubleshoot.observability.domain.incident.grouping.ExceptionSignatureFactory;
+import com.troubleshoot.observability.domain.incident.grouping.GroupingKey;
+import com.troubleshoot.observability.domain.incident.grouping.GroupingRule;
+import com.troubleshoot.observability.domain.incident.grouping.OpenIncidentIndex;
+import com.troubleshoot.observability.domain.incident.infra.GroupableIncident;
 import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
+import com.troubleshoot.observability.domain.incident.infra.OpenIncidentUpsert;
 import com.troubleshoot.observability.domain.incident.persistence.IncidentEvent;
 import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRepository;
 import com.troubleshoot.observability.domain.incident.persistence.IncidentEventType;
-import java.time.Duration;
+import com.troubleshoot.observability.global.transaction.AfterCommit;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class IncidentGroupingService {
 
-    private static final Duration WINDOW = Duration.ofMinutes(5);
-
     private final IncidentRepository incidentRepository;
     private final IncidentEventRepository incidentEventRepository;
+    private final OpenIncidentIndex openIncidentIndex;
+    private final OccurrenceCounterBuffer occurrenceCounterBuffer;
+    private final ExceptionSignatureFactory exceptionSignatureFactory;
+    private final IncidentEventSampler incidentEventSampler;
+    private final OccurrenceRollupBuffer occurrenceRollupBuffer;
+    private final AnalysisTriggerEngine analysisTriggerEngine;
 
     public IncidentGroupingService(IncidentRepository incidentRepository,
-                                   IncidentEventRepository incidentEventRepository) {
+                                   IncidentEventRepository incidentEventRepository,
+                                   OpenIncidentIndex openIncidentIndex,
+                                   OccurrenceCounterBuffer occurrenceCounterBuffer,
+                                   ExceptionSignatureFactory exceptionSignatureFactory,
+                                   IncidentEventSampler incidentEventSampler,
+                                   OccurrenceRollupBuffer occurrenceRollupBuffer,
+                                   AnalysisTriggerEngine analysisTriggerEngine) {
         this.incidentRepository = incidentRepository;
         this.incidentEventRepository = incidentEventRepository;
+        this.openIncidentIndex = openIncidentIndex;
+        this.occurrenceCounterBuffer = occurrenceCounterBuffer;
+        this.exceptionSignatureFactory = exceptionSignatureFactory;
+        this.incidentEventSampler = incidentEventSampler;
+        this.occurrenceRollupBuffer = occurrenceRollupBuffer;
+        this.analysisTriggerEngine = analysisTriggerEngine;
     }
 
     @Transactional
-    public Incident handle(ErrorEvent errorEvent) {
+    public GroupingResult handle(ErrorEvent errorEvent) {
         Objects.requireNonNull(errorEvent, "errorEvent");
+        return handleBatch(List.of(errorEvent)).get(0);
+    }
+
+    // 배치를 (serviceName, signatureHash) 로 먼저 묶어서 signature 당 create-or-increment 최대 1회로 처리.
+    // 결과는 요청 순서를 그대로 유지한다.
+    @Transactional
+    public List<GroupingResult> handleBatch(List<ErrorEvent> errorEvents) {
+        Objects.requireNonNull(errorEvents, "errorEvents");
+
+        Map<GroupingKey, List<Integer>> positionsByKey = new LinkedHashMap<>();
+        Map<GroupingKey, String> compatHashes = new HashMap<>();
+        for (int i = 0; i < errorEvents.size(); i++) {
+            ErrorEvent errorEvent = Objects.requireNonNull(errorEvents.get(i), "errorEvent");
+            ExceptionSignature signature = exceptionSignatureFactory.fromStacktrace(errorEvent.getStacktrace());
+            GroupingKey key = new GroupingKey(errorEvent.getServiceName(), signature.getSignatureHash());
+            positionsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            String compatHash = exceptionSignatureFactory.compatHash(signature);
+            if (compatHash != null) {
+                compatHashes.putIfAbsent(key, compatHash);
+            }
+        }
+
+        GroupingResult[] results = new GroupingResult[errorEvents.size()];
+        List<IncidentEvent> incidentEvents = new ArrayList<>(errorEvents.size());
+
+        // key 순서를 고정해서 동시에 들어온 배치끼리 incident 행 lock 순서가 엇갈리지 않게 한다
+        List<Map.Entry<GroupingKey, List<Integer>>> groups = new ArrayList<>(positionsByKey.entrySet());
+        groups.sort(Map.Entry.comparingByKey(
+                Comparator.comparing(GroupingKey::serviceName).thenComparing(GroupingKey::signatureHash)));
+
+        for (Map.Entry<GroupingKey, List<Integer>> entry : groups) {
+            GroupingKey key = entry.getKey();
+            List<Integer> positions = entry.getValue();
+            positions.sort(Comparator.comparing(position -> errorEvents.get(position).getOccurredAt()));
+
+            // 인덱스에 있으면 DB 를 거치지 않는다. 알고리즘 전환 중이면 예전 hash 로 열린 incident 도 본다
+            String compatHash = compatHashes.get(key);
+            Instant firstOccurredAt = errorEvents.get(positions.get(0)).getOccurredAt();
+            Run run = indexedRun(key, firstOccurredAt);
+            if (run == null && compatHash != null) {
+                run = indexedRun(new GroupingKey(key.serviceName(), compatHash), firstOccurredAt);
+            }
+
+            for (int position : positions) {
+                ErrorEvent errorEvent = errorEvents.get(position);
+
+                if (run != null && GroupingRule.isWithinWindow(run.lastSeenAt, errorEvent.getOccurredAt())) {
+                    run.add(errorEvent.getOccurredAt());
+                    addEvent(incidentEvents, run, IncidentEventType.EVENT_INGESTED, errorEvent);
+                    results[position] = new GroupingResult(run.incident.getId(), run.status, true);
+                    continue;
+                }
+
+                // 같은 key 안에서도 WINDOW 이상 벌어지면 새 incident 로 분리 (단건 처리와 동일한 규칙)
+                closeRun(key, run);
+                OpenIncidentUpsert upsert = upsertOpenIncident(key, compatHash, errorEvent);
+                run = new Run(incidentRepository.getReferenceById(upsert.incidentId()), upsert.lastSeenAt(), upsert.status(),
+                        occurrenceCount(upsert.incidentId(), upsert.occurrenceCount()));
+                IncidentEventType type = upsert.created()
+                        ? IncidentEventType.INCIDENT_CREATED
+                        : IncidentEventType.EVENT_INGESTED;
+                addEvent(incidentEvents, run, type, errorEvent);
+                results[position] = new GroupingResult(upsert.incidentId(), upsert.status(), !upsert.created());
+            }
+            closeRun(key, run);
+        }
+
+        incidentEventRepository.saveAll(incidentEvents);
 
-        ExceptionSignature signature = ExceptionSignature.fromStacktrace(errorEvent.getStacktrace());
-        String signatureHash = signature.getSignatureHash();
-
-        Instant threshold = errorEvent.getOccurredAt().minus(WINDOW);
-
-        Optional<Incident> existing = incidentRepository
-                .findFirstByServiceNameAndSignatureHashAndStatusAndLastSeenAtAfter(
-                        errorEvent.getServiceName(),
-                        signatureHash,
-                        IncidentStatus.OPEN,
-                        threshold
-                );
-
-        if (existing.isPresent()) {
-            Incident incident = existing.get();
-            incident.recordOccurrence(errorEvent.getOccurredAt());
-            incidentEventRepository.save(new IncidentEvent(
-                    incident,
-                    IncidentEventType.EVENT_INGESTED,
-                    null,
-                    errorEvent.getOccurredAt(),
-                    errorEvent.getTraceId(),
-                    errorEvent.getMessage()
-            ));
-            return incident;
+        // 분 단위 rollup 과 자동 분석 trigger 도 커밋 이후 메모리에만 반영 (DB 쓰기/판정은 각자 주기적으로)
+        OccurrenceRollupBuffer.Tally tally = occurrenceRollupBuffer.newTally();
+        Map<Long, Integer> occurrencesByIncident = new HashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            ErrorEvent errorEvent = errorEvents.get(i);
+            tally.add(results[i].incidentId(), errorEvent.getServiceName(), errorEvent.getOccurredAt());
+            occurrencesByIncident.merge(results[i].incidentId(), 1, Integer::sum);
+        }
+        occurrenceRollupBuffer.record(tally);
+        analysisTriggerEngine.record(occurrencesByIncident);
+        return Arrays.asList(results);
+    }
+
+    // 예전 hash 의 incident 가 WINDOW 안에 열려 있으면 거기에 +1, 없을 때만 현재 hash 로 create-or-increment
+    private OpenIncidentUpsert upsertOpenIncident(GroupingKey key, String compatHash, ErrorEvent errorEvent) {
+        Instant threshold = GroupingRule.threshold(errorEvent.getOccurredAt());
+        if (compatHash != null) {
+            OpenIncidentUpsert compat = incidentRepository.incrementOpenIncident(
+                    key.serviceName(), compatHash, errorEvent.getOccurredAt(), threshold);
+            if (compat != null) {
+                return compat;
+            }
+        }
+        return incidentRepository.upsertOpenIncident(newIncident(errorEvent, key.signatureHash()), threshold);
+    }
+
+    private Run indexedRun(GroupingKey key, Instant occurredAt) {
+        OpenIncidentIndex.IndexedIncident indexed = openIncidentIndex.find(key, occurredAt);
+        if (indexed == null) {
+            return null;
+        }
+        // 인덱스만으로는 종결 여부를 알 수 없다 (다른 노드의 종결, 커밋 전 eviction). 행 lock 으로 한 번 확인
+        GroupableIncident groupable = incidentRepository.lockGroupableIncident(indexed.incidentId());
+        if (groupable == null) {
+            openIncidentIndex.invalidate(indexed.incidentId());
+            return null;
         }
+        return new Run(incidentRepository.getReferenceById(indexed.incidentId()), indexed.lastSeenAt(),
+                groupable.status(), occurrenceCount(indexed.incidentId(), groupable.occurrenceCount()));
+    }
+
+    // DB 값에 아직 flush 되지 않은 write-behind 건수를 더한 발생 건수 (sampler 의 full-threshold 판단용)
+    private long occurrenceCount(Long incidentId, long persistedCount) {
+        return occurrenceCounterBuffer.pendingFor(incidentId).mergeCount(persistedCount);
+    }
 
-        String sampleMessage = normalizeOptional(errorEvent.getMessage());
-        String primaryTraceId = normalizeOptional(errorEvent.getTraceId());
+    // 추가 발생 건수는 엔티티를 건드리지 않고 write-behind 카운터로 넘긴다.
+    // 카운터/인덱스 모두 커밋 이후에 반영해서 다른 트랜잭션이 아직 보이지 않는 incident 를 참조하지 않게 한다.
+    private void closeRun(GroupingKey key, Run run) {
+        if (run == null) {
+            return;
+        }
+        Long incidentId = run.incident.getId();
+        Instant lastSeenAt = run.lastSeenAt;
+        occurrenceCounterBuffer.record(incidentId, run.pendingOccurrences, lastSeenAt);
+        AfterCommit.run(() -> openIncidentIndex.put(key, incidentId, lastSeenAt));
+    }
 
-        Incident incident = new Incident(
+    private Incident newIncident(ErrorEvent errorEvent, String signatureHash) {
+        return new Incident(
                 errorEvent.getServiceName(),
                 signatureHash,
                 errorEvent.getExceptionClass(),
                 errorEvent.getOccurredAt(),
-                primaryTraceId,
-                sampleMessage
+                normalizeOptional(errorEvent.getTraceId()),
+                normalizeOptional(errorEvent.getMessage())
         );
+    }
 
-        incident = incidentRepository.save(incident);
+    // 생성 이벤트는 항상 저장, 이후 발생은 sampler 정책에 따라 저장하거나 표본 후보로 넘긴다
+    private void addEvent(List<IncidentEvent> incidentEvents, Run run,
+                          IncidentEventType type, ErrorEvent errorEvent) {
+        if (type == IncidentEventType.INCIDENT_CREATED
+                || incidentEventSampler.offer(run.incident.getId(), run.occurrenceCount, errorEvent)) {
+            incidentEvents.add(toIncidentEvent(run.incident, type, errorEvent));
+        }
+    }
 
-        incidentEventRepository.save(new IncidentEvent(
+    private IncidentEvent toIncidentEvent(Incident incident, IncidentEventType type, ErrorEvent errorEvent) {
+        return new IncidentEvent(
                 incident,
-                IncidentEventType.INCIDENT_CREATED,
+                type,
                 null,
                 errorEvent.getOccurredAt(),
                 errorEvent.getTraceId(),
                 errorEvent.getMessage()
-        ));
-
-        return incident;
+        );
     }
 
     private String normalizeOptional(String value) {
@@ -91,4 +223,29 @@ public class IncidentGroupingService {
         }
         return value;
     }
+
+    // 한 key 에 대해 같은 incident 로 묶이는 연속 구간. 발생 건수는 구간이 끝날 때 한 번에 반영한다.
+    private static final class Run {
+        private final Incident incident;
+        private final IncidentStatus status;
+        private Instant lastSeenAt;
+        private int pendingOccurrences;
+        // 지금 처리 중인 발생까지 포함한 건수
+        private long occurrenceCount;
+
+        private Run(Incident incident, Instant lastSeenAt, IncidentStatus status, long occurrenceCount) {
+            this.incident = incident;
+            this.lastSeenAt = lastSeenAt;
+            this.status = status;
+            this.occurrenceCount = occurrenceCount;
+        }
+
+        private void add(Instant occurredAt) {
+            pendingOccurrences++;
+            occurrenceCount++;
+            if (lastSeenAt == null || occurredAt.isAfter(lastSeenAt)) {
+                lastSeenAt = occurredAt;
+            }
+        }
+    }
 }
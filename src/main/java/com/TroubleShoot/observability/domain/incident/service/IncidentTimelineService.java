@@ -0,0 +1,56 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventCursor;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRow;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// incident 이벤트 timeline 조회. 전체 목록을 한 번에 올리지 않고 최근 N건 / cursor 페이지 / 스트리밍으로 나눈다
+@Service
+public class IncidentTimelineService {
+
+    private final IncidentEventRepository incidentEventRepository;
+
+    public IncidentTimelineService(IncidentEventRepository incidentEventRepository) {
+        this.incidentEventRepository = incidentEventRepository;
+    }
+
+    // 최근 limit 건을 시간 순(오래된 것부터)으로
+    @Transactional(readOnly = true)
+    public List<IncidentEventRow> recentEvents(long incidentId, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        List<IncidentEventRow> rows = new ArrayList<>(incidentEventRepository.findRecentRows(incidentId, Limit.of(limit)));
+        Collections.reverse(rows);
+        return rows;
+    }
+
+    @Transactional(readOnly = true)
+    public List<IncidentEventRow> page(long incidentId, IncidentEventCursor after, int limit) {
+        IncidentEventCursor from = after == null ? IncidentEventCursor.START : after;
+        return incidentEventRepository.findRowsAfter(incidentId, from.occurredAt(), from.id(), Limit.of(limit));
+    }
+
+    // after 이후 이벤트를 한 건씩 sink 로 넘긴다. 반환값은 넘긴 건수
+    @Transactional(readOnly = true)
+    public long stream(long incidentId, IncidentEventCursor after, Consumer<IncidentEventRow> sink) {
+        IncidentEventCursor from = after == null ? IncidentEventCursor.START : after;
+        long count = 0;
+        try (Stream<IncidentEventRow> rows =
+                     incidentEventRepository.streamRowsAfter(incidentId, from.occurredAt(), from.id())) {
+            for (IncidentEventRow row : (Iterable<IncidentEventRow>) rows::iterator) {
+                sink.accept(row);
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,570 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+// wal 모드 ingestion: 이벤트를 로컬 append-only 로그에 fsync 한 뒤에 응답하고, DB 반영은 IngestionWalReplayer 가 순서대로 한다.
+// wal-<n>.log segment 에 [length][crc32][payload] 레코드를 이어 쓰고 segment-bytes 를 넘으면 다음 segment 로 넘어간다.
+// 쓰기는 writer 스레드 하나가 맡아서, 앞선 fsync 동안 쌓인 요청을 한 번의 write + fsync 로 묶는다 (group commit).
+// checkpoint 파일은 DB 에 반영된 위치. 그 앞 segment 는 지운다. 기동 시 마지막 segment 의 깨진 꼬리(쓰다 멈춘 레코드)는 잘라낸다
+@Component
+public class IngestionWal implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionWal.class);
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_VERSION = 1;
+    private static final int CHECKPOINT_MAGIC = 0x4957434b; // "IWCK"
+    private static final String CHECKPOINT = "checkpoint";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("wal-(\\d+)\\.log");
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentBytes;
+    private final int maxSyncBatch;
+    private final Duration appendTimeout;
+    private final BlockingQueue<PendingWrite> queue;
+
+    // writer 스레드만 만진다
+    private FileChannel channel;
+    private long segment;
+    private long segmentSize;
+    private long unsyncedRecords;
+
+    // durable: fsync 까지 끝난 끝 위치 (replayer 는 여기까지만 읽는다), checkpoint: DB 에 반영된 위치
+    private volatile WalPosition durable = WalPosition.START;
+    private volatile WalPosition checkpoint = WalPosition.START;
+    private final AtomicLong backlog = new AtomicLong();
+
+    private final Counter appendedCounter;
+    private final Counter rejectedCounter;
+    private final Counter rotationCounter;
+    private final Timer syncTimer;
+    private final DistributionSummary syncBatch;
+
+    private Thread writer;
+    private volatile boolean running;
+
+    @Autowired
+    public IngestionWal(MeterRegistry meterRegistry,
+                        @Value("${observability.ingestion.mode:sync}") String mode,
+                        @Value("${observability.ingestion.wal.directory:./data/ingestion-wal}") Path directory,
+                        @Value("${observability.ingestion.wal.segment-bytes:67108864}") long segmentBytes,
+                        @Value("${observability.ingestion.wal.queue-capacity:10000}") int queueCapacity,
+                        @Value("${observability.ingestion.wal.max-sync-batch:1000}") int maxSyncBatch,
+                        @Value("${observability.ingestion.wal.append-timeout:PT5S}") Duration appendTimeout) {
+        this(meterRegistry, "wal".equalsIgnoreCase(mode), directory, segmentBytes, queueCapacity, maxSyncBatch,
+                appendTimeout);
+    }
+
+    public IngestionWal(MeterRegistry meterRegistry,
+                        boolean enabled,
+                        Path directory,
+                        long segmentBytes,
+                        int queueCapacity,
+                        int maxSyncBatch,
+                        Duration appendTimeout) {
+        if (segmentBytes <= HEADER_BYTES || queueCapacity <= 0 || maxSyncBatch <= 0
+                || appendTimeout.isNegative() || appendTimeout.isZero()) {
+            throw new IllegalArgumentException("wal segment-bytes, queue-capacity, max-sync-batch and append-timeout must be positive");
+        }
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSyncBatch = maxSyncBatch;
+        this.appendTimeout = appendTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (enabled) {
+            try {
+                recover();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open ingestion wal at " + directory, e);
+            }
+        }
+
+        Gauge.builder("ingestion.wal.backlog", backlog, AtomicLong::get)
+                .description("Error events written to the wal but not yet grouped")
+                .register(meterRegistry);
+        this.appendedCounter = Counter.builder("ingestion.wal.appended").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("ingestion.wal.rejected")
+                .description("Error events not acknowledged because the wal write failed, timed out or was full")
+                .register(meterRegistry);
+        this.rotationCounter = Counter.builder("ingestion.wal.rotations").register(meterRegistry);
+        this.syncTimer = Timer.builder("ingestion.wal.sync.duration").register(meterRegistry);
+        this.syncBatch = DistributionSummary.builder("ingestion.wal.sync.batch")
+                .description("Append requests covered by one fsync")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // fsync 까지 끝나면 events.size(), 아니면 0 (전부 아니면 전무). 시간 초과로 0 을 돌려준 요청도 나중에 디스크에
+    // 기록될 수 있으므로 재전송되면 중복될 수 있다 (at-least-once)
+    public int append(List<ErrorEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        PendingWrite write = new PendingWrite(encode(events), events.size(), new CompletableFuture<>());
+        if (!running || !queue.offer(write)) {
+            rejectedCounter.increment(events.size());
+            return 0;
+        }
+        try {
+            if (write.done().get(appendTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                appendedCounter.increment(events.size());
+                return events.size();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("wal append of {} events was not acknowledged", events.size(), e);
+        }
+        rejectedCounter.increment(events.size());
+        return 0;
+    }
+
+    public long backlog() {
+        return backlog.get();
+    }
+
+    public WalPosition checkpoint() {
+        return checkpoint;
+    }
+
+    // checkpoint 부터 fsync 된 곳까지 최대 maxEvents 건
+    public WalBatch read(int maxEvents) {
+        WalPosition from = checkpoint;
+        WalPosition limit = durable;
+        WalPosition position = from;
+        List<ErrorEvent> events = new ArrayList<>();
+        try {
+            while (events.size() < maxEvents && position.compareTo(limit) < 0) {
+                Path file = segmentPath(position.segment());
+                long end = position.segment() == limit.segment() ? limit.offset() : Files.size(file);
+                if (position.offset() >= end) {
+                    // 다 읽은 segment -> 다음 segment 처음
+                    position = new WalPosition(position.segment() + 1, 0);
+                    continue;
+                }
+                try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                    long offset = position.offset();
+                    while (events.size() < maxEvents && offset < end) {
+                        byte[] payload = readRecord(in, offset, end);
+                        if (payload == null) {
+                            throw new IllegalStateException("Corrupt wal record in " + file + " at " + offset);
+                        }
+                        events.add(decode(payload));
+                        offset += HEADER_BYTES + payload.length;
+                    }
+                    position = new WalPosition(position.segment(), offset);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read ingestion wal", e);
+        }
+        return new WalBatch(from, position, events);
+    }
+
+    // batch 가 DB 에 반영됐다. checkpoint 를 옮기고 그 앞 segment 는 지운다
+    public synchronized void commit(WalBatch batch) {
+        if (!batch.from().equals(checkpoint)) {
+            throw new IllegalStateException("wal batch from " + batch.from() + " does not start at checkpoint " + checkpoint);
+        }
+        try {
+            writeCheckpoint(batch.next());
+            checkpoint = batch.next();
+            backlog.addAndGet(-batch.size());
+            for (long old : segments()) {
+                if (old < batch.next().segment()) {
+                    Files.deleteIfExists(segmentPath(old));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write ingestion wal checkpoint", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "ingestion-wal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("ingestion wal started: directory={}, durable={}, checkpoint={}, backlog={}",
+                directory, durable, checkpoint, backlog.get());
+    }
+
+    // 큐에 들어온 쓰기는 마저 fsync 하고 닫는다. 반영 안 된 이벤트는 다음 기동 때 replay 된다
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("ingestion wal writer did not stop within {}ms", SHUTDOWN_TIMEOUT_MILLIS);
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("failed to close ingestion wal segment", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>(maxSyncBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxSyncBatch - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        try {
+            for (PendingWrite pending : batch) {
+                if (segmentSize > 0 && segmentSize + pending.bytes().length > segmentBytes) {
+                    rotate();
+                }
+                writeFully(channel, pending.bytes(), segmentSize);
+                segmentSize += pending.bytes().length;
+                unsyncedRecords += pending.records();
+            }
+            syncTimer.record(() -> force(channel));
+            synced();
+            syncBatch.record(batch.size());
+            batch.forEach(pending -> pending.done().complete(true));
+        } catch (IOException | UncheckedIOException e) {
+            log.error("failed to write {} wal appends", batch.size(), e);
+            // fsync 되지 않은 꼬리는 잘라서 다음 쓰기가 깨진 레코드 뒤에 붙지 않게 한다
+            long keep = durable.segment() == segment ? durable.offset() : 0;
+            try {
+                channel.truncate(keep);
+                segmentSize = keep;
+            } catch (IOException truncateFailure) {
+                log.error("failed to truncate wal segment {} to {}", segment, keep, truncateFailure);
+            }
+            unsyncedRecords = 0;
+            batch.forEach(pending -> pending.done().complete(false));
+        }
+    }
+
+    private void rotate() throws IOException {
+        channel.force(false);
+        synced();
+        channel.close();
+        segment++;
+        segmentSize = 0;
+        channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        forceDirectory();
+        rotationCounter.increment();
+    }
+
+    private void synced() {
+        durable = new WalPosition(segment, segmentSize);
+        backlog.addAndGet(unsyncedRecords);
+        unsyncedRecords = 0;
+    }
+
+    // checkpoint 이후를 검증하면서 backlog 를 세고, 깨진 꼬리를 잘라낸 뒤 마지막 segment 에 이어 쓴다
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        Files.deleteIfExists(directory.resolve(CHECKPOINT + ".tmp"));
+        WalPosition from = readCheckpoint().orElse(WalPosition.START);
+
+        List<Long> segments = segments();
+        if (segments.isEmpty() || segments.get(segments.size() - 1) < from.segment()) {
+            // checkpoint 까지 전부 반영돼서 지워진 상태
+            Files.createFile(segmentPath(from.segment()));
+            segments = List.of(from.segment());
+            from = new WalPosition(from.segment(), 0);
+        } else if (segments.get(0) > from.segment()) {
+            log.warn("ingestion wal checkpoint {} is older than the first segment {}", from, segments.get(0));
+            from = new WalPosition(segments.get(0), 0);
+        }
+
+        long pending = 0;
+        for (long current : segments) {
+            Path file = segmentPath(current);
+            if (current < from.segment()) {
+                Files.deleteIfExists(file);
+                continue;
+            }
+            long start = current == from.segment() ? Math.min(from.offset(), Files.size(file)) : 0;
+            if (current == from.segment()) {
+                from = new WalPosition(current, start);
+            }
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long size = in.size();
+                long offset = start;
+                byte[] payload;
+                while ((payload = readRecord(in, offset, size)) != null) {
+                    offset += HEADER_BYTES + payload.length;
+                    pending++;
+                }
+                if (offset < size) {
+                    log.warn("truncating {} bytes of incomplete wal records in {}", size - offset, file);
+                    in.truncate(offset);
+                    in.force(true);
+                }
+            }
+        }
+
+        segment = segments.get(segments.size() - 1);
+        channel = FileChannel.open(segmentPath(segment), StandardOpenOption.WRITE);
+        segmentSize = channel.size();
+        durable = new WalPosition(segment, segmentSize);
+        checkpoint = from;
+        backlog.set(pending);
+    }
+
+    // [length][crc32][payload] 하나. 끝까지 못 읽거나 crc 가 맞지 않으면 null
+    private static byte[] readRecord(FileChannel in, long offset, long end) throws IOException {
+        if (end - offset < HEADER_BYTES) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(in, header, offset);
+        int length = header.getInt(0);
+        int crc = header.getInt(4);
+        if (length <= 0 || length > end - offset - HEADER_BYTES) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(in, payload, offset + HEADER_BYTES);
+        return crc32(payload.array()) == crc ? payload.array() : null;
+    }
+
+    private Optional<WalPosition> readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)));
+        try {
+            int magic = in.readInt();
+            long checkpointSegment = in.readLong();
+            long checkpointOffset = in.readLong();
+            int crc = in.readInt();
+            if (magic == CHECKPOINT_MAGIC && crc == checkpointCrc(checkpointSegment, checkpointOffset)) {
+                return Optional.of(new WalPosition(checkpointSegment, checkpointOffset));
+            }
+        } catch (IOException e) {
+            // 아래에서 처음부터 replay
+        }
+        log.warn("ignoring unreadable ingestion wal checkpoint {}, replaying from the first segment", file);
+        return Optional.empty();
+    }
+
+    // tmp 에 쓰고 fsync 후 rename (반쯤 쓴 checkpoint 가 남지 않게)
+    private void writeCheckpoint(WalPosition position) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(24)
+                .putInt(CHECKPOINT_MAGIC)
+                .putLong(position.segment())
+                .putLong(position.offset())
+                .putInt(checkpointCrc(position.segment(), position.offset()));
+        Path tmp = directory.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(out, bytes.array(), 0);
+            out.force(true);
+        }
+        Files.move(tmp, directory.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int checkpointCrc(long checkpointSegment, long checkpointOffset) {
+        return crc32(ByteBuffer.allocate(16).putLong(checkpointSegment).putLong(checkpointOffset).array());
+    }
+
+    private List<Long> segments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(Long.parseLong(matcher.group(1)));
+                }
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve("wal-%016d.log".formatted(sequence));
+    }
+
+    // 새 segment 파일 이름까지 디스크에 남도록 (지원하지 않는 파일시스템이면 건너뛴다)
+    private void forceDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            log.debug("directory fsync not supported for {}", directory, e);
+        }
+    }
+
+    private static void force(FileChannel channel) {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] encode(List<ErrorEvent> events) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            for (ErrorEvent event : events) {
+                byte[] payload = encode(event);
+                out.writeInt(payload.length);
+                out.writeInt(crc32(payload));
+                out.write(payload);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] encode(ErrorEvent event) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(RECORD_VERSION);
+        writeString(out, event.getServiceName());
+        out.writeLong(event.getOccurredAt().getEpochSecond());
+        out.writeInt(event.getOccurredAt().getNano());
+        writeString(out, event.getTraceId());
+        writeString(out, event.getMessage());
+        writeString(out, event.getExceptionClass());
+        writeString(out, event.getStacktrace());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static ErrorEvent decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int version = in.readByte();
+        if (version != RECORD_VERSION) {
+            throw new IOException("Unsupported wal record version " + version);
+        }
+        String serviceName = readString(in);
+        Instant occurredAt = Instant.ofEpochSecond(in.readLong(), in.readInt());
+        String traceId = readString(in);
+        String message = readString(in);
+        String exceptionClass = readString(in);
+        String stacktrace = readString(in);
+        return new ErrorEvent(serviceName, occurredAt, traceId, message, exceptionClass, stacktrace);
+    }
+
+    // writeUTF 는 64KB 까지라 길이(int) + UTF-8 로. null 은 -1
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static int crc32(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    private static void writeFully(FileChannel out, byte[] bytes, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            out.write(buffer, position + buffer.position());
+        }
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of wal segment at " + position);
+            }
+        }
+    }
+
+    private record PendingWrite(byte[] bytes, int records, CompletableFuture<Boolean> done) {
+    }
+}
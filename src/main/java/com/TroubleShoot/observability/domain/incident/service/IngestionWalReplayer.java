@@ -0,0 +1,226 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+// IngestionWal 에 쌓인 이벤트를 checkpoint 부터 순서대로 grouping 에 넘긴다 (스레드 하나).
+// 일시적인 DB 오류(연결/트랜잭션 시작 실패, lock/timeout)면 checkpoint 를 그대로 두고 backoff 후 같은 batch 를 다시 시도한다
+// -> DB 가 살아나면 이어서 반영된다.
+// 그 밖의 오류(SQL 문법, 제약 위반 등 다시 해도 같은 것 포함)로 grouping 이 거부한 batch 는 한 건씩 다시 넘겨서
+// 거부된 이벤트만 로그를 남기고 건너뛴다.
+// 발생 건수/rollup 은 메모리 버퍼에 먼저 쌓이므로 그 증가분이 DB 에 flush 된 뒤에 checkpoint 를 옮긴다.
+// 반영 후 checkpoint 전에 죽으면 그 batch 는 다시 반영된다 (at-least-once: 발생 건수가 batch 만큼 더 셀 수 있다)
+@Component
+public class IngestionWalReplayer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionWalReplayer.class);
+
+    private static final long IDLE_MILLIS = 200;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final IncidentGroupingService groupingService;
+    private final IngestionWal wal;
+    private final OccurrenceCounterBuffer occurrenceCounterBuffer;
+    private final OccurrenceRollupBuffer occurrenceRollupBuffer;
+    private final int batchSize;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+
+    private final Counter replayedCounter;
+    private final Counter retryCounter;
+    private final Counter rejectedCounter;
+
+    // 한 건씩 반영하다 DB 오류로 멈춘 batch 와 그 안에서 이미 반영한 건수 (replayer 스레드만 쓴다)
+    private WalPosition resumeFrom;
+    private int resumeSkip;
+    // grouping 은 끝났지만 버퍼 flush 가 실패해서 checkpoint 를 못 옮긴 batch. 다시 grouping 하지 않는다
+    private WalBatch awaitingFlush;
+
+    private Thread replayer;
+    private CountDownLatch stopSignal;
+    private volatile boolean running;
+
+    public IngestionWalReplayer(IncidentGroupingService groupingService,
+                                IngestionWal wal,
+                                OccurrenceCounterBuffer occurrenceCounterBuffer,
+                                OccurrenceRollupBuffer occurrenceRollupBuffer,
+                                MeterRegistry meterRegistry,
+                                @Value("${observability.ingestion.wal.replay-batch-size:500}") int batchSize,
+                                @Value("${observability.ingestion.wal.retry-backoff:PT1S}") Duration retryBackoff,
+                                @Value("${observability.ingestion.wal.max-retry-backoff:PT30S}") Duration maxRetryBackoff) {
+        if (batchSize <= 0 || retryBackoff.isNegative() || retryBackoff.isZero() || maxRetryBackoff.compareTo(retryBackoff) < 0) {
+            throw new IllegalArgumentException("wal replay-batch-size and retry-backoff must be positive, max-retry-backoff >= retry-backoff");
+        }
+        this.groupingService = groupingService;
+        this.wal = wal;
+        this.occurrenceCounterBuffer = occurrenceCounterBuffer;
+        this.occurrenceRollupBuffer = occurrenceRollupBuffer;
+        this.batchSize = batchSize;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+
+        this.replayedCounter = Counter.builder("ingestion.wal.replayed").register(meterRegistry);
+        this.retryCounter = Counter.builder("ingestion.wal.replay.retries")
+                .description("Replay batches retried because the database was unavailable")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("ingestion.wal.replay.rejected")
+                .description("Replayed error events skipped because grouping rejected them")
+                .register(meterRegistry);
+    }
+
+    // batch 하나를 반영하고 checkpoint 한다. 반영한(또는 건너뛴) 이벤트 수, 쌓인 게 없으면 0.
+    // DB 오류나 버퍼 flush 실패는 checkpoint 없이 그대로 던진다
+    public int replayOnce() {
+        if (awaitingFlush != null) {
+            return checkpoint(awaitingFlush);
+        }
+        WalBatch batch = wal.read(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        if (batch.from().equals(resumeFrom)) {
+            replayOneByOne(batch, resumeSkip);
+        } else {
+            try {
+                groupingService.handleBatch(batch.events());
+                replayedCounter.increment(batch.size());
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    throw e;
+                }
+                // batch 전체를 버리지 않고 한 건씩 다시 넘겨서 거부되는 이벤트만 건너뛴다
+                log.warn("grouping rejected {} wal events at {}, replaying them one by one", batch.size(), batch.from(), e);
+                replayOneByOne(batch, 0);
+            }
+        }
+        resumeFrom = null;
+        awaitingFlush = batch;
+        return checkpoint(batch);
+    }
+
+    private int checkpoint(WalBatch batch) {
+        if (!occurrenceCounterBuffer.tryFlush() || !occurrenceRollupBuffer.tryFlush()) {
+            throw new IllegalStateException("holding wal checkpoint at " + batch.from() + " until buffered occurrences are flushed");
+        }
+        wal.commit(batch);
+        awaitingFlush = null;
+        return batch.size();
+    }
+
+    private void replayOneByOne(WalBatch batch, int skip) {
+        List<ErrorEvent> events = batch.events();
+        for (int i = skip; i < events.size(); i++) {
+            ErrorEvent event = events.get(i);
+            try {
+                groupingService.handleBatch(List.of(event));
+                replayedCounter.increment();
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    // 재시도 때 이미 반영한 앞쪽 이벤트는 다시 넘기지 않는다 (재기동하면 checkpoint 부터 다시 반영된다)
+                    resumeFrom = batch.from();
+                    resumeSkip = i;
+                    throw e;
+                }
+                rejectedCounter.increment();
+                log.error("skipping wal event rejected by grouping: batch={} index={} service={} traceId={} occurredAt={} exceptionClass={}",
+                        batch.from(), i, event.getServiceName(), event.getTraceId(), event.getOccurredAt(),
+                        event.getExceptionClass(), e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!wal.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        stopSignal = new CountDownLatch(1);
+        replayer = new Thread(this::replayLoop, "ingestion-wal-replayer");
+        replayer.setDaemon(true);
+        replayer.start();
+    }
+
+    // 남은 backlog 는 wal 에 있으므로 비우지 않고 멈춘다 (다음 기동 때 이어서 반영)
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        stopSignal.countDown();
+        try {
+            replayer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void replayLoop() {
+        Duration backoff = retryBackoff;
+        while (running) {
+            try {
+                if (replayOnce() == 0) {
+                    pause(IDLE_MILLIS);
+                }
+                backoff = retryBackoff;
+            } catch (Throwable e) {
+                // Error 로 스레드가 끝나면 replay 가 조용히 멈추므로 여기서 잡고 backoff 후 같은 위치부터 다시 시도한다
+                retryCounter.increment();
+                log.warn("wal replay failed at {} (backlog {}), retrying in {}", wal.checkpoint(), wal.backlog(), backoff, e);
+                pause(backoff.toMillis());
+                backoff = backoff.multipliedBy(2).compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    private void pause(long millis) {
+        try {
+            stopSignal.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    // 다시 시도하면 성공할 수 있는 오류만 true: Spring 의 transient/recoverable 분류, 트랜잭션 시작(연결) 실패,
+    // JDBC 의 transient/recoverable 예외와 SQLState 08 (connection exception).
+    // SQL 문법/제약 위반처럼 다시 해도 같은 오류는 false 라서 무한 재시도 대신 한 건씩 나눠서 건너뛴다
+    static boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException
+                    && sqlException.getSQLState() != null
+                    && sqlException.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
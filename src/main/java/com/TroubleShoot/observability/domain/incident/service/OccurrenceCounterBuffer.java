@@ -0,0 +1,201 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import com.troubleshoot.observability.global.transaction.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// grouping 된 occurrence 를 메모리에서 합산했다가 주기적으로 한 번에 반영하는 write-behind 버퍼.
+// 엔티티를 dirty 하게 만들지 않으므로 @Version 증가/낙관적 락 충돌이 없다.
+@Component
+public class OccurrenceCounterBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(OccurrenceCounterBuffer.class);
+
+    private static final String FLUSH_SQL = """
+            UPDATE incident
+            SET occurrence_count = occurrence_count + ?,
+                last_seen_at = CASE WHEN last_seen_at IS NULL OR last_seen_at < ? THEN ? ELSE last_seen_at END,
+                updated_at = ?
+            WHERE id = ?
+            """;
+
+    // 이 시간 동안 증가가 없으면 카운터 엔트리를 정리한다
+    private static final long IDLE_EVICT_MILLIS = 60_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OccurrenceCounterBuffer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this(jdbcTemplate, transactionManager, Clock.systemUTC());
+    }
+
+    public OccurrenceCounterBuffer(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+    }
+
+    // 트랜잭션 안에서 호출되면 커밋 이후에만 반영 (롤백된 이벤트는 세지 않는다)
+    public void record(long incidentId, int count, Instant lastSeenAt) {
+        if (count <= 0) {
+            return;
+        }
+        AfterCommit.run(() -> apply(incidentId, count, lastSeenAt));
+    }
+
+    // 아직 DB 에 반영되지 않은 증가분. 조회 응답에서 DB 값에 더해서 보여준다.
+    public PendingOccurrences pendingFor(Long incidentId) {
+        Pending p = incidentId == null ? null : pending.get(incidentId);
+        if (p == null) {
+            return PendingOccurrences.NONE;
+        }
+        long count = p.count.sum();
+        return count == 0 ? PendingOccurrences.NONE : new PendingOccurrences(count, p.lastSeenAt());
+    }
+
+    @Scheduled(fixedDelayString = "${observability.counters.flush-interval:PT1S}")
+    public void flush() {
+        tryFlush();
+    }
+
+    // 반영에 실패하면 false (실패분은 버퍼로 되돌린다). 호출한 시점까지 쌓인 증가분은 true 면 DB 에 반영돼 있다.
+    // 주기 flush 와 다른 스레드의 호출이 같은 증가분을 두 번 빼지 않게 직렬화한다
+    public synchronized boolean tryFlush() {
+        long now = clock.millis();
+        List<Drained> drained = new ArrayList<>();
+
+        for (Map.Entry<Long, Pending> entry : pending.entrySet()) {
+            Pending p = entry.getValue();
+            long count = p.count.sum();
+            if (count != 0) {
+                // sum 만큼만 빼므로 그 사이 들어온 증가분은 다음 flush 로 넘어간다
+                p.count.add(-count);
+                drained.add(new Drained(entry.getKey(), p, count));
+            } else if (now - p.lastRecordedMillis > IDLE_EVICT_MILLIS) {
+                retire(entry.getKey(), p, drained);
+            }
+        }
+
+        if (drained.isEmpty()) {
+            return true;
+        }
+
+        try {
+            Timestamp updatedAt = Timestamp.from(clock.instant());
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, drained, drained.size(),
+                    (ps, d) -> {
+                        Timestamp lastSeenAt = Timestamp.from(d.pending.lastSeenAt());
+                        ps.setLong(1, d.count);
+                        ps.setTimestamp(2, lastSeenAt);
+                        ps.setTimestamp(3, lastSeenAt);
+                        ps.setTimestamp(4, updatedAt);
+                        ps.setLong(5, d.incidentId);
+                    }));
+        } catch (RuntimeException e) {
+            // 반영 실패분은 되돌려서 다음 주기에 다시 시도
+            for (Drained d : drained) {
+                apply(d.incidentId, d.count, d.pending.lastSeenAt());
+            }
+            log.warn("failed to flush occurrence counters for {} incidents, will retry", drained.size(), e);
+            return false;
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void apply(long incidentId, long count, Instant lastSeenAt) {
+        long remaining = count;
+        while (remaining != 0) {
+            Pending p = pending.computeIfAbsent(incidentId, id -> new Pending());
+            p.add(remaining, lastSeenAt, clock.millis());
+            if (!p.retired) {
+                return;
+            }
+            // flush 가 이 엔트리를 막 정리한 경우: 남은 몫을 새 엔트리로 옮긴다
+            remaining = p.count.sumThenReset();
+        }
+    }
+
+    private void retire(Long incidentId, Pending p, List<Drained> drained) {
+        p.retired = true;
+        pending.remove(incidentId, p);
+        long residual = p.count.sumThenReset();
+        if (residual != 0) {
+            drained.add(new Drained(incidentId, p, residual));
+        }
+    }
+
+    public record PendingOccurrences(long count, Instant lastSeenAt) {
+        public static final PendingOccurrences NONE = new PendingOccurrences(0, null);
+
+        public long mergeCount(long persistedCount) {
+            return persistedCount + count;
+        }
+
+        public Instant mergeLastSeenAt(Instant persistedLastSeenAt) {
+            if (lastSeenAt == null) {
+                return persistedLastSeenAt;
+            }
+            if (persistedLastSeenAt == null || lastSeenAt.isAfter(persistedLastSeenAt)) {
+                return lastSeenAt;
+            }
+            return persistedLastSeenAt;
+        }
+    }
+
+    private record Drained(long incidentId, Pending pending, long count) {
+    }
+
+    private static final class Pending {
+        private final LongAdder count = new LongAdder();
+        // epoch micros 의 최댓값 (Instant 를 락 없이 max 로 누적)
+        private final LongAccumulator lastSeenMicros = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        private volatile long lastRecordedMillis;
+        private volatile boolean retired;
+
+        private void add(long delta, Instant seenAt, long nowMillis) {
+            count.add(delta);
+            if (seenAt != null) {
+                lastSeenMicros.accumulate(toMicros(seenAt));
+            }
+            lastRecordedMillis = nowMillis;
+        }
+
+        private Instant lastSeenAt() {
+            long micros = lastSeenMicros.get();
+            if (micros == Long.MIN_VALUE) {
+                return null;
+            }
+            return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000), Math.floorMod(micros, 1_000_000) * 1_000);
+        }
+
+        private static long toMicros(Instant instant) {
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000), instant.getNano() / 1_000);
+        }
+    }
+}
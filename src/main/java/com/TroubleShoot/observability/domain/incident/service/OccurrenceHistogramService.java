@@ -0,0 +1,93 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import com.troubleshoot.observability.domain.incident.persistence.OccurrenceBucketRow;
+import com.troubleshoot.observability.domain.incident.persistence.OccurrenceRollupRepository;
+import com.troubleshoot.observability.domain.incident.persistence.RollupGranularity;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// rollup 테이블에서 발생 건수 히스토그램을 읽는다. incident_event 를 집계하지 않는다.
+// 비어 있는 bucket 은 0 으로 채워서 [from, to) 전체 구간을 돌려준다 (flush 전 증가분은 아직 포함되지 않음)
+@Service
+public class OccurrenceHistogramService {
+
+    public static final int MAX_BUCKETS = 1440;
+
+    private final OccurrenceRollupRepository rollupRepository;
+
+    public OccurrenceHistogramService(OccurrenceRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public Histogram forIncident(long incidentId, RollupGranularity granularity, Instant from, Instant to) {
+        Range range = Range.of(granularity, from, to);
+        return range.fill(rollupRepository.findIncidentBuckets(incidentId, granularity, range.from(), range.to()));
+    }
+
+    @Transactional(readOnly = true)
+    public Histogram forService(String serviceName, RollupGranularity granularity, Instant from, Instant to) {
+        Range range = Range.of(granularity, from, to);
+        return range.fill(rollupRepository.findServiceBuckets(serviceName, granularity, range.from(), range.to()));
+    }
+
+    public record Histogram(
+            RollupGranularity granularity,
+            Instant from,
+            Instant to,
+            List<OccurrenceBucketRow> buckets
+    ) {
+    }
+
+    // bucket 경계로 맞춘 [from, to). to 가 없으면 현재 bucket 까지, from 이 없으면 단위별 기본 개수만큼 앞으로
+    private record Range(RollupGranularity granularity, Instant from, Instant to) {
+
+        private static Range of(RollupGranularity granularity, Instant from, Instant to) {
+            Instant end = to == null
+                    ? granularity.bucketStart(Instant.now()).plus(granularity.bucketSize())
+                    : ceil(granularity, to);
+            Instant start = from == null
+                    ? end.minus(granularity.bucketSize().multipliedBy(defaultBuckets(granularity)))
+                    : granularity.bucketStart(from);
+            if (!start.isBefore(end)) {
+                throw new IllegalArgumentException("from must be before to");
+            }
+            if (end.toEpochMilli() - start.toEpochMilli() > granularity.bucketSize().toMillis() * MAX_BUCKETS) {
+                throw new IllegalArgumentException("range exceeds " + MAX_BUCKETS + " buckets");
+            }
+            return new Range(granularity, start, end);
+        }
+
+        private Histogram fill(List<OccurrenceBucketRow> rows) {
+            List<OccurrenceBucketRow> buckets = new ArrayList<>();
+            Iterator<OccurrenceBucketRow> it = rows.iterator();
+            OccurrenceBucketRow next = it.hasNext() ? it.next() : null;
+            for (Instant bucket = from; bucket.isBefore(to); bucket = bucket.plus(granularity.bucketSize())) {
+                if (next != null && next.bucketStart().equals(bucket)) {
+                    buckets.add(next);
+                    next = it.hasNext() ? it.next() : null;
+                } else {
+                    buckets.add(new OccurrenceBucketRow(bucket, 0));
+                }
+            }
+            return new Histogram(granularity, from, to, buckets);
+        }
+
+        private static Instant ceil(RollupGranularity granularity, Instant instant) {
+            Instant start = granularity.bucketStart(instant);
+            return start.equals(instant) ? start : start.plus(granularity.bucketSize());
+        }
+
+        private static int defaultBuckets(RollupGranularity granularity) {
+            return switch (granularity) {
+                case MINUTE -> 60;
+                case HOUR -> 24;
+                case DAY -> 30;
+            };
+        }
+    }
+}
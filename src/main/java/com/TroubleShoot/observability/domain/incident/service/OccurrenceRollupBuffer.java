@@ -0,0 +1,135 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import com.troubleshoot.observability.domain.incident.persistence.OccurrenceRollupIncrement;
+import com.troubleshoot.observability.domain.incident.persistence.OccurrenceRollupRepository;
+import com.troubleshoot.observability.domain.incident.persistence.RollupGranularity;
+import com.troubleshoot.observability.global.transaction.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// incident 별 분 단위 발생 건수를 메모리에서 합산했다가 주기적으로 분/시/일 rollup 에 한 번에 더한다.
+// 이벤트마다 rollup 행을 쓰지 않으므로 ingestion 경로에는 DB 쓰기가 늘지 않는다.
+@Component
+public class OccurrenceRollupBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(OccurrenceRollupBuffer.class);
+
+    private final OccurrenceRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<MinuteKey, Long> pending = new ConcurrentHashMap<>();
+
+    public OccurrenceRollupBuffer(OccurrenceRollupRepository rollupRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Tally newTally() {
+        return new Tally();
+    }
+
+    // 트랜잭션 안에서 호출되면 커밋 이후에만 반영 (롤백된 이벤트는 세지 않는다)
+    public void record(Tally tally) {
+        if (tally.counts.isEmpty()) {
+            return;
+        }
+        Map<MinuteKey, Long> counts = tally.counts;
+        AfterCommit.run(() -> counts.forEach(this::apply));
+    }
+
+    @Scheduled(fixedDelayString = "${observability.rollups.flush-interval:PT10S}")
+    public void flush() {
+        tryFlush();
+    }
+
+    // 반영에 실패하면 false (실패분은 버퍼로 되돌린다). 호출한 시점까지 쌓인 건수는 true 면 DB 에 반영돼 있다
+    public synchronized boolean tryFlush() {
+        Map<MinuteKey, Long> drained = new HashMap<>();
+        for (MinuteKey key : pending.keySet()) {
+            // remove 와 merge 가 원자적이라 그 사이 증가분은 새 엔트리로 넘어간다
+            Long count = pending.remove(key);
+            if (count != null) {
+                drained.put(key, count);
+            }
+        }
+        if (drained.isEmpty()) {
+            return true;
+        }
+
+        List<OccurrenceRollupIncrement> increments = toIncrements(drained);
+        try {
+            transactionTemplate.executeWithoutResult(status -> rollupRepository.incrementAll(increments));
+        } catch (RuntimeException e) {
+            // 반영 실패분은 되돌려서 다음 주기에 다시 시도
+            drained.forEach(this::apply);
+            log.warn("failed to flush {} occurrence rollups, will retry", increments.size(), e);
+            return false;
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void apply(MinuteKey key, long count) {
+        pending.merge(key, count, Long::sum);
+    }
+
+    // 분 bucket 을 그대로 쓰고, 같은 시/일 bucket 에 속한 분들은 메모리에서 합쳐서 한 행씩만 더한다
+    private static List<OccurrenceRollupIncrement> toIncrements(Map<MinuteKey, Long> minutes) {
+        Map<RollupKey, Long> rolled = new HashMap<>();
+        for (Map.Entry<MinuteKey, Long> entry : minutes.entrySet()) {
+            MinuteKey minute = entry.getKey();
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                rolled.merge(new RollupKey(minute.incidentId(), minute.serviceName(), granularity,
+                        granularity.bucketStart(minute.bucketStart())), entry.getValue(), Long::sum);
+            }
+        }
+
+        // 동시에 flush 하는 인스턴스끼리 행 lock 순서가 엇갈리지 않게 정렬
+        List<OccurrenceRollupIncrement> increments = new ArrayList<>(rolled.size());
+        rolled.forEach((key, count) -> increments.add(new OccurrenceRollupIncrement(
+                key.incidentId(), key.serviceName(), key.granularity(), key.bucketStart(), count)));
+        increments.sort((a, b) -> {
+            int byIncident = Long.compare(a.incidentId(), b.incidentId());
+            if (byIncident != 0) {
+                return byIncident;
+            }
+            int byGranularity = a.granularity().compareTo(b.granularity());
+            return byGranularity != 0 ? byGranularity : a.bucketStart().compareTo(b.bucketStart());
+        });
+        return increments;
+    }
+
+    // 한 트랜잭션에서 grouping 된 발생 건수. 커밋 전까지는 호출 스레드만 쓴다
+    public static final class Tally {
+        private final Map<MinuteKey, Long> counts = new HashMap<>();
+
+        private Tally() {
+        }
+
+        public void add(long incidentId, String serviceName, Instant occurredAt) {
+            counts.merge(new MinuteKey(incidentId, serviceName, RollupGranularity.MINUTE.bucketStart(occurredAt)),
+                    1L, Long::sum);
+        }
+    }
+
+    private record MinuteKey(long incidentId, String serviceName, Instant bucketStart) {
+    }
+
+    private record RollupKey(long incidentId, String serviceName, RollupGranularity granularity, Instant bucketStart) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import com.troubleshoot.observability.domain.incident.persistence.OccurrenceRollupRepository;
+import com.troubleshoot.observability.domain.incident.persistence.RollupGranularity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// incident_occurrence_rollup 보존 기간 정리. granularity 별 ttl 이 지난 bucket 을 chunk 단위 짧은 DELETE 로 지운다.
+// 분 단위는 짧게, 시/일 단위는 길게 둔다 (오래된 추이는 큰 단위로 본다). 보관된 incident 의 행은 IncidentArchiver 가 지운다
+@Component
+public class OccurrenceRollupRetention {
+
+    private static final Logger log = LoggerFactory.getLogger(OccurrenceRollupRetention.class);
+
+    private final OccurrenceRollupRepository rollupRepository;
+    private final Clock clock;
+    private final Map<RollupGranularity, Duration> ttls;
+    private final int chunkSize;
+    private final long maxRowsPerRun;
+    private final Map<RollupGranularity, Counter> prunedRows = new EnumMap<>(RollupGranularity.class);
+
+    @Autowired
+    public OccurrenceRollupRetention(OccurrenceRollupRepository rollupRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${observability.rollups.ttl:MINUTE=P7D,HOUR=P90D,DAY=P730D}") String[] ttls,
+                                     @Value("${observability.rollups.prune.chunk-size:5000}") int chunkSize,
+                                     @Value("${observability.rollups.prune.max-rows-per-run:1000000}") long maxRowsPerRun) {
+        this(rollupRepository, meterRegistry, parseTtls(ttls), chunkSize, maxRowsPerRun, Clock.systemUTC());
+    }
+
+    public OccurrenceRollupRetention(OccurrenceRollupRepository rollupRepository,
+                                     MeterRegistry meterRegistry,
+                                     Map<RollupGranularity, Duration> ttls,
+                                     int chunkSize,
+                                     long maxRowsPerRun,
+                                     Clock clock) {
+        if (chunkSize <= 0 || maxRowsPerRun <= 0) {
+            throw new IllegalArgumentException("rollup prune chunk-size and max-rows-per-run must be positive");
+        }
+        ttls.forEach((granularity, ttl) -> {
+            if (ttl.compareTo(granularity.bucketSize()) < 0) {
+                throw new IllegalArgumentException("rollup ttl must cover at least one bucket: " + granularity + "=" + ttl);
+            }
+        });
+        this.rollupRepository = rollupRepository;
+        this.clock = clock;
+        this.ttls = ttls.isEmpty() ? Map.of() : new EnumMap<>(ttls);
+        this.chunkSize = chunkSize;
+        this.maxRowsPerRun = maxRowsPerRun;
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            prunedRows.put(granularity, Counter.builder("rollups.pruned.rows")
+                    .tag("granularity", granularity.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${observability.rollups.prune-interval:PT1H}",
+            initialDelayString = "${observability.rollups.prune-initial-delay:PT5M}")
+    public void schedule() {
+        try {
+            prune();
+        } catch (RuntimeException e) {
+            log.warn("occurrence rollup pruning failed", e);
+        }
+    }
+
+    // 지운 행 수. 실행당 maxRowsPerRun 을 넘는 나머지는 다음 실행으로 넘긴다
+    public long prune() {
+        Instant now = clock.instant();
+        long deleted = 0;
+        for (Map.Entry<RollupGranularity, Duration> entry : ttls.entrySet()) {
+            RollupGranularity granularity = entry.getKey();
+            // 일부라도 ttl 안에 걸친 bucket 은 남긴다
+            Instant cutoff = granularity.bucketStart(now.minus(entry.getValue()));
+            while (true) {
+                int limit = (int) Math.min(chunkSize, maxRowsPerRun - deleted);
+                if (limit <= 0) {
+                    log.info("occurrence rollup pruning reached {} rows, leaving the rest for the next run", deleted);
+                    return deleted;
+                }
+                int chunk = rollupRepository.deleteOlderThan(granularity, cutoff, limit);
+                deleted += chunk;
+                prunedRows.get(granularity).increment(chunk);
+                if (chunk < limit) {
+                    break;
+                }
+            }
+        }
+        if (deleted > 0) {
+            log.info("occurrence rollup pruning: deleted {} rows", deleted);
+        }
+        return deleted;
+    }
+
+    // "MINUTE=P7D" 형식. 없는 granularity 는 지우지 않는다
+    static Map<RollupGranularity, Duration> parseTtls(String[] entries) {
+        Map<RollupGranularity, Duration> ttls = new EnumMap<>(RollupGranularity.class);
+        for (String entry : entries) {
+            if (entry == null || entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("rollup ttl must look like GRANULARITY=Duration: " + entry);
+            }
+            RollupGranularity granularity = RollupGranularity.valueOf(entry.substring(0, separator).trim());
+            ttls.put(granularity, Duration.parse(entry.substring(separator + 1).trim()));
+        }
+        return ttls;
+    }
+}
@@ -0,0 +1,21 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import com.troubleshoot.observability.domain.incident.persistence.ReclaimedEvents;
+
+// 보존 기간 정리 한 번의 결과. backlog: 실행당 삭제 상한에 걸려 다음 실행으로 넘긴 행이 있다
+public record RetentionReport(
+        int partitionsCreated,
+        int partitionsDropped,
+        ReclaimedEvents dropped,
+        ReclaimedEvents deleted,
+        boolean backlog
+) {
+
+    public long rowsReclaimed() {
+        return dropped.rows() + deleted.rows();
+    }
+
+    public long bytesReclaimed() {
+        return dropped.bytes() + deleted.bytes();
+    }
+}
@@ -0,0 +1,19 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+import java.util.List;
+
+// from 부터 읽은 이벤트들. 처리 후 next 로 checkpoint 한다
+public record WalBatch(
+        WalPosition from,
+        WalPosition next,
+        List<ErrorEvent> events
+) {
+
+    public boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    public int size() {
+        return events.size();
+    }
+}
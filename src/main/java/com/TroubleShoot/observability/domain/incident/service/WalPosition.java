@@ -0,0 +1,13 @@
+package com.troubleshoot.observability.domain.incident.service;
+
+// ingestion WAL 안의 위치: segment 번호 + segment 안의 byte offset
+public record WalPosition(long segment, long offset) implements Comparable<WalPosition> {
+
+    public static final WalPosition START = new WalPosition(0, 0);
+
+    @Override
+    public int compareTo(WalPosition other) {
+        int bySegment = Long.compare(segment, other.segment);
+        return bySegment != 0 ? bySegment : Long.compare(offset, other.offset);
+    }
+}
@@ -22,6 +22,14 @@ public class GlobalExceptionHandler {
 
 
 
+    // 상태 코드를 지정해서 던진 예외(404, 400 등)는 incident 로 남기지 않고 그 상태 그대로 돌려준다
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatus(ResponseStatusException e) {
+        String traceId = MDC.get(TraceIdFilter.TRACE_ID);
+        return ResponseEntity.status(e.getStatusCode())
+                .body(new ErrorResponse(traceId, e.getReason()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handle(Exception e, HttpServletRequest req) {
         String traceId = MDC.get(TraceIdFilter.TRACE_ID);
@@ -0,0 +1,29 @@
+package com.troubleshoot.observability.global.jdbc;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// 네이티브 SQL 을 DB 별로 고르는 repository 들이 같이 쓰는 DB 종류 판별.
+// 첫 호출 때 connection metadata 로 한 번만 확인한다 (기동 시점에 DB 가 없어도 뜨게)
+@Component
+public class DatabaseDialect {
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public DatabaseDialect(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isPostgres() {
+        Boolean current = postgres;
+        if (current == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            current = "PostgreSQL".equalsIgnoreCase(product);
+            postgres = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,127 @@
+package com.TroubleShoot.observability.domain.incident.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.analyze.AnalysisRuleSet;
+import com.troubleshoot.observability.domain.incident.analyze.AnalysisRuleSetProvider;
+import com.troubleshoot.observability.domain.incident.analyze.IncidentAnalysisResult;
+import com.troubleshoot.observability.domain.incident.analyze.RuleBasedIncidentAnalyzer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AnalysisRuleSetProviderTest {
+
+    private static final String CACHE_RULES = """
+            categories:
+              - name: CACHE
+                keywords: [redis, "Cache Miss"]
+                rootCauses: [Cache node down]
+                nextActions: [Check redis cluster]
+              - name: DB
+                keywords: [sql]
+            severities:
+              - minOccurrences: 1
+                level: CRITICAL
+              - minOccurrences: 1000
+                level: PAGE
+            defaultSeverity: INFO
+            fallback:
+              rootCauses: [Unknown]
+              nextActions: [Look around]
+            """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void usesBuiltInRulesWithoutAFile() {
+        AnalysisRuleSetProvider provider = new AnalysisRuleSetProvider("", new SimpleMeterRegistry());
+
+        IncidentAnalysisResult result = new RuleBasedIncidentAnalyzer(provider).analyze(incident("SQL failed"), List.of());
+
+        assertThat(result.category()).isEqualTo("DB");
+        assertThat(result.severity()).isEqualTo("LOW");
+        assertThat(result.analyzerVersion()).isEqualTo(AnalysisRuleSet.BUILT_IN_VERSION);
+    }
+
+    @Test
+    void loadsYamlAndStampsTheRuleSetHash() throws IOException {
+        Path file = dir.resolve("rules.yml");
+        Files.writeString(file, CACHE_RULES);
+        AnalysisRuleSetProvider provider = new AnalysisRuleSetProvider(file.toString(), new SimpleMeterRegistry());
+        RuleBasedIncidentAnalyzer analyzer = new RuleBasedIncidentAnalyzer(provider);
+
+        IncidentAnalysisResult result = analyzer.analyze(incident("cache miss on sql lookup"), List.of());
+
+        assertThat(result.category()).isEqualTo("CACHE");
+        assertThat(result.severity()).isEqualTo("CRITICAL");
+        assertThat(provider.get().severity(0)).isEqualTo("INFO");
+        assertThat(provider.get().severity(1000)).isEqualTo("PAGE");
+        assertThat(result.suspectedRootCauses()).containsExactly("Cache node down");
+        assertThat(result.nextActions()).containsExactly("Check redis cluster");
+        assertThat(result.analyzerVersion()).matches("rules-[0-9a-f]{12}");
+        assertThat(analyzer.analyze(incident("boom"), List.of()).nextActions()).containsExactly("Look around");
+        // 같은 내용이면 어느 인스턴스에서 읽어도 같은 version
+        assertThat(new AnalysisRuleSetProvider(file.toString(), new SimpleMeterRegistry()).get().version())
+                .isEqualTo(result.analyzerVersion());
+    }
+
+    @Test
+    void swapsRulesWhenTheFileChangesAndKeepsThemWhenItBreaks() throws IOException {
+        Path file = dir.resolve("rules.json");
+        Files.writeString(file, """
+                {"categories": [{"name": "DB", "keywords": ["sql"]}]}
+                """);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AnalysisRuleSetProvider provider = new AnalysisRuleSetProvider(file.toString(), meterRegistry);
+        RuleBasedIncidentAnalyzer analyzer = new RuleBasedIncidentAnalyzer(provider);
+        String firstVersion = provider.get().version();
+        assertThat(analyzer.analyze(incident("kafka broker down"), List.of()).category()).isEqualTo("UNKNOWN");
+
+        rewrite(file, """
+                {"categories": [{"name": "QUEUE", "keywords": ["kafka"]}, {"name": "DB", "keywords": ["sql"]}]}
+                """, 1);
+        provider.reloadIfChanged();
+
+        IncidentAnalysisResult result = analyzer.analyze(incident("kafka broker down"), List.of());
+        assertThat(result.category()).isEqualTo("QUEUE");
+        assertThat(result.analyzerVersion()).isNotEqualTo(firstVersion);
+
+        rewrite(file, "{\"categories\": [{\"name\": ", 2);
+        provider.reloadIfChanged();
+
+        assertThat(analyzer.analyze(incident("kafka broker down"), List.of()).analyzerVersion())
+                .isEqualTo(result.analyzerVersion());
+        assertThat(meterRegistry.counter("analysis.rules.reloads", "outcome", "success").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("analysis.rules.reloads", "outcome", "failure").count()).isEqualTo(1);
+    }
+
+    @Test
+    void failsFastOnAnInvalidFileAtStartup() throws IOException {
+        Path file = dir.resolve("rules.yml");
+        Files.writeString(file, "categories: []\n");
+
+        assertThatThrownBy(() -> new AnalysisRuleSetProvider(file.toString(), new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    // 파일 시스템의 수정 시각 해상도와 무관하게 바뀐 것으로 보이도록 시각을 밀어 둔다
+    private static void rewrite(Path file, String content, int generation) throws IOException {
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2026-01-01T00:00:00Z").plusSeconds(generation)));
+    }
+
+    private static Incident incident(String sampleMessage) {
+        return new Incident("svc", "hash", "com.example.Failure",
+                Instant.parse("2026-02-25T10:00:00Z"), "trace-0", sampleMessage);
+    }
+}
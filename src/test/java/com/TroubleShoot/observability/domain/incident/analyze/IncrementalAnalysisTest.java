@@ -0,0 +1,104 @@
+package com.TroubleShoot.observability.domain.incident.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.analyze.AnalysisEventSource;
+import com.troubleshoot.observability.domain.incident.analyze.AnalysisRuleSet;
+import com.troubleshoot.observability.domain.incident.analyze.CategoryRule;
+import com.troubleshoot.observability.domain.incident.analyze.IncrementalAnalysis;
+import com.troubleshoot.observability.domain.incident.analyze.RuleBasedIncidentAnalyzer;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRow;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventType;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+class IncrementalAnalysisTest {
+
+    private static final Instant T0 = Instant.parse("2026-02-25T10:00:00Z");
+
+    private final RuleBasedIncidentAnalyzer analyzer = new RuleBasedIncidentAnalyzer();
+    private final Incident incident = new Incident("svc", "hash", "com.example.Failure", T0, "trace-0", "request failed");
+
+    @Test
+    void foldsOnlyEventsAfterThePreviousState() {
+        FakeEventSource source = new FakeEventSource();
+        for (int i = 1; i <= 200; i++) {
+            source.add(i, "upstream timeout " + i);
+        }
+
+        IncrementalAnalysis first = analyzer.analyze(incident, null, source);
+
+        assertThat(first.result().category()).isEqualTo("NETWORK");
+        assertThat(first.state().eventsProcessed()).isEqualTo(200);
+        assertThat(first.state().lastEventId()).isEqualTo(200);
+        assertThat(first.state().categoryHits()).containsEntry("NETWORK", 200L);
+        assertThat(source.latestCalls).isEqualTo(1);
+
+        source.add(201, "   ");
+        source.add(202, "java.sql.SQLException: deadlock");
+        IncrementalAnalysis second = analyzer.analyze(incident, first.state(), source);
+
+        // 이전 상태 이후 2건만 읽었다
+        assertThat(source.latestCalls).isEqualTo(1);
+        assertThat(source.rowsServedAfter).isEqualTo(2);
+        assertThat(second.result().category()).isEqualTo("DB");
+        assertThat(second.state().eventsProcessed()).isEqualTo(201);
+        assertThat(second.state().lastEventId()).isEqualTo(202);
+        assertThat(second.state().categoryHits()).containsEntry("NETWORK", 200L).containsEntry("DB", 1L);
+        assertThat(second.result().keyEvidence()).containsExactly(
+                "java.sql.SQLException: deadlock",
+                "upstream timeout 200",
+                "upstream timeout 199",
+                "upstream timeout 198",
+                "upstream timeout 197");
+    }
+
+    @Test
+    void rebuildsFromLatestEventsWhenTheRulesChanged() {
+        FakeEventSource source = new FakeEventSource();
+        source.add(1, "kafka producer timeout");
+        IncrementalAnalysis first = analyzer.analyze(incident, null, source);
+
+        RuleBasedIncidentAnalyzer retuned = new RuleBasedIncidentAnalyzer(AnalysisRuleSet.withCategories(
+                "rules-test", List.of(CategoryRule.of("QUEUE", "kafka"), CategoryRule.of("NETWORK", "timeout"))));
+        IncrementalAnalysis second = retuned.analyze(incident, first.state(), source);
+
+        assertThat(source.latestCalls).isEqualTo(2);
+        assertThat(second.result().category()).isEqualTo("QUEUE");
+        assertThat(second.result().analyzerVersion()).isEqualTo("rules-test");
+        assertThat(second.state().ruleSetVersion()).isEqualTo("rules-test");
+        assertThat(second.state().categoryHits()).containsOnlyKeys("QUEUE");
+    }
+
+    private static final class FakeEventSource implements AnalysisEventSource {
+        private final List<IncidentEventRow> rows = new ArrayList<>();
+        private int latestCalls;
+        private int rowsServedAfter;
+
+        private void add(long id, String message) {
+            rows.add(new IncidentEventRow(id, IncidentEventType.EVENT_INGESTED, T0.plusSeconds(id), "trace-" + id, message, null));
+        }
+
+        @Override
+        public List<IncidentEventRow> latest() {
+            latestCalls++;
+            List<IncidentEventRow> latest = new ArrayList<>(rows);
+            Collections.reverse(latest);
+            return latest;
+        }
+
+        @Override
+        public void forEachAfter(long afterEventId, Consumer<List<IncidentEventRow>> chunkConsumer) {
+            List<IncidentEventRow> after = rows.stream().filter(row -> row.id() > afterEventId).toList();
+            rowsServedAfter += after.size();
+            if (!after.isEmpty()) {
+                chunkConsumer.accept(after);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.TroubleShoot.observability.domain.incident.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.analyze.KeywordMatcher;
+import com.troubleshoot.observability.domain.incident.analyze.RuleBasedIncidentAnalyzer;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEvent;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventType;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class KeywordMatcherTest {
+
+    @Test
+    void reportsTheHighestPriorityGroupAcrossOverlappingKeywords() {
+        KeywordMatcher matcher = KeywordMatcher.builder()
+                .add(0, "sql")
+                .add(1, "timeout")
+                .add(2, "he")
+                .add(2, "she")
+                .add(3, "hers")
+                .build();
+
+        assertThat(matcher.bestGroup("Read TIMEOUT")).isEqualTo(1);
+        assertThat(matcher.bestGroup("ushers")).isEqualTo(2);
+        assertThat(matcher.bestGroup("java.sql.SQLException: timeout")).isEqualTo(0);
+        assertThat(matcher.bestGroup("nothing here")).isEqualTo(2);
+        assertThat(matcher.bestGroup("nothing")).isEqualTo(KeywordMatcher.NO_MATCH);
+        assertThat(matcher.bestGroup("")).isEqualTo(KeywordMatcher.NO_MATCH);
+    }
+
+    @Test
+    void keepsStateAcrossFedChunks() {
+        KeywordMatcher matcher = KeywordMatcher.builder().add(0, "timeout").build();
+
+        KeywordMatcher.Scan scan = matcher.scan().feed("read time").feed(null).feed("OUT");
+
+        assertThat(scan.bestGroup()).isZero();
+        assertThat(scan.isSettled()).isTrue();
+    }
+
+    @Test
+    void matchesLikeLowercasedContainsOnRandomInput() {
+        Random random = new Random(17);
+        String alphabet = "abcAB -.é";
+        for (int round = 0; round < 200; round++) {
+            List<String> keywords = new ArrayList<>();
+            List<Integer> groups = new ArrayList<>();
+            KeywordMatcher.Builder builder = KeywordMatcher.builder();
+            int keywordCount = 1 + random.nextInt(30);
+            for (int k = 0; k < keywordCount; k++) {
+                String keyword = randomText(random, alphabet, 1 + random.nextInt(4));
+                int group = random.nextInt(5);
+                keywords.add(keyword.toLowerCase(Locale.ROOT));
+                groups.add(group);
+                builder.add(group, keyword);
+            }
+            KeywordMatcher matcher = builder.build();
+
+            for (int n = 0; n < 20; n++) {
+                String text = randomText(random, alphabet, random.nextInt(40));
+                String lower = text.toLowerCase(Locale.ROOT);
+                int expected = KeywordMatcher.NO_MATCH;
+                for (int k = 0; k < keywords.size(); k++) {
+                    if (lower.contains(keywords.get(k))) {
+                        expected = Math.min(expected, groups.get(k));
+                    }
+                }
+                assertThat(matcher.bestGroup(text)).as("%s in %s", keywords, text).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void analyzerCategoryFollowsRulePriorityOverAllMessages() {
+        RuleBasedIncidentAnalyzer analyzer = new RuleBasedIncidentAnalyzer();
+        Incident incident = new Incident("svc", "hash", "java.lang.IllegalStateException",
+                Instant.parse("2026-02-25T10:00:00Z"), "trace-0", "Read timed out");
+
+        assertThat(analyzer.analyze(incident, List.of()).category()).isEqualTo("UNKNOWN");
+        assertThat(analyzer.analyze(incident, List.of(
+                event(incident, "gateway TIMEOUT"),
+                event(incident, "   "),
+                event(incident, "lost DataBase connection"))).category()).isEqualTo("DB");
+        // keyword 는 메시지 하나 안에서만 찾는다 (메시지 경계를 넘어 맞지 않는다)
+        assertThat(analyzer.analyze(incident, List.of(
+                event(incident, "connect time"),
+                event(incident, "out"))).category()).isEqualTo("UNKNOWN");
+        assertThat(analyzer.analyze(incident, List.of(
+                event(incident, "NullPointerException at handler"))).category()).isEqualTo("APP");
+    }
+
+    private static IncidentEvent event(Incident incident, String message) {
+        return new IncidentEvent(incident, IncidentEventType.EVENT_INGESTED, null,
+                Instant.parse("2026-02-25T10:00:01Z"), "trace-1", message);
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
@@ -1,7 +1,10 @@
 package com.TroubleShoot.observability.domain.incident.api;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -9,10 +12,20 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.troubleshoot.observability.ObservabilityApplication;
 import com.troubleshoot.observability.domain.incident.Incident;
 import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentAnalysisRepository;
 import com.troubleshoot.observability.domain.incident.persistence.IncidentEvent;
 import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRepository;
 import com.troubleshoot.observability.domain.incident.persistence.IncidentEventType;
+import com.troubleshoot.observability.domain.incident.persistence.OccurrenceRollupRepository;
+import com.troubleshoot.observability.domain.incident.service.IncidentAnalysisService;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceCounterBuffer;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceRollupBuffer;
+import com.jayway.jsonpath.JsonPath;
+import com.troubleshoot.observability.domain.incident.api.IncidentController;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,9 +35,11 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
@@ -43,8 +58,29 @@ class IncidentControllerTest {
     @Autowired
     private IncidentEventRepository incidentEventRepository;
 
+    @Autowired
+    private IncidentAnalysisRepository incidentAnalysisRepository;
+
+    @Autowired
+    private OccurrenceCounterBuffer occurrenceCounterBuffer;
+
+    @Autowired
+    private IncidentAnalysisService incidentAnalysisService;
+
+    @Autowired
+    private OccurrenceRollupBuffer occurrenceRollupBuffer;
+
+    @Autowired
+    private OccurrenceRollupRepository occurrenceRollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void resetData() {
+        occurrenceRollupBuffer.flush();
+        occurrenceRollupRepository.deleteAll();
+        incidentAnalysisRepository.deleteAll();
         incidentEventRepository.deleteAll();
         incidentRepository.deleteAll();
         mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
@@ -80,6 +116,157 @@ class IncidentControllerTest {
                 .andExpect(jsonPath("$.grouped").value(false));
     }
 
+    @Test
+    void postErrorEventsGroupsRepeatUntilIncidentLeavesOpen() throws Exception {
+        String payload = """
+                {
+                  "serviceName": "billing",
+                  "occurredAt": "2026-02-25T10:15:30Z",
+                  "message": "boom",
+                  "exceptionClass": "java.lang.IllegalStateException",
+                  "stacktrace": "java.lang.IllegalStateException: boom\\n\\tat com.example.Billing.capture(Billing.java:10)"
+                }
+                """;
+
+        mockMvc.perform(post("/api/error-events").contentType(MediaType.APPLICATION_JSON).content(payload))
+                .andExpect(jsonPath("$.grouped").value(false));
+        mockMvc.perform(post("/api/error-events").contentType(MediaType.APPLICATION_JSON).content(payload))
+                .andExpect(jsonPath("$.grouped").value(true));
+
+        occurrenceCounterBuffer.flush();
+        Incident incident = incidentRepository.findAll().get(0);
+        assertThat(incident.getOccurrenceCount()).isEqualTo(2);
+
+        mockMvc.perform(patch("/incidents/{id}/status", incident.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"RESOLVED\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/error-events").contentType(MediaType.APPLICATION_JSON).content(payload))
+                .andExpect(jsonPath("$.grouped").value(false));
+        assertThat(incidentRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void indexHitOnAnIncidentClosedElsewhereStartsANewIncident() throws Exception {
+        String payload = histogramEvent("2026-02-25T10:00:00Z", "IllegalStateException", "boom");
+        mockMvc.perform(post("/api/error-events").contentType(MediaType.APPLICATION_JSON).content(payload))
+                .andExpect(jsonPath("$.grouped").value(false));
+        Incident first = incidentRepository.findAll().get(0);
+
+        // 다른 노드가 종결: 이 노드의 인덱스에는 아직 남아 있다
+        jdbcTemplate.update("UPDATE incident SET status = 'RESOLVED', grouping_slot = NULL WHERE id = ?", first.getId());
+
+        mockMvc.perform(post("/api/error-events").contentType(MediaType.APPLICATION_JSON).content(payload))
+                .andExpect(jsonPath("$.grouped").value(false));
+        occurrenceCounterBuffer.flush();
+        assertThat(incidentRepository.count()).isEqualTo(2);
+        assertThat(incidentRepository.findById(first.getId()).orElseThrow().getOccurrenceCount()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM incident_event WHERE incident_id = ?", Integer.class, first.getId()))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void postErrorEventsBatchGroupsBySignatureWithinBatch() throws Exception {
+        String payload = """
+                {
+                  "events": [
+                    {
+                      "serviceName": "billing",
+                      "occurredAt": "2026-02-25T10:15:30Z",
+                      "traceId": "trace-1",
+                      "message": "boom",
+                      "exceptionClass": "java.lang.IllegalStateException",
+                      "stacktrace": "java.lang.IllegalStateException: boom\\n\\tat com.example.Billing.charge(Billing.java:10)"
+                    },
+                    {
+                      "serviceName": "billing",
+                      "occurredAt": "2026-02-25T10:15:31Z",
+                      "traceId": "trace-2",
+                      "message": "bad input",
+                      "exceptionClass": "java.lang.IllegalArgumentException",
+                      "stacktrace": "java.lang.IllegalArgumentException: bad input\\n\\tat com.example.Billing.refund(Billing.java:20)"
+                    },
+                    {
+                      "serviceName": "billing",
+                      "occurredAt": "2026-02-25T10:15:32Z",
+                      "traceId": "trace-3",
+                      "message": "boom again",
+                      "exceptionClass": "java.lang.IllegalStateException",
+                      "stacktrace": "java.lang.IllegalStateException: boom\\n\\tat com.example.Billing.charge(Billing.java:10)"
+                    }
+                  ]
+                }
+                """;
+
+        mockMvc.perform(post("/api/error-events/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(3))
+                .andExpect(jsonPath("$.incidentCount").value(2))
+                .andExpect(jsonPath("$.results", hasSize(3)))
+                .andExpect(jsonPath("$.results[0].grouped").value(false))
+                .andExpect(jsonPath("$.results[1].grouped").value(false))
+                .andExpect(jsonPath("$.results[2].grouped").value(true));
+
+        occurrenceCounterBuffer.flush();
+        Incident grouped = incidentRepository.findAll().stream()
+                .filter(incident -> "java.lang.IllegalStateException".equals(incident.getExceptionClass()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(incidentRepository.count()).isEqualTo(2);
+        assertThat(grouped.getOccurrenceCount()).isEqualTo(2);
+        assertThat(grouped.getLastSeenAt()).isEqualTo(Instant.parse("2026-02-25T10:15:32Z"));
+        assertThat(incidentEventRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void incidentReadsMergePendingOccurrencesBeforeFlush() throws Exception {
+        String payload = """
+                {
+                  "serviceName": "billing",
+                  "occurredAt": "2026-02-25T10:15:30Z",
+                  "message": "boom",
+                  "exceptionClass": "java.lang.IllegalStateException",
+                  "stacktrace": "java.lang.IllegalStateException: boom\\n\\tat com.example.Billing.settle(Billing.java:10)"
+                }
+                """;
+        String later = payload.replace("10:15:30Z", "10:16:30Z");
+
+        mockMvc.perform(post("/api/error-events").contentType(MediaType.APPLICATION_JSON).content(payload))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/error-events").contentType(MediaType.APPLICATION_JSON).content(payload))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/error-events").contentType(MediaType.APPLICATION_JSON).content(later))
+                .andExpect(status().isOk());
+
+        Incident incident = incidentRepository.findAll().get(0);
+        mockMvc.perform(get("/api/incidents/{id}", incident.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.occurrenceCount").value(3))
+                .andExpect(jsonPath("$.lastSeenAt").value("2026-02-25T10:16:30Z"));
+        mockMvc.perform(get("/api/incidents").param("serviceName", "billing"))
+                .andExpect(jsonPath("$[0].occurrenceCount").value(3));
+
+        occurrenceCounterBuffer.flush();
+        Incident flushed = incidentRepository.findById(incident.getId()).orElseThrow();
+        assertThat(flushed.getOccurrenceCount()).isEqualTo(3);
+        assertThat(flushed.getLastSeenAt()).isEqualTo(Instant.parse("2026-02-25T10:16:30Z"));
+        assertThat(occurrenceCounterBuffer.pendingFor(incident.getId()).count()).isZero();
+        mockMvc.perform(get("/api/incidents/{id}", incident.getId()))
+                .andExpect(jsonPath("$.occurrenceCount").value(3));
+    }
+
+    @Test
+    void postErrorEventsBatchRejectsInvalidEntry() throws Exception {
+        mockMvc.perform(post("/api/error-events/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"events\": [{}]}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void listIncidentsReturnsSortedByLastSeenAtDesc() throws Exception {
         Incident older = new Incident(
@@ -110,6 +297,83 @@ class IncidentControllerTest {
                 .andExpect(jsonPath("$[1].id").value(savedOlder.getId()));
     }
 
+    @Test
+    void listIncidentsPagesWithKeysetCursor() throws Exception {
+        Instant t0 = Instant.parse("2026-02-25T10:00:00Z");
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // 0, 1 은 lastSeenAt 이 같아서 id 로 순서가 정해진다
+            Instant lastSeenAt = t0.plusSeconds(i < 2 ? 0 : i);
+            expected.add(incidentRepository.save(new Incident(
+                    "billing", "hash-page-" + i, "java.lang.IllegalStateException", lastSeenAt, null, "m" + i)).getId());
+        }
+        incidentRepository.save(new Incident(
+                "search", "hash-other", "java.lang.IllegalStateException", t0.plusSeconds(30), null, "other"));
+        Collections.reverse(expected);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/api/incidents").param("serviceName", "billing").param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MvcResult result = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn();
+            List<Integer> ids = JsonPath.read(result.getResponse().getContentAsString(), "$[*].id");
+            ids.forEach(id -> seen.add(id.longValue()));
+            cursor = result.getResponse().getHeader(IncidentController.NEXT_CURSOR_HEADER);
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void listIncidentsIncludesTheUpperBoundAndListsUngroupedIncidentsLast() throws Exception {
+        Instant t0 = Instant.parse("2026-02-25T10:00:00Z");
+        Incident older = incidentRepository.save(new Incident(
+                "billing", "hash-range-0", "java.lang.IllegalStateException", t0, null, "m0"));
+        Incident newer = incidentRepository.save(new Incident(
+                "billing", "hash-range-1", "java.lang.IllegalStateException", t0.plusSeconds(10), null, "m1"));
+        // 요청 처리 중 예외로 기록된 incident 는 lastSeenAt 이 없다
+        Incident failed1 = incidentRepository.save(new Incident("trace-1", "RUNTIME", "HIGH", 500, "GET", "/a", "boom"));
+        Incident failed2 = incidentRepository.save(new Incident("trace-2", "RUNTIME", "HIGH", 500, "GET", "/b", "boom"));
+
+        // to 와 같은 lastSeenAt 도 포함하고, 기간 조건이 있으면 lastSeenAt 없는 행은 빠진다
+        mockMvc.perform(get("/api/incidents")
+                        .param("from", t0.toString())
+                        .param("to", t0.plusSeconds(10).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains(newer.getId().intValue(), older.getId().intValue())));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/incidents").param("limit", "1");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MvcResult result = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn();
+            List<Integer> ids = JsonPath.read(result.getResponse().getContentAsString(), "$[*].id");
+            ids.forEach(id -> seen.add(id.longValue()));
+            cursor = result.getResponse().getHeader(IncidentController.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly(newer.getId(), older.getId(), failed2.getId(), failed1.getId());
+    }
+
+    @Test
+    void listIncidentsRejectsMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/incidents").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getIncidentReturnsDetailAndEvents() throws Exception {
         Incident incident = new Incident(
@@ -154,6 +418,227 @@ class IncidentControllerTest {
                 .andExpect(jsonPath("$.events[1].occurredAt").value("2026-02-25T10:21:05Z"));
     }
 
+    @Test
+    void incidentTimelineIsPagedAndStreamedInOccurrenceOrder() throws Exception {
+        Instant t0 = Instant.parse("2026-02-25T11:00:00Z");
+        Incident incident = incidentRepository.save(new Incident(
+                "billing", "hash-timeline", "java.lang.IllegalStateException", t0, null, "sample"));
+        List<IncidentEvent> events = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            // 2, 3 은 같은 시각 -> id 로 순서가 정해진다
+            Instant occurredAt = t0.plusSeconds(i == 3 ? 2 : i);
+            events.add(new IncidentEvent(incident, IncidentEventType.EVENT_INGESTED, null, occurredAt, null, "e" + i));
+        }
+        incidentEventRepository.saveAll(events);
+
+        // detail 은 최근 N 건만 (시간 순)
+        mockMvc.perform(get("/api/incidents/{id}", incident.getId()).param("recentEvents", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events", hasSize(3)))
+                .andExpect(jsonPath("$.events[0].message").value("e4"))
+                .andExpect(jsonPath("$.events[2].message").value("e6"));
+
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/incidents/{id}/events", incident.getId()).param("limit", "3");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MvcResult result = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+            paged.addAll(JsonPath.read(result.getResponse().getContentAsString(), "$[*].message"));
+            cursor = result.getResponse().getHeader(IncidentController.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        assertThat(paged).containsExactly("e0", "e1", "e2", "e3", "e4", "e5", "e6");
+
+        MvcResult streamed = mockMvc.perform(get("/api/incidents/{id}/events/stream", incident.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(streamed.getResponse().getContentType()).startsWith("application/x-ndjson");
+        String[] lines = streamed.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(7);
+        assertThat((String) JsonPath.read(lines[0], "$.message")).isEqualTo("e0");
+        assertThat((String) JsonPath.read(lines[6], "$.message")).isEqualTo("e6");
+
+        mockMvc.perform(get("/api/incidents/{id}/events", 999999L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void occurrenceHistogramsAreServedFromRollups() throws Exception {
+        String payload = """
+                {
+                  "events": [
+                    %s,
+                    %s,
+                    %s,
+                    %s
+                  ]
+                }
+                """.formatted(
+                histogramEvent("2026-02-25T10:00:10Z", "IllegalStateException", "charge"),
+                histogramEvent("2026-02-25T10:00:20Z", "IllegalArgumentException", "refund"),
+                histogramEvent("2026-02-25T10:00:50Z", "IllegalStateException", "charge"),
+                histogramEvent("2026-02-25T10:01:05Z", "IllegalStateException", "charge"));
+        MvcResult ingested = mockMvc.perform(post("/api/error-events/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andReturn();
+        Integer chargeId = JsonPath.read(ingested.getResponse().getContentAsString(), "$.results[0].incidentId");
+
+        // flush 전에는 rollup 행이 없다
+        assertThat(occurrenceRollupRepository.count()).isZero();
+        occurrenceRollupBuffer.flush();
+
+        mockMvc.perform(get("/api/incidents/{id}/histogram", chargeId)
+                        .param("from", "2026-02-25T10:00:00Z")
+                        .param("to", "2026-02-25T10:03:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("MINUTE"))
+                .andExpect(jsonPath("$.buckets", hasSize(3)))
+                .andExpect(jsonPath("$.buckets[0].bucketStart").value("2026-02-25T10:00:00Z"))
+                .andExpect(jsonPath("$.buckets[*].count", contains(2, 1, 0)));
+
+        mockMvc.perform(get("/api/services/{serviceName}/histogram", "histogram-svc")
+                        .param("granularity", "minute")
+                        .param("from", "2026-02-25T10:00:00Z")
+                        .param("to", "2026-02-25T10:02:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets[*].count", contains(3, 1)));
+
+        mockMvc.perform(get("/api/services/{serviceName}/histogram", "histogram-svc")
+                        .param("granularity", "hour")
+                        .param("from", "2026-02-25T10:00:00Z")
+                        .param("to", "2026-02-25T10:30:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.to").value("2026-02-25T11:00:00Z"))
+                .andExpect(jsonPath("$.buckets[*].count", contains(4)));
+
+        mockMvc.perform(get("/api/incidents/{id}/histogram", chargeId).param("granularity", "week"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/incidents/{id}/histogram", 999999L))
+                .andExpect(status().isNotFound());
+    }
+
+    private static String histogramEvent(String occurredAt, String exception, String method) {
+        return """
+                {
+                  "serviceName": "histogram-svc",
+                  "occurredAt": "%s",
+                  "message": "boom",
+                  "exceptionClass": "java.lang.%s",
+                  "stacktrace": "java.lang.%s: boom\\n\\tat com.example.Billing.%s(Billing.java:10)"
+                }""".formatted(occurredAt, exception, exception, method);
+    }
+
+    @Test
+    void analyzeEnqueuesJobAndReportsItsProgress() throws Exception {
+        String event = histogramEvent("2026-02-25T10:00:00Z", "IllegalStateException", "analyze");
+        mockMvc.perform(post("/api/error-events").contentType(MediaType.APPLICATION_JSON).content(event))
+                .andExpect(jsonPath("$.grouped").value(false));
+        Incident incident = incidentRepository.findAll().get(0);
+
+        MvcResult accepted = mockMvc.perform(post("/api/incidents/{id}/analyze", incident.getId()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.incidentId").value(incident.getId()))
+                .andReturn();
+        String location = accepted.getResponse().getHeader("Location");
+        assertThat(location).startsWith("/api/incidents/" + incident.getId() + "/analysis-jobs/");
+
+        String status = null;
+        for (int i = 0; i < 100 && !"SUCCEEDED".equals(status) && !"FAILED".equals(status); i++) {
+            Thread.sleep(50);
+            MvcResult job = mockMvc.perform(get(location)).andExpect(status().isOk()).andReturn();
+            status = JsonPath.read(job.getResponse().getContentAsString(), "$.status");
+        }
+        assertThat(status).isEqualTo("SUCCEEDED");
+
+        mockMvc.perform(get("/api/incidents/{id}/analysis", incident.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("ANALYZED"))
+                // JSON 컬럼에 저장된 배열이 문자열로 한 번 더 감싸이지 않고 그대로 나간다
+                .andExpect(jsonPath("$.keyEvidence").isArray())
+                .andExpect(jsonPath("$.keyEvidence[0]").value("boom"))
+                .andExpect(jsonPath("$.nextActions").isArray())
+                .andExpect(jsonPath("$.nextActions[0]").isString());
+        // 분석된 incident 에도 같은 signature 는 계속 묶인다
+        mockMvc.perform(post("/api/error-events").contentType(MediaType.APPLICATION_JSON).content(event))
+                .andExpect(jsonPath("$.grouped").value(true))
+                .andExpect(jsonPath("$.incidentId").value(incident.getId()))
+                .andExpect(jsonPath("$.status").value("ANALYZED"));
+        String firstState = incidentAnalysisRepository.findByIncident_Id(incident.getId()).orElseThrow().getAnalysisStateJson();
+        assertThat(JsonPath.<Integer>read(firstState, "$.eventsProcessed")).isEqualTo(1);
+
+        // 다시 분석하면 이전 상태 이후에 저장된 이벤트만 더한다
+        incidentAnalysisService.analyzeIncident(incident.getId(), true);
+        String secondState = incidentAnalysisRepository.findByIncident_Id(incident.getId()).orElseThrow().getAnalysisStateJson();
+        assertThat(JsonPath.<Integer>read(secondState, "$.eventsProcessed")).isEqualTo(2);
+        assertThat(JsonPath.<Number>read(secondState, "$.lastEventId").longValue())
+                .isGreaterThan(JsonPath.<Number>read(firstState, "$.lastEventId").longValue());
+
+        mockMvc.perform(post("/api/incidents/{id}/analyze", 999999L))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/incidents/{id}/analysis-jobs/{jobId}", incident.getId(), "unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void bulkAnalyzeReportsAnOutcomePerIncident() throws Exception {
+        mockMvc.perform(post("/api/error-events").contentType(MediaType.APPLICATION_JSON)
+                        .content(histogramEvent("2026-02-25T10:00:00Z", "IllegalStateException", "first")))
+                .andExpect(jsonPath("$.grouped").value(false));
+        mockMvc.perform(post("/api/error-events").contentType(MediaType.APPLICATION_JSON)
+                        .content(histogramEvent("2026-02-25T10:00:00Z", "IllegalArgumentException", "second")))
+                .andExpect(jsonPath("$.grouped").value(false));
+        List<Incident> incidents = incidentRepository.findAll();
+        long analyzable = incidents.get(0).getId();
+        long resolved = incidents.get(1).getId();
+        mockMvc.perform(patch("/incidents/{id}/status", resolved)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"RESOLVED\"}"))
+                .andExpect(status().isOk());
+
+        String request = "{\"incidentIds\": [%d, %d, 999999, %d]}".formatted(analyzable, resolved, analyzable);
+        mockMvc.perform(post("/api/incidents/analyze").contentType(MediaType.APPLICATION_JSON).content(request))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(3))
+                .andExpect(jsonPath("$.analyzed").value(1))
+                .andExpect(jsonPath("$.results[*].result").value(contains("ANALYZED", "CONFLICT", "NOT_FOUND")))
+                .andExpect(jsonPath("$.results[0].status").value("ANALYZED"))
+                .andExpect(jsonPath("$.results[1].message").value("Cannot analyze incident in status RESOLVED"));
+        mockMvc.perform(get("/api/incidents/{id}/analysis", analyzable))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.category").value("UNKNOWN"));
+        assertThat(incidentAnalysisRepository.findByIncident_Id(analyzable).orElseThrow().getAnalysisStateJson())
+                .contains("\"eventsProcessed\":1");
+
+        // force 가 아니면 이미 분석된 incident 는 건너뛴다
+        mockMvc.perform(post("/api/incidents/analyze").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"incidentIds\": [%d]}".formatted(analyzable)))
+                .andExpect(jsonPath("$.results[0].result").value("SKIPPED"));
+        mockMvc.perform(post("/api/incidents/analyze").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"incidentIds\": [%d], \"force\": true}".formatted(analyzable)))
+                .andExpect(jsonPath("$.results[0].result").value("ANALYZED"));
+
+        // 미리 읽는 건 incident 당 한 chunk 까지, 그 뒤는 chunk 단위 조회로 이어서 전부 분석한다
+        Incident analyzed = incidentRepository.findById(analyzable).orElseThrow();
+        List<IncidentEvent> backlog = new ArrayList<>();
+        for (int i = 0; i < 1_200; i++) {
+            backlog.add(new IncidentEvent(analyzed, IncidentEventType.EVENT_INGESTED, null,
+                    Instant.parse("2026-02-25T10:01:00Z").plusMillis(i), null, "later " + i));
+        }
+        incidentEventRepository.saveAll(backlog);
+        mockMvc.perform(post("/api/incidents/analyze").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"incidentIds\": [%d], \"force\": true}".formatted(analyzable)))
+                .andExpect(jsonPath("$.results[0].result").value("ANALYZED"));
+        assertThat(incidentAnalysisRepository.findByIncident_Id(analyzable).orElseThrow().getAnalysisStateJson())
+                .contains("\"eventsProcessed\":1201");
+        mockMvc.perform(post("/api/incidents/analyze").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"incidentIds\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getIncidentReturnsNotFoundForUnknownId() throws Exception {
         mockMvc.perform(get("/api/incidents/{id}", 999999L))
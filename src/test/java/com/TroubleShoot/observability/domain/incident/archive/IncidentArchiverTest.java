@@ -0,0 +1,169 @@
+package com.TroubleShoot.observability.domain.incident.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.troubleshoot.observability.ObservabilityApplication;
+import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+import com.troubleshoot.observability.domain.incident.api.IncidentController;
+import com.troubleshoot.observability.domain.incident.archive.ArchivedIncident;
+import com.troubleshoot.observability.domain.incident.archive.IncidentArchive;
+import com.troubleshoot.observability.domain.incident.archive.IncidentArchiver;
+import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentAnalysis;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentAnalysisRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEvent;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventType;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(classes = ObservabilityApplication.class)
+class IncidentArchiverTest {
+
+    private static final Instant OCCURRED_AT = Instant.parse("2026-01-10T08:00:00Z");
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @Autowired
+    private IncidentEventRepository incidentEventRepository;
+
+    @Autowired
+    private IncidentAnalysisRepository incidentAnalysisRepository;
+
+    @Autowired
+    private IncidentArchiver archiver;
+
+    @Autowired
+    private IncidentArchive archive;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM incident_occurrence_rollup");
+        incidentAnalysisRepository.deleteAll();
+        incidentEventRepository.deleteAll();
+        incidentRepository.deleteAll();
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    void movesOldResolvedIncidentsToTheArchiveAndServesThemFromThere() throws Exception {
+        Incident resolved = incident("archived-hash", IncidentStatus.RESOLVED, Duration.ofDays(40));
+        // id 순서와 발생 시각 순서를 반대로 넣는다 (보관본은 timeline 순서로 저장)
+        for (int i = 2; i >= 0; i--) {
+            incidentEventRepository.save(new IncidentEvent(resolved, IncidentEventType.EVENT_INGESTED, null,
+                    OCCURRED_AT.plusSeconds(i), "trace-" + i, "boom " + i));
+        }
+        incidentAnalysisRepository.save(new IncidentAnalysis(resolved, "DATABASE", "HIGH", "title", "summary",
+                "[\"boom\"]", "[]", "[]", OCCURRED_AT, "v1"));
+        // 종결됐어도 아직 after 가 안 지났으면, 오래됐어도 종결 전이면 남는다
+        Incident recent = incident("recent-hash", IncidentStatus.RESOLVED, Duration.ofDays(1));
+        Incident open = incident("open-hash", IncidentStatus.OPEN, Duration.ofDays(40));
+        rollup(resolved.getId());
+        rollup(recent.getId());
+        int segmentsBefore = archive.segmentCount();
+
+        assertThat(archiver.archive()).isEqualTo(1);
+
+        assertThat(incidentRepository.findAll()).extracting(Incident::getId)
+                .containsExactlyInAnyOrder(recent.getId(), open.getId());
+        assertThat(incidentEventRepository.count()).isZero();
+        assertThat(incidentAnalysisRepository.count()).isZero();
+        // 발생 추이 rollup 은 보관하지 않고 같이 지운다
+        assertThat(jdbcTemplate.queryForList("SELECT incident_id FROM incident_occurrence_rollup", Long.class))
+                .containsExactly(recent.getId());
+        assertThat(archive.segmentCount()).isEqualTo(segmentsBefore + 1);
+
+        ArchivedIncident archived = archive.find(resolved.getId()).orElseThrow();
+        assertThat(archived.events()).hasSize(3);
+        assertThat(ArchivedIncident.string(archived.analysis(), "category")).isEqualTo("DATABASE");
+        // consumer 가 멈추면 나머지 이벤트는 읽지 않는다
+        List<Object> read = new ArrayList<>();
+        assertThat(archive.readEvents(resolved.getId(), null,
+                event -> read.add(event.get("message")) && read.size() < 2)).isTrue();
+        assertThat(read).containsExactly("boom 0", "boom 1");
+        assertThat(archive.readEvents(Long.MAX_VALUE, null, event -> true)).isFalse();
+
+        mockMvc.perform(get("/api/incidents/{id}", resolved.getId()).param("recentEvents", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IncidentController.ARCHIVED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(resolved.getId()))
+                .andExpect(jsonPath("$.status").value("RESOLVED"))
+                .andExpect(jsonPath("$.serviceName").value("svc"))
+                .andExpect(jsonPath("$.firstSeenAt").value(OCCURRED_AT.toString()))
+                .andExpect(jsonPath("$.events.length()").value(2))
+                .andExpect(jsonPath("$.events[0].message").value("boom 1"))
+                .andExpect(jsonPath("$.events[1].message").value("boom 2"));
+
+        // timeline 도 보관본에서 같은 cursor 규칙으로 나눠 준다
+        MvcResult firstPage = mockMvc.perform(get("/api/incidents/{id}/events", resolved.getId()).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IncidentController.ARCHIVED_HEADER, "true"))
+                .andExpect(jsonPath("$[*].message").value(contains("boom 0", "boom 1")))
+                .andReturn();
+        String next = firstPage.getResponse().getHeader(IncidentController.NEXT_CURSOR_HEADER);
+        assertThat(next).isNotNull();
+        mockMvc.perform(get("/api/incidents/{id}/events", resolved.getId()).param("limit", "2").param("cursor", next))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IncidentController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$[*].message").value(contains("boom 2")));
+        String stream = mockMvc.perform(get("/api/incidents/{id}/events/stream", resolved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IncidentController.ARCHIVED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(stream.lines()).hasSize(3).allMatch(line -> line.contains("\"type\":\"EVENT_INGESTED\""));
+        mockMvc.perform(get("/api/incidents/{id}/events", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/incidents/{id}", recent.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IncidentController.ARCHIVED_HEADER));
+        mockMvc.perform(get("/api/incidents/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    private void rollup(long incidentId) {
+        jdbcTemplate.update("""
+                        INSERT INTO incident_occurrence_rollup (incident_id, granularity, bucket_start, service_name, occurrence_count)
+                        VALUES (?, 'MINUTE', ?, 'svc', 1)
+                        """,
+                incidentId, Timestamp.from(OCCURRED_AT));
+    }
+
+    private Incident incident(String signatureHash, IncidentStatus status, Duration age) {
+        Incident incident = new Incident("svc", signatureHash, "com.example.Failure", OCCURRED_AT, "trace", "failure");
+        if (status != IncidentStatus.OPEN) {
+            incident.transitionTo(status, null);
+        }
+        incident = incidentRepository.save(incident);
+        jdbcTemplate.update("UPDATE incident SET updated_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minus(age)), incident.getId());
+        return incident;
+    }
+}
@@ -1,6 +1,9 @@
 package com.TroubleShoot.observability.domain.incident.grouping;
 
 import com.troubleshoot.observability.domain.incident.grouping.ExceptionSignature;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -72,6 +75,102 @@ class ExceptionSignatureTest {
         assertThat(first.getSignatureHash()).isEqualTo(second.getSignatureHash());
     }
 
+    @Test
+    void rawStacktraceParsingMatchesLegacyParser() {
+        List<String> cases = List.of(
+                String.join("\n",
+                        "java.lang.IllegalArgumentException: bad input",
+                        "    at com.acme.Foo.bar(Foo.java:10)",
+                        "    at java.util.Objects.requireNonNull(Objects.java:246)"),
+                String.join("\n",
+                        "java.lang.IllegalStateException: boom",
+                        "    at com.acme.Foo.bar(Foo.java:10)",
+                        "    at com.acme.Baz.bat(Baz.java:20)"),
+                "Exception in thread \"main\" java.lang.NullPointerException\r\n\tat com.acme.Main.main(Main.java:5)\r\n",
+                "Exception in thread \"main\" \n\tat com.acme.Main.main(Main.java)",
+                "\n\n   \ncom.acme.Boom\n\tat com.acme.A.b(A.java:1)\n\n\tat com.acme.C.d(Native Method)",
+                "x: y\n\tat org.springframework.web.Filter.doFilter(Filter.java:12)\n\tat sun.reflect.X.y(X.java:3)",
+                "x\n\tat com.acme.Lambda.lambda$run$0(Lambda.java:7)\n\tat com.acme.Outer$Inner.<init>(Outer.java:9)",
+                "x\n\tat com.acme.Gen.m(Gen.java:abc)\n\tat com.acme.Gen.n(:12)\n\tat noDot(File.java:-4)",
+                "x\n\tat com.acme.P.m(a(b)c.java:1)\n\tat com.acme.Q.m((x))\n\tat  (y)\n\tat \t(z)",
+                "x\n\tat com.acme.R.m(R.java:1) \n\tat com.acme.S.m(S.java:1)\r\r\n\tat\u2028com.acme.T.m(T.java:1)",
+                "x\n\tat com.acme.U.m(U.java:99999999999)\n\tat com.acme.V.m(V.java:+7)\n\tat com.acme.W.m(W.java:\u0663)",
+                "",
+                "   \n\t\n",
+                "only-header"
+        );
+
+        for (String stacktrace : cases) {
+            assertMatchesLegacy(stacktrace);
+        }
+    }
+
+    @Test
+    void rawStacktraceParsingMatchesLegacyParserOnFuzzedInput() {
+        String[] tokens = {
+                "at", "at ", "\tat ", " ", "  ", "\t", "\r", "\n", "\r\n", "(", ")", ".", ":", "$",
+                "java.", "jdk.", "sun.", "org.springframework.", "com.acme.Foo", "bar", "Foo.java", "Native Method",
+                "12", "-3", "+7", "0", "99999999999", "\u0663", "\u2028", "\u0085", "\u000B", "\f", "\u0001",
+                "\u00a0", "\u3000", "Exception in thread \"main\" ", "java.lang.IllegalStateException: boom",
+                "Caused by: ", "x"
+        };
+        Random random = new Random(20260225L);
+        int withFrames = 0;
+
+        for (int n = 0; n < 5_000; n++) {
+            StringBuilder stacktrace = new StringBuilder("x\n");
+            int length = random.nextInt(40);
+            for (int i = 0; i < length; i++) {
+                // frame 줄 모양을 섞어서 매칭되는 입력도 충분히 나오게 한다
+                if (random.nextInt(4) == 0) {
+                    stacktrace.append("\n\tat com.acme.F").append(i).append(".m(F.java:").append(i).append(')');
+                }
+                stacktrace.append(tokens[random.nextInt(tokens.length)]);
+            }
+            assertMatchesLegacy(stacktrace.toString());
+            if (!new LegacyStacktraceParser(50, true, false, false).parse(stacktrace.toString()).frames().isEmpty()) {
+                withFrames++;
+            }
+        }
+        assertThat(withFrames).isGreaterThan(1_000);
+    }
+
+    private static void assertMatchesLegacy(String stacktrace) {
+        for (int topFrames : new int[]{1, 2, 5, 50}) {
+            for (int bits = 0; bits < 8; bits++) {
+                int flags = bits;
+                boolean includeLineNumber = (flags & 1) != 0;
+                boolean filterJdk = (flags & 2) != 0;
+                boolean filterSpring = (flags & 4) != 0;
+
+                ExceptionSignature actual = ExceptionSignature.builder()
+                        .topFrames(topFrames)
+                        .includeLineNumber(includeLineNumber)
+                        .filterJdk(filterJdk)
+                        .filterSpring(filterSpring)
+                        .fromStacktrace(stacktrace);
+                LegacyStacktraceParser.Parsed expected =
+                        new LegacyStacktraceParser(topFrames, includeLineNumber, filterJdk, filterSpring)
+                                .parse(stacktrace);
+
+                assertThat(actual.getExceptionClassName())
+                        .as(() -> "exception class of " + describe(stacktrace))
+                        .isEqualTo(expected.exceptionClassName());
+                assertThat(actual.getFrames())
+                        .as(() -> "frames of " + describe(stacktrace) + " (topFrames=" + topFrames + ", flags=" + flags + ")")
+                        .isEqualTo(expected.frames());
+            }
+        }
+    }
+
+    private static String describe(String stacktrace) {
+        List<String> codePoints = new ArrayList<>();
+        stacktrace.codePoints().forEach(cp -> codePoints.add(cp < 0x20 || cp > 0x7e
+                ? String.format("\\u%04x", cp)
+                : String.valueOf((char) cp)));
+        return "\"" + String.join("", codePoints) + "\"";
+    }
+
     private static Throwable createThrowable() {
         try {
             throw new IllegalStateException("boom");
@@ -1,20 +1,55 @@
-package com.TroubleShoot.observability.domain.incident.grouping;
+package com.troubleshoot.observability.domain.incident.grouping;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.grouping.ExceptionSignatureFactory;
+import com.troubleshoot.observability.domain.incident.grouping.OpenIncidentIndex;
 import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
+import com.troubleshoot.observability.domain.incident.analyze.AnalysisRuleSetProvider;
+import com.troubleshoot.observability.domain.incident.analyze.RuleBasedIncidentAnalyzer;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRepository;
+import com.troubleshoot.observability.domain.incident.service.AnalysisJobQueue;
+import com.troubleshoot.observability.domain.incident.service.AnalysisTriggerEngine;
 import com.troubleshoot.observability.domain.incident.service.ErrorEvent;
+import com.troubleshoot.observability.domain.incident.service.GroupingResult;
+import com.troubleshoot.observability.domain.incident.service.AnalysisResultCache;
+import com.troubleshoot.observability.domain.incident.service.IncidentAnalysisService;
+import com.troubleshoot.observability.domain.incident.service.IncidentEventSampler;
 import com.troubleshoot.observability.domain.incident.service.IncidentGroupingService;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceCounterBuffer;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceRollupBuffer;
+import com.troubleshoot.observability.global.jdbc.DatabaseDialect;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @DataJpaTest
-@Import(IncidentGroupingService.class)
+@Import({IncidentGroupingService.class, OpenIncidentIndex.class, OccurrenceCounterBuffer.class,
+        ExceptionSignatureFactory.class, IncidentEventSampler.class, OccurrenceRollupBuffer.class,
+        AnalysisTriggerEngine.class, AnalysisJobQueue.class, IncidentAnalysisService.class, RuleBasedIncidentAnalyzer.class,
+        AnalysisRuleSetProvider.class, AnalysisResultCache.class, DatabaseDialect.class,
+        ObjectMapper.class, SimpleMeterRegistry.class})
+// occurrence 카운트는 커밋 이후에 반영되므로 테스트 트랜잭션으로 감싸지 않는다
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
 class IncidentGroupingServiceTest {
 
     @Autowired
@@ -23,11 +58,23 @@ class IncidentGroupingServiceTest {
     @Autowired
     private IncidentRepository incidentRepository;
 
+    @Autowired
+    private IncidentEventRepository incidentEventRepository;
+
+    @Autowired
+    private OccurrenceCounterBuffer occurrenceCounterBuffer;
+
+    @AfterEach
+    void cleanUp() {
+        incidentEventRepository.deleteAll();
+        incidentRepository.deleteAll();
+    }
+
     @Test
     void sameSignatureWithinWindowUpdatesSameIncident() {
         Instant t0 = Instant.parse("2026-02-23T10:00:00Z");
 
-        Incident first = service.handle(event(
+        GroupingResult first = service.handle(event(
                 "billing",
                 t0,
                 "trace-1",
@@ -36,7 +83,7 @@ class IncidentGroupingServiceTest {
                 stacktraceA()
         ));
 
-        Incident second = service.handle(event(
+        GroupingResult second = service.handle(event(
                 "billing",
                 t0.plus(Duration.ofMinutes(4)),
                 "trace-2",
@@ -45,9 +92,12 @@ class IncidentGroupingServiceTest {
                 stacktraceA()
         ));
 
-        assertThat(second.getId()).isEqualTo(first.getId());
-        assertThat(second.getOccurrenceCount()).isEqualTo(2);
-        assertThat(second.getLastSeenAt()).isEqualTo(t0.plus(Duration.ofMinutes(4)));
+        assertThat(second.incidentId()).isEqualTo(first.incidentId());
+        assertThat(second.grouped()).isTrue();
+        occurrenceCounterBuffer.flush();
+        Incident incident = incidentRepository.findById(second.incidentId()).orElseThrow();
+        assertThat(incident.getOccurrenceCount()).isEqualTo(2);
+        assertThat(incident.getLastSeenAt()).isEqualTo(t0.plus(Duration.ofMinutes(4)));
         assertThat(incidentRepository.count()).isEqualTo(1);
     }
 
@@ -55,7 +105,7 @@ class IncidentGroupingServiceTest {
     void sameSignatureAfterWindowCreatesNewIncident() {
         Instant t0 = Instant.parse("2026-02-23T10:00:00Z");
 
-        Incident first = service.handle(event(
+        GroupingResult first = service.handle(event(
                 "billing",
                 t0,
                 "trace-1",
@@ -64,7 +114,7 @@ class IncidentGroupingServiceTest {
                 stacktraceA()
         ));
 
-        Incident second = service.handle(event(
+        GroupingResult second = service.handle(event(
                 "billing",
                 t0.plus(Duration.ofMinutes(6)),
                 "trace-2",
@@ -73,7 +123,7 @@ class IncidentGroupingServiceTest {
                 stacktraceA()
         ));
 
-        assertThat(second.getId()).isNotEqualTo(first.getId());
+        assertThat(second.incidentId()).isNotEqualTo(first.incidentId());
         assertThat(incidentRepository.count()).isEqualTo(2);
     }
 
@@ -81,7 +131,7 @@ class IncidentGroupingServiceTest {
     void differentSignatureCreatesNewIncident() {
         Instant t0 = Instant.parse("2026-02-23T10:00:00Z");
 
-        Incident first = service.handle(event(
+        GroupingResult first = service.handle(event(
                 "billing",
                 t0,
                 "trace-1",
@@ -90,7 +140,7 @@ class IncidentGroupingServiceTest {
                 stacktraceA()
         ));
 
-        Incident second = service.handle(event(
+        GroupingResult second = service.handle(event(
                 "billing",
                 t0.plus(Duration.ofMinutes(2)),
                 "trace-2",
@@ -99,10 +149,39 @@ class IncidentGroupingServiceTest {
                 stacktraceB()
         ));
 
-        assertThat(second.getId()).isNotEqualTo(first.getId());
+        assertThat(second.incidentId()).isNotEqualTo(first.incidentId());
         assertThat(incidentRepository.count()).isEqualTo(2);
     }
 
+    @Test
+    void openIndexHitChecksStatusWithoutUpdatingIncidentRow() {
+        Instant t0 = Instant.parse("2026-02-23T10:00:00Z");
+        GroupingResult first = service.handle(event(
+                "billing",
+                t0,
+                "trace-1",
+                "msg-1",
+                "java.lang.IllegalStateException",
+                stacktraceA()
+        ));
+
+        StatementRecorder.STATEMENTS.clear();
+        GroupingResult second = service.handle(event(
+                "billing",
+                t0.plus(Duration.ofMinutes(1)),
+                "trace-2",
+                "msg-2",
+                "java.lang.IllegalStateException",
+                stacktraceA()
+        ));
+
+        assertThat(second.incidentId()).isEqualTo(first.incidentId());
+        // 인덱스 hit 은 상태 확인 SELECT 만, incident 행 쓰기는 write-behind 카운터 flush 때
+        assertThat(StatementRecorder.STATEMENTS)
+                .anyMatch(sql -> sql.startsWith("SELECT status, occurrence_count FROM incident WHERE id = ?"))
+                .noneMatch(sql -> sql.toLowerCase().matches("(?s).*\\bupdate\\s+incident\\s.*"));
+    }
+
     private static ErrorEvent event(String serviceName,
                                     Instant occurredAt,
                                     String traceId,
@@ -127,4 +206,39 @@ class IncidentGroupingServiceTest {
                 "    at com.acme.Helper.run(Helper.java:44)"
         );
     }
+
+    // 테스트 DataSource 로 나가는 SQL 을 기록한다
+    @TestConfiguration
+    static class StatementRecorder implements BeanPostProcessor {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return recording(super.getConnection());
+                }
+            };
+        }
+
+        private static Connection recording(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare") && args != null && args[0] instanceof String sql) {
+                            STATEMENTS.add(sql);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
 }
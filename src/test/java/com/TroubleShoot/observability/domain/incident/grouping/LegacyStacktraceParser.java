@@ -0,0 +1,140 @@
+package com.TroubleShoot.observability.domain.incident.grouping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// ExceptionSignature.Builder.fromStacktrace 의 예전 정규식 구현. 새 파서와의 differential 테스트 기준값으로만 쓴다.
+final class LegacyStacktraceParser {
+
+    private static final Pattern STACKTRACE_LINE =
+            Pattern.compile("^\\s*at\\s+(.+)\\((.+)\\)$");
+
+    private final int topFrames;
+    private final boolean includeLineNumber;
+    private final boolean filterJdk;
+    private final boolean filterSpring;
+
+    LegacyStacktraceParser(int topFrames, boolean includeLineNumber, boolean filterJdk, boolean filterSpring) {
+        this.topFrames = topFrames;
+        this.includeLineNumber = includeLineNumber;
+        this.filterJdk = filterJdk;
+        this.filterSpring = filterSpring;
+    }
+
+    record Parsed(String exceptionClassName, List<String> frames) {
+    }
+
+    Parsed parse(String stacktrace) {
+        List<String> lines = splitLines(stacktrace);
+        return new Parsed(extractExceptionClassName(lines), normalizeFrames(parseFrames(lines)));
+    }
+
+    private List<String> normalizeFrames(List<Frame> frames) {
+        List<String> normalized = new ArrayList<>();
+        for (Frame frame : frames) {
+            if (shouldFilter(frame.className)) {
+                continue;
+            }
+            normalized.add(formatFrame(frame));
+            if (normalized.size() >= topFrames) {
+                break;
+            }
+        }
+        return normalized;
+    }
+
+    private boolean shouldFilter(String className) {
+        if (className == null) {
+            return false;
+        }
+        if (filterJdk && (className.startsWith("java.")
+                || className.startsWith("jdk.")
+                || className.startsWith("sun."))) {
+            return true;
+        }
+        return filterSpring && className.startsWith("org.springframework.");
+    }
+
+    private String formatFrame(Frame frame) {
+        String fileName = frame.fileName != null ? frame.fileName : "Unknown Source";
+        if (includeLineNumber && frame.lineNumber >= 0) {
+            return frame.className + "#" + frame.methodName + "(" + fileName + ":" + frame.lineNumber + ")";
+        }
+        if (includeLineNumber) {
+            return frame.className + "#" + frame.methodName + "(" + fileName + ":?)";
+        }
+        return frame.className + "#" + frame.methodName + "(" + fileName + ")";
+    }
+
+    private static List<String> splitLines(String stacktrace) {
+        String[] raw = stacktrace.split("\\r?\\n");
+        List<String> lines = new ArrayList<>(raw.length);
+        for (String line : raw) {
+            if (!line.isBlank()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static String extractExceptionClassName(List<String> lines) {
+        if (lines.isEmpty()) {
+            return "UnknownException";
+        }
+        String first = lines.get(0).trim();
+        if (first.startsWith("Exception in thread")) {
+            int lastSpace = first.lastIndexOf(' ');
+            if (lastSpace > 0 && lastSpace < first.length() - 1) {
+                return first.substring(lastSpace + 1).trim();
+            }
+        }
+        int colon = first.indexOf(':');
+        if (colon >= 0) {
+            return first.substring(0, colon).trim();
+        }
+        return first;
+    }
+
+    private static List<Frame> parseFrames(List<String> lines) {
+        List<Frame> frames = new ArrayList<>();
+        for (int i = 1; i < lines.size(); i++) {
+            String line = lines.get(i);
+            Matcher matcher = STACKTRACE_LINE.matcher(line);
+            if (!matcher.matches()) {
+                continue;
+            }
+            String methodFull = matcher.group(1).trim();
+            String filePart = matcher.group(2).trim();
+            int lastDot = methodFull.lastIndexOf('.');
+            String className;
+            String methodName;
+            if (lastDot > 0) {
+                className = methodFull.substring(0, lastDot);
+                methodName = methodFull.substring(lastDot + 1);
+            } else {
+                className = methodFull;
+                methodName = "unknown";
+            }
+
+            String fileName = filePart;
+            int lineNumber = -1;
+            int colon = filePart.lastIndexOf(':');
+            if (colon > 0) {
+                fileName = filePart.substring(0, colon);
+                String lineText = filePart.substring(colon + 1);
+                try {
+                    lineNumber = Integer.parseInt(lineText);
+                } catch (NumberFormatException ignored) {
+                    lineNumber = -1;
+                }
+            }
+            frames.add(new Frame(className, methodName, fileName, lineNumber));
+        }
+        return frames;
+    }
+
+    private record Frame(String className, String methodName, String fileName, int lineNumber) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.TroubleShoot.observability.domain.incident.grouping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+import com.troubleshoot.observability.domain.incident.grouping.GroupingKey;
+import com.troubleshoot.observability.domain.incident.grouping.OpenIncidentIndex;
+import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
+import com.troubleshoot.observability.domain.incident.infra.OpenIncidentRef;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class OpenIncidentIndexTest {
+
+    private static final Instant T0 = Instant.parse("2026-02-23T10:00:00Z");
+    private static final GroupingKey KEY = new GroupingKey("billing", "hash-1");
+
+    private final MutableClock clock = new MutableClock(T0);
+    private final IncidentRepository incidentRepository = mock(IncidentRepository.class);
+    private final OpenIncidentIndex index =
+            new OpenIncidentIndex(incidentRepository, clock, Duration.ofMinutes(5), Duration.ofSeconds(5));
+
+    @Test
+    void findsIncidentOnlyWithinWindowOfEventTime() {
+        index.put(KEY, 7L, T0);
+
+        assertThat(index.find(KEY, T0.plus(Duration.ofMinutes(4))).incidentId()).isEqualTo(7L);
+        assertThat(index.find(KEY, T0.plus(Duration.ofMinutes(6)))).isNull();
+        assertThat(index.find(new GroupingKey("billing", "other"), T0)).isNull();
+    }
+
+    @Test
+    void touchExtendsLastSeenAt() {
+        index.put(KEY, 7L, T0);
+        index.touch(KEY, T0.plus(Duration.ofMinutes(4)));
+
+        assertThat(index.find(KEY, T0.plus(Duration.ofMinutes(8))).lastSeenAt())
+                .isEqualTo(T0.plus(Duration.ofMinutes(4)));
+    }
+
+    @Test
+    void expiresIdleEntriesOnTimingWheel() {
+        index.put(KEY, 7L, T0);
+
+        clock.advance(Duration.ofMinutes(3));
+        index.touch(KEY, T0.plus(Duration.ofMinutes(3)));
+        clock.advance(Duration.ofMinutes(3));
+        index.expireEntries();
+        assertThat(index.size()).isEqualTo(1);
+
+        clock.advance(Duration.ofMinutes(3));
+        index.expireEntries();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void invalidateRemovesIncident() {
+        index.put(KEY, 7L, T0);
+
+        index.invalidate(7L);
+
+        assertThat(index.find(KEY, T0)).isNull();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void putAfterInvalidateDoesNotBringTheIncidentBack() {
+        index.put(KEY, 7L, T0);
+
+        // 종결 전에 읽은 배치의 커밋 후 put 이 늦게 도착한 경우
+        index.invalidate(7L);
+        index.put(KEY, 7L, T0.plus(Duration.ofMinutes(1)));
+
+        assertThat(index.find(KEY, T0.plus(Duration.ofMinutes(1)))).isNull();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void newIncidentForSameKeyReplacesPreviousEntry() {
+        index.put(KEY, 7L, T0);
+        index.put(KEY, 8L, T0.plus(Duration.ofMinutes(10)));
+
+        index.invalidate(7L);
+
+        assertThat(index.find(KEY, T0.plus(Duration.ofMinutes(11))).incidentId()).isEqualTo(8L);
+    }
+
+    @Test
+    void warmsUpFromOpenIncidents() {
+        when(incidentRepository.findOpenIncidentRefs(eq(IncidentStatus.groupable()), any()))
+                .thenReturn(List.of(new OpenIncidentRef(9L, "billing", "hash-1", T0)));
+
+        index.warmUp();
+
+        assertThat(index.find(KEY, T0.plus(Duration.ofMinutes(1))).incidentId()).isEqualTo(9L);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
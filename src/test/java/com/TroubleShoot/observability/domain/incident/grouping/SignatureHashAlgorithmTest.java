@@ -0,0 +1,153 @@
+package com.TroubleShoot.observability.domain.incident.grouping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.troubleshoot.observability.domain.incident.grouping.ExceptionSignature;
+import com.troubleshoot.observability.domain.incident.grouping.SignatureHashAlgorithm;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SignatureHashAlgorithmTest {
+
+    @Test
+    void sha256StaysCompatibleWithPreviouslyStoredHashes() throws Exception {
+        Random random = new Random(42);
+        for (int n = 0; n < 500; n++) {
+            String input = randomString(random);
+            assertThat(SignatureHashAlgorithm.SHA_256.hash(input)).isEqualTo(legacySha256Hex(input));
+        }
+    }
+
+    @Test
+    void murmur3MatchesByteOrientedReferenceOverUtf16le() {
+        Random random = new Random(7);
+        for (int n = 0; n < 2_000; n++) {
+            String input = randomString(random);
+            long[] expected = referenceMurmur3(input.getBytes(StandardCharsets.UTF_16LE));
+            assertThat(SignatureHashAlgorithm.MURMUR3_128.hash(input))
+                    .isEqualTo("m3:" + String.format("%016x%016x", expected[0], expected[1]));
+        }
+    }
+
+    @Test
+    void referenceMurmur3MatchesKnownVector() {
+        // Guava Hashing.murmur3_128() 과 같은 값
+        long[] hash = referenceMurmur3("The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8));
+        assertThat(hash[0]).isEqualTo(0xe34bbc7bbc071b6cL);
+        assertThat(hash[1]).isEqualTo(0x7a433ca9c49a9347L);
+    }
+
+    @Test
+    void storedHashRecordsWhichAlgorithmProducedIt() {
+        String stacktrace = "java.lang.IllegalStateException: boom\n\tat com.acme.Foo.bar(Foo.java:10)";
+
+        ExceptionSignature sha = ExceptionSignature.fromStacktrace(stacktrace);
+        ExceptionSignature murmur = ExceptionSignature.builder()
+                .hashAlgorithm(SignatureHashAlgorithm.MURMUR3_128)
+                .fromStacktrace(stacktrace);
+
+        assertThat(SignatureHashAlgorithm.of(sha.getSignatureHash())).isEqualTo(SignatureHashAlgorithm.SHA_256);
+        assertThat(SignatureHashAlgorithm.of(murmur.getSignatureHash())).isEqualTo(SignatureHashAlgorithm.MURMUR3_128);
+        assertThat(murmur.hashWith(SignatureHashAlgorithm.SHA_256)).isEqualTo(sha.getSignatureHash());
+        assertThat(SignatureHashAlgorithm.fromConfigName("murmur3")).isEqualTo(SignatureHashAlgorithm.MURMUR3_128);
+    }
+
+    private static String randomString(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int length = random.nextInt(80);
+        for (int i = 0; i < length; i++) {
+            // ASCII 위주 + 한글/서로게이트 일부
+            int kind = random.nextInt(10);
+            if (kind == 0) {
+                sb.append((char) (0xac00 + random.nextInt(100)));
+            } else if (kind == 1) {
+                sb.appendCodePoint(0x1f600 + random.nextInt(50));
+            } else {
+                sb.append((char) (0x20 + random.nextInt(0x5f)));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String legacySha256Hex(String input) throws Exception {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(input.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    // MurmurHash3_x64_128 (seed 0) 의 byte[] 기준 구현
+    private static long[] referenceMurmur3(byte[] data) {
+        long c1 = 0x87c37b91114253d5L;
+        long c2 = 0x4cf5ad432745937fL;
+        long h1 = 0;
+        long h2 = 0;
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        int blocks = data.length / 16;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = buffer.getLong(i * 16);
+            long k2 = buffer.getLong(i * 16 + 8);
+            k1 *= c1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= c2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+            k2 *= c2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= c1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks * 16;
+        for (int i = data.length - tail - 1; i >= 0; i--) {
+            long b = data[tail + i] & 0xffL;
+            if (i >= 8) {
+                k2 ^= b << ((i - 8) * 8);
+            } else {
+                k1 ^= b << (i * 8);
+            }
+        }
+        if (data.length - tail > 8) {
+            k2 *= c2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= c1;
+            h2 ^= k2;
+        }
+        if (data.length - tail > 0) {
+            k1 *= c1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= c2;
+            h1 ^= k1;
+        }
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[] {h1, h2};
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,156 @@
+package com.TroubleShoot.observability.domain.incident.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.function.Function;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// incident_event 와 같은 모양의 테이블에 IDENTITY(이전 매핑) vs pooled sequence + JDBC 배치(현재 매핑) insert 비교.
+// H2 PostgreSQL 모드, 같은 SessionFactory 설정(batch_size=50, order_inserts)에서 id 전략만 다르다.
+class IncidentEventInsertThroughputTest {
+
+    private static final int ROWS = 20_000;
+    private static final int FLUSH_EVERY = 500;
+
+    private SessionFactory sessionFactory;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(IdentityEvent.class)
+                .addAnnotatedClass(PooledEvent.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:event_throughput;DB_CLOSE_DELAY=-1;MODE=PostgreSQL")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.connection.password", "")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.order_inserts", "true")
+                .setProperty("hibernate.generate_statistics", "true")
+                .buildSessionFactory();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void pooledSequenceWithBatchingCutsInsertStatementsByAnOrderOfMagnitude() {
+        // warm-up (JIT, H2 페이지 할당)
+        insert(2_000, IdentityEvent::new);
+        insert(2_000, PooledEvent::new);
+
+        Result identity = insert(ROWS, IdentityEvent::new);
+        Result pooled = insert(ROWS, PooledEvent::new);
+
+        System.out.printf("incident_event insert (%d rows): IDENTITY %,.0f rows/s, %d statements / "
+                        + "pooled sequence + batch %,.0f rows/s, %d statements%n",
+                ROWS,
+                identity.rowsPerSecond(), identity.statements(),
+                pooled.rowsPerSecond(), pooled.statements());
+
+        // IDENTITY 는 행마다 insert 1회, pooled 는 50행당 insert 배치 1회 + sequence 조회 1회
+        assertThat(identity.statements()).isGreaterThanOrEqualTo(ROWS);
+        // 소요 시간은 환경에 따라 흔들리므로 출력만 하고, 판정은 statement 수로 한다
+        assertThat(pooled.statements() * 10).isLessThan(identity.statements());
+    }
+
+    private Result insert(int rows, Function<Integer, Object> factory) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        long started = System.nanoTime();
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < rows; i++) {
+                session.persist(factory.apply(i));
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+        long elapsed = System.nanoTime() - started;
+
+        return new Result(
+                rows * 1_000_000_000d / elapsed,
+                statistics.getPrepareStatementCount()
+        );
+    }
+
+    private record Result(double rowsPerSecond, long statements) {
+    }
+
+    @Entity(name = "IdentityEvent")
+    @Table(name = "identity_event")
+    static class IdentityEvent {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        @Column(name = "incident_id", nullable = false)
+        long incidentId;
+
+        @Column(name = "type", nullable = false)
+        String type;
+
+        @Column(name = "occurred_at", nullable = false)
+        Instant occurredAt;
+
+        @Column(name = "message")
+        String message;
+
+        IdentityEvent() {
+        }
+
+        IdentityEvent(Integer i) {
+            this.incidentId = i % 100;
+            this.type = "EVENT_INGESTED";
+            this.occurredAt = Instant.parse("2026-02-25T10:00:00Z").plusMillis(i);
+            this.message = "boom " + i;
+        }
+    }
+
+    @Entity(name = "PooledEvent")
+    @Table(name = "pooled_event")
+    static class PooledEvent {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pooled_event_seq")
+        @SequenceGenerator(name = "pooled_event_seq", sequenceName = "pooled_event_seq", allocationSize = 50)
+        Long id;
+
+        @Column(name = "incident_id", nullable = false)
+        long incidentId;
+
+        @Column(name = "type", nullable = false)
+        String type;
+
+        @Column(name = "occurred_at", nullable = false)
+        Instant occurredAt;
+
+        @Column(name = "message")
+        String message;
+
+        PooledEvent() {
+        }
+
+        PooledEvent(Integer i) {
+            this.incidentId = i % 100;
+            this.type = "EVENT_INGESTED";
+            this.occurredAt = Instant.parse("2026-02-25T10:00:00Z").plusMillis(i);
+            this.message = "boom " + i;
+        }
+    }
+}
@@ -1,4 +1,4 @@
-package com.TroubleShoot.observability.domain.incident.persistence;
+package com.troubleshoot.observability.domain.incident.persistence;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -7,6 +7,7 @@ import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
 import com.troubleshoot.observability.domain.incident.persistence.IncidentEvent;
 import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRepository;
 import com.troubleshoot.observability.domain.incident.persistence.IncidentEventType;
+import com.troubleshoot.observability.global.jdbc.DatabaseDialect;
 import java.time.Instant;
 import java.util.List;
 
@@ -14,8 +15,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import jakarta.persistence.EntityManager;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 
 @DataJpaTest
+@Import(DatabaseDialect.class)
 class IncidentPersistenceTest {
 
     @Autowired
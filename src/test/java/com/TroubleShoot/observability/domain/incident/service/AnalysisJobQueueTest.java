@@ -0,0 +1,181 @@
+package com.TroubleShoot.observability.domain.incident.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.troubleshoot.observability.domain.incident.service.AnalysisJob;
+import com.troubleshoot.observability.domain.incident.service.AnalysisJobQueue;
+import com.troubleshoot.observability.domain.incident.service.IncidentAnalysisService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AnalysisJobQueueTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IncidentAnalysisService analysisService = mock(IncidentAnalysisService.class);
+
+    @Test
+    void coalescesRequestsForSameIncidentIntoInFlightJob() throws Exception {
+        CountDownLatch workerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if ((long) invocation.getArgument(0) == 1L) {
+                workerBusy.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(analysisService).analyzeIncident(anyLong(), anyBoolean());
+
+        AnalysisJobQueue queue = queue(10);
+        queue.start();
+        AnalysisJob running;
+        try {
+            running = queue.submit(1L, false).orElseThrow();
+            assertThat(workerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(running.getStatus()).isEqualTo(AnalysisJob.Status.RUNNING);
+            assertThat(queue.submit(1L, false).orElseThrow()).isSameAs(running);
+
+            // 대기 중인 작업에 합쳐진 force 요청은 실행 시 반영된다
+            AnalysisJob queued = queue.submit(2L, false).orElseThrow();
+            assertThat(queue.submit(2L, true).orElseThrow()).isSameAs(queued);
+            assertThat(queued.isForce()).isTrue();
+
+            release.countDown();
+            awaitFinished(queued);
+            awaitFinished(running);
+
+            // 끝난 뒤 들어온 요청은 새 작업
+            AnalysisJob next = queue.submit(1L, false).orElseThrow();
+            assertThat(next).isNotSameAs(running);
+            awaitFinished(next);
+        } finally {
+            release.countDown();
+            queue.stop();
+        }
+
+        verify(analysisService, times(2)).analyzeIncident(1L, false);
+        verify(analysisService, times(1)).analyzeIncident(2L, true);
+        assertThat(queue.find(running.getId())).get()
+                .extracting(AnalysisJob::getStatus).isEqualTo(AnalysisJob.Status.SUCCEEDED);
+        assertThat(meterRegistry.get("analysis.jobs.queue.wait").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("analysis.jobs.execution").tag("outcome", "succeeded").timer().count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void forceRequestForRunningJobRunsAsFollowUpJob() throws Exception {
+        CountDownLatch workerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            workerBusy.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(analysisService).analyzeIncident(anyLong(), anyBoolean());
+
+        AnalysisJobQueue queue = queue(10);
+        queue.start();
+        AnalysisJob running;
+        AnalysisJob followUp;
+        try {
+            running = queue.submit(1L, false).orElseThrow();
+            assertThat(workerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // 실행 중인 작업에는 force 를 반영할 수 없으므로 끝난 뒤 실행할 force 작업이 된다
+            followUp = queue.submit(1L, true).orElseThrow();
+            assertThat(followUp).isNotSameAs(running);
+            assertThat(followUp.isForce()).isTrue();
+            assertThat(running.isForce()).isFalse();
+            assertThat(queue.find(followUp.getId())).containsSame(followUp);
+            // 그 사이 요청은 후속 작업에 합쳐지고, 같은 incident 를 동시에 돌리지 않게 아직 큐에 넣지 않는다
+            assertThat(queue.submit(1L, true).orElseThrow()).isSameAs(followUp);
+            assertThat(queue.submit(1L, false).orElseThrow()).isSameAs(followUp);
+            assertThat(queue.queueDepth()).isZero();
+            assertThat(followUp.getStatus()).isEqualTo(AnalysisJob.Status.QUEUED);
+
+            release.countDown();
+            awaitFinished(running);
+            awaitFinished(followUp);
+        } finally {
+            release.countDown();
+            queue.stop();
+        }
+
+        assertThat(followUp.getStatus()).isEqualTo(AnalysisJob.Status.SUCCEEDED);
+        assertThat(followUp.getStartedAt()).isAfterOrEqualTo(running.getFinishedAt());
+        verify(analysisService, times(1)).analyzeIncident(1L, false);
+        verify(analysisService, times(1)).analyzeIncident(1L, true);
+    }
+
+    @Test
+    void failedJobReportsErrorAndRejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch workerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            workerBusy.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("Cannot analyze incident in status RESOLVED");
+        }).when(analysisService).analyzeIncident(anyLong(), anyBoolean());
+
+        AnalysisJobQueue queue = queue(1);
+        queue.start();
+        AnalysisJob failed;
+        try {
+            failed = queue.submit(1L, false).orElseThrow();
+            assertThat(workerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(queue.submit(2L, false)).isPresent();
+            assertThat(queue.submit(3L, false)).isEmpty();
+
+            release.countDown();
+            awaitFinished(failed);
+        } finally {
+            release.countDown();
+            queue.stop();
+        }
+
+        assertThat(failed.getStatus()).isEqualTo(AnalysisJob.Status.FAILED);
+        assertThat(failed.getError()).contains("RESOLVED");
+        assertThat(meterRegistry.get("analysis.jobs.execution").tag("outcome", "failed").timer().count())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void jobKilledByAnErrorIsNotLeftInFlight() throws Exception {
+        doAnswer(invocation -> {
+            throw new StackOverflowError("deep rule");
+        }).when(analysisService).analyzeIncident(anyLong(), anyBoolean());
+
+        AnalysisJobQueue queue = queue(10);
+        queue.start();
+        try {
+            AnalysisJob crashed = queue.submit(1L, false).orElseThrow();
+            awaitFinished(crashed);
+
+            assertThat(crashed.getStatus()).isEqualTo(AnalysisJob.Status.FAILED);
+            assertThat(crashed.getError()).isEqualTo("deep rule");
+            assertThat(queue.submit(1L, false).orElseThrow()).isNotSameAs(crashed);
+        } finally {
+            queue.stop();
+        }
+    }
+
+    private AnalysisJobQueue queue(int capacity) {
+        return new AnalysisJobQueue(analysisService, meterRegistry, 1, capacity, Duration.ofHours(1), Clock.systemUTC());
+    }
+
+    private static void awaitFinished(AnalysisJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!job.getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(job.getStatus().isFinished()).isTrue();
+    }
+}
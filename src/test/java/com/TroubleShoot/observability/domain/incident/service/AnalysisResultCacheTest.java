@@ -0,0 +1,134 @@
+package com.TroubleShoot.observability.domain.incident.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.analyze.AnalysisRuleSet;
+import com.troubleshoot.observability.domain.incident.analyze.CategoryRule;
+import com.troubleshoot.observability.domain.incident.analyze.IncidentAnalysisResult;
+import com.troubleshoot.observability.domain.incident.analyze.RuleBasedIncidentAnalyzer;
+import com.troubleshoot.observability.domain.incident.service.AnalysisResultCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AnalysisResultCacheTest {
+
+    private static final Instant T0 = Instant.parse("2026-02-25T10:00:00Z");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(T0);
+    private final RuleBasedIncidentAnalyzer analyzer = new RuleBasedIncidentAnalyzer();
+
+    @Test
+    void reusesAResultAcrossIncidentsOfTheSameSignature() {
+        AnalysisResultCache cache = cache(10, Duration.ofHours(1));
+        Incident first = new Incident("checkout", "hash-1", "java.net.SocketTimeoutException", T0, "t-1",
+                "Read timed out after 30000 ms");
+        IncidentAnalysisResult analyzed = analyzer.analyze(first, List.of());
+        cache.put(cache.keyFor(first, analyzer.currentVersion()).orElseThrow(), analyzed);
+
+        // 다른 서비스, 숫자만 다른 메시지도 같은 지문이다
+        Incident next = new Incident("payment", "hash-1", "java.net.SocketTimeoutException", T0.plusSeconds(600), "t-2",
+                "Read timed out after 30001 ms");
+        IncidentAnalysisResult cached = cache.get(cache.keyFor(next, analyzer.currentVersion()).orElseThrow())
+                .orElseThrow();
+        IncidentAnalysisResult reused = analyzer.reuse(cached, next);
+
+        assertThat(reused.category()).isEqualTo(analyzed.category()).isEqualTo("NETWORK");
+        assertThat(reused.nextActions()).isEqualTo(analyzed.nextActions());
+        assertThat(reused.title()).isEqualTo("[payment] java.net.SocketTimeoutException incident");
+        assertThat(reused.keyEvidence()).containsExactly("Read timed out after 30001 ms");
+
+        Incident otherMessage = new Incident("payment", "hash-1", "java.net.SocketTimeoutException", T0, "t-3",
+                "connect timed out");
+        assertThat(cache.get(cache.keyFor(otherMessage, analyzer.currentVersion()).orElseThrow())).isEmpty();
+        assertThat(meterRegistry.get("analysis.cache.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("analysis.cache.requests").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void missesWhenTheRulesChanged() {
+        AnalysisResultCache cache = cache(10, Duration.ofHours(1));
+        Incident incident = new Incident("svc", "hash-1", "com.example.Failure", T0, "t-1", "kafka timeout");
+        IncidentAnalysisResult analyzed = analyzer.analyze(incident, List.of());
+        cache.put(cache.keyFor(incident, analyzer.currentVersion()).orElseThrow(), analyzed);
+
+        RuleBasedIncidentAnalyzer retuned = new RuleBasedIncidentAnalyzer(AnalysisRuleSet.withCategories(
+                "rules-test", List.of(CategoryRule.of("QUEUE", "kafka"))));
+
+        assertThat(cache.get(cache.keyFor(incident, retuned.currentVersion()).orElseThrow())).isEmpty();
+        // version 이 다른 결과는 analyzer 도 재사용을 거절한다
+        assertThat(retuned.reuse(analyzed, incident)).isNull();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedAndExpiredEntries() {
+        AnalysisResultCache cache = cache(2, Duration.ofMinutes(10));
+        IncidentAnalysisResult result = analyzer.analyze(
+                new Incident("svc", "hash", "com.example.Failure", T0, "t", "failure"), List.of());
+        AnalysisResultCache.Key a = new AnalysisResultCache.Key("a", "v", "f");
+        AnalysisResultCache.Key b = new AnalysisResultCache.Key("b", "v", "f");
+        AnalysisResultCache.Key c = new AnalysisResultCache.Key("c", "v", "f");
+
+        cache.put(a, result);
+        cache.put(b, result);
+        cache.get(a);
+        cache.put(c, result);
+
+        assertThat(cache.get(b)).isEmpty();
+        assertThat(cache.get(a)).isPresent();
+        assertThat(meterRegistry.get("analysis.cache.evictions").tag("cause", "size").counter().count()).isEqualTo(1);
+
+        clock.advance(Duration.ofMinutes(10));
+        cache.evictExpired();
+
+        assertThat(cache.size()).isZero();
+        assertThat(meterRegistry.get("analysis.cache.evictions").tag("cause", "expired").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("analysis.cache.size").gauge().value()).isZero();
+    }
+
+    @Test
+    void disabledCacheHasNoKeys() {
+        AnalysisResultCache cache = new AnalysisResultCache(meterRegistry, false, 10, Duration.ofHours(1), clock);
+        Incident incident = new Incident("svc", "hash", "com.example.Failure", T0, "t", "failure");
+
+        assertThat(cache.keyFor(incident, analyzer.currentVersion())).isEmpty();
+    }
+
+    private AnalysisResultCache cache(int maxSize, Duration ttl) {
+        return new AnalysisResultCache(meterRegistry, true, maxSize, ttl, clock);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.TroubleShoot.observability.domain.incident.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
+import com.troubleshoot.observability.domain.incident.infra.IncidentTriggerRow;
+import com.troubleshoot.observability.domain.incident.service.AnalysisJob;
+import com.troubleshoot.observability.domain.incident.service.AnalysisJobQueue;
+import com.troubleshoot.observability.domain.incident.service.AnalysisTriggerEngine;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceCounterBuffer;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceCounterBuffer.PendingOccurrences;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AnalysisTriggerEngineTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IncidentRepository incidentRepository = mock(IncidentRepository.class);
+    private final OccurrenceCounterBuffer occurrenceCounterBuffer = mock(OccurrenceCounterBuffer.class);
+    private final AnalysisJobQueue analysisJobQueue = mock(AnalysisJobQueue.class);
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-02-25T10:00:00Z"));
+    private final Map<Long, IncidentTriggerRow> rows = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(incidentRepository.findTriggerRows(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(rows::get).filter(row -> row != null).toList();
+        });
+        when(occurrenceCounterBuffer.pendingFor(anyLong())).thenReturn(PendingOccurrences.NONE);
+        when(analysisJobQueue.submit(anyLong(), anyBoolean())).thenReturn(Optional.of(mock(AnalysisJob.class)));
+    }
+
+    @Test
+    void firesOncePerCountThresholdAndHoldsCrossingsDuringCooldown() {
+        AnalysisTriggerEngine engine = engine(new int[] {20, 100}, 0);
+
+        occur(engine, 1L, 5, 5);
+        verify(analysisJobQueue, never()).submit(anyLong(), anyBoolean());
+
+        occur(engine, 1L, 16, 21);
+        verify(analysisJobQueue, times(1)).submit(1L, true);
+
+        // 같은 단계 안에서는 다시 걸지 않는다
+        clock.advance(Duration.ofMinutes(1));
+        occur(engine, 1L, 10, 31);
+        verify(analysisJobQueue, times(1)).submit(1L, true);
+
+        // 100 을 넘었지만 cooldown 중 -> 보류했다가 cooldown 이 끝나면 새 발생 없이도 한 번 건다
+        occur(engine, 1L, 80, 111);
+        verify(analysisJobQueue, times(1)).submit(1L, true);
+        clock.advance(Duration.ofMinutes(15));
+        engine.evaluate();
+        engine.evaluate();
+        verify(analysisJobQueue, times(2)).submit(1L, true);
+
+        // 이 프로세스가 보기 전에 이미 100 을 넘었던 incident 는 다시 걸지 않는다
+        occur(engine, 9L, 1, 150);
+        verify(analysisJobQueue, never()).submit(9L, true);
+
+        assertThat(meterRegistry.get("analysis.triggers.fired").tag("reason", "count").counter().count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.get("analysis.triggers.suppressed").counter().count()).isPositive();
+    }
+
+    @Test
+    void firesOnOccurrenceRateAndSkipsClosedIncidents() {
+        AnalysisTriggerEngine engine = engine(new int[] {1000}, 60);
+
+        occur(engine, 2L, 30, 30);
+        verify(analysisJobQueue, never()).submit(2L, true);
+
+        clock.advance(Duration.ofSeconds(10));
+        occur(engine, 2L, 120, 150);
+        verify(analysisJobQueue, times(1)).submit(2L, true);
+
+        rows.put(3L, new IncidentTriggerRow(3L, IncidentStatus.RESOLVED, 500));
+        engine.record(Map.of(3L, 500));
+        engine.evaluate();
+        verify(analysisJobQueue, never()).submit(3L, true);
+
+        assertThat(meterRegistry.get("analysis.triggers.fired").tag("reason", "rate").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    private AnalysisTriggerEngine engine(int[] countThresholds, long ratePerMinute) {
+        return new AnalysisTriggerEngine(incidentRepository, occurrenceCounterBuffer, analysisJobQueue, meterRegistry,
+                true, countThresholds, ratePerMinute, Duration.ofMinutes(15), 50, clock);
+    }
+
+    // grouping 이 count 건을 반영했고 DB 의 누적 건수가 total 이 된 상태에서 한 번 판정
+    private void occur(AnalysisTriggerEngine engine, long incidentId, int count, int total) {
+        rows.put(incidentId, new IncidentTriggerRow(incidentId, IncidentStatus.OPEN, total));
+        engine.record(Map.of(incidentId, count));
+        engine.evaluate();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
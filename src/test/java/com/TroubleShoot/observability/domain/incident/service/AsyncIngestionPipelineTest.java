@@ -0,0 +1,140 @@
+package com.TroubleShoot.observability.domain.incident.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import com.troubleshoot.observability.domain.incident.service.AsyncIngestionPipeline;
+import com.troubleshoot.observability.domain.incident.service.ErrorEvent;
+import com.troubleshoot.observability.domain.incident.service.IncidentGroupingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+class AsyncIngestionPipelineTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IncidentGroupingService groupingService = mock(IncidentGroupingService.class);
+
+    @Test
+    void workersDrainQueuedEventsInBatches() throws Exception {
+        List<ErrorEvent> grouped = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(10);
+        doAnswer(invocation -> {
+            List<ErrorEvent> batch = invocation.getArgument(0);
+            grouped.addAll(batch);
+            batch.forEach(event -> done.countDown());
+            return List.of();
+        }).when(groupingService).handleBatch(anyList());
+
+        AsyncIngestionPipeline pipeline = pipeline("async", 100);
+        pipeline.start();
+        try {
+            for (int i = 0; i < 10; i++) {
+                assertThat(pipeline.submit(event("trace-" + i))).isTrue();
+            }
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            pipeline.stop();
+        }
+
+        assertThat(grouped).hasSize(10);
+        assertThat(meterRegistry.get("ingestion.events.drained").counter().count()).isEqualTo(10.0);
+        assertThat(meterRegistry.get("ingestion.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    void dropsEventsWhenQueueIsFull() throws Exception {
+        CountDownLatch blockWorker = new CountDownLatch(1);
+        CountDownLatch workerBusy = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            workerBusy.countDown();
+            blockWorker.await(5, TimeUnit.SECONDS);
+            return List.of();
+        }).when(groupingService).handleBatch(anyList());
+
+        AsyncIngestionPipeline pipeline = pipeline("async", 2);
+        pipeline.start();
+        try {
+            pipeline.submit(event("in-flight"));
+            assertThat(workerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+
+            int accepted = pipeline.submitAll(List.of(event("a"), event("b"), event("c"), event("d")));
+
+            assertThat(accepted).isEqualTo(2);
+            assertThat(meterRegistry.get("ingestion.events.dropped").counter().count()).isEqualTo(2.0);
+            assertThat(meterRegistry.get("ingestion.queue.depth").gauge().value()).isEqualTo(2.0);
+        } finally {
+            blockWorker.countDown();
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void retriesDatabaseFailuresAndDropsOnlyTheEventGroupingRejects() throws Exception {
+        List<ErrorEvent> grouped = new CopyOnWriteArrayList<>();
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            List<ErrorEvent> batch = invocation.getArgument(0);
+            if (databaseDown.getAndSet(false)) {
+                throw new CannotCreateTransactionException("connection refused");
+            }
+            if (batch.stream().anyMatch(event -> event.getTraceId().equals("bad"))) {
+                throw new IllegalArgumentException("bad event");
+            }
+            grouped.addAll(batch);
+            if (grouped.size() == 2) {
+                done.countDown();
+            }
+            return List.of();
+        }).when(groupingService).handleBatch(anyList());
+
+        AsyncIngestionPipeline pipeline = pipeline("async", 10);
+        pipeline.start();
+        try {
+            assertThat(pipeline.submitAll(List.of(event("a"), event("bad"), event("b")))).isEqualTo(3);
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            pipeline.stop();
+        }
+
+        assertThat(grouped).extracting(ErrorEvent::getTraceId).containsExactlyInAnyOrder("a", "b");
+        assertThat(meterRegistry.get("ingestion.batch.retries").counter().count()).isGreaterThanOrEqualTo(1.0);
+        assertThat(meterRegistry.get("ingestion.events.failed").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("ingestion.events.drained").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void syncModeDoesNotStartWorkers() {
+        AsyncIngestionPipeline pipeline = pipeline("sync", 10);
+        pipeline.start();
+
+        assertThat(pipeline.isEnabled()).isFalse();
+        assertThat(pipeline.isRunning()).isFalse();
+        assertThat(pipeline.submit(event("trace"))).isFalse();
+    }
+
+    private AsyncIngestionPipeline pipeline(String mode, int capacity) {
+        return new AsyncIngestionPipeline(groupingService, meterRegistry, mode, capacity, 1, 50, 2, Duration.ofMillis(10));
+    }
+
+    private static ErrorEvent event(String traceId) {
+        return new ErrorEvent(
+                "billing",
+                Instant.parse("2026-02-25T10:15:30Z"),
+                traceId,
+                "boom",
+                "java.lang.IllegalStateException",
+                "java.lang.IllegalStateException: boom\n\tat com.acme.Foo.bar(Foo.java:10)"
+        );
+    }
+}
@@ -0,0 +1,112 @@
+package com.TroubleShoot.observability.domain.incident.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.troubleshoot.observability.ObservabilityApplication;
+import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentAnalysisRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEvent;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventType;
+import com.troubleshoot.observability.domain.incident.service.IncidentEventRetention;
+import com.troubleshoot.observability.domain.incident.service.RetentionReport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// H2 에는 파티션이 없으므로 chunk 단위 행 삭제 경로를 검증한다
+@SpringBootTest(classes = ObservabilityApplication.class)
+class IncidentEventRetentionTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T00:00:00Z");
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @Autowired
+    private IncidentEventRepository incidentEventRepository;
+
+    @Autowired
+    private IncidentAnalysisRepository incidentAnalysisRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private Incident incident;
+
+    @BeforeEach
+    void setUp() {
+        incidentAnalysisRepository.deleteAll();
+        incidentEventRepository.deleteAll();
+        incidentRepository.deleteAll();
+        incident = incidentRepository.save(
+                new Incident("svc", "retention-hash", "com.example.Failure", NOW, "trace", "failure"));
+    }
+
+    @Test
+    void deletesExpiredEventsPerTypeInChunks() {
+        for (int i = 0; i < 5; i++) {
+            event(IncidentEventType.EVENT_INGESTED, NOW.minus(Duration.ofDays(40 + i)));
+        }
+        event(IncidentEventType.EVENT_INGESTED, NOW.minus(Duration.ofDays(1)));
+        // ttl 이 없는 type 은 오래돼도 남는다
+        event(IncidentEventType.STATUS_CHANGED, NOW.minus(Duration.ofDays(400)));
+
+        RetentionReport report = retention(2, 100).purge();
+
+        assertThat(report.partitionsDropped()).isZero();
+        assertThat(report.deleted().rows()).isEqualTo(5);
+        // H2 는 텍스트 컬럼(message, trace_id) byte 수
+        assertThat(report.bytesReclaimed()).isEqualTo(5L * ("event message".length() + "trace".length()));
+        assertThat(report.backlog()).isFalse();
+        assertThat(incidentEventRepository.findAll())
+                .extracting(IncidentEvent::getType)
+                .containsExactlyInAnyOrder(IncidentEventType.EVENT_INGESTED, IncidentEventType.STATUS_CHANGED);
+        assertThat(meterRegistry.get("retention.events.reclaimed.rows").tag("method", "delete").counter().count())
+                .isEqualTo(5);
+    }
+
+    @Test
+    void leavesTheRestForTheNextRunWhenTheRunBudgetIsSpent() {
+        for (int i = 0; i < 5; i++) {
+            event(IncidentEventType.EVENT_INGESTED, NOW.minus(Duration.ofDays(40 + i)));
+        }
+        IncidentEventRetention retention = retention(2, 3);
+
+        RetentionReport first = retention.purge();
+        RetentionReport second = retention.purge();
+
+        assertThat(first.deleted().rows()).isEqualTo(3);
+        assertThat(first.backlog()).isTrue();
+        assertThat(second.deleted().rows()).isEqualTo(2);
+        assertThat(second.backlog()).isFalse();
+        assertThat(incidentEventRepository.count()).isZero();
+    }
+
+    private IncidentEventRetention retention(int chunkSize, long maxRowsPerRun) {
+        return new IncidentEventRetention(incidentEventRepository, meterRegistry, true,
+                Map.of(IncidentEventType.EVENT_INGESTED, Duration.ofDays(30)),
+                ChronoUnit.MONTHS, 2, Duration.ofMillis(500), chunkSize, 1_000_000, maxRowsPerRun,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private void event(IncidentEventType type, Instant createdAt) {
+        IncidentEvent event = incidentEventRepository.save(
+                new IncidentEvent(incident, type, null, createdAt, "trace", "event message"));
+        jdbcTemplate.update("UPDATE incident_event SET created_at = ? WHERE id = ?",
+                Timestamp.from(createdAt), event.getId());
+    }
+}
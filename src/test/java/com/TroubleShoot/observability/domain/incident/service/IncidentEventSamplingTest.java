@@ -0,0 +1,219 @@
+package com.TroubleShoot.observability.domain.incident.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.troubleshoot.observability.ObservabilityApplication;
+import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.grouping.ExceptionSignatureFactory;
+import com.troubleshoot.observability.domain.incident.grouping.OpenIncidentIndex;
+import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEvent;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventType;
+import com.troubleshoot.observability.domain.incident.service.AnalysisTriggerEngine;
+import com.troubleshoot.observability.domain.incident.service.ErrorEvent;
+import com.troubleshoot.observability.domain.incident.service.GroupingResult;
+import com.troubleshoot.observability.domain.incident.service.IncidentEventSampler;
+import com.troubleshoot.observability.domain.incident.service.IncidentGroupingService;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceCounterBuffer;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceRollupBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(classes = ObservabilityApplication.class)
+class IncidentEventSamplingTest {
+
+    private static final Instant T0 = Instant.parse("2026-02-25T10:00:00Z");
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @Autowired
+    private IncidentEventRepository incidentEventRepository;
+
+    @Autowired
+    private OccurrenceCounterBuffer occurrenceCounterBuffer;
+
+    @Autowired
+    private OccurrenceRollupBuffer occurrenceRollupBuffer;
+
+    @Autowired
+    private AnalysisTriggerEngine analysisTriggerEngine;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    @AfterEach
+    void resetData() {
+        incidentEventRepository.deleteAll();
+        incidentRepository.deleteAll();
+    }
+
+    @Test
+    void keepsEveryEventUpToThresholdThenFirstLastAndReservoirPerBucket() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // 5건까지 전부, 이후에는 1분 bucket 마다 첫/마지막 + reservoir 3건
+        IncidentEventSampler sampler = new IncidentEventSampler(incidentRepository, incidentEventRepository,
+                transactionManager, meterRegistry, 5, 3, Duration.ofMinutes(1), Clock.systemUTC());
+        IncidentGroupingService service = new IncidentGroupingService(
+                incidentRepository,
+                incidentEventRepository,
+                new OpenIncidentIndex(incidentRepository),
+                occurrenceCounterBuffer,
+                new ExceptionSignatureFactory("sha256", ""),
+                sampler,
+                occurrenceRollupBuffer,
+                analysisTriggerEngine);
+
+        // 1초 간격 100건: 0~59초는 첫 bucket, 60~99초는 다음 bucket
+        List<ErrorEvent> events = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            events.add(new ErrorEvent("checkout", T0.plusSeconds(i), null, "m" + i,
+                    "java.lang.IllegalStateException",
+                    "java.lang.IllegalStateException: boom\n\tat com.example.Checkout.pay(Checkout.java:10)"));
+        }
+        List<GroupingResult> results = new TransactionTemplate(transactionManager)
+                .execute(status -> service.handleBatch(events));
+        sampler.flushOnShutdown();
+        occurrenceCounterBuffer.flush();
+
+        long incidentId = results.get(0).incidentId();
+        assertThat(incidentRepository.findById(incidentId).orElseThrow().getOccurrenceCount()).isEqualTo(100);
+
+        List<IncidentEvent> stored = incidentEventRepository.findAll().stream()
+                .sorted(Comparator.comparing(IncidentEvent::getOccurredAt))
+                .toList();
+        // 생성 1 + threshold 5 + bucket 당 (첫 + 마지막 + reservoir 3) x 2
+        assertThat(stored).hasSize(16);
+        assertThat(stored.get(0).getType()).isEqualTo(IncidentEventType.INCIDENT_CREATED);
+        assertThat(stored).extracting(IncidentEvent::getMessage)
+                .startsWith("m0", "m1", "m2", "m3", "m4", "m5", "m6")
+                .contains("m59", "m60", "m99");
+        assertThat(meterRegistry.counter("incident.events.sampled_out").count()).isEqualTo(100 - 16);
+    }
+
+    @Test
+    void freshSamplerContinuesFromThePersistedOccurrenceCount() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<ErrorEvent> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(event(i));
+        }
+        IncidentEventSampler before = sampler(5);
+        transaction.execute(status -> service(before).handleBatch(events));
+        before.flushOnShutdown();
+        occurrenceCounterBuffer.flush();
+        long storedBefore = incidentEventRepository.count();
+
+        // 재시작한 노드처럼 sampler 와 인덱스가 비어 있어도 이미 threshold 를 넘긴 incident 는 바로 표본으로 간다
+        IncidentEventSampler restarted = sampler(5);
+        List<GroupingResult> results = transaction.execute(status -> service(restarted).handleBatch(List.of(event(10))));
+        assertThat(results.get(0).grouped()).isTrue();
+        assertThat(incidentEventRepository.count()).isEqualTo(storedBefore);
+
+        restarted.flushOnShutdown();
+        assertThat(incidentEventRepository.count()).isEqualTo(storedBefore + 1);
+    }
+
+    @Test
+    void rolledBackEventsGiveTheirFullThresholdSlotBack() {
+        IncidentEventSampler sampler = new IncidentEventSampler(incidentRepository, incidentEventRepository,
+                transactionManager, new SimpleMeterRegistry(), 1, 3, Duration.ofMinutes(1), Clock.systemUTC());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            assertThat(sampler.offer(1L, 2, event(0))).isTrue();
+            status.setRollbackOnly();
+        });
+
+        transaction.executeWithoutResult(status -> {
+            assertThat(sampler.offer(1L, 2, event(1))).isTrue();
+            assertThat(sampler.offer(1L, 3, event(2))).isFalse();
+        });
+    }
+
+    @Test
+    void samplesCommittedAfterTheirStateWasEvictedAreStillStored() {
+        MutableClock clock = new MutableClock(T0);
+        IncidentEventSampler sampler = new IncidentEventSampler(incidentRepository, incidentEventRepository,
+                transactionManager, new SimpleMeterRegistry(), 0, 3, Duration.ofMinutes(1), clock);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long incidentId = incidentRepository.save(new Incident("checkout", "hash", "java.lang.IllegalStateException",
+                T0, null, "m0")).getId();
+
+        transaction.executeWithoutResult(status -> {
+            assertThat(sampler.offer(incidentId, 2, event(1))).isFalse();
+            // 커밋 전에 오래 조용했던 것으로 보고 flush 가 상태를 정리한다
+            clock.advance(Duration.ofHours(1));
+            sampler.flush();
+        });
+        sampler.flushOnShutdown();
+
+        assertThat(incidentEventRepository.findAll()).extracting(IncidentEvent::getMessage).containsExactly("m1");
+    }
+
+    private IncidentEventSampler sampler(long fullThreshold) {
+        return new IncidentEventSampler(incidentRepository, incidentEventRepository,
+                transactionManager, new SimpleMeterRegistry(), fullThreshold, 3, Duration.ofMinutes(1), Clock.systemUTC());
+    }
+
+    private IncidentGroupingService service(IncidentEventSampler sampler) {
+        return new IncidentGroupingService(
+                incidentRepository,
+                incidentEventRepository,
+                new OpenIncidentIndex(incidentRepository),
+                occurrenceCounterBuffer,
+                new ExceptionSignatureFactory("sha256", ""),
+                sampler,
+                occurrenceRollupBuffer,
+                analysisTriggerEngine);
+    }
+
+    private static ErrorEvent event(int i) {
+        return new ErrorEvent("checkout", T0.plusSeconds(i), null, "m" + i,
+                "java.lang.IllegalStateException",
+                "java.lang.IllegalStateException: boom\n\tat com.example.Checkout.pay(Checkout.java:10)");
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
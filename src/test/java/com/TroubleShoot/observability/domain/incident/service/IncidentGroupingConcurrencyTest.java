@@ -0,0 +1,118 @@
+package com.TroubleShoot.observability.domain.incident.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.troubleshoot.observability.ObservabilityApplication;
+import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.IncidentStatus;
+import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRepository;
+import com.troubleshoot.observability.domain.incident.service.ErrorEvent;
+import com.troubleshoot.observability.domain.incident.service.GroupingResult;
+import com.troubleshoot.observability.domain.incident.service.IncidentGroupingService;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceCounterBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(classes = ObservabilityApplication.class)
+class IncidentGroupingConcurrencyTest {
+
+    private static final Instant T0 = Instant.parse("2026-02-25T10:00:00Z");
+
+    @Autowired
+    private IncidentGroupingService groupingService;
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @Autowired
+    private IncidentEventRepository incidentEventRepository;
+
+    @Autowired
+    private OccurrenceCounterBuffer occurrenceCounterBuffer;
+
+    @BeforeEach
+    @AfterEach
+    void resetData() {
+        incidentEventRepository.deleteAll();
+        incidentRepository.deleteAll();
+    }
+
+    @Test
+    void firstOccurrencesRacingFromManyThreadsCreateOneIncidentPerSignature() throws Exception {
+        int threads = 16;
+        int rounds = 10;
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<GroupingResult>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    List<GroupingResult> results = new ArrayList<>();
+                    for (int round = 0; round < rounds; round++) {
+                        // 매 라운드 새 signature 를 모든 스레드가 동시에 처음 보낸다
+                        barrier.await(10, TimeUnit.SECONDS);
+                        results.add(groupingService.handle(event(round, T0.plusMillis(thread))));
+                    }
+                    return results;
+                }));
+            }
+
+            List<GroupingResult> all = new ArrayList<>();
+            for (Future<List<GroupingResult>> future : futures) {
+                all.addAll(future.get(60, TimeUnit.SECONDS));
+            }
+
+            assertThat(all).hasSize(threads * rounds);
+            assertThat(all.stream().filter(result -> !result.grouped()).count()).isEqualTo(rounds);
+            assertThat(all.stream().map(GroupingResult::incidentId).distinct().count()).isEqualTo(rounds);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        occurrenceCounterBuffer.flush();
+
+        List<Incident> incidents = incidentRepository.findAll();
+        assertThat(incidents).hasSize(rounds);
+        assertThat(incidents).allSatisfy(incident -> assertThat(incident.getOccurrenceCount()).isEqualTo(threads));
+        assertThat(incidentEventRepository.count()).isEqualTo((long) threads * rounds);
+    }
+
+    @Test
+    void staleGroupingTargetIsReplacedByNewIncident() {
+        GroupingResult first = groupingService.handle(event(0, T0));
+        GroupingResult later = groupingService.handle(event(0, T0.plus(Duration.ofMinutes(6))));
+        GroupingResult grouped = groupingService.handle(event(0, T0.plus(Duration.ofMinutes(7))));
+
+        assertThat(later.grouped()).isFalse();
+        assertThat(later.incidentId()).isNotEqualTo(first.incidentId());
+        assertThat(grouped.incidentId()).isEqualTo(later.incidentId());
+        assertThat(incidentRepository.findById(first.incidentId()).orElseThrow().getStatus())
+                .isEqualTo(IncidentStatus.OPEN);
+        assertThat(incidentRepository.count()).isEqualTo(2);
+    }
+
+    private static ErrorEvent event(int signature, Instant occurredAt) {
+        return new ErrorEvent(
+                "checkout",
+                occurredAt,
+                null,
+                "boom",
+                "java.lang.IllegalStateException",
+                "java.lang.IllegalStateException: boom\n\tat com.example.Checkout.step" + signature + "(Checkout.java:10)"
+        );
+    }
+}
@@ -0,0 +1,316 @@
+package com.TroubleShoot.observability.domain.incident.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.troubleshoot.observability.domain.incident.service.ErrorEvent;
+import com.troubleshoot.observability.domain.incident.service.IncidentGroupingService;
+import com.troubleshoot.observability.domain.incident.service.IngestionWal;
+import com.troubleshoot.observability.domain.incident.service.IngestionWalReplayer;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceCounterBuffer;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceRollupBuffer;
+import com.troubleshoot.observability.domain.incident.service.WalPosition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.orm.jpa.JpaSystemException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+class IngestionWalTest {
+
+    private static final long SMALL_SEGMENT_BYTES = 512;
+
+    @TempDir
+    Path directory;
+
+    private final List<IngestionWal> opened = new ArrayList<>();
+    private final List<ErrorEvent> grouped = new ArrayList<>();
+    private final OccurrenceCounterBuffer counterBuffer = mock(OccurrenceCounterBuffer.class);
+    private final OccurrenceRollupBuffer rollupBuffer = mock(OccurrenceRollupBuffer.class);
+
+    @BeforeEach
+    void flushBuffers() {
+        when(counterBuffer.tryFlush()).thenReturn(true);
+        when(rollupBuffer.tryFlush()).thenReturn(true);
+    }
+
+    @AfterEach
+    void closeAll() {
+        opened.forEach(IngestionWal::stop);
+    }
+
+    @Test
+    void replaysAcknowledgedEventsInOrderAcrossSegmentsAndDropsReplayedSegments() throws Exception {
+        IngestionWal wal = open();
+        for (int i = 0; i < 12; i++) {
+            assertThat(wal.append(List.of(event(i)))).isEqualTo(1);
+        }
+        assertThat(wal.append(List.of(event(12), event(13), event(14)))).isEqualTo(3);
+        assertThat(segmentFiles()).hasSizeGreaterThan(1);
+        assertThat(wal.backlog()).isEqualTo(15);
+
+        IngestionWalReplayer replayer = replayer(wal, recordingGroupingService());
+        while (replayer.replayOnce() > 0) {
+        }
+
+        assertThat(grouped).extracting(ErrorEvent::getTraceId).containsExactlyElementsOf(traceIds(0, 15));
+        assertThat(grouped.get(3).getOccurredAt()).isEqualTo(event(3).getOccurredAt());
+        assertThat(grouped.get(3).getMessage()).isNull();
+        assertThat(wal.backlog()).isZero();
+        // checkpoint 가 있는 segment 만 남는다
+        assertThat(segmentFiles()).hasSize(1);
+    }
+
+    @Test
+    void replayKilledMidwayResumesFromTheLastCheckpointAfterRestart() throws Exception {
+        IngestionWal wal = open();
+        wal.append(IntStream.range(0, 10).mapToObj(IngestionWalTest::event).toList());
+
+        // 두 번째 batch 는 DB 에 반영된 뒤 checkpoint 전에 프로세스가 죽는다
+        AtomicInteger calls = new AtomicInteger();
+        IncidentGroupingService crashing = mock(IncidentGroupingService.class);
+        doAnswer(invocation -> {
+            grouped.addAll(invocation.getArgument(0));
+            if (calls.incrementAndGet() == 2) {
+                throw new KilledError();
+            }
+            return List.of();
+        }).when(crashing).handleBatch(anyList());
+        IngestionWalReplayer killed = replayer(wal, crashing);
+        assertThat(killed.replayOnce()).isEqualTo(4);
+        assertThatThrownBy(killed::replayOnce).isInstanceOf(KilledError.class);
+        WalPosition lastCheckpoint = wal.checkpoint();
+        // 죽은 프로세스처럼 checkpoint 를 더 쓰지 않고 파일만 놓는다
+        wal.stop();
+        grouped.clear();
+
+        IngestionWal restarted = open();
+        assertThat(restarted.checkpoint()).isEqualTo(lastCheckpoint);
+        assertThat(restarted.backlog()).isEqualTo(6);
+        IngestionWalReplayer replayer = replayer(restarted, recordingGroupingService());
+        while (replayer.replayOnce() > 0) {
+        }
+
+        // 반영 후 checkpoint 전에 죽은 batch(4..7)는 다시 반영된다 (at-least-once), 그 앞은 다시 오지 않는다
+        assertThat(grouped).extracting(ErrorEvent::getTraceId).containsExactlyElementsOf(traceIds(4, 10));
+        assertThat(restarted.backlog()).isZero();
+    }
+
+    @Test
+    void recoveryTruncatesARecordTornByACrashDuringWrite() throws Exception {
+        IngestionWal wal = open();
+        wal.append(List.of(event(0), event(1), event(2)));
+        wal.stop();
+        Path last = segmentFiles().get(segmentFiles().size() - 1);
+        long intact = Files.size(last);
+        // length 50 이라고 적었지만 payload 가 3 byte 만 남은 레코드
+        Files.write(last, new byte[] {0, 0, 0, 50, 0, 0, 0, 0, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        IngestionWal restarted = open();
+        assertThat(Files.size(last)).isEqualTo(intact);
+        assertThat(restarted.backlog()).isEqualTo(3);
+        assertThat(restarted.append(List.of(event(3)))).isEqualTo(1);
+
+        IngestionWalReplayer replayer = replayer(restarted, recordingGroupingService());
+        while (replayer.replayOnce() > 0) {
+        }
+        assertThat(grouped).extracting(ErrorEvent::getTraceId).containsExactlyElementsOf(traceIds(0, 4));
+    }
+
+    @Test
+    void keepsTheBatchWhileTheDatabaseIsDownAndSkipsOnlyEventsGroupingRejects() throws Exception {
+        IngestionWal wal = open();
+        wal.append(IntStream.range(0, 6).mapToObj(IngestionWalTest::event).toList());
+
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        AtomicBoolean downAgainAtTrace5 = new AtomicBoolean(true);
+        IncidentGroupingService groupingService = mock(IncidentGroupingService.class);
+        doAnswer(invocation -> {
+            List<ErrorEvent> events = invocation.getArgument(0);
+            boolean trace5Alone = events.size() == 1 && events.get(0).getTraceId().equals("trace-5");
+            if (databaseDown.getAndSet(false) || (trace5Alone && downAgainAtTrace5.getAndSet(false))) {
+                throw new CannotCreateTransactionException("connection refused");
+            }
+            if (events.stream().anyMatch(event -> event.getTraceId().equals("trace-4"))) {
+                throw new IllegalArgumentException("bad event");
+            }
+            grouped.addAll(events);
+            return List.of();
+        }).when(groupingService).handleBatch(anyList());
+        IngestionWalReplayer replayer = replayer(wal, groupingService, 3);
+
+        WalPosition start = wal.checkpoint();
+        assertThatThrownBy(replayer::replayOnce).isInstanceOf(CannotCreateTransactionException.class);
+        assertThat(wal.checkpoint()).isEqualTo(start);
+        assertThat(wal.backlog()).isEqualTo(6);
+
+        assertThat(replayer.replayOnce()).isEqualTo(3);
+        assertThat(grouped).extracting(ErrorEvent::getTraceId).containsExactlyElementsOf(traceIds(0, 3));
+
+        // 거부된 batch 는 한 건씩 다시 넘긴다. 그 도중 DB 가 내려가면 checkpoint 를 잡아 둔다
+        WalPosition second = wal.checkpoint();
+        assertThatThrownBy(replayer::replayOnce).isInstanceOf(CannotCreateTransactionException.class);
+        assertThat(wal.checkpoint()).isEqualTo(second);
+
+        // 재시도는 멈춘 이벤트부터 이어가고, 거부된 trace-4 만 빠진다
+        assertThat(replayer.replayOnce()).isEqualTo(3);
+        assertThat(grouped).extracting(ErrorEvent::getTraceId)
+                .containsExactly("trace-0", "trace-1", "trace-2", "trace-3", "trace-5");
+        assertThat(wal.backlog()).isZero();
+    }
+
+    @Test
+    void retriesOnlyTransientDatabaseErrorsAndSplitsBatchesThatFailTheSameWayEveryTime() throws Exception {
+        IngestionWal wal = open();
+        wal.append(IntStream.range(0, 3).mapToObj(IngestionWalTest::event).toList());
+
+        AtomicInteger calls = new AtomicInteger();
+        IncidentGroupingService groupingService = mock(IncidentGroupingService.class);
+        doAnswer(invocation -> {
+            List<ErrorEvent> events = invocation.getArgument(0);
+            switch (calls.incrementAndGet()) {
+                case 1 -> throw new QueryTimeoutException("lock wait timeout");
+                case 2 -> throw new JpaSystemException(
+                        new RuntimeException(new SQLException("connection reset", "08006")));
+                default -> {
+                }
+            }
+            if (events.stream().anyMatch(event -> event.getTraceId().equals("trace-1"))) {
+                throw new BadSqlGrammarException("group", "insert into incident_event ...",
+                        new SQLException("column does not exist", "42703"));
+            }
+            grouped.addAll(events);
+            return List.of();
+        }).when(groupingService).handleBatch(anyList());
+        IngestionWalReplayer replayer = replayer(wal, groupingService, 3);
+
+        WalPosition start = wal.checkpoint();
+        assertThatThrownBy(replayer::replayOnce).isInstanceOf(QueryTimeoutException.class);
+        assertThatThrownBy(replayer::replayOnce).isInstanceOf(JpaSystemException.class);
+        assertThat(wal.checkpoint()).isEqualTo(start);
+
+        // 다시 해도 같은 SQL 오류는 batch 를 붙잡지 않고 한 건씩 나눠서 그 이벤트만 건너뛴다
+        assertThat(replayer.replayOnce()).isEqualTo(3);
+        assertThat(grouped).extracting(ErrorEvent::getTraceId).containsExactly("trace-0", "trace-2");
+        assertThat(wal.backlog()).isZero();
+    }
+
+    @Test
+    void replayThreadSurvivesAnErrorAndRetriesTheSameBatch() throws Exception {
+        IngestionWal wal = open();
+        wal.append(IntStream.range(0, 3).mapToObj(IngestionWalTest::event).toList());
+
+        AtomicBoolean killed = new AtomicBoolean(false);
+        IncidentGroupingService groupingService = mock(IncidentGroupingService.class);
+        doAnswer(invocation -> {
+            if (!killed.getAndSet(true)) {
+                throw new KilledError();
+            }
+            synchronized (grouped) {
+                grouped.addAll(invocation.getArgument(0));
+            }
+            return List.of();
+        }).when(groupingService).handleBatch(anyList());
+        IngestionWalReplayer replayer = replayer(wal, groupingService);
+
+        replayer.start();
+        try {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (wal.backlog() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            replayer.stop();
+        }
+
+        assertThat(wal.backlog()).isZero();
+        synchronized (grouped) {
+            assertThat(grouped).extracting(ErrorEvent::getTraceId).containsExactlyElementsOf(traceIds(0, 3));
+        }
+    }
+
+    @Test
+    void holdsTheCheckpointUntilBufferedOccurrencesAreFlushedWithoutRegrouping() throws Exception {
+        IngestionWal wal = open();
+        wal.append(List.of(event(0), event(1)));
+        when(rollupBuffer.tryFlush()).thenReturn(false, true);
+        IngestionWalReplayer replayer = replayer(wal, recordingGroupingService());
+
+        WalPosition start = wal.checkpoint();
+        assertThatThrownBy(replayer::replayOnce).isInstanceOf(IllegalStateException.class);
+        assertThat(wal.checkpoint()).isEqualTo(start);
+        assertThat(wal.backlog()).isEqualTo(2);
+
+        // 다음 시도는 flush 만 다시 하고 checkpoint 를 옮긴다 (이미 grouping 된 batch 를 또 세지 않는다)
+        assertThat(replayer.replayOnce()).isEqualTo(2);
+        assertThat(grouped).extracting(ErrorEvent::getTraceId).containsExactly("trace-0", "trace-1");
+        assertThat(wal.backlog()).isZero();
+    }
+
+    private IngestionWal open() {
+        IngestionWal wal = new IngestionWal(new SimpleMeterRegistry(), true, directory, SMALL_SEGMENT_BYTES,
+                100, 50, Duration.ofSeconds(5));
+        wal.start();
+        opened.add(wal);
+        return wal;
+    }
+
+    private IngestionWalReplayer replayer(IngestionWal wal, IncidentGroupingService groupingService) {
+        return replayer(wal, groupingService, 4);
+    }
+
+    private IngestionWalReplayer replayer(IngestionWal wal, IncidentGroupingService groupingService, int batchSize) {
+        return new IngestionWalReplayer(groupingService, wal, counterBuffer, rollupBuffer, new SimpleMeterRegistry(), batchSize,
+                Duration.ofMillis(10), Duration.ofMillis(100));
+    }
+
+    private IncidentGroupingService recordingGroupingService() {
+        IncidentGroupingService groupingService = mock(IncidentGroupingService.class);
+        doAnswer(invocation -> {
+            grouped.addAll(invocation.getArgument(0));
+            return List.of();
+        }).when(groupingService).handleBatch(anyList());
+        return groupingService;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("wal-")).sorted().toList();
+        }
+    }
+
+    private static List<String> traceIds(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> "trace-" + i).toList();
+    }
+
+    private static ErrorEvent event(int i) {
+        return new ErrorEvent("billing", Instant.parse("2026-10-18T00:00:00.123456789Z").plusSeconds(i), "trace-" + i,
+                i % 2 == 0 ? "boom " + i : null, "java.lang.IllegalStateException",
+                "java.lang.IllegalStateException: boom\n\tat com.example.Billing.charge(Billing.java:" + i + ")");
+    }
+
+    private static final class KilledError extends Error {
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,131 @@
+package com.TroubleShoot.observability.domain.incident.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.troubleshoot.observability.domain.incident.service.OccurrenceCounterBuffer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class OccurrenceCounterBufferTest {
+
+    private static final Instant T0 = Instant.parse("2026-02-25T10:00:00Z");
+
+    private JdbcTemplate jdbcTemplate;
+    private OccurrenceCounterBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:counters;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                create table incident (
+                    id bigint primary key,
+                    occurrence_count integer not null,
+                    last_seen_at timestamp(6) with time zone,
+                    updated_at timestamp(6) with time zone not null
+                )
+                """);
+        jdbcTemplate.update("insert into incident values (1, 1, ?, ?)", Timestamp.from(T0), Timestamp.from(T0));
+        jdbcTemplate.update("insert into incident values (2, 1, ?, ?)", Timestamp.from(T0), Timestamp.from(T0));
+        buffer = new OccurrenceCounterBuffer(jdbcTemplate, new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table incident");
+    }
+
+    @Test
+    void pendingDeltasAreVisibleUntilFlushed() {
+        buffer.record(1L, 3, T0.plusSeconds(30));
+        buffer.record(1L, 2, T0.plusSeconds(10));
+
+        OccurrenceCounterBuffer.PendingOccurrences pending = buffer.pendingFor(1L);
+        assertThat(pending.count()).isEqualTo(5);
+        assertThat(pending.mergeCount(1)).isEqualTo(6);
+        assertThat(pending.mergeLastSeenAt(T0)).isEqualTo(T0.plusSeconds(30));
+        assertThat(occurrenceCount(1L)).isEqualTo(1);
+
+        buffer.flush();
+
+        assertThat(occurrenceCount(1L)).isEqualTo(6);
+        assertThat(lastSeenAt(1L)).isEqualTo(T0.plusSeconds(30));
+        assertThat(buffer.pendingFor(1L).count()).isZero();
+    }
+
+    @Test
+    void flushNeverMovesLastSeenAtBackwards() {
+        jdbcTemplate.update("update incident set last_seen_at = ? where id = 2", Timestamp.from(T0.plusSeconds(60)));
+
+        buffer.record(2L, 1, T0.plusSeconds(5));
+        buffer.flush();
+
+        assertThat(occurrenceCount(2L)).isEqualTo(2);
+        assertThat(lastSeenAt(2L)).isEqualTo(T0.plusSeconds(60));
+    }
+
+    @Test
+    void concurrentRecordsAndFlushesAreCountedExactlyOnce() throws Exception {
+        int writers = 8;
+        int perWriter = 5_000;
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                long incidentId = (w % 2) + 1L;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        buffer.record(incidentId, 1, T0.plusMillis(i));
+                    }
+                    return null;
+                }));
+            }
+            Future<?> flusher = pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 50; i++) {
+                    buffer.flush();
+                }
+                return null;
+            });
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            flusher.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        buffer.flush();
+
+        long expectedPerIncident = (long) writers / 2 * perWriter + 1;
+        assertThat(occurrenceCount(1L)).isEqualTo(expectedPerIncident);
+        assertThat(occurrenceCount(2L)).isEqualTo(expectedPerIncident);
+        assertThat(lastSeenAt(1L)).isEqualTo(T0.plusMillis(perWriter - 1));
+    }
+
+    private long occurrenceCount(long id) {
+        return jdbcTemplate.queryForObject("select occurrence_count from incident where id = ?", Long.class, id);
+    }
+
+    private Instant lastSeenAt(long id) {
+        return jdbcTemplate.queryForObject("select last_seen_at from incident where id = ?", Timestamp.class, id)
+                .toInstant();
+    }
+}
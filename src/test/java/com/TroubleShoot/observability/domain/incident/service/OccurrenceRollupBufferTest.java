@@ -0,0 +1,104 @@
+package com.TroubleShoot.observability.domain.incident.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.troubleshoot.observability.domain.incident.persistence.OccurrenceRollupIncrement;
+import com.troubleshoot.observability.domain.incident.persistence.OccurrenceRollupRepository;
+import com.troubleshoot.observability.domain.incident.persistence.RollupGranularity;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceRollupBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class OccurrenceRollupBufferTest {
+
+    private static final Instant T0 = Instant.parse("2026-02-25T10:00:00Z");
+
+    private final OccurrenceRollupRepository rollupRepository = mock(OccurrenceRollupRepository.class);
+    private final List<List<OccurrenceRollupIncrement>> flushed = new ArrayList<>();
+    private OccurrenceRollupBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> flushed.add(List.copyOf(invocation.getArgument(0))))
+                .when(rollupRepository).incrementAll(anyList());
+        buffer = new OccurrenceRollupBuffer(rollupRepository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void mergesTalliesPerMinuteAndRollsThemUpOnFlush() {
+        OccurrenceRollupBuffer.Tally first = buffer.newTally();
+        first.add(1L, "svc", T0.plusSeconds(5));
+        first.add(1L, "svc", T0.plusSeconds(50));
+        first.add(1L, "svc", T0.plusSeconds(70));
+        buffer.record(first);
+        OccurrenceRollupBuffer.Tally second = buffer.newTally();
+        second.add(1L, "svc", T0.plusSeconds(30));
+        second.add(2L, "other", T0);
+        buffer.record(second);
+
+        assertThat(buffer.tryFlush()).isTrue();
+
+        // 분 bucket 은 그대로, 시/일 bucket 은 같은 incident 의 분들을 합친 한 행. (incident, granularity, bucket) 순
+        assertThat(flushed).hasSize(1);
+        assertThat(flushed.get(0)).containsExactly(
+                increment(1L, "svc", RollupGranularity.MINUTE, T0, 3),
+                increment(1L, "svc", RollupGranularity.MINUTE, T0.plusSeconds(60), 1),
+                increment(1L, "svc", RollupGranularity.HOUR, T0, 4),
+                increment(1L, "svc", RollupGranularity.DAY, Instant.parse("2026-02-25T00:00:00Z"), 4),
+                increment(2L, "other", RollupGranularity.MINUTE, T0, 1),
+                increment(2L, "other", RollupGranularity.HOUR, T0, 1),
+                increment(2L, "other", RollupGranularity.DAY, Instant.parse("2026-02-25T00:00:00Z"), 1));
+
+        // 반영된 건수는 버퍼에서 빠진다
+        assertThat(buffer.tryFlush()).isTrue();
+        assertThat(flushed).hasSize(1);
+    }
+
+    @Test
+    void failedFlushKeepsCountsForTheNextFlush() {
+        OccurrenceRollupBuffer.Tally tally = buffer.newTally();
+        tally.add(1L, "svc", T0);
+        tally.add(1L, "svc", T0);
+        buffer.record(tally);
+        doThrow(new QueryTimeoutException("rollup flush timed out"))
+                .doAnswer(invocation -> flushed.add(List.copyOf(invocation.getArgument(0))))
+                .when(rollupRepository).incrementAll(anyList());
+
+        assertThat(buffer.tryFlush()).isFalse();
+
+        // 실패분은 그 사이 들어온 건수와 합쳐져서 다음 flush 에 한 번에 반영된다
+        OccurrenceRollupBuffer.Tally later = buffer.newTally();
+        later.add(1L, "svc", T0.plusSeconds(10));
+        buffer.record(later);
+        assertThat(buffer.tryFlush()).isTrue();
+
+        assertThat(flushed).hasSize(1);
+        assertThat(flushed.get(0)).contains(
+                increment(1L, "svc", RollupGranularity.MINUTE, T0, 3),
+                increment(1L, "svc", RollupGranularity.HOUR, T0, 3));
+    }
+
+    @Test
+    void emptyBufferDoesNotTouchTheDatabase() {
+        buffer.record(buffer.newTally());
+
+        assertThat(buffer.tryFlush()).isTrue();
+        verify(rollupRepository, never()).incrementAll(anyList());
+    }
+
+    private static OccurrenceRollupIncrement increment(long incidentId, String serviceName,
+                                                       RollupGranularity granularity, Instant bucketStart, long count) {
+        return new OccurrenceRollupIncrement(incidentId, serviceName, granularity, bucketStart, count);
+    }
+}
@@ -0,0 +1,95 @@
+package com.TroubleShoot.observability.domain.incident.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.troubleshoot.observability.ObservabilityApplication;
+import com.troubleshoot.observability.domain.incident.persistence.OccurrenceRollupRepository;
+import com.troubleshoot.observability.domain.incident.persistence.RollupGranularity;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceRollupRetention;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(classes = ObservabilityApplication.class)
+class OccurrenceRollupRetentionTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:30:00Z");
+
+    @Autowired
+    private OccurrenceRollupRepository rollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM incident_occurrence_rollup");
+    }
+
+    @Test
+    void prunesExpiredBucketsPerGranularityInChunks() {
+        for (int i = 0; i < 5; i++) {
+            rollup(1L, RollupGranularity.MINUTE, NOW.minus(Duration.ofDays(8)).plusSeconds(60L * i));
+        }
+        rollup(1L, RollupGranularity.MINUTE, NOW.minus(Duration.ofHours(1)));
+        // 분 ttl 은 지났지만 시 ttl 안
+        rollup(1L, RollupGranularity.HOUR, NOW.minus(Duration.ofDays(8)));
+        rollup(1L, RollupGranularity.HOUR, NOW.minus(Duration.ofDays(100)));
+        // ttl 이 없는 단위는 남는다
+        rollup(1L, RollupGranularity.DAY, NOW.minus(Duration.ofDays(1000)));
+
+        long deleted = retention(2, 100).prune();
+
+        assertThat(deleted).isEqualTo(6);
+        assertThat(remaining()).containsExactlyInAnyOrder(
+                "MINUTE " + NOW.minus(Duration.ofHours(1)).truncatedTo(ChronoUnit.MINUTES),
+                "HOUR " + NOW.minus(Duration.ofDays(8)).truncatedTo(ChronoUnit.HOURS),
+                "DAY " + NOW.minus(Duration.ofDays(1000)).truncatedTo(ChronoUnit.DAYS));
+        assertThat(meterRegistry.get("rollups.pruned.rows").tag("granularity", "MINUTE").counter().count())
+                .isEqualTo(5);
+    }
+
+    @Test
+    void leavesTheRestForTheNextRunWhenTheRunBudgetIsSpent() {
+        for (int i = 0; i < 5; i++) {
+            rollup(1L, RollupGranularity.MINUTE, NOW.minus(Duration.ofDays(8)).plusSeconds(60L * i));
+        }
+        OccurrenceRollupRetention retention = retention(2, 3);
+
+        assertThat(retention.prune()).isEqualTo(3);
+        assertThat(retention.prune()).isEqualTo(2);
+        assertThat(remaining()).isEmpty();
+    }
+
+    private OccurrenceRollupRetention retention(int chunkSize, long maxRowsPerRun) {
+        return new OccurrenceRollupRetention(rollupRepository, meterRegistry,
+                Map.of(RollupGranularity.MINUTE, Duration.ofDays(7), RollupGranularity.HOUR, Duration.ofDays(90)),
+                chunkSize, maxRowsPerRun, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private void rollup(long incidentId, RollupGranularity granularity, Instant at) {
+        jdbcTemplate.update("""
+                        INSERT INTO incident_occurrence_rollup (incident_id, granularity, bucket_start, service_name, occurrence_count)
+                        VALUES (?, ?, ?, 'svc', 1)
+                        """,
+                incidentId, granularity.name(), Timestamp.from(granularity.bucketStart(at)));
+    }
+
+    private List<String> remaining() {
+        return jdbcTemplate.query("SELECT granularity, bucket_start FROM incident_occurrence_rollup",
+                (rs, rowNum) -> rs.getString("granularity") + " " + rs.getTimestamp("bucket_start").toInstant());
+    }
+}
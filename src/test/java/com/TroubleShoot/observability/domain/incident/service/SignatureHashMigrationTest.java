@@ -0,0 +1,118 @@
+package com.TroubleShoot.observability.domain.incident.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.troubleshoot.observability.ObservabilityApplication;
+import com.troubleshoot.observability.domain.incident.Incident;
+import com.troubleshoot.observability.domain.incident.grouping.ExceptionSignatureFactory;
+import com.troubleshoot.observability.domain.incident.grouping.OpenIncidentIndex;
+import com.troubleshoot.observability.domain.incident.grouping.SignatureHashAlgorithm;
+import com.troubleshoot.observability.domain.incident.infra.IncidentRepository;
+import com.troubleshoot.observability.domain.incident.persistence.IncidentEventRepository;
+import com.troubleshoot.observability.domain.incident.service.AnalysisTriggerEngine;
+import com.troubleshoot.observability.domain.incident.service.ErrorEvent;
+import com.troubleshoot.observability.domain.incident.service.GroupingResult;
+import com.troubleshoot.observability.domain.incident.service.IncidentEventSampler;
+import com.troubleshoot.observability.domain.incident.service.IncidentGroupingService;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceCounterBuffer;
+import com.troubleshoot.observability.domain.incident.service.OccurrenceRollupBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// sha256 -> murmur3 전환: 예전 hash 로 열려 있는 incident 는 쪼개지지 않고 계속 grouping 된다
+@SpringBootTest(classes = ObservabilityApplication.class)
+class SignatureHashMigrationTest {
+
+    private static final Instant T0 = Instant.parse("2026-02-25T10:00:00Z");
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @Autowired
+    private IncidentEventRepository incidentEventRepository;
+
+    @Autowired
+    private OccurrenceCounterBuffer occurrenceCounterBuffer;
+
+    @Autowired
+    private IncidentEventSampler incidentEventSampler;
+
+    @Autowired
+    private OccurrenceRollupBuffer occurrenceRollupBuffer;
+
+    @Autowired
+    private AnalysisTriggerEngine analysisTriggerEngine;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    @AfterEach
+    void resetData() {
+        incidentEventRepository.deleteAll();
+        incidentRepository.deleteAll();
+    }
+
+    @Test
+    void switchingAlgorithmKeepsGroupingIntoIncidentOpenedWithPreviousHash() {
+        GroupingResult before = handle(service(SignatureHashAlgorithm.SHA_256, null), T0);
+        Incident legacy = incidentRepository.findById(before.incidentId()).orElseThrow();
+        assertThat(legacy.getSignatureHash()).hasSize(64);
+
+        // 재시작 직후처럼 인덱스가 비어 있어도 DB 에서 예전 hash 의 incident 를 찾는다
+        IncidentGroupingService migrating = service(SignatureHashAlgorithm.MURMUR3_128, SignatureHashAlgorithm.SHA_256);
+        GroupingResult afterSwitch = handle(migrating, T0.plus(Duration.ofMinutes(1)));
+        GroupingResult indexed = handle(migrating, T0.plus(Duration.ofMinutes(2)));
+
+        assertThat(afterSwitch.incidentId()).isEqualTo(before.incidentId());
+        assertThat(afterSwitch.grouped()).isTrue();
+        assertThat(indexed.incidentId()).isEqualTo(before.incidentId());
+
+        occurrenceCounterBuffer.flush();
+        assertThat(incidentRepository.count()).isEqualTo(1);
+        assertThat(incidentRepository.findById(before.incidentId()).orElseThrow().getOccurrenceCount()).isEqualTo(3);
+    }
+
+    @Test
+    void newIncidentsAfterSwitchStoreTheNewAlgorithmPrefix() {
+        IncidentGroupingService migrating = service(SignatureHashAlgorithm.MURMUR3_128, SignatureHashAlgorithm.SHA_256);
+
+        GroupingResult created = handle(migrating, T0);
+        GroupingResult grouped = handle(migrating, T0.plus(Duration.ofMinutes(1)));
+
+        assertThat(grouped.incidentId()).isEqualTo(created.incidentId());
+        String signatureHash = incidentRepository.findById(created.incidentId()).orElseThrow().getSignatureHash();
+        assertThat(signatureHash).startsWith("m3:").hasSize(35);
+        assertThat(SignatureHashAlgorithm.of(signatureHash)).isEqualTo(SignatureHashAlgorithm.MURMUR3_128);
+    }
+
+    private IncidentGroupingService service(SignatureHashAlgorithm algorithm, SignatureHashAlgorithm compat) {
+        return new IncidentGroupingService(
+                incidentRepository,
+                incidentEventRepository,
+                new OpenIncidentIndex(incidentRepository),
+                occurrenceCounterBuffer,
+                new ExceptionSignatureFactory(algorithm, compat),
+                incidentEventSampler,
+                occurrenceRollupBuffer,
+                analysisTriggerEngine);
+    }
+
+    private GroupingResult handle(IncidentGroupingService service, Instant occurredAt) {
+        return new TransactionTemplate(transactionManager).execute(status -> service.handle(new ErrorEvent(
+                "checkout",
+                occurredAt,
+                null,
+                "boom",
+                "java.lang.IllegalStateException",
+                "java.lang.IllegalStateException: boom\n\tat com.example.Checkout.pay(Checkout.java:10)"
+        )));
+    }
+}